@@ -2,6 +2,8 @@ package fr.cnrs.lacito.liftgui.core;
 
 import fr.cnrs.lacito.liftapi.LiftDictionary;
 import fr.cnrs.lacito.liftapi.LiftDocumentLoadingException;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.TextArena;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -19,6 +21,9 @@ public final class DictionaryService {
 
     private static final Logger LOGGER = Logger.getLogger(DictionaryService.class.getName());
 
+    /** Propriete systeme activant le stockage hors tas des textes (tres gros dictionnaires). */
+    public static final String OFF_HEAP_TEXTS_PROPERTY = "liftgui.offHeapTexts";
+
     /**
      * Charge un dictionnaire LIFT a partir d'un fichier {@code .lift} via {@code lift-api}.
      *
@@ -52,7 +57,13 @@ public final class DictionaryService {
         }
 
         try {
-            return LiftDictionary.loadDictionaryWithFile(file);
+            LiftDictionary dictionary = LiftDictionary.loadDictionaryWithFile(file);
+            if (Boolean.getBoolean(OFF_HEAP_TEXTS_PROPERTY) && dictionary.getLiftDictionaryComponents() instanceof LiftFactory factory) {
+                TextArena arena = new TextArena();
+                int moved = factory.moveTextsOffHeap(arena);
+                LOGGER.info(moved + " formes stockees hors tas (" + arena.getUsedBytes() + " octets)");
+            }
+            return dictionary;
         } catch (LiftDocumentLoadingException e) {
             LOGGER.log(Level.SEVERE, "Impossible de charger le fichier LIFT: " + file.getAbsolutePath(), e);
             throw new LiftOpenException("Impossible de charger le fichier LIFT: " + describeThrowable(e), e);
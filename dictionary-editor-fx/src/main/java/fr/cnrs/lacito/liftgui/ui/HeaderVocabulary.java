@@ -0,0 +1,207 @@
+package fr.cnrs.lacito.liftgui.ui;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import fr.cnrs.lacito.liftapi.LiftDictionary;
+import fr.cnrs.lacito.liftapi.LiftDictionaryCompoments;
+import fr.cnrs.lacito.liftapi.model.FieldDefinitionKind;
+import fr.cnrs.lacito.liftapi.model.FieldDefinitionTarget;
+import fr.cnrs.lacito.liftapi.model.GrammaticalInfo;
+import fr.cnrs.lacito.liftapi.model.LiftAnnotation;
+import fr.cnrs.lacito.liftapi.model.LiftField;
+import fr.cnrs.lacito.liftapi.model.LiftFieldAndTraitDefinition;
+import fr.cnrs.lacito.liftapi.model.LiftHeader;
+import fr.cnrs.lacito.liftapi.model.LiftHeaderRange;
+import fr.cnrs.lacito.liftapi.model.LiftHeaderRangeElement;
+import fr.cnrs.lacito.liftapi.model.LiftTrait;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.ModelChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Valeurs proposées par les listes déroulantes des éditeurs (éléments des plages de l'en-tête, noms de traits
+ * et de champs par cible, valeurs de traits, noms d'annotations, codes grammaticaux), calculées une fois et
+ * partagées par les éditeurs sous forme de listes triées non modifiables.
+ *
+ * Les valeurs tirées de l'en-tête sont écartées à chaque {@link ModelChange.HeaderChanged} ; celles tirées
+ * des données le sont par les événements qui peuvent les changer (traits, sens, entrées). Les noms
+ * d'annotations et de champs, sans événement, sont recalculés quand le nombre d'objets change.
+ */
+final class HeaderVocabulary implements ModelChangeListener {
+
+    /** Plages de l'en-tête qui ne décrivent pas des traits. */
+    private static final Set<String> STANDARD_RANGES = Set.of("note-type", "translation-type", "grammatical-info");
+
+    private final LiftDictionary dictionary;
+    private final Map<String, ObservableList<String>> rangeValues = new HashMap<>();
+    /** Par cible ; la clé null donne les noms de toutes les cibles. */
+    private final Map<FieldDefinitionTarget, ObservableList<String>> traitNames = new HashMap<>();
+    private final Map<FieldDefinitionTarget, ObservableList<String>> fieldTypes = new HashMap<>();
+    private Map<String, Set<String>> traitValues;
+    private ObservableList<String> annotationNames;
+    private ObservableList<String> gramCodes;
+    private int annotationCount = -1;
+    private int fieldCount = -1;
+
+    HeaderVocabulary(LiftDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public synchronized void onChanges(List<ModelChange> changes) {
+        for (ModelChange c : changes) {
+            switch (c) {
+                case ModelChange.HeaderChanged h -> {
+                    rangeValues.clear();
+                    fieldTypes.clear();
+                    clearTraits();
+                }
+                case ModelChange.TraitAdded t -> clearTraits();
+                case ModelChange.TraitRemoved t -> clearTraits();
+                case ModelChange.TraitValueChanged t -> clearTraits();
+                case ModelChange.FieldRenamed f -> fieldTypes.clear();
+                case ModelChange.GramInfoChanged g -> gramCodes = null;
+                case ModelChange.SenseAdded a -> gramCodes = null;
+                case ModelChange.SenseRemoved r -> gramCodes = null;
+                case ModelChange.EntryAdded e -> { clearTraits(); gramCodes = null; }
+                case ModelChange.EntryRemoved e -> { clearTraits(); gramCodes = null; }
+                default -> {}
+            }
+        }
+    }
+
+    private void clearTraits() {
+        traitNames.clear();
+        traitValues = null;
+    }
+
+    /** @return les identifiants des éléments de la plage, triés */
+    synchronized ObservableList<String> rangeValues(String rangeId) {
+        return rangeValues.computeIfAbsent(rangeId, id -> {
+            LiftHeader h = header();
+            if (h == null) return sorted(List.of());
+            return sorted(h.getRanges().stream().filter(r -> id.equals(r.getId())).findFirst()
+                .map(r -> r.getRangeElements().stream().map(LiftHeaderRangeElement::getId).toList())
+                .orElse(List.of()));
+        });
+    }
+
+    /**
+     * Noms de traits permis pour la cible (tous si null) : définitions de l'en-tête sans restriction de
+     * classe ou incluant la cible, à défaut les plages de l'en-tête, à défaut les noms des traits des données.
+     */
+    synchronized ObservableList<String> traitNames(FieldDefinitionTarget target) {
+        ObservableList<String> names = traitNames.get(target);
+        if (names == null) {
+            LiftHeader h = header();
+            if (h != null && !h.getFields().isEmpty()) {
+                names = definitions(h, FieldDefinitionKind.TRAIT, target);
+            } else if (h != null) {
+                names = sorted(h.getRanges().stream().map(LiftHeaderRange::getId)
+                    .filter(id -> !STANDARD_RANGES.contains(id)).toList());
+            } else {
+                names = sorted(dictionary.getTraitName());
+            }
+            traitNames.put(target, names);
+        }
+        return names;
+    }
+
+    /** @return les valeurs connues de chaque trait, triées : plages de l'en-tête, à défaut valeurs des données */
+    synchronized Map<String, Set<String>> traitValues() {
+        if (traitValues == null) {
+            Map<String, Set<String>> result = new HashMap<>();
+            LiftHeader h = header();
+            if (h != null) {
+                for (LiftHeaderRange r : h.getRanges()) {
+                    if (STANDARD_RANGES.contains(r.getId())) continue;
+                    result.put(r.getId(), r.getRangeElements().stream().map(LiftHeaderRangeElement::getId)
+                        .collect(TreeSet::new, TreeSet::add, TreeSet::addAll));
+                }
+            }
+            if (result.isEmpty()) {
+                for (LiftTrait t : components().getAllTraits()) {
+                    result.computeIfAbsent(t.getName(), k -> new TreeSet<>()).add(t.getValue());
+                }
+            }
+            result.replaceAll((k, v) -> Collections.unmodifiableSortedSet((SortedSet<String>) v));
+            traitValues = Collections.unmodifiableMap(result);
+        }
+        return traitValues;
+    }
+
+    /** Noms de champs (et non de traits) permis pour la cible (tous si null), à défaut ceux des données. */
+    synchronized ObservableList<String> fieldTypes(FieldDefinitionTarget target) {
+        LiftHeader h = header();
+        boolean fromHeader = h != null && !h.getFields().isEmpty();
+        if (!fromHeader) {
+            int n = components().getAllFields().size();
+            if (n != fieldCount) {
+                fieldTypes.clear();
+                fieldCount = n;
+            }
+        }
+        return fieldTypes.computeIfAbsent(target, t -> fromHeader
+            ? definitions(h, FieldDefinitionKind.FIELD, t)
+            : distinctSorted(components().getAllFields(), LiftField::getName));
+    }
+
+    synchronized ObservableList<String> annotationNames() {
+        int n = components().getAllAnnotations().size();
+        if (annotationNames == null || n != annotationCount) {
+            annotationNames = distinctSorted(components().getAllAnnotations(), LiftAnnotation::getName);
+            annotationCount = n;
+        }
+        return annotationNames;
+    }
+
+    /** @return les codes grammaticaux employés par les sens */
+    synchronized ObservableList<String> gramCodes() {
+        if (gramCodes == null) {
+            gramCodes = distinctSorted(components().getAllSenses(),
+                s -> s.getGrammaticalInfo().map(GrammaticalInfo::getValue).orElse(null));
+        }
+        return gramCodes;
+    }
+
+    private static ObservableList<String> definitions(LiftHeader h, FieldDefinitionKind kind, FieldDefinitionTarget target) {
+        Predicate<LiftFieldAndTraitDefinition> allowed = fd -> target == null || fd.getTargets().isEmpty() || fd.getTargets().contains(target);
+        return sorted(h.getFields().stream()
+            .filter(fd -> fd.getKind() == kind || fd.getKind() == FieldDefinitionKind.UNKNOWN)
+            .filter(allowed)
+            .map(LiftFieldAndTraitDefinition::getName).toList());
+    }
+
+    private static <T> ObservableList<String> distinctSorted(List<T> objects, Function<T, String> name) {
+        Set<String> names = new TreeSet<>();
+        for (T o : objects) {
+            String s = name.apply(o);
+            if (s != null) names.add(s);
+        }
+        return FXCollections.unmodifiableObservableList(FXCollections.observableArrayList(names));
+    }
+
+    private static ObservableList<String> sorted(Collection<String> values) {
+        return FXCollections.unmodifiableObservableList(FXCollections.observableArrayList(
+            values.stream().filter(Objects::nonNull).sorted().toList()));
+    }
+
+    private LiftDictionaryCompoments components() {
+        return dictionary.getLiftDictionaryComponents();
+    }
+
+    private LiftHeader header() {
+        return components().getHeader();
+    }
+}
@@ -14,7 +14,23 @@ import fr.cnrs.lacito.liftgui.core.LiftOpenException;
 import fr.cnrs.lacito.liftgui.ui.controls.*;
 import fr.cnrs.lacito.liftgui.undo.*;
 import fr.cnrs.lacito.liftapi.LiftDictionary;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery;
+import fr.cnrs.lacito.liftapi.index.DuplicateDetector;
+import fr.cnrs.lacito.liftapi.index.FacetIndex;
+import fr.cnrs.lacito.liftapi.index.FindReplace;
+import fr.cnrs.lacito.liftapi.index.FuzzyHeadwordIndex;
+import fr.cnrs.lacito.liftapi.index.IndexSidecar;
+import fr.cnrs.lacito.liftapi.index.QueryPlanner;
+import fr.cnrs.lacito.liftapi.index.QueryResult;
+import fr.cnrs.lacito.liftapi.index.RegexSearch;
+import fr.cnrs.lacito.liftapi.index.ReferenceIndex;
+import fr.cnrs.lacito.liftapi.index.TextIndex;
+import fr.cnrs.lacito.liftapi.index.TextRole;
+import fr.cnrs.lacito.liftapi.model.Collation;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
 import fr.cnrs.lacito.liftapi.model.*;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -26,6 +42,7 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.*;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
@@ -38,6 +55,7 @@ import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.control.TextInputDialog;
 import javafx.util.Pair;
+import javafx.animation.PauseTransition;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -45,11 +63,14 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Main controller implementing specifications 5.7.2 through 5.12.
@@ -65,6 +86,19 @@ public final class MainController {
     private static final int MAX_RECENT_FILES = 5;
     private static final String PREF_RECENT_PREFIX = "recent.file.";
     private static final Preferences PREFS = Preferences.userNodeForPackage(MainController.class);
+    private static final String PREF_SEARCH_STRIP_DIACRITICS = "search.stripDiacritics";
+    private static final String PREF_SEARCH_EQUIVALENCES = "search.equivalences";
+    /** Normalisation des textes pour la recherche (casse, diacritiques, équivalences par langue). */
+    private static final TextFolding SEARCH_FOLDING = new TextFolding();
+    /** Ordre de tri par langue, lu dans l'en-tête du dictionnaire (plage « collation »). */
+    private static final Collation COLLATION = new Collation();
+    /** Clé des propriétés d'une colonne : fonction donnant la clé de tri binaire d'une ligne. */
+    private static final String SORT_KEY = "sortKey";
+    private static final byte[] NO_SORT_KEY = new byte[0];
+    /** Préfixe de requête pour la recherche approchée sur les vedettes (ex. « ~maison »). */
+    private static final String FUZZY_PREFIX = "~";
+    /** Préfixe de la recherche par expression régulière : « /motif/ » suivi éventuellement de rôles et de langues. */
+    private static final String REGEX_PREFIX = "/";
     private void saveRecentFile(File f) {
         // Décale les fichiers récents et ajoute le nouveau en premier
         List<String> recents = loadRecentFiles();
@@ -130,6 +164,7 @@ public final class MainController {
     private static final String NAV_RELATION_TYPES = "nav.relationTypes";
     private static final String NAV_FIELD_TYPES    = "nav.fieldTypes";
     private static final String NAV_QUICK_ENTRY  = "nav.quickEntry";
+    private static final String NAV_DUPLICATES   = "nav.duplicates";
 
     /* ─── Header configuration nav keys ─── */
     private static final String NAV_CFG_DESC        = "nav.cfgDesc";
@@ -145,6 +180,33 @@ public final class MainController {
     /* ─── State ─── */
     private final DictionaryService dictionaryService = new DictionaryService();
     private LiftDictionary currentDictionary;
+    private ReferenceIndex referenceIndex;
+    /**
+     * Instantanés du dictionnaire pour les tâches d'arrière-plan (index, recherches, doublons) :
+     * pris sur le fil de l'interface, ils sont ensuite lus sans toucher au modèle en cours d'édition.
+     */
+    private SnapshotManager snapshotManager;
+    /** Index des valeurs des plages (types de notes, codes grammaticaux, traits, champs) vers leurs usages. */
+    private VocabularyRefactoring vocabularyRefactoring;
+    private TextIndex textIndex;
+    /** Incrémenté à chaque (re)construction de l'index plein texte, pour ignorer les constructions dépassées. */
+    private long textIndexGeneration;
+    /** Écritures du fichier d'index voisin du dictionnaire, hors du fil de l'interface et une à la fois. */
+    private final java.util.concurrent.ExecutorService sidecarWriter = java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "index-sidecar");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Incrémenté avant chaque sauvegarde : un fichier d'index en cours d'écriture pour le fichier précédent est abandonné. */
+    private final AtomicLong sidecarGeneration = new AtomicLong();
+    /** Fichier sauvegardé pendant la construction de l'index plein texte, avec la révision du modèle et la sauvegarde. */
+    private record PendingSidecar(File source, long revision, long generation) {}
+    private PendingSidecar pendingSidecar;
+    /** Recherche par expression régulière en cours, sa requête et les entrées trouvées jusqu'ici. */
+    private RegexSearch.Query regexQuery;
+    private String regexQueryText;
+    private String regexError;
+    private final Set<LiftEntry> regexHits = Collections.newSetFromMap(new IdentityHashMap<>());
     private String currentView = NAV_ENTRIES;
     private boolean ignoreNavSelectionEvents = false;
 
@@ -254,10 +316,12 @@ public final class MainController {
 
     @FXML
     private void initialize() {
+        applySearchFoldingPrefs();
         buildNavTree();
         setupEntryTable();
         setupGenericTables();
-        searchField.textProperty().addListener((obs, o, n) -> applyCurrentFilter());
+        entryFilterDebounce.setOnFinished(e -> scheduleEntryFilter());
+        searchField.textProperty().addListener((obs, o, n) -> entryFilterDebounce.playFromStart());
       //  setDictionary(loadDemoDictionary());
         // Recharge le dernier fichier ouvert, sinon charge le démo
         List<String> recents = loadRecentFiles();
@@ -343,7 +407,8 @@ public final class MainController {
             navItem(NAV_ENTRIES), navItem(NAV_SENSES),
             navItem(NAV_EXAMPLES), navItem(NAV_NOTES),
             navItem(NAV_VARIANTS), navItem(NAV_ETYMOLOGIES),
-            navItem(NAV_RELATIONS), navItem(NAV_FIELDS)
+            navItem(NAV_RELATIONS), navItem(NAV_FIELDS),
+            navItem(NAV_DUPLICATES)
         );
 
         TreeItem<String> langs = new TreeItem<>(I18n.get("nav.languages"));
@@ -470,7 +535,10 @@ public final class MainController {
             }
             keepSenseSubsetOnNextSenseView = false;
         }
+        // Abandonne la production des lignes d'une vue des champs par langue
+        langFieldGeneration.incrementAndGet();
         currentView = viewName;
+        loadCollation();
         ensureRightPanelVisible();
         String title = viewName.startsWith(NAV_CFG_RANGE_PREFIX)
             ? viewName.substring(NAV_CFG_RANGE_PREFIX.length())
@@ -510,6 +578,7 @@ public final class MainController {
             case NAV_RELATION_TYPES -> showRelationTypesView();
             case NAV_FIELD_TYPES   -> showFieldTypesView();
             case NAV_QUICK_ENTRY  -> showQuickEntryView();
+            case NAV_DUPLICATES   -> showDuplicatesView();
             case NAV_CFG_DESC        -> { showHeaderDescView(); setRightPanelVisible(false); }
             case NAV_CFG_FIELD_DEFS  -> showHeaderFieldDefsView();
             case NAV_CFG_MANAGE_LANGS -> { showManageLanguagesView(); setRightPanelVisible(false); }
@@ -587,7 +656,7 @@ public final class MainController {
 
     private void setupEntryTable() {
         SortedList<LiftEntry> sorted = new SortedList<>(filteredEntries);
-        sorted.comparatorProperty().bind(entryTable.comparatorProperty());
+        bindSortedRows(entryTable, sorted);
         entryTable.setItems(sorted);
         entryTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
             if (n != null && currentView.equals(NAV_ENTRIES)) populateEntryEditor(n);
@@ -666,7 +735,7 @@ public final class MainController {
                         setStyle("");
                         return;
                     }
-                    setText(item);
+                    setText(facetLabel(cb, item));
                     boolean isClearItem = clearOption.equals(item);
                     boolean activeFilter = isActiveFilter(cb.getValue(), clearOption);
                     boolean disableClear = isClearItem && !activeFilter;
@@ -686,7 +755,7 @@ public final class MainController {
                     return;
                 }
                 if (entryFilterInternalUpdate) return;
-                applyCurrentFilter();
+                scheduleEntryFilter();
             });
             entryColumnFilters.add(cb);
 
@@ -731,6 +800,7 @@ public final class MainController {
                     ? new ReadOnlyStringWrapper("")
                     : cd.getValue().getForms().formTextProperty(lang));
             c.setCellFactory(TextFieldTableCell.forTableColumn());
+            c.getProperties().put(SORT_KEY, formSortKey(lang, LiftEntry::getForms));
             c.setOnEditCommit(ev -> {
                 LiftEntry e = ev.getRowValue();
                 if (e == null) return;
@@ -776,9 +846,98 @@ public final class MainController {
 
         entryTable.getColumns().addAll(formGroup, morphCol, dateCol);
     }
+    /* ════════════════════ RETAINED VIEWS ════════════════════ */
+
+    /**
+     * Vue de table construite une fois par dictionnaire et réaffichée telle quelle.
+     * @param rows lignes à jour de la vue, null pour une vue d'agrégats reconstruite quand le modèle a changé
+     */
+    private record RetainedView(String signature, long revision, javafx.scene.Node node, TableView<?> table,
+                                java.util.function.Supplier<? extends List<?>> rows) {}
+
+    private final Map<String, RetainedView> retainedViews = new HashMap<>();
+    /** Éditeurs du panneau d'édition, réutilisés d'une sélection à l'autre. */
+    private final EditorPool editorPool = new EditorPool();
+
+    /** Colonnes d'une vue : elles dépendent des langues (et des types de traduction pour les exemples). */
+    private String viewSignature(String viewName) {
+        String signature = getObjectLanguages() + "|" + getMetaLanguages();
+        return NAV_EXAMPLES.equals(viewName) ? signature + "|" + new TreeSet<>(currentDictionary.getTranslationType()) : signature;
+    }
+
+    /**
+     * Réaffiche la vue conservée si ses colonnes n'ont pas changé : les lignes ajoutées ou retirées du modèle
+     * y sont reportées, sans reconstruire colonnes, lignes ni filtres.
+     * @param viewName null pour une vue à ne pas conserver (sous-ensemble...)
+     * @param table la table de la vue, oubliée par les autres vues conservées si la vue doit être reconstruite
+     * @return faux si la vue doit être construite
+     */
+    private boolean reuseView(String viewName, TableView<?> table) {
+        RetainedView view = viewName == null || currentDictionary == null ? null : retainedViews.get(viewName);
+        if (view != null && view.signature().equals(viewSignature(viewName))
+                && (view.rows() != null || view.revision() == MODEL_REVISION.get())) {
+            view.table().getSelectionModel().clearSelection();
+            if (view.rows() != null) reconcileRows(view.node(), view.rows().get());
+            ((Runnable) view.node().getProperties().get(FILTER_REFRESH)).run();
+            view.table().refresh();
+            tableContainer.getChildren().setAll(view.node());
+            return true;
+        }
+        retainedViews.values().removeIf(v -> v.table() == table);
+        return false;
+    }
+
+    /** Conserve la vue qui vient d'être construite dans {@code tableContainer}. */
+    private void retainView(String viewName, TableView<?> table, java.util.function.Supplier<? extends List<?>> rows) {
+        if (currentDictionary == null || tableContainer.getChildren().isEmpty()) return;
+        retainedViews.put(viewName, new RetainedView(viewSignature(viewName), MODEL_REVISION.get(),
+            tableContainer.getChildren().get(0), table, rows));
+    }
+
+    /** Reporte dans une table filtrée les lignes ajoutées ou retirées (comparées par identité). */
+    @SuppressWarnings("unchecked")
+    private static <T> void reconcileRows(javafx.scene.Node wrapper, List<T> current) {
+        ObservableList<T> rows = (ObservableList<T>) wrapper.getProperties().get(FILTER_ROWS);
+        Set<T> now = Collections.newSetFromMap(new IdentityHashMap<>(current.size()));
+        now.addAll(current);
+        Set<T> shown = Collections.newSetFromMap(new IdentityHashMap<>(rows.size()));
+        shown.addAll(rows);
+        if (shown.size() != rows.size() || !now.containsAll(shown)) rows.removeIf(r -> !now.contains(r));
+        List<T> added = current.stream().filter(r -> !shown.contains(r)).toList();
+        if (!added.isEmpty()) rows.addAll(added);
+    }
+
+    /** Vue conservée affichée : ses lignes sont mises à jour une fois par lot de modifications. */
+    private boolean retainedViewRefreshPending;
+    private final ModelChangeListener retainedViewListener = changes -> {
+        RetainedView view = retainedViews.get(currentView);
+        if (view == null || view.rows() == null || retainedViewRefreshPending) return;
+        retainedViewRefreshPending = true;
+        Platform.runLater(() -> {
+            retainedViewRefreshPending = false;
+            if (retainedViews.get(currentView) != view || view.node().getScene() == null) return;
+            reconcileRows(view.node(), view.rows().get());
+            ((Runnable) view.node().getProperties().get(FILTER_REFRESH)).run();
+            view.table().refresh();
+        });
+    };
+
+    /** Remplace le gestionnaire de sélection d'une table réutilisée (les écouteurs ne s'accumulent pas). */
+    @SuppressWarnings("unchecked")
+    private static <T> void onRowSelected(TableView<T> table, java.util.function.Consumer<T> handler) {
+        javafx.beans.value.ChangeListener<T> previous = (javafx.beans.value.ChangeListener<T>) table.getProperties().get(SELECTION_HANDLER);
+        if (previous != null) table.getSelectionModel().selectedItemProperty().removeListener(previous);
+        javafx.beans.value.ChangeListener<T> listener = (obs, o, n) -> { if (n != null) handler.accept(n); };
+        table.getProperties().put(SELECTION_HANDLER, listener);
+        table.getSelectionModel().selectedItemProperty().addListener(listener);
+    }
+
+    private static final String SELECTION_HANDLER = "selectionHandler";
+
     /* ════════════════════ SENSE VIEW ════════════════════ */
 
     private void showSenseView() {
+        if (reuseView(senseSubsetOverride == null ? NAV_SENSES : null, senseTable)) return;
         senseTable.setItems(FXCollections.observableArrayList());
         senseTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(senseTable); return; }
@@ -800,25 +959,27 @@ public final class MainController {
         TableColumn<LiftSense, String> giCol = col(I18n.get("col.gramInfo"), s -> s.getGrammaticalInfo().map(GrammaticalInfo::getValue).orElse(""));
         TableColumn<LiftSense, String> glossGroup = new TableColumn<>(I18n.get("col.gloss"));
         for (String l : metaLangs) {
-            glossGroup.getColumns().add(col(l, s -> s.getGloss().getForm(l).map(Form::toPlainText).orElse("")));
+            glossGroup.getColumns().add(formCol(l, s -> s.getGloss()));
         }
         TableColumn<LiftSense, String> defGroup = new TableColumn<>(I18n.get("col.definition"));
         for (String l : metaLangs) {
-            defGroup.getColumns().add(col(l, s -> s.getDefinition().getForm(l).map(Form::toPlainText).orElse("")));
+            defGroup.getColumns().add(formCol(l, s -> s.getDefinition()));
         }
         senseTable.getColumns().addAll(parentEntryGroup, giCol, glossGroup, defGroup);
         List<LiftSense> sensesToShow = senseSubsetOverride != null
             ? senseSubsetOverride
             : currentDictionary.getLiftDictionaryComponents().getAllSenses();
         senseTable.getItems().addAll(sensesToShow);
-        senseTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateSenseEditor(n); });
+        onRowSelected(senseTable, this::populateSenseEditor);
         tableContainer.getChildren().setAll(wrapTableWithFilters(senseTable, (f,t) -> updateCountLabel(f,t), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(senseTable.getItems().size(), senseTable.getItems().size());
+        if (senseSubsetOverride == null) retainView(NAV_SENSES, senseTable, () -> currentDictionary.getLiftDictionaryComponents().getAllSenses());
     }
 
     /* ════════════════════ EXAMPLE VIEW ════════════════════ */
 
     private void showExampleView() {
+        if (reuseView(NAV_EXAMPLES, exampleTable)) return;
         exampleTable.setItems(FXCollections.observableArrayList());
         exampleTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(exampleTable); return; }
@@ -850,7 +1011,7 @@ public final class MainController {
         // 3. Exemple (langues objet)
         TableColumn<LiftExample, String> exGroup = new TableColumn<>(I18n.get("col.example"));
         for (String l : objLangs) {
-            exGroup.getColumns().add(col(l, ex -> ex.getExample().getForm(l).map(Form::toPlainText).orElse("")));
+            exGroup.getColumns().add(formCol(l, ex -> ex.getExample()));
         }
         exampleTable.getColumns().add(exGroup);
 
@@ -870,14 +1031,16 @@ public final class MainController {
         }
 
         exampleTable.getItems().addAll(currentDictionary.getLiftDictionaryComponents().getAllExamples());
-        exampleTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateExampleEditor(n); });
+        onRowSelected(exampleTable, this::populateExampleEditor);
         tableContainer.getChildren().setAll(wrapTableWithFilters(exampleTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(exampleTable.getItems().size(), exampleTable.getItems().size());
+        retainView(NAV_EXAMPLES, exampleTable, () -> currentDictionary.getLiftDictionaryComponents().getAllExamples());
     }
 
     /* ════════════════════ NOTE VIEW ════════════════════ */
 
     private void showNoteView() {
+        if (reuseView(NAV_NOTES, null)) return;
         TableView<LiftNote> noteTable = new TableView<>();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(noteTable); return; }
         List<String> metaLangs = getMetaLanguages();
@@ -885,7 +1048,7 @@ public final class MainController {
         TableColumn<LiftNote, String> typeCol = col(I18n.get("col.type"), n -> n.getType().orElse(""));
         TableColumn<LiftNote, String> textGroup = new TableColumn<>(I18n.get("col.text"));
         for (String l : metaLangs) {
-            TableColumn<LiftNote, String> c = col(l, n -> n.getText().getForm(l).map(Form::toPlainText).orElse(""));
+            TableColumn<LiftNote, String> c = formCol(l, n -> n.getText());
             c.getProperties().put("filterMode", FILTER_MODE_TEXT);
             textGroup.getColumns().add(c);
         }
@@ -894,11 +1057,13 @@ public final class MainController {
         noteTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateNoteEditor(n); });
         tableContainer.getChildren().setAll(wrapTableWithFilters(noteTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(noteTable.getItems().size(), noteTable.getItems().size());
+        retainView(NAV_NOTES, noteTable, () -> currentDictionary.getLiftDictionaryComponents().getAllNotes());
     }
 
     /* ════════════════════ VARIANT VIEW ════════════════════ */
 
     private void showVariantView() {
+        if (reuseView(NAV_VARIANTS, variantTable)) return;
         variantTable.setItems(FXCollections.observableArrayList());
         variantTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(variantTable); return; }
@@ -911,23 +1076,24 @@ public final class MainController {
         TableColumn<LiftVariant, String> isPrimaryCol = col("is-primary", v -> getTraitValueFor(v, "is-primary"));
         TableColumn<LiftVariant, String> refCol = col(I18n.get("col.ref"), v -> v.getRefId().orElse(""));
         TableColumn<LiftVariant, String> formGroup = new TableColumn<>(I18n.get("col.forms"));
-        for (String l : objLangs) formGroup.getColumns().add(col(l, v -> v.getForms().getForm(l).map(Form::toPlainText).orElse("")));
+        for (String l : objLangs) formGroup.getColumns().add(formCol(l, v -> v.getForms()));
         variantTable.getColumns().addAll(parentFormGroup, variantTypeCol, isPrimaryCol, refCol, formGroup);
         variantTable.getItems().addAll(currentDictionary.getLiftDictionaryComponents().getAllVariants());
-        variantTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateVariantEditor(n); });
+        onRowSelected(variantTable, this::populateVariantEditor);
         tableContainer.getChildren().setAll(wrapTableWithFilters(variantTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(variantTable.getItems().size(), variantTable.getItems().size());
+        retainView(NAV_VARIANTS, variantTable, () -> currentDictionary.getLiftDictionaryComponents().getAllVariants());
     }
 
     /* ════════════════════ RELATION VIEW ════════════════════ */
 
     private void showRelationView() {
+        if (reuseView(NAV_RELATIONS, relationTable)) return;
         relationTable.setItems(FXCollections.observableArrayList());
         relationTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(relationTable); return; }
         List<String> objLangs = getObjectLanguages();
         List<String> metaLangs = getMetaLanguages();
-        var entryById = currentDictionary.getLiftDictionaryComponents().getEntryById();
         TableColumn<LiftRelation, String> parentFormGroup = new TableColumn<>(I18n.get("col.parentEntry"));
         for (String l : objLangs) {
             parentFormGroup.getColumns().add(col(l, r -> {
@@ -941,19 +1107,21 @@ public final class MainController {
             refFormGroup.getColumns().add(col(l, r -> {
                 String refId = r.getRefID().orElse("");
                 if (refId.isBlank()) return "";
-                LiftEntry pointed = entryById != null ? entryById.get(refId) : null;
+                // Resolves sense targets too
+                LiftEntry pointed = referenceIndex != null ? referenceIndex.resolveEntry(refId).orElse(null) : null;
                 return pointed != null ? pointed.getForms().getForm(l).map(Form::toPlainText).orElse("") : "";
             }));
         }
         TableColumn<LiftRelation, String> usageCol = new TableColumn<>(I18n.get("col.usage"));
         for (String l : metaLangs) {
-            usageCol.getColumns().add(col(l, r -> r.getUsage().getForm(l).map(Form::toPlainText).orElse("")));
+            usageCol.getColumns().add(formCol(l, r -> r.getUsage()));
         }
         relationTable.getColumns().addAll(parentFormGroup, typeCol, refFormGroup, usageCol);
         relationTable.getItems().addAll(currentDictionary.getLiftDictionaryComponents().getAllRelations());
-        relationTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateRelationEditor(n); });
+        onRowSelected(relationTable, this::populateRelationEditor);
         tableContainer.getChildren().setAll(wrapTableWithFilters(relationTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(relationTable.getItems().size(), relationTable.getItems().size());
+        retainView(NAV_RELATIONS, relationTable, () -> currentDictionary.getLiftDictionaryComponents().getAllRelations());
     }
 
     private void populateRelationEditor(LiftRelation relation) {
@@ -993,13 +1161,14 @@ public final class MainController {
     /* ════════════════════ ETYMOLOGY VIEW ════════════════════ */
 
     private void showEtymologyView() {
+        if (reuseView(NAV_ETYMOLOGIES, null)) return;
         TableView<LiftEtymology> etyTable = new TableView<>();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(etyTable); return; }
         List<String> objLangs = getObjectLanguages();
         TableColumn<LiftEtymology, String> typeCol = col(I18n.get("col.type"), (LiftEtymology e) -> e.getType() != null ? e.getType() : "");
         TableColumn<LiftEtymology, String> sourceCol = col(I18n.get("col.source"), (LiftEtymology e) -> e.getSource() != null ? e.getSource() : "");
         TableColumn<LiftEtymology, String> formGroup = new TableColumn<>(I18n.get("col.forms"));
-        for (String l : objLangs) formGroup.getColumns().add(col(l, e -> e.getForms().getForm(l).map(Form::toPlainText).orElse("")));
+        for (String l : objLangs) formGroup.getColumns().add(formCol(l, e -> e.getForms()));
         etyTable.getColumns().addAll(typeCol, sourceCol, formGroup);
         currentDictionary.getLiftDictionaryComponents().getAllEntries().stream()
             .flatMap(e -> e.getEtymologies().stream()).forEach(etyTable.getItems()::add);
@@ -1014,47 +1183,90 @@ public final class MainController {
         });
         tableContainer.getChildren().setAll(wrapTableWithFilters(etyTable, (f,t2) -> updateCountLabel(f,t2)));
         updateCountLabel(etyTable.getItems().size(), etyTable.getItems().size());
+        retainView(NAV_ETYMOLOGIES, etyTable, () -> currentDictionary.getLiftDictionaryComponents().getAllEntries().stream()
+            .flatMap(e -> e.getEtymologies().stream()).toList());
+    }
+
+    /* ════════════════════ DUPLICATES VIEW ════════════════════ */
+
+    /** Ligne de la vue des doublons : une entrée d'un groupe, avec la similarité de la meilleure paire du groupe. */
+    private record DuplicateRow(int group, double similarity, LiftEntry entry) {}
+    /** Incrémenté à chaque détection des doublons : le résultat d'une détection dépassée est ignoré. */
+    private final AtomicLong duplicatesGeneration = new AtomicLong();
+
+    /**
+     * Revue des doublons probables (vedettes, gloses et définitions presque identiques), groupe par groupe,
+     * les plus similaires d'abord. La détection (MinHash) tourne en arrière-plan ; une ligne sélectionnée
+     * ouvre son entrée dans l'éditeur.
+     */
+    private void showDuplicatesView() {
+        TableView<DuplicateRow> table = new TableView<>();
+        LiftFactory factory = getFactory(currentDictionary);
+        if (factory == null) { tableContainer.getChildren().setAll(table); return; }
+        TableColumn<DuplicateRow, String> groupCol = col(I18n.get("col.duplicateGroup"), r -> Integer.toString(r.group()));
+        TableColumn<DuplicateRow, String> similarityCol = col(I18n.get("col.similarity"), r -> String.format(Locale.ROOT, "%.0f %%", r.similarity() * 100));
+        TableColumn<DuplicateRow, String> idCol = col(I18n.get("col.id"), r -> r.entry().getId().orElse(""));
+        TableColumn<DuplicateRow, String> formGroup = new TableColumn<>(I18n.get("col.forms"));
+        for (String l : getObjectLanguages()) formGroup.getColumns().add(formCol(l, r -> r.entry().getForms()));
+        TableColumn<DuplicateRow, String> glossCol = col(I18n.get("col.gloss"), r -> r.entry().getSenses().stream()
+            .flatMap(s -> s.getGloss().getForms().stream()).map(Form::toPlainText).collect(Collectors.joining(" ; ")));
+        table.getColumns().addAll(groupCol, similarityCol, idCol, formGroup, glossCol);
+        table.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> { if (n != null) populateEntryEditor(n.entry()); });
+        table.setPlaceholder(new Label(I18n.get("duplicates.running")));
+        tableContainer.getChildren().setAll(table);
+        updateCountLabel(0, 0);
+
+        DictionarySnapshot snapshot = snapshotManager.snapshot();
+        long generation = duplicatesGeneration.incrementAndGet();
+        Thread.ofVirtual().name("duplicates").start(() -> {
+            List<DuplicateDetector.Cluster> clusters = new DuplicateDetector(SEARCH_FOLDING).findClusters(snapshot);
+            Platform.runLater(() -> {
+                // Détection relancée ou vue quittée entre-temps
+                if (generation != duplicatesGeneration.get()) return;
+                if (table.getScene() == null || !tableContainer.getChildren().contains(table)) return;
+                List<DuplicateRow> rows = new ArrayList<>();
+                for (int i = 0; i < clusters.size(); i++) {
+                    for (LiftEntry e : clusters.get(i).entries()) rows.add(new DuplicateRow(i + 1, clusters.get(i).similarity(), e));
+                }
+                table.getItems().setAll(rows);
+                table.setPlaceholder(new Label(I18n.get("placeholder.noData")));
+                tableContainer.getChildren().setAll(wrapTableWithFilters(table, (f, t) -> updateCountLabel(f, t)));
+                updateCountLabel(rows.size(), rows.size());
+            });
+        });
     }
 
     /* ════════════════════ LANGUAGE FIELD VIEW (5.9) ════════════════════ */
 
+    /**
+     * Lignes d'une vue des champs par langue, par entrée figée : une entrée non modifiée garde la même
+     * instance d'un instantané au suivant, et ses lignes sont reprises telles quelles.
+     */
+    private record LangFieldRows(List<String> langs, Map<DictionarySnapshot.Entry, List<MultiTextField>> byEntry) {}
+
+    /** Lignes des deux vues des champs par langue (clé : langues objet), réutilisées d'une visite à l'autre. */
+    private final Map<Boolean, LangFieldRows> langFieldRows = new HashMap<>();
+    /** Production des lignes d'une vue des champs par langue : abandonnée dès qu'une autre vue est demandée. */
+    private final AtomicLong langFieldGeneration = new AtomicLong();
+    /** Lignes ajoutées à la table par lot. */
+    private static final int LANG_FIELD_BATCH = 500;
+
+    /**
+     * Vue des formes de tous les multitextes dans les langues objet ou méta. Les lignes sont produites
+     * en arrière-plan (fil virtuel) et ajoutées à la table par lots, avec une barre de progression ;
+     * les filtres sont posés une fois toutes les lignes produites. Les lignes sont lues dans un instantané
+     * du dictionnaire ; celles des entrées non modifiées depuis la visite précédente sont reprises telles quelles.
+     */
     private void showLangFieldView(boolean objectLangs) {
+        String viewName = objectLangs ? NAV_OBJ_LANGS : NAV_META_LANGS;
+        long generation = langFieldGeneration.incrementAndGet();
+        if (reuseView(viewName, langFieldTable)) return;
         langFieldTable.setItems(FXCollections.observableArrayList());
         langFieldTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(langFieldTable); return; }
 
         List<String> langs = objectLangs ? getObjectLanguages() : getMetaLanguages();
 
-        // Collect all multitext entries with parent info
-        List<MultiTextField> rows = new ArrayList<>();
-        for (LiftEntry entry : currentDictionary.getLiftDictionaryComponents().getAllEntries()) {
-            if (objectLangs) {
-                String eid = entry.getId().orElse("?");
-                collectMtRows(rows, I18n.get("nav.entries"), eid, entry, entry.getForms(), langs);
-                for (LiftVariant v : entry.getVariants()) {
-                    collectMtRows(rows, "variante", v.getRefId().orElse("?"), v, v.getForms(), langs);
-                    for (LiftPronunciation vp : v.getPronunciations()) collectMtRows(rows, "pron", v.getRefId().orElse("?"), vp, vp.getProunciation(), langs);
-                }
-                for (LiftPronunciation p : entry.getPronunciations()) collectMtRows(rows, "pron", eid, p, p.getProunciation(), langs);
-                for (LiftSense s : entry.getSenses()) collectObjLangRowsForSense(rows, s, langs);
-                for (LiftEtymology et : entry.getEtymologies()) collectMtRows(rows, "étymologie", eid, et, et.getForms(), langs);
-            } else {
-                String eid = entry.getId().orElse("?");
-                collectMtRows(rows, "citation", eid, entry, entry.getCitations(), langs);
-                for (LiftNote n : entry.getNotes().values()) collectMtRows(rows, "note", eid, n, n.getText(), langs);
-                for (LiftRelation r : entry.getRelations()) collectMtRows(rows, "relation (usage)", eid, r, r.getUsage(), langs);
-                for (LiftField f : entry.getFields()) collectMtRows(rows, "champ", eid, f, f.getText(), langs);
-                for (LiftAnnotation a : entry.getAnnotations()) collectMtRows(rows, "annotation", eid, a, a.getText(), langs);
-                for (LiftSense s : entry.getSenses()) collectMetaLangRowsForSense(rows, s, langs);
-                for (LiftVariant v : entry.getVariants()) {
-                    String vid = v.getRefId().orElse("?");
-                    for (LiftRelation r : v.getRelations()) collectMtRows(rows, "relation (usage)", vid, r, r.getUsage(), langs);
-                    for (LiftField f : v.getFields()) collectMtRows(rows, "champ", vid, f, f.getText(), langs);
-                    for (LiftAnnotation a : v.getAnnotations()) collectMtRows(rows, "annotation", vid, a, a.getText(), langs);
-                }
-            }
-        }
-
         TableColumn<MultiTextField, String> parentTypeCol = new TableColumn<>(I18n.get("col.parentType"));
         parentTypeCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().parentType()));
         parentTypeCol.setPrefWidth(100);
@@ -1069,54 +1281,158 @@ public final class MainController {
         }
 
         langFieldTable.getColumns().addAll(parentTypeCol, langGroup);
-        langFieldTable.getItems().addAll(rows);
-        langFieldTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
-            if (n != null) populateLangFieldEditor(n);
+        onRowSelected(langFieldTable, this::populateLangFieldEditor);
+
+        // Lignes produites depuis un instantané : le modèle peut être modifié pendant la production
+        DictionarySnapshot snapshot = snapshotManager.snapshot();
+        List<DictionarySnapshot.Entry> entries = snapshot.getEntries();
+        long revision = MODEL_REVISION.get();
+        LangFieldRows previous = langFieldRows.get(objectLangs);
+        Map<DictionarySnapshot.Entry, List<MultiTextField>> reusable = previous != null && previous.langs().equals(langs)
+            ? previous.byEntry() : Map.of();
+
+        ProgressBar progress = new ProgressBar(0);
+        Label progressLabel = new Label(I18n.get("langFields.loading", 0, entries.size()));
+        HBox progressRow = new HBox(8, progress, progressLabel);
+        progressRow.setAlignment(Pos.CENTER_LEFT);
+        progressRow.setPadding(new Insets(4, 6, 4, 6));
+        VBox loading = new VBox(progressRow, langFieldTable);
+        VBox.setVgrow(langFieldTable, Priority.ALWAYS);
+        tableContainer.getChildren().setAll(loading);
+        updateCountLabel(0, 0);
+
+        // Rempli sur le fil de l'interface, à la réception de chaque lot
+        Map<DictionarySnapshot.Entry, List<MultiTextField>> byEntry = new IdentityHashMap<>(entries.size());
+        java.util.function.BooleanSupplier cancelled = () -> langFieldGeneration.get() != generation;
+        Thread.ofVirtual().name("lang-fields").start(() -> {
+            Map<DictionarySnapshot.Entry, List<MultiTextField>> batch = new LinkedHashMap<>();
+            int rowCount = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                if (cancelled.getAsBoolean()) return;
+                DictionarySnapshot.Entry entry = entries.get(i);
+                List<MultiTextField> rows = reusable.get(entry);
+                if (rows == null) rows = langFieldRows(entry, objectLangs, langs);
+                batch.put(entry, rows);
+                rowCount += rows.size();
+                if (rowCount >= LANG_FIELD_BATCH || i == entries.size() - 1) {
+                    Map<DictionarySnapshot.Entry, List<MultiTextField>> delivered = batch;
+                    batch = new LinkedHashMap<>();
+                    rowCount = 0;
+                    int done = i + 1;
+                    Platform.runLater(() -> {
+                        if (cancelled.getAsBoolean()) return;
+                        List<MultiTextField> added = new ArrayList<>();
+                        delivered.forEach((e, entryRows) -> {
+                            List<MultiTextField> resolved = resolveLangFieldRows(e, entryRows);
+                            byEntry.put(e, resolved);
+                            added.addAll(resolved);
+                        });
+                        langFieldTable.getItems().addAll(added);
+                        progress.setProgress((double) done / entries.size());
+                        progressLabel.setText(I18n.get("langFields.loading", done, entries.size()));
+                        updateCountLabel(langFieldTable.getItems().size(), langFieldTable.getItems().size());
+                    });
+                }
+            }
+            Platform.runLater(() -> {
+                if (cancelled.getAsBoolean()) return;
+                langFieldRows.put(objectLangs, new LangFieldRows(langs, byEntry));
+                int count = langFieldTable.getItems().size();
+                tableContainer.getChildren().setAll(wrapTableWithFilters(langFieldTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
+                updateCountLabel(count, count);
+                if (MODEL_REVISION.get() == revision) retainView(viewName, langFieldTable, null);
+            });
         });
-        tableContainer.getChildren().setAll(wrapTableWithFilters(langFieldTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
-        updateCountLabel(rows.size(), rows.size());
     }
 
-    private static void collectMtRows(List<MultiTextField> rows, String parentType, String parentId, Object parentObject, MultiText mt, List<String> langs) {
-        if (mt == null) return;
-        for (Form f : mt.getForms()) {
-            if (langs.contains(f.getLang())) {
-                rows.add(new MultiTextField(parentType, parentId, f.getLang(), f.toPlainText(), parentObject, mt));
+    /**
+     * Lignes d'une entrée figée pour la vue des champs dans les langues {@code langs}. Leur objet parent
+     * est renseigné sur le fil de l'interface (voir {@link #resolveLangFieldRows}).
+     */
+    private static List<MultiTextField> langFieldRows(DictionarySnapshot.Entry entry, boolean objectLangs, List<String> langs) {
+        List<MultiTextField> rows = new ArrayList<>();
+        String eid = entry.id().orElse("?");
+        if (objectLangs) {
+            collectMtRows(rows, I18n.get("nav.entries"), eid, entry.forms(), langs);
+            for (DictionarySnapshot.Variant v : entry.variants()) {
+                collectMtRows(rows, "variante", v.refId().orElse("?"), v.forms(), langs);
+                for (DictionarySnapshot.Pronunciation vp : v.pronunciations()) collectMtRows(rows, "pron", v.refId().orElse("?"), vp.forms(), langs);
+            }
+            for (DictionarySnapshot.Pronunciation p : entry.pronunciations()) collectMtRows(rows, "pron", eid, p.forms(), langs);
+            for (DictionarySnapshot.Sense s : entry.senses()) collectObjLangRowsForSense(rows, s, langs);
+            for (DictionarySnapshot.Etymology et : entry.etymologies()) collectMtRows(rows, "étymologie", eid, et.forms(), langs);
+        } else {
+            collectMtRows(rows, "citation", eid, entry.citations(), langs);
+            for (DictionarySnapshot.Note n : entry.notes()) collectMtRows(rows, "note", eid, n.text(), langs);
+            for (DictionarySnapshot.Relation r : entry.relations()) collectMtRows(rows, "relation (usage)", eid, r.usage(), langs);
+            collectExtensibleRows(rows, eid, entry.extensible(), langs);
+            for (DictionarySnapshot.Sense s : entry.senses()) collectMetaLangRowsForSense(rows, s, langs);
+            for (DictionarySnapshot.Variant v : entry.variants()) {
+                String vid = v.refId().orElse("?");
+                for (DictionarySnapshot.Relation r : v.relations()) collectMtRows(rows, "relation (usage)", vid, r.usage(), langs);
+                collectExtensibleRows(rows, vid, v.extensible(), langs);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Renseigne l'objet parent des lignes produites hors du fil de l'interface : le propriétaire du multitexte,
+     * à défaut l'entrée. Les lignes déjà renseignées (reprises d'une visite précédente) sont gardées telles quelles.
+     */
+    private static List<MultiTextField> resolveLangFieldRows(DictionarySnapshot.Entry entry, List<MultiTextField> rows) {
+        if (rows.isEmpty() || rows.get(0).parentObject() != null) return rows;
+        List<MultiTextField> resolved = new ArrayList<>(rows.size());
+        for (MultiTextField r : rows) {
+            Object parent = Optional.ofNullable(r.multiText().getOwner()).orElse(entry.handle());
+            resolved.add(new MultiTextField(r.parentType(), r.parentId(), r.lang(), r.text(), parent, r.multiText()));
+        }
+        return resolved;
+    }
+
+    private static void collectMtRows(List<MultiTextField> rows, String parentType, String parentId, DictionarySnapshot.Text mt, List<String> langs) {
+        for (DictionarySnapshot.Form f : mt.forms()) {
+            if (langs.contains(f.lang())) {
+                rows.add(new MultiTextField(parentType, parentId, f.lang(), f.text(), null, mt.handle()));
             }
         }
     }
 
-    private static void collectObjLangRowsForSense(List<MultiTextField> rows, LiftSense s, List<String> langs) {
-        String sid = s.getId().orElse("?");
-        for (LiftExample ex : s.getExamples()) collectMtRows(rows, "exemple", sid, ex, ex.getExample(), langs);
-        for (LiftSense sub : s.getSubSenses()) collectObjLangRowsForSense(rows, sub, langs);
+    private static void collectExtensibleRows(List<MultiTextField> rows, String parentId, DictionarySnapshot.Extensible ext, List<String> langs) {
+        for (DictionarySnapshot.Field f : ext.fields()) collectMtRows(rows, "champ", parentId, f.text(), langs);
+        for (DictionarySnapshot.Annotation a : ext.annotations()) collectMtRows(rows, "annotation", parentId, a.text(), langs);
     }
 
-    private static void collectMetaLangRowsForSense(List<MultiTextField> rows, LiftSense s, List<String> langs) {
-        String sid = s.getId().orElse("?");
-        collectMtRows(rows, "définition", sid, s, s.getDefinition(), langs);
-        collectMtRows(rows, "gloss", sid, s, s.getGloss(), langs);
-        for (LiftExample ex : s.getExamples()) {
-            for (MultiText tr : ex.getTranslations().values()) collectMtRows(rows, "traduction", sid, ex, tr, langs);
-            for (LiftNote n : ex.getNotes().values()) collectMtRows(rows, "note", sid, n, n.getText(), langs);
-            for (LiftField f : ex.getFields()) collectMtRows(rows, "champ", sid, f, f.getText(), langs);
-            for (LiftAnnotation a : ex.getAnnotations()) collectMtRows(rows, "annotation", sid, a, a.getText(), langs);
+    private static void collectObjLangRowsForSense(List<MultiTextField> rows, DictionarySnapshot.Sense s, List<String> langs) {
+        String sid = s.id().orElse("?");
+        for (DictionarySnapshot.Example ex : s.examples()) collectMtRows(rows, "exemple", sid, ex.example(), langs);
+        for (DictionarySnapshot.Sense sub : s.subSenses()) collectObjLangRowsForSense(rows, sub, langs);
+    }
+
+    private static void collectMetaLangRowsForSense(List<MultiTextField> rows, DictionarySnapshot.Sense s, List<String> langs) {
+        String sid = s.id().orElse("?");
+        collectMtRows(rows, "définition", sid, s.definition(), langs);
+        collectMtRows(rows, "gloss", sid, s.gloss(), langs);
+        for (DictionarySnapshot.Example ex : s.examples()) {
+            for (DictionarySnapshot.Text tr : ex.translations().values()) collectMtRows(rows, "traduction", sid, tr, langs);
+            for (DictionarySnapshot.Note n : ex.notes()) collectMtRows(rows, "note", sid, n.text(), langs);
+            collectExtensibleRows(rows, sid, ex.extensible(), langs);
         }
-        for (LiftReversal rev : s.getReversals()) {
-            collectMtRows(rows, "reversal", sid, rev, rev.getForms(), langs);
-            if (rev.getMain() != null) collectMtRows(rows, "reversal (main)", sid, rev.getMain(), rev.getMain().getForms(), langs);
+        for (DictionarySnapshot.Reversal rev : s.reversals()) {
+            collectMtRows(rows, "reversal", sid, rev.forms(), langs);
+            rev.main().ifPresent(main -> collectMtRows(rows, "reversal (main)", sid, main.forms(), langs));
         }
-        for (LiftRelation r : s.getRelations()) collectMtRows(rows, "relation (usage)", sid, r, r.getUsage(), langs);
-        for (LiftNote n : s.getNotes().values()) collectMtRows(rows, "note", sid, n, n.getText(), langs);
-        for (LiftField f : s.getFields()) collectMtRows(rows, "champ", sid, f, f.getText(), langs);
-        for (LiftAnnotation a : s.getAnnotations()) collectMtRows(rows, "annotation", sid, a, a.getText(), langs);
-        for (LiftIllustration ill : s.getIllustrations()) collectMtRows(rows, "illustration", sid, ill, ill.getLabel(), langs);
-        for (LiftSense sub : s.getSubSenses()) collectMetaLangRowsForSense(rows, sub, langs);
+        for (DictionarySnapshot.Relation r : s.relations()) collectMtRows(rows, "relation (usage)", sid, r.usage(), langs);
+        for (DictionarySnapshot.Note n : s.notes()) collectMtRows(rows, "note", sid, n.text(), langs);
+        collectExtensibleRows(rows, sid, s.extensible(), langs);
+        for (DictionarySnapshot.Media ill : s.illustrations()) collectMtRows(rows, "illustration", sid, ill.label(), langs);
+        for (DictionarySnapshot.Sense sub : s.subSenses()) collectMetaLangRowsForSense(rows, sub, langs);
     }
 
     /* ════════════════════ TRAIT VIEW (5.10 – split: names top, values bottom) ════════════════════ */
 
     private void showTraitView() {
+        if (reuseView(NAV_TRAITS, traitTable)) return;
         traitTable.setItems(FXCollections.observableArrayList());
         traitTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(wrapTableWithFilters(traitTable,
@@ -1141,15 +1457,15 @@ public final class MainController {
                 traitFreqCol
         );
         traitTable.getItems().addAll(counts.values().stream().sorted(Comparator.comparingLong(TraitRow::frequency).reversed()).toList());
-        traitTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
-            if (n != null) populateTraitSummaryEditor(n);
-        });
+        onRowSelected(traitTable, this::populateTraitSummaryEditor);
 
         tableContainer.getChildren().setAll(wrapTableWithFilters(traitTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(traitTable.getItems().size(), traitTable.getItems().size());
+        retainView(NAV_TRAITS, traitTable, null);
     }
 
     private void showAnnotationView() {
+        if (reuseView(NAV_ANNOTATIONS, annotationTable)) return;
         annotationTable.setItems(FXCollections.observableArrayList());
         annotationTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(annotationTable); return; }
@@ -1171,17 +1487,17 @@ public final class MainController {
             annotFreqCol
         );
         annotationTable.getItems().addAll(all);
-        annotationTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
-            if (n != null) populateAnnotationSummaryEditor(n);
-        });
+        onRowSelected(annotationTable, this::populateAnnotationSummaryEditor);
 
         tableContainer.getChildren().setAll(wrapTableWithFilters(annotationTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(all.size(), all.size());
+        retainView(NAV_ANNOTATIONS, annotationTable, () -> currentDictionary.getLiftDictionaryComponents().getAllAnnotations());
     }
 
     /* ════════════════════ FIELD VIEW (5.10) ════════════════════ */
 
     private void showFieldView() {
+        if (reuseView(NAV_FIELDS, fieldTable)) return;
         fieldTable.setItems(FXCollections.observableArrayList());
         fieldTable.getColumns().clear();
         if (currentDictionary == null) { tableContainer.getChildren().setAll(fieldTable); return; }
@@ -1191,11 +1507,10 @@ public final class MainController {
             col(I18n.get("col.text"), f -> f.getText().getForms().stream().findFirst().map(Form::toPlainText).orElse(""))
         );
         fieldTable.getItems().addAll(currentDictionary.getLiftDictionaryComponents().getAllFields());
-        fieldTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
-            if (n != null) populateFieldSummaryEditor(n);
-        });
+        onRowSelected(fieldTable, this::populateFieldSummaryEditor);
         tableContainer.getChildren().setAll(wrapTableWithFilters(fieldTable, (f,t2) -> updateCountLabel(f,t2), searchField != null ? searchField.textProperty() : null));
         updateCountLabel(fieldTable.getItems().size(), fieldTable.getItems().size());
+        retainView(NAV_FIELDS, fieldTable, () -> currentDictionary.getLiftDictionaryComponents().getAllFields());
     }
 
     /* ════════════════════ QUICK ENTRY VIEW (5.12) ════════════════════ */
@@ -1224,10 +1539,7 @@ public final class MainController {
             c.setEditable(true);
             quickEntryTable.getColumns().add(c);
         }
-        List<String> knownGramCodes = currentDictionary.getLiftDictionaryComponents().getAllSenses().stream()
-            .map(s -> s.getGrammaticalInfo().map(GrammaticalInfo::getValue).orElse(null))
-            .filter(Objects::nonNull).distinct().sorted().toList();
-        ObservableList<String> gramItems = FXCollections.observableArrayList(knownGramCodes);
+        ObservableList<String> gramItems = vocabulary.gramCodes();
 
         TableColumn<QuickEntryRow, String> giCol = new TableColumn<>(I18n.get("col.gramCode"));
         giCol.setCellValueFactory(cd -> cd.getValue().gramInfoProperty());
@@ -1271,16 +1583,13 @@ public final class MainController {
             if (Boolean.TRUE.equals(row.createdProperty().get())) return;
             row.createdProperty().set(true);
 
-            org.xml.sax.helpers.AttributesImpl attrs = new org.xml.sax.helpers.AttributesImpl();
-            attrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-            LiftEntry entry = factory.createEntry(attrs);
+            String headword = objLangs.stream().map(l -> row.formProperty(l).get()).filter(v -> !v.isBlank()).findFirst().orElse(null);
+            LiftEntry entry = factory.createEntry(newEntryAttributes(factory, headword));
             for (String l : objLangs) {
                 String v = row.formProperty(l).get();
                 if (!v.isBlank()) entry.getForms().add(new Form(l, v));
             }
-            org.xml.sax.helpers.AttributesImpl senseAttrs = new org.xml.sax.helpers.AttributesImpl();
-            senseAttrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-            LiftSense sense = factory.createSense(senseAttrs, entry);
+            LiftSense sense = factory.createSense(newSenseAttributes(factory), entry);
             for (String l : metaLangs) {
                 String v = row.glossProperty(l).get();
                 if (!v.isBlank()) sense.addGloss(new Form(l, v));
@@ -1329,10 +1638,26 @@ public final class MainController {
         }
     }
 
-    private void createNewEntry(LiftFactory factory) {
+    /** Attributs d'une nouvelle entrée : GUID et id lisible tiré de la vedette et du GUID. */
+    private static org.xml.sax.helpers.AttributesImpl newEntryAttributes(LiftFactory factory, String headword) {
+        String guid = LiftFactory.newGuid();
+        org.xml.sax.helpers.AttributesImpl attrs = new org.xml.sax.helpers.AttributesImpl();
+        attrs.addAttribute("", "id", "id", "CDATA", factory.newEntryId(headword, guid));
+        attrs.addAttribute("", "guid", "guid", "CDATA", guid);
+        return attrs;
+    }
+
+    /** Attributs d'un nouveau sens : id et GUID identiques. */
+    private static org.xml.sax.helpers.AttributesImpl newSenseAttributes(LiftFactory factory) {
+        String id = factory.newSenseId();
         org.xml.sax.helpers.AttributesImpl attrs = new org.xml.sax.helpers.AttributesImpl();
-        attrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-        LiftEntry entry = factory.createEntry(attrs);
+        attrs.addAttribute("", "id", "id", "CDATA", id);
+        attrs.addAttribute("", "guid", "guid", "CDATA", id);
+        return attrs;
+    }
+
+    private void createNewEntry(LiftFactory factory) {
+        LiftEntry entry = factory.createEntry(newEntryAttributes(factory, null));
         baseEntries.add(entry);
         entryTable.getSelectionModel().select(entry);
         entryTable.scrollTo(entry);
@@ -1347,16 +1672,13 @@ public final class MainController {
             boolean hasContent = objLangs.stream().anyMatch(l -> !row.formProperty(l).get().isBlank())
                 || metaLangs.stream().anyMatch(l -> !row.glossProperty(l).get().isBlank());
             if (!hasContent) continue;
-            org.xml.sax.helpers.AttributesImpl attrs = new org.xml.sax.helpers.AttributesImpl();
-            attrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-            LiftEntry entry = factory.createEntry(attrs);
+            String headword = objLangs.stream().map(l -> row.formProperty(l).get()).filter(v -> !v.isBlank()).findFirst().orElse(null);
+            LiftEntry entry = factory.createEntry(newEntryAttributes(factory, headword));
             for (String l : objLangs) {
                 String v = row.formProperty(l).get();
                 if (!v.isBlank()) entry.getForms().add(new Form(l, v));
             }
-            org.xml.sax.helpers.AttributesImpl senseAttrs = new org.xml.sax.helpers.AttributesImpl();
-            senseAttrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-            LiftSense sense = factory.createSense(senseAttrs, entry);
+            LiftSense sense = factory.createSense(newSenseAttributes(factory), entry);
             for (String l : metaLangs) {
                 String v = row.glossProperty(l).get();
                 if (!v.isBlank()) sense.addGloss(new Form(l, v));
@@ -1390,6 +1712,7 @@ public final class MainController {
         editEntryTitle.setText(preferred == Form.EMPTY_FORM ? "(sans forme)" : preferred.toPlainText());
         editEntryCode.setText(getTraitValue(entry, "code"));
         editorContainer.getChildren().clear();
+        editorPool.releaseAll();
 
             Button deleteBtn = new Button(I18n.get("btn.delete"));
             deleteBtn.getStyleClass().add("delete-btn");
@@ -1398,9 +1721,12 @@ public final class MainController {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
                 confirm.setTitle(I18n.get("confirm.delete.title"));
                 confirm.setHeaderText(null);
-                confirm.setContentText(I18n.get("confirm.delete.entry",
+                String question = I18n.get("confirm.delete.entry",
                         entry.getForms().getForms().stream().findFirst()
-                                .map(Form::toPlainText).filter(t -> t != null && !t.isBlank()).orElse("(sans forme)")));
+                                .map(Form::toPlainText).filter(t -> t != null && !t.isBlank()).orElse("(sans forme)"));
+                int incoming = referenceIndex != null ? referenceIndex.getIncomingRelations(entry).size() : 0;
+                if (incoming > 0) question += "\n" + I18n.get("confirm.delete.entry.referenced", incoming);
+                confirm.setContentText(question);
                 confirm.showAndWait().filter(r -> r == ButtonType.OK).ifPresent(r -> {
                     int idx = baseEntries.indexOf(entry);
                     Runnable refresh = () -> {
@@ -1419,15 +1745,13 @@ public final class MainController {
 
         addSectionTitle(editorContainer, "editor.section.lexicalContent");
         addSection(editorContainer, I18n.get("editor.forms"), () -> {
-            MultiTextEditor m = new MultiTextEditor();
-            m.setAvailableLanguages(objLangs);
-            m.setMultiText(entry.getForms());
-            m.setFixedLanguageRows(true);
+            MultiTextEditor m = editorPool.acquire(MultiTextEditor.class, MainController::newFixedRowsEditor);
+            m.setMultiText(entry.getForms(), objLangs);
             return m;
         }, true);
         LiftFactory factory = getFactory(currentDictionary);
         addListSection(editorContainer, I18n.get("editor.traits"), safeList(entry.getTraits()), t -> {
-            TraitEditor te = new TraitEditor();
+            TraitEditor te = editorPool.acquire(TraitEditor.class, TraitEditor::new);
             te.setTrait(t, objLangs, traitNames, traitValues, findFieldDef(t.getName()));
             return te;
         }, true, factory != null ? () -> {
@@ -1471,6 +1795,20 @@ public final class MainController {
             re.setRelation(r, metaLangs, getKnownRelationTypes());
             return re;
         }, false);
+        List<LiftRelation> incoming = referenceIndex != null ? referenceIndex.getIncomingRelations(entry) : List.of();
+        if (!incoming.isEmpty()) {
+            addSection(editorContainer, I18n.get("editor.incomingRelations") + " (" + incoming.size() + ")", () -> {
+                VBox box = new VBox(4);
+                for (LiftRelation r : incoming) {
+                    LiftEntry source = LiftFactory.findEntry(r).orElse(null);
+                    String form = source == null ? "?" : source.getForms().getForms().stream().findFirst().map(Form::toPlainText).orElse("?");
+                    Hyperlink link = new Hyperlink(r.getType() + " \u2190 " + form);
+                    if (source != null) link.setOnAction(e -> navigateToEntryFromSense(source));
+                    box.getChildren().add(link);
+                }
+                return box;
+            }, false);
+        }
         addListSection(editorContainer, I18n.get("editor.etymologies"), safeList(entry.getEtymologies()), et -> { EtymologyEditor ee = new EtymologyEditor(); ee.setEtymology(et, objLangs, metaLangs); return ee; }, false);
         addSectionTitle(editorContainer, "editor.section.annotationsFields");
         addListSection(editorContainer, I18n.get("editor.annotations"), safeList(entry.getAnnotations()), a -> {
@@ -1518,7 +1856,20 @@ public final class MainController {
         addSectionTitle(editorContainer, "editor.section.metadata");
         addSection(editorContainer, I18n.get("editor.identity"), () -> {
             GridPane g = new GridPane(); g.setHgap(8); g.setVgap(6);
-            addReadOnlyRow(g, 0, I18n.get("field.id"), entry.getId().orElse(""));
+            if (getFactory(currentDictionary) != null) {
+                g.add(new Label(I18n.get("field.id")), 0, 0);
+                TextField idField = new TextField(entry.getId().orElse(""));
+                Runnable commitId = () -> {
+                    String id = idField.getText().trim();
+                    if (!id.equals(entry.getId().orElse("")) && !changeId(entry, id)) idField.setText(entry.getId().orElse(""));
+                };
+                idField.setOnAction(ev -> commitId.run());
+                idField.focusedProperty().addListener((obs, was, focused) -> { if (!focused) commitId.run(); });
+                GridPane.setHgrow(idField, Priority.ALWAYS);
+                g.add(idField, 1, 0);
+            } else {
+                addReadOnlyRow(g, 0, I18n.get("field.id"), entry.getId().orElse(""));
+            }
 
             g.add(new Label(I18n.get("field.dateCreated")), 0, 1);
             DatePicker dpCreated = buildDatePicker(entry.getDateCreated().orElse(""));
@@ -1540,9 +1891,7 @@ public final class MainController {
 
             Button addSenseBtn = new Button(I18n.get("btn.addSense"));
             addSenseBtn.setOnAction(e -> {
-                org.xml.sax.helpers.AttributesImpl senseAttrs = new org.xml.sax.helpers.AttributesImpl();
-                senseAttrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-                LiftSense newSense = factory.createSense(senseAttrs, entry);
+                LiftSense newSense = factory.createSense(newSenseAttributes(factory), entry);
                 List<String> giValues = getKnownGramInfoValues();
                 if (!giValues.isEmpty()) {
                     ChoiceDialog<String> dlg = new ChoiceDialog<>(giValues.get(0), giValues);
@@ -1603,6 +1952,8 @@ public final class MainController {
             values.put("Erreur", Optional.ofNullable(ex.getMessage()).orElse(ex.getClass().getSimpleName()));
             populateSummaryEditor("Entrée (erreur d'affichage)", "", values);
         }
+        // Diagnostic : le nombre de liaisons vivantes doit rester stable en parcourant les entrées
+        ModelBindings.logLiveBindings(entry == null ? "no entry" : "entry " + entry.getId().orElse("?"));
     }
 
     private static <T> List<T> safeList(List<T> list) {
@@ -1614,6 +1965,17 @@ public final class MainController {
     }
 
     /** Texte d'affichage d'un sens : glose(s) séparées par " / ", sinon définition, sinon "?". */
+    /**
+     * Vedette d'une entrée telle que la liste des entrées l'affiche : la forme non vide de la première langue
+     * dans l'ordre des colonnes (langues triées).
+     */
+    private static String entryHeadword(LiftEntry entry) {
+        return entry.getForms().getForms().stream()
+                .filter(f -> f.getLang() != null && !f.toPlainText().isBlank())
+                .min(Comparator.comparing(Form::getLang))
+                .map(Form::toPlainText).orElse("");
+    }
+
     private static String senseDisplayText(LiftSense sense) {
         if (sense == null) return "?";
         String gloss = sense.getGloss().getForms().stream()
@@ -1635,6 +1997,7 @@ public final class MainController {
         editEntryTitle.setText(senseDisplayText(sense));
         editEntryCode.setText(sense.getGrammaticalInfo().map(GrammaticalInfo::getValue).orElse(""));
         editorContainer.getChildren().clear();
+        editorPool.releaseAll();
 
         Button deleteBtn = new Button(I18n.get("btn.delete"));
         deleteBtn.getStyleClass().add("delete-btn");
@@ -1648,11 +2011,11 @@ public final class MainController {
                 findParentSenseListAndIndex(sense).ifPresent(pair -> {
                     java.util.List<LiftSense> parentList = pair.getKey();
                     int idx = pair.getValue();
+                    // The sense table itself is updated by senseStructureListener
                     Runnable refresh = () -> {
                         editorContainer.getChildren().clear();
                         editEntryTitle.setText(I18n.get("panel.selectElement"));
                         editEntryCode.setText("");
-                        showSenseView();
                     };
                     DeleteSenseCommand cmd = new DeleteSenseCommand(sense, parentList, idx,
                         () -> getFactory(currentDictionary), refresh, refresh);
@@ -1682,10 +2045,11 @@ public final class MainController {
             editorContainer.getChildren().add(exLink);
         }
 
-        SenseEditor se = new SenseEditor();
+        SenseEditor se = editorPool.acquire(SenseEditor.class, SenseEditor::new);
         se.setRelationTypes(getKnownRelationTypes());
         se.setGrammaticalInfoValues(getHeaderRangeValues("grammatical-info"));
         se.setOnGramInfoChanged(() -> senseTable.refresh());
+        se.setOnIdChanged(getFactory(currentDictionary) != null ? this::changeId : null);
         LiftFactory factory = getFactory(currentDictionary);
         BiConsumer<String, MultiText> onAddAnnotation = (factory != null)
             ? (name, mt) -> factory.createAnnotation(name, mt)
@@ -1748,11 +2112,8 @@ public final class MainController {
 
             Button addSubSenseBtn = new Button(I18n.get("btn.addSubSense"));
             addSubSenseBtn.setOnAction(e -> {
-                org.xml.sax.helpers.AttributesImpl senseAttrs = new org.xml.sax.helpers.AttributesImpl();
-                senseAttrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-                factory.createSense(senseAttrs, sense);
+                factory.createSense(newSenseAttributes(factory), sense);
                 populateSenseEditor(sense);
-                refreshSenseTableAndFilters();
             });
 
             addButtons.getChildren().addAll(addExBtn, addNoteBtn, addRelationBtn, addReversalBtn, addSubSenseBtn);
@@ -1760,6 +2121,76 @@ public final class MainController {
         }
     }
 
+    /** Révision du modèle, incrémentée à chaque lot de modifications : invalide les index des tables filtrées. */
+    private static final AtomicLong MODEL_REVISION = new AtomicLong();
+    /** Entrées touchées à chaque révision : les caches de lignes des tables ne recalculent que leurs lignes. */
+    private static final RowProjectionCache.Journal ROW_CHANGES = new RowProjectionCache.Journal();
+    private final ModelChangeListener revisionListener = changes -> ROW_CHANGES.record(MODEL_REVISION.incrementAndGet(), changedEntries(changes));
+
+    /** Entrées touchées par un lot de modifications, null si l'une d'elles ne se rattache à aucune entrée. */
+    private static Set<Object> changedEntries(List<ModelChange> changes) {
+        Set<Object> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ModelChange c : changes) {
+            Object node = switch (c) {
+                case ModelChange.FormTextChanged t -> t.owner();
+                case ModelChange.EntryAdded e -> e.entry();
+                case ModelChange.EntryRemoved e -> e.entry();
+                // Les lignes d'autres entrées peuvent afficher l'identifiant ou la cible
+                case ModelChange.IdChanged i -> null;
+                case ModelChange.RelationRetargeted r -> null;
+                case ModelChange.VariantRetargeted v -> null;
+                case ModelChange.TraitAdded t -> t.parent();
+                case ModelChange.TraitRemoved t -> t.parent();
+                case ModelChange.TraitValueChanged t -> t.trait();
+                case ModelChange.SenseAdded a -> a.parent();
+                case ModelChange.SenseRemoved r -> r.parent();
+                case ModelChange.VariantAdded v -> v.parent();
+                case ModelChange.VariantRemoved v -> v.parent();
+                case ModelChange.PronunciationAdded p -> p.parent();
+                case ModelChange.PronunciationRemoved p -> p.parent();
+                case ModelChange.FieldAdded f -> f.parent();
+                case ModelChange.FieldRemoved f -> f.parent();
+                case ModelChange.AnnotationAdded a -> a.parent();
+                case ModelChange.AnnotationRemoved a -> a.parent();
+                case ModelChange.ExampleAdded x -> x.parent();
+                case ModelChange.ExampleRemoved x -> x.parent();
+                case ModelChange.NoteAdded n -> n.parent();
+                case ModelChange.NoteRemoved n -> n.parent();
+                case ModelChange.RelationAdded r -> r.parent();
+                case ModelChange.RelationRemoved r -> r.parent();
+                case ModelChange.ReversalAdded r -> r.parent();
+                case ModelChange.EtymologyAdded e -> e.parent();
+                case ModelChange.AttributeChanged a -> a.object();
+                case ModelChange.GramInfoChanged g -> g.sense();
+                case ModelChange.NoteTypeChanged n -> n.note();
+                case ModelChange.FieldRenamed f -> f.field();
+                case ModelChange.HeaderChanged h -> null;
+            };
+            Optional<LiftEntry> entry = LiftFactory.findEntry(node);
+            if (entry.isEmpty()) return null;
+            entries.add(entry.get());
+        }
+        return entries;
+    }
+
+    /**
+     * Entrée dont une ligne de table affiche les données, null si la ligne peut dépendre d'autres entrées
+     * (relations, agrégats...).
+     */
+    private static Object rowOwner(Object row) {
+        if (row instanceof MultiTextField f) row = f.parentObject();
+        if (row instanceof DuplicateRow d) row = d.entry();
+        if (row instanceof LiftRelation) return null;
+        return LiftFactory.findEntry(row).orElse(null);
+    }
+
+    /** Updates the sense table once per batch of sense additions / removals (rebuilt when showing a subset). */
+    private final ModelChangeListener senseStructureListener = changes -> {
+        boolean sensesChanged = changes.stream().anyMatch(c ->
+            c instanceof ModelChange.SenseAdded || c instanceof ModelChange.SenseRemoved);
+        if (sensesChanged) refreshSenseTableAndFilters();
+    };
+
     /** Rebuilds the sense table and filter dropdowns (e.g. after adding a sub-sense). */
     private void refreshSenseTableAndFilters() {
         if (NAV_SENSES.equals(currentView) && currentDictionary != null) {
@@ -1822,6 +2253,7 @@ public final class MainController {
         editEntryTitle.setText(I18n.get("nav.examples"));
         editEntryCode.setText(ex.getSource().orElse(""));
         editorContainer.getChildren().clear();
+        editorPool.releaseAll();
         Button deleteBtn = new Button(I18n.get("btn.delete"));
         deleteBtn.getStyleClass().add("delete-btn");
         deleteBtn.setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white; -fx-background-radius: 6; -fx-padding: 7 12 7 12;");
@@ -1871,7 +2303,7 @@ public final class MainController {
             editorContainer.getChildren().add(backBtn);
         }
 
-        ExampleEditor ee = new ExampleEditor();
+        ExampleEditor ee = editorPool.acquire(ExampleEditor.class, ExampleEditor::new);
         LiftFactory factory = getFactory(currentDictionary);
         BiConsumer<String, MultiText> onAddAnnotation = (factory != null)
             ? (name, mt) -> factory.createAnnotation(name, mt)
@@ -2116,29 +2548,18 @@ public final class MainController {
 
     private void showObjectsWithTrait(String traitName, String traitValue) {
         if (currentDictionary == null) return;
-        List<LiftEntry> matches = new ArrayList<>();
-        var comps = currentDictionary.getLiftDictionaryComponents();
-        for (LiftEntry e : comps.getAllEntries()) {
-            if (e.getTraits().stream().anyMatch(t -> traitName.equals(t.getName()) && traitValue.equals(t.getValue())))
-                matches.add(e);
-        }
-        for (LiftSense s : comps.getAllSenses()) {
-            if (s.getTraits().stream().anyMatch(t -> traitName.equals(t.getName()) && traitValue.equals(t.getValue())))
-                findParentEntry(s).ifPresent(matches::add);
-        }
-        for (LiftExample ex : comps.getAllExamples()) {
-            if (ex.getTraits().stream().anyMatch(t -> traitName.equals(t.getName()) && traitValue.equals(t.getValue())))
-                findParentSense(ex).flatMap(this::findParentEntry).ifPresent(matches::add);
-        }
-        for (LiftVariant v : comps.getAllVariants()) {
-            if (v.getTraits() != null && v.getTraits().stream().anyMatch(t -> traitName.equals(t.getName()) && traitValue.equals(t.getValue())))
-                Optional.ofNullable(v.getParent()).ifPresent(matches::add);
-        }
-        for (LiftEtymology et : comps.getAllEntries().stream().flatMap(e -> e.getEtymologies().stream()).toList()) {
-            if (et.getTraits().stream().anyMatch(t -> traitName.equals(t.getName()) && traitValue.equals(t.getValue())))
-                Optional.ofNullable(et.getParent()).ifPresent(matches::add);
-        }
-        showMatchingEntries(matches, I18n.get("nav.traits") + ": " + traitName + " = " + traitValue);
+        showMatchingEntries(queryEntries(DictionaryQuery.trait(traitName, traitValue)), I18n.get("nav.traits") + ": " + traitName + " = " + traitValue);
+    }
+
+    /**
+     * Évalue une requête sur les entrées du dictionnaire courant (le plan d'exécution est journalisé au niveau FINE).
+     */
+    private List<LiftEntry> queryEntries(DictionaryQuery query) {
+        LiftFactory factory = getFactory(currentDictionary);
+        if (factory == null) return List.of();
+        QueryResult result = new QueryPlanner(factory, textIndex).execute(query);
+        LOGGER.fine(() -> "Requête " + query + "\n" + result.explain());
+        return List.copyOf(result.getEntries());
     }
 
     private void showObjectsWithNoteType(String noteType) {
@@ -2206,17 +2627,7 @@ public final class MainController {
 
     private void showObjectsWithFieldType(String fieldType) {
         if (currentDictionary == null) return;
-        List<LiftEntry> matches = currentDictionary.getLiftDictionaryComponents().getAllFields().stream()
-            .filter(f -> fieldType.equals(f.getName()))
-            .map(LiftField::getParent)
-            .map(parent -> {
-                if (parent instanceof LiftEntry e) return Optional.of(e);
-                if (parent instanceof LiftSense s) return findParentEntry(s);
-                return Optional.<LiftEntry>empty();
-            })
-            .flatMap(Optional::stream)
-            .collect(Collectors.toList());
-        showMatchingEntries(matches, I18n.get("nav.fields") + ": " + fieldType);
+        showMatchingEntries(queryEntries(DictionaryQuery.hasField(fieldType)), I18n.get("nav.fields") + ": " + fieldType);
     }
 
     private void addGoToParentButton(Object parent) {
@@ -2281,18 +2692,7 @@ public final class MainController {
 
     private void showObjectsWithRelationType(String relationType) {
         if (currentDictionary == null) return;
-        List<LiftEntry> matches = currentDictionary.getLiftDictionaryComponents().getAllRelations().stream()
-            .filter(r -> relationType.equals(r.getType()))
-            .map(LiftRelation::getParent)
-            .map(parent -> {
-                if (parent instanceof LiftEntry e) return Optional.of(e);
-                if (parent instanceof LiftSense s) return findParentEntry(s);
-                if (parent instanceof LiftVariant v) return Optional.ofNullable(v.getParent());
-                return Optional.<LiftEntry>empty();
-            })
-            .flatMap(Optional::stream)
-            .collect(Collectors.toList());
-        showMatchingEntries(matches, I18n.get("nav.relationTypes") + ": " + relationType);
+        showMatchingEntries(queryEntries(DictionaryQuery.hasRelation(relationType)), I18n.get("nav.relationTypes") + ": " + relationType);
     }
 
     private void populateSummaryEditor(String title, String code, LinkedHashMap<String, String> values) {
@@ -2392,6 +2792,7 @@ public final class MainController {
         if (f == null) return null;
         return new ExtensibleAddActions() {
             @Override public void addTrait(String name, String value) { f.createTrait(name, value, v); }
+            @Override public boolean removeTrait(LiftTrait t) { return f.removeTrait(t, v); }
             @Override public void addAnnotation(String name) { f.createAnnotation(name, v); }
             @Override public void addField(String type) { f.createField(type, v); }
             @Override public void addPronunciation() { f.createPronunciation(v); }
@@ -2425,85 +2826,366 @@ public final class MainController {
 
     /* ────────────────── FILTER / SEARCH ────────────────── */
 
+    /** Filtrage demandé par la frappe : attend une pause avant de lancer le calcul. */
+    private final PauseTransition entryFilterDebounce = new PauseTransition(javafx.util.Duration.millis(150));
+    /** Incrémenté à chaque filtrage demandé : un calcul dont le numéro n'est plus le dernier est abandonné. */
+    private final AtomicLong entryFilterGeneration = new AtomicLong();
+    /** Vedettes du dictionnaire courant pour la recherche approchée, null sans dictionnaire. */
+    private FuzzyHeadwordIndex fuzzyIndex;
+    /** Codes (trait « code ») repliés des entrées d'un instantané qui en ont un. */
+    private record EntryCodeKeys(DictionarySnapshot snapshot, int foldingRevision, Map<LiftEntry, String> codes) {}
+    private volatile EntryCodeKeys entryCodeKeys;
+
+    /**
+     * Filtrage des entrées à calculer, préparé sur le fil de l'interface : un instantané du dictionnaire (pour les codes),
+     * les textes des cellules des colonnes et une copie des entrées trouvées par les index ou par expression
+     * régulière (null sans requête). Le calcul ne lit rien d'autre : il peut tourner hors du fil de l'interface.
+     */
+    private record EntryFilterRequest(String raw, String q, DictionarySnapshot snapshot, Set<LiftEntry> hits,
+                                      EntryFacetCells facets, Map<Integer, String> selected, int facetColumns, int total) {}
+
+    /** Résultat du filtrage : lignes visibles et décompte des valeurs de chaque liste de filtre. */
+    private record EntryFilterResult(String raw, Set<LiftEntry> visible, List<Map<String, Integer>> counts, int total) {}
+
+    /**
+     * Filtre la vue des entrées immédiatement, sur le fil de l'interface (après un ajout, une suppression,
+     * un changement de vue...), en annulant les calculs en arrière-plan en cours.
+     */
     private void applyCurrentFilter() {
-        String q = Optional.ofNullable(searchField.getText()).orElse("").trim().toLowerCase(Locale.ROOT);
-        if (currentView.equals(NAV_ENTRIES)) {
-            List<LiftEntry> entrySource = entrySubsetOverride != null ? entrySubsetOverride : baseEntries;
-            List<TableColumn<LiftEntry, ?>> leaves = collectLeafColumns(entryTable);
+        if (!currentView.equals(NAV_ENTRIES)) return;
+        entryFilterDebounce.stop();
+        entryFilterGeneration.incrementAndGet();
+        applyEntryFilter(computeEntryFilter(prepareEntryFilter(), () -> false));
+    }
+
+    /**
+     * Filtre la vue des entrées en arrière-plan (fil virtuel) : la table n'est mise à jour, d'un bloc,
+     * que si aucun filtrage plus récent n'a été demandé entre-temps.
+     */
+    private void scheduleEntryFilter() {
+        if (!currentView.equals(NAV_ENTRIES)) return;
+        long generation = entryFilterGeneration.incrementAndGet();
+        EntryFilterRequest request = prepareEntryFilter();
+        java.util.function.BooleanSupplier stale = () -> entryFilterGeneration.get() != generation;
+        Thread.ofVirtual().name("entry-filter").start(() -> {
+            EntryFilterResult result = computeEntryFilter(request, stale);
+            if (result != null) Platform.runLater(() -> { if (!stale.getAsBoolean()) applyEntryFilter(result); });
+        });
+    }
+
+    private EntryFilterRequest prepareEntryFilter() {
+        String raw = Optional.ofNullable(searchField.getText()).orElse("");
+        String q = raw.trim().toLowerCase(Locale.ROOT);
+        List<LiftEntry> entrySource = entrySubsetOverride != null ? entrySubsetOverride : baseEntries;
+        List<TableColumn<LiftEntry, ?>> leaves = collectLeafColumns(entryTable);
+        if (!q.startsWith(REGEX_PREFIX) && regexQueryText != null) cancelRegexSearch();
+        Set<LiftEntry> hits = q.isEmpty() ? null : q.startsWith(REGEX_PREFIX) ? regexMatches(raw.strip()) : indexMatches(raw, q);
+        Map<Integer, String> selected = selectedFacetValues(entryColumnFilters.subList(0, Math.min(entryColumnFilters.size(), leaves.size())), I18n.get("filter.clear"));
+        return new EntryFilterRequest(raw, q, snapshotManager == null ? null : snapshotManager.snapshot(), hits,
+            entryFacets(entrySource, leaves), selected, Math.min(entryColumnFilters.size(), leaves.size()), entrySource.size());
+    }
+
+    /**
+     * Entrées trouvées par les index du dictionnaire (mots, le dernier en préfixe, et sous-chaînes ; vedettes proches
+     * après « ~ »), copiées pour être lues hors du fil de l'interface. Tant que l'index plein texte est en construction,
+     * rien n'est trouvé : le filtrage est relancé à son installation (voir {@link #loadTextIndex}).
+     */
+    private Set<LiftEntry> indexMatches(String raw, String q) {
+        Set<LiftEntry> hits = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (q.startsWith(FUZZY_PREFIX)) {
+            for (FuzzyHeadwordIndex.Match m : fuzzyMatches(q.substring(FUZZY_PREFIX.length()), Integer.MAX_VALUE)) hits.add(m.entry());
+            return hits;
+        }
+        if (textIndex == null) return hits;
+        hits.addAll(textIndex.search(raw));
+        hits.addAll(textIndex.findSubstring(q));
+        return hits;
+    }
+
+    /**
+     * Lignes visibles, décomptes des listes de filtre et vedettes proches. Ne lit que la requête préparée
+     * (voir {@link EntryFilterRequest}) : peut tourner hors du fil de l'interface.
+     * @param stale vrai quand le calcul est devenu inutile
+     * @return le résultat, null si le calcul a été abandonné
+     */
+    private EntryFilterResult computeEntryFilter(EntryFilterRequest request, java.util.function.BooleanSupplier stale) {
+        FacetIndex<LiftEntry> facets = request.facets().get();
+        if (stale.getAsBoolean()) return null;
+        Predicate<LiftEntry> textMatch = textMatch(request);
+        BitSet searchRows = new BitSet(facets.size());
+        for (int i = 0; i < facets.size(); i++) {
+            if ((i & 1023) == 0 && stale.getAsBoolean()) return null;
+            LiftEntry e = facets.row(i);
+            if (e != null && textMatch.test(e)) searchRows.set(i);
+        }
+        List<Map<String, Integer>> counts = new ArrayList<>();
+        for (int c = 0; c < request.facetColumns(); c++) {
+            if (stale.getAsBoolean()) return null;
+            counts.add(facets.counts(c, facets.filter(searchRows, request.selected(), c)));
+        }
+        Set<LiftEntry> visible = facets.rows(facets.filter(searchRows, request.selected(), -1));
+        return new EntryFilterResult(request.raw(), visible, counts, request.total());
+    }
+
+    private void applyEntryFilter(EntryFilterResult result) {
+        filteredEntries.setPredicate(result.visible()::contains);
+        if (!entryColumnFilters.isEmpty()) {
             String clearOption = I18n.get("filter.clear");
-            filteredEntries.setPredicate(entry -> {
-                if (!entrySource.contains(entry)) return false;
-                if (entry == null) return false;
-                if (!q.isEmpty() && !buildSearchText(entry).toLowerCase(Locale.ROOT).contains(q)) return false;
-                for (int i = 0; i < entryColumnFilters.size() && i < leaves.size(); i++) {
-                    String selected = entryColumnFilters.get(i).getValue();
-                    if (!isActiveFilter(selected, clearOption)) continue;
-                    Object val = leaves.get(i).getCellObservableValue(entry) != null ? leaves.get(i).getCellObservableValue(entry).getValue() : null;
-                    String cellText = val != null ? val.toString() : "";
-                    if (!selected.equals(cellText)) return false;
+            entryFilterInternalUpdate = true;
+            try {
+                for (int i = 0; i < result.counts().size() && i < entryColumnFilters.size(); i++) {
+                    setFacetChoices(entryColumnFilters.get(i), result.counts().get(i), clearOption);
                 }
-                return true;
-            });
-            refreshEntryFacetChoices(q, leaves, clearOption, entrySource);
-            updateCountLabel(filteredEntries.size(), entrySource.size());
+            } finally {
+                entryFilterInternalUpdate = false;
+            }
         }
+        updateCountLabel(filteredEntries.size(), result.total());
+        updateEntryPlaceholder(result.raw());
     }
 
-    private void refreshEntryFacetChoices(String q, List<TableColumn<LiftEntry, ?>> leaves, String clearOption, List<LiftEntry> entrySource) {
-        if (entryColumnFilters.isEmpty()) return;
-        entryFilterInternalUpdate = true;
+    /**
+     * Recherche approchée dans l'index des vedettes : tolérance de 1 faute pour les requêtes courtes, 2 au-delà.
+     */
+    private List<FuzzyHeadwordIndex.Match> fuzzyMatches(String query, int limit) {
+        if (fuzzyIndex == null || query.isBlank()) return List.of();
+        String q = query.strip();
+        return fuzzyIndex.find(q, q.length() <= 4 ? 1 : 2, limit);
+    }
+
+    /**
+     * Quand la recherche ne donne rien, propose les vedettes proches (« Vouliez-vous dire… »).
+     */
+    private void updateEntryPlaceholder(String raw) {
+        String q = raw.strip();
+        if (q.startsWith(REGEX_PREFIX)) {
+            String message = regexError != null ? I18n.get("search.regexInvalid", regexError)
+                : regexQuery != null && !regexQuery.getCompletion().isDone() ? I18n.get("search.regexRunning") : I18n.get("placeholder.noData");
+            entryTable.setPlaceholder(new Label(message));
+            return;
+        }
+        if (!filteredEntries.isEmpty() || q.isEmpty() || q.startsWith(FUZZY_PREFIX)) {
+            entryTable.setPlaceholder(new Label(I18n.get("placeholder.noData")));
+            return;
+        }
+        VBox box = new VBox(4);
+        box.setAlignment(Pos.CENTER);
+        box.getChildren().add(new Label(I18n.get("placeholder.noData")));
+        LinkedHashSet<String> seen = new LinkedHashSet<>();
+        for (FuzzyHeadwordIndex.Match m : fuzzyMatches(q, 20)) {
+            if (!seen.add(m.headword()) || seen.size() > 5) continue;
+            Hyperlink link = new Hyperlink(m.headword());
+            link.setOnAction(e -> searchField.setText(m.headword()));
+            box.getChildren().add(link);
+        }
+        if (!seen.isEmpty()) box.getChildren().add(1, new Label(I18n.get("search.didYouMean")));
+        entryTable.setPlaceholder(box);
+    }
+
+    /**
+     * Recherche plein texte : entrées trouvées par les index (voir {@link #indexMatches}) ou code de l'entrée dans l'instantané.
+     * Une requête commençant par « ~ » cherche les vedettes proches (fautes de frappe, diacritiques),
+     * une requête « /motif/ » les textes correspondant à une expression régulière (entrées trouvées jusqu'ici).
+     */
+    private Predicate<LiftEntry> textMatch(EntryFilterRequest request) {
+        String q = request.q();
+        if (q.isEmpty()) return e -> true;
+        Set<LiftEntry> hits = request.hits();
+        if (q.startsWith(REGEX_PREFIX) || q.startsWith(FUZZY_PREFIX) || request.snapshot() == null) return hits::contains;
+        Map<LiftEntry, String> codes = entryCodes(request.snapshot());
+        String codeQuery = SEARCH_FOLDING.fold(null, q);
+        return e -> hits.contains(e) || codes.getOrDefault(e, "").contains(codeQuery);
+    }
+
+    /** Codes repliés des entrées de l'instantané, relevés une fois par instantané. */
+    private Map<LiftEntry, String> entryCodes(DictionarySnapshot snapshot) {
+        int revision = SEARCH_FOLDING.getRevision();
+        EntryCodeKeys keys = entryCodeKeys;
+        if (keys == null || keys.snapshot() != snapshot || keys.foldingRevision() != revision) {
+            Map<LiftEntry, String> codes = new IdentityHashMap<>();
+            for (DictionarySnapshot.Entry e : snapshot.getEntries()) {
+                e.extensible().traits().stream().filter(t -> "code".equals(t.name())).findFirst()
+                    .ifPresent(t -> codes.put(e.handle(), SEARCH_FOLDING.fold(null, t.value())));
+            }
+            entryCodeKeys = keys = new EntryCodeKeys(snapshot, revision, codes);
+        }
+        return keys.codes();
+    }
+
+    /**
+     * Recherche « /motif/ rôles langues » : par exemple {@code /[nmŋ]\p{M}$/ headword tww} pour les vedettes
+     * en tww finissant par une nasale suivie d'un ton. Les rôles ({@link TextRole}) et les langues sont facultatifs.
+     * La recherche tourne en parallèle hors du fil de l'interface ; les entrées trouvées sont ajoutées au fur
+     * et à mesure, et la recherche est annulée dès que la requête change.
+     */
+    private Set<LiftEntry> regexMatches(String query) {
+        LiftFactory factory = getFactory(currentDictionary);
+        if (factory == null) return Set.of();
+        if (query.equals(regexQueryText)) return regexHitsSnapshot();
+        cancelRegexSearch();
+        regexQueryText = query;
+        int close = query.lastIndexOf(REGEX_PREFIX);
+        String pattern = close > 0 ? query.substring(1, close) : query.substring(1);
+        Set<TextRole> roles = EnumSet.noneOf(TextRole.class);
+        Set<String> langs = new HashSet<>();
+        if (close > 0) {
+            for (String token : query.substring(close + 1).trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+                try { roles.add(TextRole.valueOf(token.toUpperCase(Locale.ROOT))); }
+                catch (IllegalArgumentException e) { langs.add(token); }
+            }
+        }
+        if (pattern.isEmpty()) return Set.of();
+        java.util.concurrent.ConcurrentLinkedQueue<RegexSearch.Match> found = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        AtomicBoolean refreshScheduled = new AtomicBoolean();
+        RegexSearch.Query[] self = new RegexSearch.Query[1];
+        Runnable refresh = () -> {
+            refreshScheduled.set(false);
+            if (regexQuery != self[0]) return;
+            for (RegexSearch.Match m; (m = found.poll()) != null; ) regexHits.add(m.entry());
+            scheduleEntryFilter();
+        };
         try {
-            for (int i = 0; i < entryColumnFilters.size() && i < leaves.size(); i++) {
-                ComboBox<String> combo = entryColumnFilters.get(i);
-                String currentValue = combo.getValue();
-                final int colIndex = i;
-
-                List<String> values = entrySource.stream()
-                    .filter(e -> e != null && (q.isEmpty() || buildSearchText(e).toLowerCase(Locale.ROOT).contains(q)))
-                    .filter(e -> rowMatchesEntryFiltersExcluding(e, leaves, clearOption, colIndex))
-                    .map(e -> {
-                        Object v = leaves.get(colIndex).getCellObservableValue(e) != null ? leaves.get(colIndex).getCellObservableValue(e).getValue() : null;
-                        return v == null ? "" : v.toString();
-                    })
-                    .filter(s -> !s.isBlank())
-                    .distinct()
-                    .sorted(String.CASE_INSENSITIVE_ORDER)
-                    .toList();
-
-                ObservableList<String> items = FXCollections.observableArrayList();
-                items.add(clearOption);
-                items.addAll(values);
-                combo.setItems(items);
-
-                if (currentValue != null && items.contains(currentValue)) combo.setValue(currentValue);
-                else combo.setValue(clearOption);
+            self[0] = regexQuery = new RegexSearch().search(snapshotManager.snapshot(), pattern, roles, langs, batch -> {
+                // Lots regroupés : un seul rafraîchissement de la table en attente à la fois
+                found.addAll(batch);
+                if (refreshScheduled.compareAndSet(false, true)) Platform.runLater(refresh);
+            });
+        } catch (java.util.regex.PatternSyntaxException e) {
+            regexError = e.getDescription();
+            return Set.of();
+        }
+        // Fin de la recherche : dernier rafraîchissement (message d'attente retiré)
+        regexQuery.getCompletion().whenComplete((count, error) -> Platform.runLater(refresh));
+        return regexHitsSnapshot();
+    }
+
+    /** Copie des entrées trouvées jusqu'ici, la recherche continuant de les compléter. */
+    private Set<LiftEntry> regexHitsSnapshot() {
+        Set<LiftEntry> hits = Collections.newSetFromMap(new IdentityHashMap<>(regexHits.size()));
+        hits.addAll(regexHits);
+        return hits;
+    }
+
+    private void cancelRegexSearch() {
+        if (regexQuery != null) regexQuery.cancel();
+        regexQuery = null;
+        regexQueryText = null;
+        regexError = null;
+        regexHits.clear();
+    }
+
+    /**
+     * Textes des cellules de la vue des entrées, relevés sur le fil de l'interface quand les entrées listées,
+     * les colonnes ou le modèle changent ; l'index de facettes en est construit au premier usage, par le calcul du filtrage.
+     */
+    private EntryFacetCells entryFacets(List<LiftEntry> entrySource, List<TableColumn<LiftEntry, ?>> leaves) {
+        if (entryFacetSource != entrySource || !entryFacetColumns.equals(leaves)) {
+            entryFacetSource = entrySource;
+            entryFacetColumns = leaves;
+            entryFacetCellCache = new RowProjectionCache<>(leaves.size(), (row, c) -> cellText(row, leaves.get(c)),
+                MainController::rowOwner, SEARCH_FOLDING, MODEL_REVISION::get, ROW_CHANGES);
+            entryFacetCells = null;
+        }
+        long revision = MODEL_REVISION.get();
+        EntryFacetCells captured = entryFacetCells;
+        if (captured == null || captured.revision != revision || !captured.hasRows(entrySource)) {
+            List<LiftEntry> rows = new ArrayList<>(entrySource);
+            String[][] cells = new String[leaves.size()][rows.size()];
+            for (int c = 0; c < cells.length; c++) {
+                for (int i = 0; i < rows.size(); i++) cells[c][i] = entryFacetCellCache.cell(rows.get(i), c);
             }
-        } finally {
-            entryFilterInternalUpdate = false;
+            entryFacetCells = captured = new EntryFacetCells(revision, rows, cells);
         }
+        return captured;
     }
 
-    private boolean rowMatchesEntryFiltersExcluding(
-        LiftEntry entry,
-        List<TableColumn<LiftEntry, ?>> leaves,
-        String clearOption,
-        int ignoredColumn
-    ) {
-        for (int i = 0; i < entryColumnFilters.size() && i < leaves.size(); i++) {
-            if (i == ignoredColumn) continue;
-            String selected = entryColumnFilters.get(i).getValue();
-            if (!isActiveFilter(selected, clearOption)) continue;
-            Object val = leaves.get(i).getCellObservableValue(entry) != null ? leaves.get(i).getCellObservableValue(entry).getValue() : null;
-            String cellText = val != null ? val.toString() : "";
-            if (!selected.equals(cellText)) return false;
+    private List<LiftEntry> entryFacetSource;
+    private List<TableColumn<LiftEntry, ?>> entryFacetColumns = List.of();
+    private RowProjectionCache<LiftEntry> entryFacetCellCache;
+    private EntryFacetCells entryFacetCells;
+
+    /** Copie des lignes et des textes des cellules de la vue des entrées, d'où l'index de facettes est construit. */
+    private static final class EntryFacetCells {
+        final long revision;
+        private final List<LiftEntry> rows;
+        private final String[][] cells;
+        private FacetIndex<LiftEntry> index;
+
+        EntryFacetCells(long revision, List<LiftEntry> rows, String[][] cells) {
+            this.revision = revision;
+            this.rows = rows;
+            this.cells = cells;
+        }
+
+        boolean hasRows(List<LiftEntry> source) {
+            if (source.size() != rows.size()) return false;
+            for (int i = 0; i < rows.size(); i++) {
+                if (source.get(i) != rows.get(i)) return false;
+            }
+            return true;
+        }
+
+        synchronized FacetIndex<LiftEntry> get() {
+            if (index == null) {
+                Map<LiftEntry, Integer> positions = new IdentityHashMap<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) positions.put(rows.get(i), i);
+                index = new FacetIndex<>(rows, IntStream.range(0, cells.length).toArray(), (row, c) -> cells[c][positions.get(row)]);
+            }
+            return index;
         }
-        return true;
     }
 
     /* ────────────────── DICTIONARY MANAGEMENT ────────────────── */
 
+    /** Valeurs des listes déroulantes du dictionnaire courant, null sans dictionnaire. */
+    private HeaderVocabulary vocabulary;
+
+    /** Signale une modification faite directement dans l'en-tête (voir {@link HeaderVocabulary}). */
+    private void headerChanged() {
+        LiftFactory factory = getFactory(currentDictionary);
+        if (factory != null) factory.headerChanged();
+    }
+
     private void setDictionary(LiftDictionary dictionary) {
+        LiftFactory previous = getFactory(currentDictionary);
+        if (previous != null) {
+            previous.getChangeBus().removeListener(senseStructureListener);
+            previous.getChangeBus().removeListener(revisionListener);
+            previous.getChangeBus().removeListener(retainedViewListener);
+            if (vocabulary != null) previous.getChangeBus().removeListener(vocabulary);
+        }
+        vocabulary = null;
+        retainedViews.clear();
+        editorPool.clear();
+        langFieldRows.clear();
+        langFieldGeneration.incrementAndGet();
+        MODEL_REVISION.incrementAndGet();
+        cancelRegexSearch();
+        if (referenceIndex != null) { referenceIndex.close(); referenceIndex = null; }
+        if (snapshotManager != null) { snapshotManager.close(); snapshotManager = null; }
+        if (vocabularyRefactoring != null) { vocabularyRefactoring.close(); vocabularyRefactoring = null; }
+        if (textIndex != null) { textIndex.close(); textIndex = null; }
+        if (fuzzyIndex != null) { fuzzyIndex.close(); fuzzyIndex = null; }
+        textIndexGeneration++;
+        pendingSidecar = null;
+        entryCodeKeys = null;
         this.currentDictionary = dictionary;
+        LiftFactory factory = getFactory(dictionary);
+        if (factory != null) {
+            // Ids et GUID des entrées et sens lus sans id, avant que les index ne s'abonnent
+            dictionary.addIds();
+            factory.getChangeBus().addListener(senseStructureListener);
+            factory.getChangeBus().addListener(revisionListener);
+            factory.getChangeBus().addListener(retainedViewListener);
+            vocabulary = new HeaderVocabulary(dictionary);
+            factory.getChangeBus().addListener(vocabulary);
+            referenceIndex = new ReferenceIndex(factory);
+            snapshotManager = new SnapshotManager(factory);
+            vocabularyRefactoring = new VocabularyRefactoring(factory);
+            fuzzyIndex = new FuzzyHeadwordIndex(factory, SEARCH_FOLDING);
+            loadTextIndex(factory, dictionary.getSource());
+        }
         undoManager.clear();
         baseEntries.clear();
         if (dictionary == null) { updateCountLabel(0, 0); return; }
@@ -2543,7 +3225,11 @@ public final class MainController {
     }
     @FXML private void onSave() {
         if (currentDictionary == null) { showError(I18n.get("error.save"), I18n.get("error.noDictionary")); return; }
-        try { currentDictionary.save(); } catch (Exception e) {
+        try {
+            sidecarGeneration.incrementAndGet();
+            currentDictionary.save();
+            writeIndexSidecar(currentDictionary.getSource());
+        } catch (Exception e) {
             showError(I18n.get("error.save"), I18n.formatErrorMessage("error.save.detail", e));
         }
     }
@@ -2555,8 +3241,11 @@ public final class MainController {
         ch.getExtensionFilters().add(new FileChooser.ExtensionFilter(I18n.get("dialog.liftFilter"), "*.lift"));
         File f = ch.showSaveDialog(navTree.getScene().getWindow());
         if (f != null) {
-            try { currentDictionary.save(f); }
-            catch (Exception e) {
+            try {
+                sidecarGeneration.incrementAndGet();
+                currentDictionary.save(f);
+                writeIndexSidecar(f);
+            } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Sauvegarde du dictionnaire sous un autre fichier", e);
                 showError(I18n.get("error.saveAs"), I18n.formatErrorMessage("error.saveAs.detail", e));
             }
@@ -2564,6 +3253,10 @@ public final class MainController {
     }
 
     @FXML private void onPreferences() { showPreferencesDialog(); }
+    @FXML private void onFindReplace() {
+        if (currentDictionary == null) { showError(I18n.get("replace.title"), I18n.get("error.noDictionaryShort")); return; }
+        showFindReplaceDialog();
+    }
     @FXML private void onQuit() { Platform.exit(); }
 
     @FXML private void onCopy() {
@@ -2585,9 +3278,7 @@ public final class MainController {
             LiftFactory factory = getFactory(currentDictionary);
             if (factory == null) return;
             // Crée une entrée avec le texte collé comme forme
-            org.xml.sax.helpers.AttributesImpl attrs = new org.xml.sax.helpers.AttributesImpl();
-            attrs.addAttribute("", "id", "id", "CDATA", UUID.randomUUID().toString());
-            LiftEntry entry = factory.createEntry(attrs);
+            LiftEntry entry = factory.createEntry(newEntryAttributes(factory, text.trim()));
             List<String> objLangs = getObjectLanguages();
             if (!objLangs.isEmpty()) entry.getForms().add(new Form(objLangs.get(0), text.trim()));
             baseEntries.add(entry);
@@ -2688,11 +3379,11 @@ public final class MainController {
         title.setStyle("-fx-font-size:15px; -fx-font-weight:bold; -fx-text-fill:#4c6f76;");
 
         TitledPane objPane = new TitledPane(I18n.get("nav.objectLangs"),
-            buildEditableLanguagePanel(objLangs, true, ldc.getAllObjectLanguagesMultiText()));
+            buildEditableLanguagePanel(objLangs, true, ldc.getAllObjectLanguagesMultiText(), ldc.getObjectLanguages()));
         objPane.setExpanded(true);
         objPane.setAnimated(false);
         TitledPane metaPane = new TitledPane(I18n.get("nav.metaLangs"),
-            buildEditableLanguagePanel(metaLangs, false, ldc.getAllMetaLanguagesMultiText()));
+            buildEditableLanguagePanel(metaLangs, false, ldc.getAllMetaLanguagesMultiText(), ldc.getMetaLanguages()));
         metaPane.setExpanded(true);
         metaPane.setAnimated(false);
 
@@ -2704,7 +3395,7 @@ public final class MainController {
     }
 
     /** Builds an editable panel for a language list (object or meta) with add/delete. */
-    private VBox buildEditableLanguagePanel(List<String> langs, boolean isObject, List<MultiText> multiTexts) {
+    private VBox buildEditableLanguagePanel(List<String> langs, boolean isObject, List<MultiText> multiTexts, LangManager<?> registry) {
         TableView<String> table = new TableView<>(FXCollections.observableArrayList(langs));
         table.setPrefHeight(140);
         TableColumn<String, String> langCol = new TableColumn<>(I18n.get("col.code"));
@@ -2712,7 +3403,7 @@ public final class MainController {
         langCol.setPrefWidth(120);
         TableColumn<String, String> usageCol = new TableColumn<>(I18n.get("cfg.usageCount"));
         usageCol.setCellValueFactory(cd -> {
-            long n = countLanguageUsage(cd.getValue(), multiTexts);
+            long n = registry.getFormCount(cd.getValue());
             return new ReadOnlyStringWrapper(String.valueOf(n));
         });
         usageCol.setPrefWidth(80);
@@ -2736,7 +3427,7 @@ public final class MainController {
         removeBtn.setOnAction(e -> {
             String sel = table.getSelectionModel().getSelectedItem();
             if (sel == null) return;
-            long usage = countLanguageUsage(sel, multiTexts);
+            long usage = registry.getFormCount(sel);
             if (usage > 0) {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
                 confirm.setTitle(I18n.get("btn.delete"));
@@ -2755,11 +3446,6 @@ public final class MainController {
         return new VBox(6, table, controls);
     }
 
-    private long countLanguageUsage(String lang, List<MultiText> multiTexts) {
-        if (lang == null || lang.isBlank() || multiTexts == null) return 0;
-        return multiTexts.stream().filter(mt -> mt.getForm(lang).isPresent()).count();
-    }
-
     private void removeLanguageFromMultiTexts(String lang, List<MultiText> multiTexts) {
         if (lang == null || lang.isBlank() || multiTexts == null) return;
         for (MultiText mt : multiTexts) {
@@ -3044,7 +3730,7 @@ public final class MainController {
         ObservableList<T> sourceItems = FXCollections.observableArrayList(table.getItems());
         FilteredList<T> filtered = new FilteredList<>(sourceItems, t -> true);
         javafx.collections.transformation.SortedList<T> sorted = new javafx.collections.transformation.SortedList<>(filtered);
-        sorted.comparatorProperty().bind(table.comparatorProperty());
+        bindSortedRows(table, sorted);
         table.setItems(sorted);
 
         List<TableColumn<T, ?>> leaves = collectLeafColumns(table);
@@ -3052,6 +3738,12 @@ public final class MainController {
         List<Boolean> textFilterColumns = new ArrayList<>();
         String clearOption = I18n.get("filter.clear");
         AtomicBoolean internalUpdate = new AtomicBoolean(false);
+        // Textes des cellules calculés une fois par ligne, recalculés pour les seules entrées modifiées
+        RowProjectionCache<T> cells = new RowProjectionCache<>(leaves.size(), (row, c) -> cellText(row, leaves.get(c)),
+            MainController::rowOwner, SEARCH_FOLDING, MODEL_REVISION::get, ROW_CHANGES);
+        TableTextIndex<T> textIndex = new TableTextIndex<>(sourceItems,
+            (row, col) -> col < 0 ? cells.searchText(row) : cells.foldedCell(row, col),
+            java.util.function.UnaryOperator.identity(), MainController::rowOwner, MODEL_REVISION::get, ROW_CHANGES);
 
         GridPane filterRow = new GridPane();
         filterRow.setHgap(0);
@@ -3060,14 +3752,22 @@ public final class MainController {
         filterRow.setMinWidth(0);
 
         java.util.function.Supplier<String> searchTextSupplier = () ->
-            searchTextProperty != null ? Optional.ofNullable(searchTextProperty.get()).orElse("").trim().toLowerCase(Locale.ROOT) : "";
+            searchTextProperty != null ? SEARCH_FOLDING.fold(null, Optional.ofNullable(searchTextProperty.get()).orElse("").trim()) : "";
+
+        // Les listes de filtre passent par l'index de facettes, les champs texte et la recherche par l'index trigrammes
+        java.util.function.Supplier<FacetIndex<T>> facets = facetIndexSupplier(sourceItems, leaves.size(), cells::cell, c -> !textFilterColumns.get(c));
+        BitSet[] searchRows = new BitSet[1];
 
         Runnable refreshPredicate = () -> {
             String q = searchTextSupplier.get();
-            filtered.setPredicate(row ->
-                    rowMatchesAllFilters(row, leaves, filterInputs, textFilterColumns, clearOption, -1)
-                    && rowMatchesSearch(row, leaves, q)
+            Set<T> searchHits = q.isEmpty() ? null : textIndex.rowsContaining(-1, q);
+            FacetIndex<T> index = facets.get();
+            searchRows[0] = index.select(row ->
+                    rowMatchesTextFilters(row, cells, filterInputs, textFilterColumns, textIndex)
+                    && (searchHits != null ? searchHits.contains(row) : q.isEmpty() || cells.searchText(row).contains(q))
             );
+            Set<T> visible = index.rows(index.filter(searchRows[0], selectedFacetValues(filterInputs, clearOption), -1));
+            filtered.setPredicate(visible::contains);
             if (onCountChanged != null)
                 javafx.application.Platform.runLater(() -> onCountChanged.accept(filtered.size(), sourceItems.size()));
         };
@@ -3076,41 +3776,26 @@ public final class MainController {
             if (internalUpdate.get()) return;
             internalUpdate.set(true);
             try {
-                String q = searchTextSupplier.get();
+                FacetIndex<T> index = facets.get();
+                Map<Integer, String> selected = selectedFacetValues(filterInputs, clearOption);
                 for (int i = 0; i < leaves.size(); i++) {
                     if (textFilterColumns.get(i)) continue;
-                    ComboBox<String> combo = (ComboBox<String>) filterInputs.get(i);
-                    String currentValue = combo.getValue();
-                    final int colIndex = i;
-
-                    List<String> values = sourceItems.stream()
-                        .filter(row -> rowMatchesAllFilters(row, leaves, filterInputs, textFilterColumns, clearOption, colIndex)
-                                && rowMatchesSearch(row, leaves, q))
-                        .map(row -> cellText(row, leaves.get(colIndex)))
-                        .filter(s -> s != null && !s.isBlank())
-                        .distinct()
-                        .sorted(String.CASE_INSENSITIVE_ORDER)
-                        .toList();
-
-                    ObservableList<String> items = FXCollections.observableArrayList();
-                    items.add(clearOption);
-                    items.addAll(values);
-                    combo.setItems(items);
-
-                    if (currentValue != null && items.contains(currentValue)) combo.setValue(currentValue);
-                    else combo.setValue(clearOption);
+                    setFacetChoices((ComboBox<String>) filterInputs.get(i), index.counts(i, index.filter(searchRows[0], selected, i)), clearOption);
                 }
             } finally {
                 internalUpdate.set(false);
             }
         };
 
-        if (searchTextProperty != null) {
-            searchTextProperty.addListener((obs, o, n) -> {
-                refreshPredicate.run();
-                refreshFacetChoices.run();
-            });
-        }
+        // Écouteur faible, tenu par la vue : une vue abandonnée n'est pas retenue par la barre de recherche,
+        // une vue conservée mais masquée ne filtre pas (elle l'est à nouveau quand elle est réaffichée)
+        javafx.beans.value.ChangeListener<String> searchListener = (obs, o, n) -> {
+            if (table.getScene() == null) return;
+            refreshPredicate.run();
+            refreshFacetChoices.run();
+        };
+        if (searchTextProperty != null) searchTextProperty.addListener(new javafx.beans.value.WeakChangeListener<>(searchListener));
+        sourceItems.addListener((javafx.collections.ListChangeListener<T>) c -> textIndex.invalidate());
 
         Button clearBtn = new Button(I18n.get("filter.resetAll"));
         clearBtn.setOnAction(e -> {
@@ -3143,8 +3828,8 @@ public final class MainController {
             boolean forceText = FILTER_MODE_TEXT.equals(column.getProperties().get("filterMode"));
             final int colIdx = i;
             long distinct = sourceItems.stream()
-                .map(row -> cellText(row, leaves.get(colIdx)))
-                .filter(s -> s != null && !s.isBlank())
+                .map(row -> cells.cell(row, colIdx))
+                .filter(s -> !s.isBlank())
                 .distinct().count();
             boolean hasRepeatedValues = distinct < sourceItems.size() && distinct > 0;
             boolean textFilter = forceText || !hasRepeatedValues;
@@ -3191,7 +3876,7 @@ public final class MainController {
                         setStyle("");
                         return;
                     }
-                    setText(item);
+                    setText(facetLabel(cb, item));
                     boolean isClearItem = clearOption.equals(item);
                     boolean activeFilter = isActiveFilter(cb.getValue(), clearOption);
                     boolean disableClear = isClearItem && !activeFilter;
@@ -3239,6 +3924,12 @@ public final class MainController {
         ));
 
         VBox wrapper = new VBox(header, filterRow, table);
+        wrapper.getProperties().put(FILTER_ROWS, sourceItems);
+        wrapper.getProperties().put(FILTER_REFRESH, (Runnable) () -> {
+            refreshPredicate.run();
+            refreshFacetChoices.run();
+        });
+        wrapper.getProperties().put(FILTER_SEARCH_LISTENER, searchListener);
         wrapper.setMinWidth(0);
         filterRow.setMinWidth(0);
         table.setMinWidth(0);
@@ -3251,36 +3942,24 @@ public final class MainController {
     private static <T> VBox wrapTableWithFilters(TableView<T> table, java.util.function.BiConsumer<Integer,Integer> onCountChanged) {
         return wrapTableWithFilters(table, onCountChanged, null);
     }
-    private static <T> boolean rowMatchesSearch(T row, List<TableColumn<T, ?>> leaves, String searchText) {
-        if (searchText == null || searchText.isEmpty()) return true;
-        StringBuilder sb = new StringBuilder();
-        for (TableColumn<T, ?> col : leaves) {
-            String ct = cellText(row, col);
-            if (ct != null) sb.append(" ").append(ct);
-        }
-        return sb.toString().toLowerCase(Locale.ROOT).contains(searchText);
-    }
-
-    private static <T> boolean rowMatchesAllFilters(
+    private static <T> boolean rowMatchesTextFilters(
         T row,
-        List<TableColumn<T, ?>> leaves,
+        RowProjectionCache<T> cells,
         List<javafx.scene.Node> filterInputs,
         List<Boolean> textFilterColumns,
-        String clearOption,
-        int ignoredColumn
+        TableTextIndex<T> textIndex
     ) {
         for (int i = 0; i < filterInputs.size(); i++) {
-            if (i == ignoredColumn) continue;
-            String cellValue = cellText(row, leaves.get(i));
-            if (textFilterColumns.get(i)) {
-                String query = ((TextField) filterInputs.get(i)).getText();
-                if (query == null || query.isBlank()) continue;
-                if (!cellValue.toLowerCase(Locale.ROOT).contains(query.trim().toLowerCase(Locale.ROOT))) return false;
-                continue;
+            if (!textFilterColumns.get(i)) continue;
+            String query = ((TextField) filterInputs.get(i)).getText();
+            if (query == null || query.isBlank()) continue;
+            String folded = SEARCH_FOLDING.fold(null, query.trim());
+            Set<T> hits = textIndex.rowsContaining(i, folded);
+            if (hits != null) {
+                if (!hits.contains(row)) return false;
+            } else if (!cells.foldedCell(row, i).contains(folded)) {
+                return false;
             }
-            String selected = ((ComboBox<String>) filterInputs.get(i)).getValue();
-            if (selected == null || selected.isBlank() || clearOption.equals(selected)) continue;
-            if (!selected.equals(cellValue)) return false;
         }
         return true;
     }
@@ -3289,8 +3968,68 @@ public final class MainController {
         return selected != null && !selected.isBlank() && !clearOption.equals(selected);
     }
 
+    /** Clés des propriétés d'une table filtrée : lignes, filtrage à relancer, écouteur de la barre de recherche. */
+    private static final String FILTER_ROWS = "filterRows";
+    private static final String FILTER_REFRESH = "filterRefresh";
+    private static final String FILTER_SEARCH_LISTENER = "filterSearchListener";
+
+    /** Clé des propriétés d'une liste de filtre : nombre de lignes par valeur proposée. */
+    private static final String FACET_COUNTS = "facetCounts";
+
+    /**
+     * Index de facettes des colonnes d'une table, reconstruit à la demande quand le modèle ou les lignes changent.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> java.util.function.Supplier<FacetIndex<T>> facetIndexSupplier(List<T> rows, int columnCount,
+            java.util.function.BiFunction<T, Integer, String> valueOf, java.util.function.IntPredicate indexed) {
+        Object[] built = new Object[1];
+        long[] builtFor = { -1, -1 };
+        if (rows instanceof ObservableList<T> observable) observable.addListener((javafx.collections.ListChangeListener<T>) c -> built[0] = null);
+        return () -> {
+            long revision = MODEL_REVISION.get();
+            if (built[0] == null || builtFor[0] != revision || builtFor[1] != rows.size()) {
+                int[] columns = IntStream.range(0, columnCount).filter(indexed).toArray();
+                built[0] = new FacetIndex<>(rows, columns, valueOf);
+                builtFor[0] = revision;
+                builtFor[1] = rows.size();
+            }
+            return (FacetIndex<T>) built[0];
+        };
+    }
+
+    /** Valeurs choisies dans les listes de filtre, par colonne (les champs texte sont ignorés). */
+    private static Map<Integer, String> selectedFacetValues(List<? extends javafx.scene.Node> inputs, String clearOption) {
+        Map<Integer, String> selected = new HashMap<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (inputs.get(i) instanceof ComboBox<?> cb && cb.getValue() instanceof String value && isActiveFilter(value, clearOption)) {
+                selected.put(i, value);
+            }
+        }
+        return selected;
+    }
+
+    /** Remplit une liste de filtre avec les valeurs restantes et leur nombre de lignes, en conservant le choix courant s'il est encore proposé. */
+    private static void setFacetChoices(ComboBox<String> combo, Map<String, Integer> counts, String clearOption) {
+        String currentValue = combo.getValue();
+        ObservableList<String> items = FXCollections.observableArrayList();
+        items.add(clearOption);
+        counts.keySet().stream().sorted(String.CASE_INSENSITIVE_ORDER).forEach(items::add);
+        combo.getProperties().put(FACET_COUNTS, counts);
+        combo.setItems(items);
+        if (currentValue != null && counts.containsKey(currentValue)) combo.setValue(currentValue);
+        else combo.setValue(clearOption);
+    }
+
+    /** Texte d'une valeur dans la liste déroulante d'un filtre, suivi de son nombre de lignes. */
+    private static String facetLabel(ComboBox<String> combo, String item) {
+        Object counts = combo.getProperties().get(FACET_COUNTS);
+        Integer n = counts instanceof Map<?, ?> m ? (Integer) m.get(item) : null;
+        return n == null ? item : item + "  (" + n + ")";
+    }
+
     private static <T> String cellText(T row, TableColumn<T, ?> col) {
-        Object cellVal = col.getCellObservableValue(row) != null ? col.getCellObservableValue(row).getValue() : null;
+        javafx.beans.value.ObservableValue<?> observable = col.getCellObservableValue(row);
+        Object cellVal = observable != null ? observable.getValue() : null;
         return cellVal != null ? cellVal.toString() : "";
     }
 
@@ -3360,7 +4099,7 @@ public final class MainController {
             LiftHeaderRangeElement sel = selItem.getValue();
             long usage = countRangeElementUsage(rangeId, sel.getId());
             if (usage > 0) showError(I18n.get("btn.delete"), I18n.get("cfg.deleteNotAllowed", usage));
-            else { range.getRangeElements().remove(sel); showHeaderRangeView(rangeId); }
+            else { range.getRangeElements().remove(sel); headerChanged(); showHeaderRangeView(rangeId); }
         });
 
         Button renameBtn = new Button(I18n.get("cfg.rename"));
@@ -3586,6 +4325,7 @@ public final class MainController {
                 showError(I18n.get("btn.delete"), I18n.get("cfg.deleteNotAllowed", usage));
             } else {
                 header.getFields().remove(sel);
+                headerChanged();
                 table.getItems().remove(sel);
             }
         });
@@ -3701,6 +4441,7 @@ public final class MainController {
             typeCombo.setValue(fd.getType().orElse(""));
             typeCombo.valueProperty().addListener((obs, o, n) -> {
                 fd.setType(n == null || n.isBlank() ? Optional.empty() : Optional.of(n));
+                headerChanged();
             });
             GridPane.setHgrow(typeCombo, Priority.ALWAYS);
             g.add(typeCombo, 1, 2);
@@ -3708,7 +4449,10 @@ public final class MainController {
             g.add(new Label(I18n.get("cfg.targets")), 0, 3);
             TextField classTf = new TextField(fd.getFClass().orElse(""));
             classTf.setPromptText("entry sense variant ...");
-            classTf.textProperty().addListener((obs, o, n) -> fd.setFClass(n.isBlank() ? Optional.empty() : Optional.of(n)));
+            classTf.textProperty().addListener((obs, o, n) -> {
+                fd.setFClass(n.isBlank() ? Optional.empty() : Optional.of(n));
+                headerChanged();
+            });
             GridPane.setHgrow(classTf, Priority.ALWAYS);
             g.add(classTf, 1, 3);
 
@@ -3731,57 +4475,34 @@ public final class MainController {
 
     private long countFieldOrTraitUsage(LiftFieldAndTraitDefinition fd) {
         if (currentDictionary == null) return 0;
-        var comps = currentDictionary.getLiftDictionaryComponents();
-        long fieldCount = comps.getAllFields().stream().filter(f -> fd.getName().equals(f.getName())).count();
-        long traitCount = comps.getAllTraits().stream().filter(t -> fd.getName().equals(t.getName())).count();
-        return fieldCount + traitCount;
+        if (vocabularyRefactoring == null) return 0;
+        return vocabularyRefactoring.countUses(VocabularyRefactoring.Vocabulary.FIELD_TYPES, fd.getName())
+            + vocabularyRefactoring.countUses(VocabularyRefactoring.Vocabulary.traitValues(fd.getName()));
     }
 
     /* ─── Header usage counting & renaming ─── */
 
     private long countRangeElementUsage(String rangeId, String elementId) {
         if (currentDictionary == null) return 0;
-        var comps = currentDictionary.getLiftDictionaryComponents();
-        if ("note-type".equals(rangeId))
-            return comps.getAllNotes().stream().filter(n -> elementId.equals(n.getType().orElse(null))).count();
         if ("translation-type".equals(rangeId))
-            return comps.getAllExamples().stream().filter(ex -> ex.getTranslations().containsKey(elementId)).count();
-        if ("grammatical-info".equals(rangeId))
-            return comps.getAllSenses().stream().filter(s -> s.getGrammaticalInfo().map(g -> elementId.equals(g.getValue())).orElse(false)).count();
-        return comps.getAllTraits().stream().filter(t -> rangeId.equals(t.getName()) && elementId.equals(t.getValue())).count();
+            return currentDictionary.getLiftDictionaryComponents().getAllExamples().stream().filter(ex -> ex.getTranslations().containsKey(elementId)).count();
+        if (vocabularyRefactoring == null) return 0;
+        return vocabularyRefactoring.countUses(VocabularyRefactoring.Vocabulary.ofRange(rangeId), elementId);
     }
 
     private long countFieldUsage(String fieldName) {
-        if (currentDictionary == null) return 0;
-        return currentDictionary.getLiftDictionaryComponents().getAllFields().stream()
-            .filter(f -> fieldName.equals(f.getName())).count();
+        if (vocabularyRefactoring == null) return 0;
+        return vocabularyRefactoring.countUses(VocabularyRefactoring.Vocabulary.FIELD_TYPES, fieldName);
     }
 
+    /**
+     * Renomme un élément de plage et ses usages en une seule étape annulable ;
+     * vers un identifiant existant, les deux valeurs sont fusionnées.
+     */
     private void renameRangeElementInData(String rangeId, String oldId, String newId) {
-        if (currentDictionary == null) return;
-        var comps = currentDictionary.getLiftDictionaryComponents();
-        LiftHeader header = comps.getHeader();
-        if (header != null) {
-            header.getRanges().stream().filter(r -> rangeId.equals(r.getId())).findFirst().ifPresent(r -> {
-                r.getRangeElements().stream().filter(re -> oldId.equals(re.getId())).findFirst().ifPresent(re -> {
-                    try {
-                        var idField = LiftHeaderRangeElement.class.getDeclaredField("id");
-                        idField.setAccessible(true);
-                        idField.set(re, newId);
-                    } catch (Exception ignored) {}
-                });
-            });
-        }
-        if ("note-type".equals(rangeId)) {
-            comps.getAllNotes().stream().filter(n -> oldId.equals(n.getType().orElse(null))).forEach(n -> n.setType(newId));
-        } else if ("grammatical-info".equals(rangeId)) {
-            comps.getAllSenses().stream()
-                .filter(s -> s.getGrammaticalInfo().map(g -> oldId.equals(g.getValue())).orElse(false))
-                .forEach(s -> s.setGrammaticalInfo(newId));
-        } else {
-            comps.getAllTraits().stream().filter(t -> rangeId.equals(t.getName()) && oldId.equals(t.getValue()))
-                .forEach(t -> t.setValue(newId));
-        }
+        if (vocabularyRefactoring == null) return;
+        VocabularyRefactoring.Edit edit = vocabularyRefactoring.rename(VocabularyRefactoring.Vocabulary.ofRange(rangeId), oldId, newId);
+        if (!edit.isEmpty()) undoManager.execute(new RefactorVocabularyCommand(edit, () -> showHeaderRangeView(rangeId)));
     }
 
     /* ════════════════════ AUTO-POPULATE HEADER ════════════════════ */
@@ -3881,6 +4602,56 @@ public final class MainController {
         return c;
     }
 
+    /**
+     * Colonne du texte d'un multitexte dans une langue, triée selon l'ordre de la langue (clés de tri mises en cache par les formes).
+     */
+    private static <T> TableColumn<T, String> formCol(String lang, java.util.function.Function<T, MultiText> multiText) {
+        TableColumn<T, String> c = col(lang, row -> Optional.ofNullable(multiText.apply(row)).flatMap(mt -> mt.getForm(lang)).map(Form::toPlainText).orElse(""));
+        c.getProperties().put(SORT_KEY, formSortKey(lang, multiText));
+        return c;
+    }
+
+    private static <T> java.util.function.Function<T, byte[]> formSortKey(String lang, java.util.function.Function<T, MultiText> multiText) {
+        return row -> {
+            MultiText mt = row == null ? null : multiText.apply(row);
+            return mt == null ? NO_SORT_KEY : mt.getForm(lang).map(f -> f.getSortKey(COLLATION)).orElse(NO_SORT_KEY);
+        };
+    }
+
+    /**
+     * Trie les lignes selon l'ordre de tri de la table : les colonnes ayant une clé de tri ({@link #SORT_KEY})
+     * sont comparées sur leurs clés binaires, les autres avec le comparateur de la colonne.
+     */
+    private static <T> void bindSortedRows(TableView<T> table, SortedList<T> sorted) {
+        table.setSortPolicy(t -> true);
+        sorted.comparatorProperty().bind(Bindings.createObjectBinding(() -> rowComparator(table), table.comparatorProperty(), table.getSortOrder()));
+    }
+
+    private static <T> Comparator<T> rowComparator(TableView<T> table) {
+        Comparator<T> result = null;
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            Comparator<T> c = columnComparator(column);
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) c = c.reversed();
+            result = result == null ? c : result.thenComparing(c);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<T> columnComparator(TableColumn<T, ?> column) {
+        if (column.getProperties().get(SORT_KEY) instanceof java.util.function.Function<?, ?> key) {
+            java.util.function.Function<T, byte[]> sortKey = (java.util.function.Function<T, byte[]>) key;
+            return (a, b) -> Collation.compareKeys(sortKey.apply(a), sortKey.apply(b));
+        }
+        Comparator<Object> comparator = (Comparator<Object>) column.getComparator();
+        return (a, b) -> comparator.compare(cellValue(column, a), cellValue(column, b));
+    }
+
+    private static <T> Object cellValue(TableColumn<T, ?> column, T row) {
+        var value = column.getCellObservableValue(row);
+        return value != null ? value.getValue() : null;
+    }
+
     private static <T> TableColumn<T, String> col(String title, java.util.function.Function<T, String> extractor) {
         TableColumn<T, String> c = new TableColumn<>(title);
         c.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue() == null ? "" : extractor.apply(cd.getValue())));
@@ -3894,8 +4665,17 @@ public final class MainController {
         container.getChildren().add(lbl);
     }
 
+    /** Section repliable : son contenu n'est construit qu'à la première ouverture. */
     private static void addSection(VBox container, String title, NodeFactory factory, boolean expanded) {
-        TitledPane tp = new TitledPane(title, factory.create()); tp.setExpanded(expanded); tp.setAnimated(false); container.getChildren().add(tp);
+        TitledPane tp = new TitledPane(); tp.setText(title); tp.setExpanded(expanded); tp.setAnimated(false); container.getChildren().add(tp);
+        EditorPool.fillWhenExpanded(tp, () -> tp.setContent(factory.create()));
+    }
+
+    /** Éditeur de multitexte à une ligne par langue, tel que le réservoir d'éditeurs les garde. */
+    private static MultiTextEditor newFixedRowsEditor() {
+        MultiTextEditor m = new MultiTextEditor();
+        m.setFixedLanguageRows(true);
+        return m;
     }
 
     private static <T> void addListSection(VBox container, String title, List<T> items, ItemRenderer<T> renderer, boolean expanded) {
@@ -3920,9 +4700,12 @@ public final class MainController {
         }
         int i = 1;
         for (T item : items) {
-            TitledPane ip = new TitledPane("#" + i++, renderer.render(item));
+            // Éléments repliés : éditeur construit à l'ouverture
+            TitledPane ip = new TitledPane();
+            ip.setText("#" + i++);
             ip.setExpanded(false);
             ip.setAnimated(false);
+            EditorPool.fillWhenExpanded(ip, () -> ip.setContent(renderer.render(item)));
             box.getChildren().add(ip);
         }
         TitledPane tp = new TitledPane(title + " (" + items.size() + ")", box);
@@ -3931,6 +4714,25 @@ public final class MainController {
         container.getChildren().add(tp);
     }
 
+    /**
+     * Change l'identifiant d'une entrée ou d'un sens par la fabrique, qui tient à jour les tables d'identifiants
+     * et publie l'événement suivi par l'index des références.
+     * @return false si l'identifiant est vide ou déjà pris (message affiché)
+     */
+    private boolean changeId(AbstractIdentifiable object, String newId) {
+        LiftFactory factory = getFactory(currentDictionary);
+        if (factory == null) return false;
+        try {
+            factory.changeId(object, newId);
+        } catch (DuplicateIdException | IllegalArgumentException e) {
+            showError(I18n.get("error.changeId"), e.getMessage());
+            return false;
+        }
+        entryTable.refresh();
+        senseTable.refresh();
+        return true;
+    }
+
     private static void addReadOnlyRow(GridPane grid, int row, String label, String value) {
         grid.add(new Label(label), 0, row);
         TextField tf = new TextField(value);
@@ -3989,15 +4791,6 @@ public final class MainController {
         return null;
     }
 
-    private static String buildSearchText(LiftEntry entry) {
-        if (entry == null) return "";
-        StringBuilder sb = new StringBuilder(); appendSep(sb, getTraitValue(entry, "code"));
-        for (Form f : entry.getForms().getForms()) appendSep(sb, f.toPlainText());
-        for (LiftPronunciation p : entry.getPronunciations()) for (Form f : p.getProunciation().getForms()) appendSep(sb, f.toPlainText());
-        for (LiftSense s : entry.getSenses()) { for (Form f : s.getDefinition().getForms()) appendSep(sb, f.toPlainText()); for (Form f : s.getGloss().getForms()) appendSep(sb, f.toPlainText()); }
-        return sb.toString();
-    }
-
     private static String describeParent(Object parent) {
         if (parent == null) return "";
         if (parent instanceof LiftEntry e) return "entry:" + e.getId().orElse("?");
@@ -4018,16 +4811,17 @@ public final class MainController {
         return parent.getClass().getSimpleName();
     }
 
+    /** Langues objet, lues dans le registre tenu à jour par le modèle (liste triée partagée, non modifiable). */
     private List<String> getObjectLanguages() {
-        return currentDictionary == null ? List.of() : currentDictionary.getObjectLanguagesOfAllText().stream().filter(s -> s != null && !s.isBlank()).sorted().toList();
+        return currentDictionary == null ? List.of() : currentDictionary.getLiftDictionaryComponents().getObjectLanguages().getLanguages();
     }
     private List<String> getMetaLanguages() {
-        return currentDictionary == null ? List.of() : currentDictionary.getMetaLanguagesOfAllText().stream().filter(s -> s != null && !s.isBlank()).sorted().toList();
+        return currentDictionary == null ? List.of() : currentDictionary.getLiftDictionaryComponents().getMetaLanguages().getLanguages();
     }
     private List<String> getAllLanguages() {
         if (currentDictionary == null) return List.of();
-        Set<String> all = new HashSet<>(); all.addAll(currentDictionary.getObjectLanguagesOfAllText()); all.addAll(currentDictionary.getMetaLanguagesOfAllText());
-        return all.stream().filter(s -> s != null && !s.isBlank()).sorted().toList();
+        Set<String> all = new TreeSet<>(getObjectLanguages()); all.addAll(getMetaLanguages());
+        return List.copyOf(all);
     }
 
     /* ─── Known dropdown values from header ranges ─── */
@@ -4043,45 +4837,13 @@ public final class MainController {
      * LiftFieldAndTraitDefinition has no @class restriction, or if it includes {@code target}.
      */
     private List<String> getKnownTraitNamesFor(FieldDefinitionTarget target) {
-        if (currentDictionary == null) return List.of();
-        LiftHeader h = currentDictionary.getLiftDictionaryComponents().getHeader();
-        if (h != null && !h.getFields().isEmpty()) {
-            return h.getFields().stream()
-                .filter(fd -> fd.getKind() == FieldDefinitionKind.TRAIT || fd.getKind() == FieldDefinitionKind.UNKNOWN)
-                .filter(fd -> target == null || fd.getTargets().isEmpty() || fd.getTargets().contains(target))
-                .map(LiftFieldAndTraitDefinition::getName)
-                .sorted().toList();
-        }
-        // Fallback: scan data
-        Set<String> standardRanges = Set.of("note-type", "translation-type", "grammatical-info");
-        if (h != null) {
-            return h.getRanges().stream().map(LiftHeaderRange::getId)
-                .filter(id -> !standardRanges.contains(id)).sorted().toList();
-        }
-        return currentDictionary.getTraitName().stream().sorted().toList();
+        return vocabulary == null ? List.of() : vocabulary.traitNames(target);
     }
     private Map<String, Set<String>> getKnownTraitValues() {
-        if (currentDictionary == null) return Map.of();
-        Map<String, Set<String>> result = new HashMap<>();
-        LiftHeader h = currentDictionary.getLiftDictionaryComponents().getHeader();
-        if (h != null) {
-            Set<String> standardRanges = Set.of("note-type", "translation-type", "grammatical-info");
-            for (LiftHeaderRange r : h.getRanges()) {
-                if (standardRanges.contains(r.getId())) continue;
-                Set<String> vals = r.getRangeElements().stream().map(LiftHeaderRangeElement::getId).collect(Collectors.toCollection(TreeSet::new));
-                result.put(r.getId(), vals);
-            }
-        }
-        if (result.isEmpty()) {
-            for (LiftTrait t : currentDictionary.getLiftDictionaryComponents().getAllTraits()) {
-                result.computeIfAbsent(t.getName(), k -> new TreeSet<>()).add(t.getValue());
-            }
-        }
-        return result;
+        return vocabulary == null ? Map.of() : vocabulary.traitValues();
     }
     private List<String> getKnownAnnotationNames() {
-        return currentDictionary == null ? List.of() : currentDictionary.getLiftDictionaryComponents().getAllAnnotations().stream()
-            .map(LiftAnnotation::getName).filter(Objects::nonNull).distinct().sorted().toList();
+        return vocabulary == null ? List.of() : vocabulary.annotationNames();
     }
     private List<String> getKnownFieldTypes() {
         return getKnownFieldTypesFor(null);
@@ -4089,16 +4851,7 @@ public final class MainController {
 
     /** Returns field (not trait) type names allowed for the given target element type. */
     private List<String> getKnownFieldTypesFor(FieldDefinitionTarget target) {
-        if (currentDictionary == null) return List.of();
-        LiftHeader h = currentDictionary.getLiftDictionaryComponents().getHeader();
-        if (h != null && !h.getFields().isEmpty()) {
-            return h.getFields().stream()
-                .filter(fd -> fd.getKind() == FieldDefinitionKind.FIELD || fd.getKind() == FieldDefinitionKind.UNKNOWN)
-                .filter(fd -> target == null || fd.getTargets().isEmpty() || fd.getTargets().contains(target))
-                .map(LiftFieldAndTraitDefinition::getName)
-                .sorted().toList();
-        }
-        return currentDictionary.getFieldType().stream().sorted().toList();
+        return vocabulary == null ? List.of() : vocabulary.fieldTypes(target);
     }
     private List<String> getKnownNoteTypes() {
         return getHeaderRangeValues("note-type");
@@ -4110,14 +4863,7 @@ public final class MainController {
         return getHeaderRangeValues("grammatical-info");
     }
     private List<String> getHeaderRangeValues(String rangeId) {
-        if (currentDictionary == null) return List.of();
-        LiftHeader h = currentDictionary.getLiftDictionaryComponents().getHeader();
-        if (h != null) {
-            return h.getRanges().stream().filter(r -> rangeId.equals(r.getId())).findFirst()
-                .map(r -> r.getRangeElements().stream().map(LiftHeaderRangeElement::getId).sorted().toList())
-                .orElse(List.of());
-        }
-        return List.of();
+        return vocabulary == null ? List.of() : vocabulary.rangeValues(rangeId);
     }
 
     private void showError(String title, String msg) { Alert a = new Alert(Alert.AlertType.ERROR); a.setTitle(title); a.setHeaderText(null); a.setContentText(msg); a.showAndWait(); }
@@ -4173,6 +4919,15 @@ public final class MainController {
         HBox pathBox = new HBox(8, pathField, browseBtn);
         HBox.setHgrow(pathField, Priority.ALWAYS);
 
+        // ── Recherche ──
+        Label searchLabel = new Label(I18n.get("prefs.search"));
+        CheckBox stripDiacriticsBox = new CheckBox(I18n.get("prefs.search.stripDiacritics"));
+        stripDiacriticsBox.setSelected(PREFS.getBoolean(PREF_SEARCH_STRIP_DIACRITICS, false));
+        TextField equivalencesField = new TextField(PREFS.get(PREF_SEARCH_EQUIVALENCES, ""));
+        equivalencesField.setPromptText(I18n.get("prefs.search.equivalences.prompt"));
+        equivalencesField.setTooltip(new Tooltip(I18n.get("prefs.search.equivalences.help")));
+        VBox searchBox = new VBox(6, stripDiacriticsBox, new Label(I18n.get("prefs.search.equivalences")), equivalencesField);
+
         // ── Layout ──
         GridPane grid = new GridPane();
         grid.setHgap(12);
@@ -4193,6 +4948,9 @@ public final class MainController {
         grid.add(pathLabel, 0, 3);
         grid.add(pathBox, 1, 3);
 
+        grid.add(searchLabel, 0, 4);
+        grid.add(searchBox, 1, 4);
+
         GridPane.setHgrow(langCombo, Priority.ALWAYS);
         GridPane.setHgrow(fontBox, Priority.ALWAYS);
         GridPane.setHgrow(pathBox, Priority.ALWAYS);
@@ -4214,6 +4972,16 @@ public final class MainController {
                 // Sauvegarde chemin par défaut
                 PREFS.put("ui.defaultPath", pathField.getText().trim());
 
+                // Normalisation de la recherche : reconstruit l'index si elle change
+                boolean strip = stripDiacriticsBox.isSelected();
+                String equivalences = equivalencesField.getText().trim();
+                if (strip != PREFS.getBoolean(PREF_SEARCH_STRIP_DIACRITICS, false) || !equivalences.equals(PREFS.get(PREF_SEARCH_EQUIVALENCES, ""))) {
+                    PREFS.putBoolean(PREF_SEARCH_STRIP_DIACRITICS, strip);
+                    PREFS.put(PREF_SEARCH_EQUIVALENCES, equivalences);
+                    applySearchFoldingPrefs();
+                    rebuildTextIndex();
+                }
+
                 // Applique langue si changée
                 String sel = langCombo.getValue();
                 Locale newLocale = "Français".equals(sel) ? Locale.FRENCH : Locale.ENGLISH;
@@ -4228,6 +4996,271 @@ public final class MainController {
         dlg.showAndWait();
     }
 
+    /** Lignes par page de l'aperçu du rechercher-remplacer. */
+    private static final int REPLACE_PAGE_SIZE = 100;
+
+    /**
+     * Rechercher-remplacer dans toutes les formes du dictionnaire, restreint à des langues et des rôles (aucun coché : tous).
+     * L'aperçu est calculé en arrière-plan et affiché par pages ; le remplacement est un seul lot d'événements
+     * et une seule étape d'annulation.
+     */
+    private void showFindReplaceDialog() {
+        LiftFactory factory = getFactory(currentDictionary);
+        Dialog<ButtonType> dlg = new Dialog<>();
+        dlg.setTitle(I18n.get("replace.title"));
+        dlg.setHeaderText(I18n.get("replace.title"));
+        dlg.setResizable(true);
+        dlg.getDialogPane().setPrefSize(820, 620);
+        ButtonType applyType = new ButtonType(I18n.get("replace.apply"), ButtonBar.ButtonData.OK_DONE);
+        dlg.getDialogPane().getButtonTypes().addAll(applyType, ButtonType.CANCEL);
+        Button applyButton = (Button) dlg.getDialogPane().lookupButton(applyType);
+        applyButton.setDisable(true);
+
+        TextField findField = new TextField();
+        TextField replaceField = new TextField();
+        CheckBox regexBox = new CheckBox(I18n.get("replace.regex"));
+        CheckBox ignoreCaseBox = new CheckBox(I18n.get("replace.ignoreCase"));
+        FlowPane langPane = new FlowPane(8, 4);
+        Map<String, CheckBox> langBoxes = new LinkedHashMap<>();
+        for (String lang : getAllLanguages()) {
+            CheckBox b = new CheckBox(lang);
+            langBoxes.put(lang, b);
+            langPane.getChildren().add(b);
+        }
+        FlowPane rolePane = new FlowPane(8, 4);
+        Map<TextRole, CheckBox> roleBoxes = new EnumMap<>(TextRole.class);
+        for (TextRole role : TextRole.values()) {
+            CheckBox b = new CheckBox(I18n.get("replace.role." + role.name().toLowerCase(Locale.ROOT)));
+            roleBoxes.put(role, b);
+            rolePane.getChildren().add(b);
+        }
+        Button previewButton = new Button(I18n.get("replace.preview"));
+        Label summary = new Label();
+
+        TableView<FindReplace.Change> table = new TableView<>();
+        table.setPlaceholder(new Label(""));
+        TableColumn<FindReplace.Change, String> entryCol = new TableColumn<>(I18n.get("replace.col.entry"));
+        entryCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(entryHeadword(cd.getValue().entry())));
+        TableColumn<FindReplace.Change, String> langCol = new TableColumn<>(I18n.get("replace.col.lang"));
+        langCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().lang()));
+        TableColumn<FindReplace.Change, String> roleCol = new TableColumn<>(I18n.get("replace.col.role"));
+        roleCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(I18n.get("replace.role." + cd.getValue().role().name().toLowerCase(Locale.ROOT))));
+        TableColumn<FindReplace.Change, String> beforeCol = new TableColumn<>(I18n.get("replace.col.before"));
+        beforeCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().oldText()));
+        TableColumn<FindReplace.Change, String> afterCol = new TableColumn<>(I18n.get("replace.col.after"));
+        afterCol.setCellValueFactory(cd -> new ReadOnlyStringWrapper(cd.getValue().newText()));
+        table.getColumns().addAll(List.of(entryCol, langCol, roleCol, beforeCol, afterCol));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        Pagination pages = new Pagination(1);
+        VBox.setVgrow(pages, Priority.ALWAYS);
+
+        // Aperçu courant et calcul en cours ; toute modification des critères les invalide
+        FindReplace.ChangeSet[] preview = new FindReplace.ChangeSet[1];
+        FindReplace.Preparation[] running = new FindReplace.Preparation[1];
+        pages.setPageFactory(page -> {
+            table.setItems(preview[0] == null ? FXCollections.observableArrayList()
+                : FXCollections.observableArrayList(preview[0].getPage(page, REPLACE_PAGE_SIZE)));
+            return table;
+        });
+        Runnable invalidate = () -> {
+            if (running[0] != null) running[0].cancel();
+            running[0] = null;
+            preview[0] = null;
+            applyButton.setDisable(true);
+            summary.setText("");
+            pages.setPageCount(1);
+            table.getItems().clear();
+        };
+        findField.textProperty().addListener((obs, o, n) -> invalidate.run());
+        replaceField.textProperty().addListener((obs, o, n) -> invalidate.run());
+        regexBox.selectedProperty().addListener((obs, o, n) -> invalidate.run());
+        ignoreCaseBox.selectedProperty().addListener((obs, o, n) -> invalidate.run());
+        langBoxes.values().forEach(b -> b.selectedProperty().addListener((obs, o, n) -> invalidate.run()));
+        roleBoxes.values().forEach(b -> b.selectedProperty().addListener((obs, o, n) -> invalidate.run()));
+
+        previewButton.setOnAction(ev -> {
+            invalidate.run();
+            String find = findField.getText();
+            if (find.isEmpty()) return;
+            int flags = (regexBox.isSelected() ? 0 : java.util.regex.Pattern.LITERAL)
+                | (ignoreCaseBox.isSelected() ? java.util.regex.Pattern.CASE_INSENSITIVE | java.util.regex.Pattern.UNICODE_CASE : 0);
+            java.util.regex.Pattern pattern;
+            try {
+                pattern = java.util.regex.Pattern.compile(find, flags);
+            } catch (java.util.regex.PatternSyntaxException e) {
+                summary.setText(I18n.get("search.regexInvalid", e.getDescription()));
+                return;
+            }
+            String replacement = regexBox.isSelected() ? replaceField.getText()
+                : java.util.regex.Matcher.quoteReplacement(replaceField.getText());
+            Set<String> langs = langBoxes.entrySet().stream().filter(e -> e.getValue().isSelected()).map(Map.Entry::getKey).collect(Collectors.toSet());
+            Set<TextRole> roles = roleBoxes.entrySet().stream().filter(e -> e.getValue().isSelected()).map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(TextRole.class)));
+            FindReplace.Preparation preparation = running[0] = new FindReplace(factory).prepare(snapshotManager.snapshot(), pattern, replacement, roles, langs);
+            summary.setText(I18n.get("replace.running"));
+            preparation.getCompletion().whenComplete((changes, error) -> Platform.runLater(() -> {
+                if (running[0] != preparation) return;
+                running[0] = null;
+                if (error != null) {
+                    if (!(error instanceof java.util.concurrent.CancellationException)) {
+                        LOGGER.log(Level.WARNING, "Rechercher-remplacer", error);
+                        summary.setText("");
+                    }
+                    return;
+                }
+                preview[0] = changes;
+                summary.setText(I18n.get("replace.summary", changes.size(), changes.getReplacementCount(), changes.getSkippedCount()));
+                pages.setPageCount(Math.max(1, changes.getPageCount(REPLACE_PAGE_SIZE)));
+                pages.setCurrentPageIndex(0);
+                table.setItems(FXCollections.observableArrayList(changes.getPage(0, REPLACE_PAGE_SIZE)));
+                applyButton.setDisable(changes.size() == 0);
+            }));
+        });
+
+        GridPane grid = new GridPane();
+        grid.setHgap(8); grid.setVgap(8);
+        grid.add(new Label(I18n.get("replace.find")), 0, 0);
+        grid.add(findField, 1, 0);
+        grid.add(new Label(I18n.get("replace.with")), 0, 1);
+        grid.add(replaceField, 1, 1);
+        grid.add(new HBox(12, regexBox, ignoreCaseBox), 1, 2);
+        grid.add(new Label(I18n.get("replace.langs")), 0, 3);
+        grid.add(langPane, 1, 3);
+        grid.add(new Label(I18n.get("replace.roles")), 0, 4);
+        grid.add(rolePane, 1, 4);
+        grid.add(new HBox(12, previewButton, summary), 1, 5);
+        GridPane.setHgrow(findField, Priority.ALWAYS);
+        VBox content = new VBox(8, grid, pages);
+        dlg.getDialogPane().setContent(content);
+
+        Optional<ButtonType> result = dlg.showAndWait();
+        if (running[0] != null) running[0].cancel();
+        if (result.orElse(ButtonType.CANCEL) != applyType || preview[0] == null) return;
+        FindReplace.ChangeSet changes = preview[0];
+        Runnable refresh = () -> {
+            LiftEntry selected = entryTable.getSelectionModel().getSelectedItem();
+            if (selected != null && currentView.equals(NAV_ENTRIES)) populateEntryEditor(selected);
+            applyCurrentFilter();
+        };
+        if (changes.apply() > 0) {
+            undoManager.execute(new ReplaceTextCommand(changes, refresh));
+            refresh.run();
+        }
+    }
+
+    /**
+     * Configure la normalisation de la recherche depuis les préférences. Les équivalences s'écrivent
+     * {@code langue: a=b=c, x=y; *: œ=oe} ({@code *} pour toutes les langues) : chaque classe est ramenée à son premier membre.
+     */
+    private static void applySearchFoldingPrefs() {
+        SEARCH_FOLDING.clear();
+        SEARCH_FOLDING.setStripDiacritics(null, PREFS.getBoolean(PREF_SEARCH_STRIP_DIACRITICS, false));
+        for (String part : PREFS.get(PREF_SEARCH_EQUIVALENCES, "").split(";")) {
+            int colon = part.indexOf(':');
+            if (colon < 0) continue;
+            String lang = part.substring(0, colon).trim();
+            List<List<String>> classes = new ArrayList<>();
+            for (String cls : part.substring(colon + 1).split(",")) {
+                List<String> members = Arrays.stream(cls.split("=")).map(String::trim).filter(m -> !m.isEmpty()).toList();
+                if (members.size() > 1) classes.add(members);
+            }
+            if (!lang.isEmpty() && !classes.isEmpty()) SEARCH_FOLDING.setEquivalences("*".equals(lang) ? null : lang, classes);
+        }
+    }
+
+    /** Relit l'ordre de tri des langues dans l'en-tête (il peut avoir été modifié dans la configuration des plages). */
+    private void loadCollation() {
+        COLLATION.loadFromHeader(currentDictionary == null ? null : currentDictionary.getLiftDictionaryComponents().getHeader());
+    }
+
+    private void rebuildTextIndex() {
+        MODEL_REVISION.incrementAndGet();
+        LiftFactory factory = getFactory(currentDictionary);
+        if (textIndex != null) { textIndex.close(); textIndex = null; }
+        if (fuzzyIndex != null) { fuzzyIndex.close(); fuzzyIndex = null; }
+        textIndexGeneration++;
+        if (factory != null) {
+            fuzzyIndex = new FuzzyHeadwordIndex(factory, SEARCH_FOLDING);
+            // Le modèle peut différer du fichier : pas de fichier d'index
+            loadTextIndex(factory, null);
+        }
+        applyCurrentFilter();
+    }
+
+    /**
+     * Index plein texte du champ de recherche et des requêtes (voir {@link QueryPlanner}), en arrière-plan : relu depuis le fichier
+     * d'index voisin du dictionnaire ({@code .lift.idx}) s'il correspond encore au fichier, sinon reconstruit
+     * depuis un instantané puis enregistré. Les modifications faites depuis l'instantané sont rejouées sur
+     * l'index avant son installation, puis le filtrage des entrées est relancé (voir {@link #indexMatches}).
+     * @param source le fichier dont le modèle est la lecture exacte, null si le modèle a pu être modifié
+     */
+    private void loadTextIndex(LiftFactory factory, File source) {
+        long generation = ++textIndexGeneration;
+        List<ModelChange> pending = new ArrayList<>();
+        ModelChangeListener recorder = pending::addAll;
+        factory.getChangeBus().addListener(recorder);
+        DictionarySnapshot snapshot = snapshotManager.snapshot();
+        long sidecar = sidecarGeneration.get();
+        Thread builder = new Thread(() -> {
+            Optional<TextIndex> stored = source == null ? Optional.empty() : IndexSidecar.read(source.toPath(), factory, snapshot, SEARCH_FOLDING);
+            TextIndex built = stored.orElseGet(() -> new TextIndex(factory, snapshot, SEARCH_FOLDING));
+            // L'index n'est pas encore partagé : il est enregistré avant d'être confié au fil de l'interface
+            if (stored.isEmpty() && source != null) storeIndexSidecar(source, built, snapshot, sidecar);
+            Platform.runLater(() -> {
+                factory.getChangeBus().removeListener(recorder);
+                if (generation != textIndexGeneration) {
+                    built.close();
+                    return;
+                }
+                built.replay(pending);
+                textIndex = built;
+                PendingSidecar saved = pendingSidecar;
+                pendingSidecar = null;
+                if (saved != null && saved.revision() == MODEL_REVISION.get() && saved.generation() == sidecarGeneration.get()) {
+                    writeIndexSidecar(saved.source());
+                }
+                if (!searchField.getText().isBlank()) scheduleEntryFilter();
+            });
+        }, "text-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Enregistre l'index plein texte à côté du fichier qui vient d'être sauvegardé. L'index en service, à jour
+     * de toutes les modifications, est encodé ici sur le fil de l'interface, quand le modèle est celui du fichier ;
+     * le fichier est ensuite haché et l'index écrit en arrière-plan. Si l'index est encore en construction, il est
+     * enregistré à son installation, à condition que rien n'ait été modifié ni sauvegardé entre-temps.
+     */
+    private void writeIndexSidecar(File source) {
+        if (getFactory(currentDictionary) == null || source == null) return;
+        long generation = sidecarGeneration.get();
+        if (textIndex == null) {
+            pendingSidecar = new PendingSidecar(source, MODEL_REVISION.get(), generation);
+            return;
+        }
+        byte[] encoded = IndexSidecar.encode(textIndex);
+        sidecarWriter.execute(() -> {
+            try {
+                IndexSidecar.write(source.toPath(), encoded, () -> sidecarGeneration.get() != generation);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Écriture du fichier d'index " + source, e);
+            }
+        });
+    }
+
+    /**
+     * Écrit le fichier d'index d'un index construit depuis {@code snapshot} (hors du fil de l'interface),
+     * sauf si le fichier a été sauvegardé de nouveau entre-temps.
+     */
+    private void storeIndexSidecar(File source, TextIndex index, DictionarySnapshot snapshot, long generation) {
+        try {
+            IndexSidecar.write(source.toPath(), index, snapshot, () -> sidecarGeneration.get() != generation);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Écriture du fichier d'index " + source, e);
+        }
+    }
+
     private void applyFontSize(int size) {
         if (menuBar == null || menuBar.getScene() == null) return;
         menuBar.getScene().getRoot().setStyle("-fx-font-size: " + size + "px;");
@@ -4475,7 +5508,7 @@ public final class MainController {
                     .map(r -> r.abbrev().get())
                     .filter(v -> v != null && !v.isBlank())
                     .collect(Collectors.toSet());
-            range.getRangeElements().removeIf(re -> !newValues.contains(re.getId()));
+            if (range.getRangeElements().removeIf(re -> !newValues.contains(re.getId()))) headerChanged();
 
             rebuildHeaderCfgChildren();
         }
@@ -4514,5 +5547,4 @@ public final class MainController {
 
     private static LiftFactory getFactory(LiftDictionary d) { return d != null && d.getLiftDictionaryComponents() instanceof LiftFactory lf ? lf : null; }
     private static String safeTrim(String s) { return s == null ? "" : s.trim(); }
-    private static void appendSep(StringBuilder sb, String part) { if (part != null && !part.isBlank()) { if (!sb.isEmpty()) sb.append("; "); sb.append(part); } }
 }
@@ -0,0 +1,160 @@
+package fr.cnrs.lacito.liftgui.ui;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+
+/**
+ * Textes des cellules d'une table filtrée (voir {@code wrapTableWithFilters}), calculés une fois par ligne :
+ * valeur de chaque colonne, valeur normalisée et texte normalisé de la ligne entière (barre de recherche).
+ * Les filtres, les facettes et l'index trigrammes lisent ces textes au lieu d'interroger les colonnes.
+ *
+ * Quand la révision du modèle change, seules les lignes des entrées modifiées (voir {@link Journal})
+ * sont recalculées ; une ligne sans entrée (agrégat, ligne d'en-tête...) l'est à chaque modification.
+ */
+final class RowProjectionCache<T> {
+
+    /** Textes d'une ligne ; les valeurs normalisées sont calculées à la première lecture. */
+    private static final class Projection {
+        final String[] cells;
+        final String[] folded;
+        String search;
+
+        Projection(int columns) {
+            cells = new String[columns];
+            folded = new String[columns];
+        }
+    }
+
+    private final int columns;
+    private final BiFunction<T, Integer, String> cellText;
+    private final Function<Object, Object> ownerOf;
+    private final TextFolding folding;
+    private final LongSupplier revision;
+    private final Journal journal;
+    private final Map<T, Projection> projections = new IdentityHashMap<>();
+    private long syncedRevision;
+    private int foldingRevision;
+
+    /**
+     * @param cellText texte d'une ligne pour une colonne
+     * @param ownerOf entrée dont une ligne affiche les données, null si la ligne dépend de tout le modèle
+     */
+    RowProjectionCache(int columns, BiFunction<T, Integer, String> cellText, Function<Object, Object> ownerOf,
+                       TextFolding folding, LongSupplier revision, Journal journal) {
+        this.columns = columns;
+        this.cellText = cellText;
+        this.ownerOf = ownerOf;
+        this.folding = folding;
+        this.revision = revision;
+        this.journal = journal;
+        this.syncedRevision = revision.getAsLong();
+        this.foldingRevision = folding.getRevision();
+    }
+
+    /** @return le texte de la cellule, jamais null */
+    String cell(T row, int column) {
+        Projection p = projection(row);
+        String s = p.cells[column];
+        if (s == null) {
+            s = cellText.apply(row, column);
+            p.cells[column] = s = s == null ? "" : s;
+        }
+        return s;
+    }
+
+    /** @return le texte normalisé de la cellule */
+    String foldedCell(T row, int column) {
+        Projection p = projection(row);
+        String s = p.folded[column];
+        if (s == null) p.folded[column] = s = folding.fold(null, cell(row, column));
+        return s;
+    }
+
+    /** @return le texte normalisé de la ligne : ses cellules séparées par une espace */
+    String searchText(T row) {
+        Projection p = projection(row);
+        if (p.search == null) {
+            StringBuilder sb = new StringBuilder();
+            for (int c = 0; c < columns; c++) sb.append(' ').append(cell(row, c));
+            p.search = folding.fold(null, sb.toString());
+        }
+        return p.search;
+    }
+
+    private Projection projection(T row) {
+        sync();
+        return projections.computeIfAbsent(row, r -> new Projection(columns));
+    }
+
+    /** Écarte les lignes touchées depuis la dernière lecture. */
+    private void sync() {
+        long current = revision.getAsLong();
+        int currentFolding = folding.getRevision();
+        if (current == syncedRevision && currentFolding == foldingRevision) return;
+        Set<Object> owners = current == syncedRevision ? Set.of() : journal.changedSince(syncedRevision, current);
+        if (owners == null) {
+            projections.clear();
+        } else {
+            for (Iterator<Map.Entry<T, Projection>> it = projections.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<T, Projection> e = it.next();
+                Object owner = ownerOf.apply(e.getKey());
+                if (owner == null || owners.contains(owner)) it.remove();
+                else if (currentFolding != foldingRevision) {
+                    Arrays.fill(e.getValue().folded, null);
+                    e.getValue().search = null;
+                }
+            }
+        }
+        syncedRevision = current;
+        foldingRevision = currentFolding;
+    }
+
+    /**
+     * Entrées touchées par les dernières révisions du modèle, partagé par les caches de lignes.
+     * Une révision enregistrée sans entrées (ou non enregistrée) invalide toutes les lignes.
+     */
+    static final class Journal {
+        private record Batch(long revision, Set<Object> owners) {}
+
+        /** Révisions conservées ; un cache plus en retard recalcule toutes ses lignes. */
+        private static final int CAPACITY = 64;
+
+        private final Deque<Batch> batches = new ArrayDeque<>();
+
+        /**
+         * @param owners entrées touchées par la révision, null si elles ne sont pas connues
+         */
+        synchronized void record(long revision, Set<Object> owners) {
+            if (batches.size() == CAPACITY) batches.removeFirst();
+            batches.addLast(new Batch(revision, owners));
+        }
+
+        /**
+         * @return les entrées touchées par les révisions suivant {@code from} jusqu'à {@code to},
+         * null si l'une d'elles n'est pas connue.
+         */
+        synchronized Set<Object> changedSince(long from, long to) {
+            Set<Object> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+            long expected = from + 1;
+            for (Batch b : batches) {
+                if (b.revision() <= from) continue;
+                if (b.revision() > to) break;
+                if (b.revision() != expected || b.owners() == null) return null;
+                owners.addAll(b.owners());
+                expected++;
+            }
+            return expected == to + 1 ? owners : null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package fr.cnrs.lacito.liftgui.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+import fr.cnrs.lacito.liftapi.index.TrigramIndex;
+
+/**
+ * Index trigrammes des textes de cellules d'une table filtrée (voir {@code wrapTableWithFilters}),
+ * pour que les filtres « contient » restent rapides sur les grandes tables.
+ *
+ * Chaque colonne est indexée à la première recherche ; la colonne -1 désigne le texte de la ligne
+ * entière (barre de recherche). Quand la révision du modèle change, seules les lignes des entrées
+ * modifiées (voir {@link RowProjectionCache.Journal}) et les lignes sans entrée sont réindexées ;
+ * les index sont reconstruits lorsque les lignes changent ou que le journal ne couvre plus les révisions.
+ */
+final class TableTextIndex<T> {
+
+    /** En dessous, un parcours des lignes est aussi rapide que l'index. */
+    static final int MIN_ROWS = 2000;
+
+    private record Result<T>(String query, Set<T> rows) {}
+
+    private final List<T> rows;
+    private final BiFunction<T, Integer, String> textOf;
+    private final UnaryOperator<String> fold;
+    private final Function<Object, Object> ownerOf;
+    private final LongSupplier revision;
+    private final RowProjectionCache.Journal journal;
+    private final Map<Integer, TrigramIndex<T>> byColumn = new HashMap<>();
+    private final Map<Integer, Result<T>> lastResults = new HashMap<>();
+    /** Lignes de chaque entrée, et lignes sans entrée (clé null), relevées à la construction des index. */
+    private Map<Object, List<T>> rowsByOwner = null;
+    private long indexedRevision = -1;
+
+    /**
+     * @param textOf texte d'une ligne pour une colonne (ou -1 pour la ligne entière)
+     * @param fold normalisation appliquée aux textes indexés (les requêtes sont déjà normalisées)
+     * @param ownerOf entrée dont une ligne affiche les données, null si la ligne dépend de tout le modèle
+     */
+    TableTextIndex(List<T> rows, BiFunction<T, Integer, String> textOf, UnaryOperator<String> fold,
+                   Function<Object, Object> ownerOf, LongSupplier revision, RowProjectionCache.Journal journal) {
+        this.rows = rows;
+        this.textOf = textOf;
+        this.fold = fold;
+        this.ownerOf = ownerOf;
+        this.revision = revision;
+        this.journal = journal;
+    }
+
+    /** Lignes ajoutées ou retirées : les index seront reconstruits à la prochaine recherche. */
+    void invalidate() {
+        indexedRevision = -1;
+    }
+
+    /**
+     * @param query requête déjà normalisée
+     * @return les lignes dont le texte normalisé de la colonne contient la requête,
+     * ou null si la table est trop petite pour être indexée.
+     */
+    Set<T> rowsContaining(int column, String query) {
+        if (rows.size() < MIN_ROWS) return null;
+        sync();
+        Result<T> last = lastResults.get(column);
+        if (last != null && last.query().equals(query)) return last.rows();
+        TrigramIndex<T> index = byColumn.computeIfAbsent(column, c -> {
+            TrigramIndex<T> built = new TrigramIndex<>(UnaryOperator.identity());
+            for (T row : rows) built.put(row, fold.apply(textOf.apply(row, c)));
+            return built;
+        });
+        Set<T> found = index.find(query);
+        lastResults.put(column, new Result<>(query, found));
+        return found;
+    }
+
+    /** Réindexe les lignes touchées depuis la dernière recherche. */
+    private void sync() {
+        long current = revision.getAsLong();
+        if (current == indexedRevision) return;
+        Set<Object> owners = indexedRevision < 0 ? null : journal.changedSince(indexedRevision, current);
+        lastResults.clear();
+        if (owners == null) {
+            byColumn.clear();
+            rowsByOwner = null;
+        } else if (!byColumn.isEmpty()) {
+            if (rowsByOwner == null) rowsByOwner = rowsByOwner();
+            List<T> touched = new ArrayList<>(rowsByOwner.getOrDefault(null, List.of()));
+            for (Object owner : owners) touched.addAll(rowsByOwner.getOrDefault(owner, List.of()));
+            byColumn.forEach((column, index) -> {
+                for (T row : touched) index.put(row, fold.apply(textOf.apply(row, column)));
+            });
+        }
+        indexedRevision = current;
+    }
+
+    private Map<Object, List<T>> rowsByOwner() {
+        Map<Object, List<T>> byOwner = new IdentityHashMap<>();
+        for (T row : rows) byOwner.computeIfAbsent(ownerOf.apply(row), o -> new ArrayList<>()).add(row);
+        return byOwner;
+    }
+}
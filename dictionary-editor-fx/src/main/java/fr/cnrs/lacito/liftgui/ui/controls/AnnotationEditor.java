@@ -80,9 +80,8 @@ public final class AnnotationEditor extends VBox {
      * @param annotationNames  all known annotation names in the dictionary
      */
     public void setAnnotation(LiftAnnotation a, Collection<String> availableLangs, Collection<String> annotationNames) {
-        if (annotation != null) {
-            valueCombo.getEditor().textProperty().unbindBidirectional(annotation.valueProperty());
-        }
+        ModelBindings.Scope bindings = ModelBindings.of(this);
+        bindings.dispose();
         this.annotation = a;
         if (a == null) {
             nameCombo.getItems().clear();
@@ -98,7 +97,7 @@ public final class AnnotationEditor extends VBox {
         nameCombo.setValue(a.getName());
 
         valueCombo.setValue(a.getValue().orElse(""));
-        valueCombo.getEditor().textProperty().bindBidirectional(a.valueProperty());
+        bindings.bindBidirectional(valueCombo.getEditor().textProperty(), a.valueProperty());
 
         whoField.setText(a.getWho().orElse(""));
         whenField.setText(a.getWhen().orElse(""));
@@ -0,0 +1,98 @@
+package fr.cnrs.lacito.liftgui.ui.controls;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.TitledPane;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Editors kept from one selection to the next, by class, to rebind them instead of building new ones.
+ *
+ * {@link #acquire} returns a released editor of the class, or a new one; the caller rebinds it with its
+ * setter ({@code setSense}, {@code setMultiText}...), which must reset everything a previous use may have
+ * set. {@link #releaseAll()} takes back the acquired editors when the editor panel is cleared: they are
+ * detached, which disposes their bindings (see {@link ModelBindings}).
+ *
+ * Also builds the content of collapsed sections only when they are first expanded
+ * ({@link #fillWhenExpanded}).
+ */
+public final class EditorPool {
+
+    /** Released editors kept per class. */
+    private static final int MAX_FREE = 16;
+    private static final String PENDING_FILL = EditorPool.class.getName() + ".fill";
+    private static final String FILL_LISTENER = EditorPool.class.getName() + ".fillListener";
+
+    private final Map<Class<?>, Deque<Node>> free = new HashMap<>();
+    private final Map<Node, Class<?>> acquired = new IdentityHashMap<>();
+
+    /**
+     * @param create builds an editor when none is free
+     * @return an editor of the class, not attached, until the next {@link #releaseAll()}
+     */
+    public <T extends Node> T acquire(Class<T> type, Supplier<? extends T> create) {
+        Deque<Node> d = free.get(type);
+        Node released = d == null ? null : d.pollLast();
+        T editor = released != null ? type.cast(released) : create.get();
+        acquired.put(editor, type);
+        return editor;
+    }
+
+    /**
+     * Take back all the acquired editors.
+     */
+    public void releaseAll() {
+        for (Map.Entry<Node, Class<?>> e : acquired.entrySet()) {
+            Node editor = e.getKey();
+            detach(editor);
+            Deque<Node> d = free.computeIfAbsent(e.getValue(), c -> new ArrayDeque<>());
+            if (d.size() < MAX_FREE) d.addLast(editor);
+        }
+        acquired.clear();
+    }
+
+    /**
+     * Drop all the editors (e.g. when another dictionary is opened).
+     */
+    public void clear() {
+        releaseAll();
+        free.clear();
+    }
+
+    /** @return the number of released editors ready to be rebound */
+    public int freeCount() {
+        return free.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * Run {@code fill} now if the pane is expanded, otherwise the first time it is expanded.
+     * A later call replaces a fill still pending (e.g. when an editor is rebound).
+     */
+    public static void fillWhenExpanded(TitledPane pane, Runnable fill) {
+        if (pane.getProperties().putIfAbsent(FILL_LISTENER, Boolean.TRUE) == null) {
+            pane.expandedProperty().addListener((obs, o, expanded) -> {
+                if (expanded && pane.getProperties().remove(PENDING_FILL) instanceof Runnable pending) pending.run();
+            });
+        }
+        if (pane.isExpanded()) {
+            pane.getProperties().remove(PENDING_FILL);
+            fill.run();
+        } else {
+            pane.getProperties().put(PENDING_FILL, fill);
+        }
+    }
+
+    private static void detach(Node editor) {
+        Parent parent = editor.getParent();
+        if (parent instanceof Pane p) p.getChildren().remove(editor);
+        else if (parent instanceof Group g) g.getChildren().remove(editor);
+    }
+}
@@ -12,7 +12,6 @@ package fr.cnrs.lacito.liftgui.ui.controls;
 
 import fr.cnrs.lacito.liftapi.model.LiftExample;
 import fr.cnrs.lacito.liftapi.model.MultiText;
-import javafx.beans.value.ChangeListener;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -35,10 +34,11 @@ import java.util.function.BiConsumer;
 public final class ExampleEditor extends VBox {
 
     private final TextField sourceField = new TextField();
-    private ChangeListener<String> sourceListener;
     private final MultiTextEditor exampleTextEditor = new MultiTextEditor();
     private final VBox translationsBox = new VBox(6);
     private final NotableEditor notableEditor = new NotableEditor();
+    /** Collapsed by default: filled when expanded (see {@link EditorPool#fillWhenExpanded}). */
+    private final TitledPane extPane;
 
     public ExampleEditor() {
         super(6);
@@ -64,7 +64,7 @@ public final class ExampleEditor extends VBox {
         trPane.setExpanded(true);
         trPane.setAnimated(false);
 
-        TitledPane extPane = new TitledPane("Propriétés héritées (notes, champs, traits, annotations, dates)", notableEditor);
+        extPane = new TitledPane("Propriétés héritées (notes, champs, traits, annotations, dates)", notableEditor);
         extPane.setExpanded(false);
         extPane.setAnimated(false);
 
@@ -95,26 +95,22 @@ public final class ExampleEditor extends VBox {
             BiConsumer<String, MultiText> onAddAnnotation, Collection<String> knownAnnotationNames,
             ExtensibleAddActions addActions) {
         translationsBox.getChildren().clear();
+        ModelBindings.Scope bindings = ModelBindings.of(this);
+        bindings.dispose();
 
         if (ex == null) {
             sourceField.setText("");
-            if (sourceListener != null) sourceField.textProperty().removeListener(sourceListener);
-            sourceListener = null;
             exampleTextEditor.setMultiText(null);
             exampleTextEditor.setOnAddAnnotation(null, null);
             notableEditor.setModel(null, metaLangs, null);
+            EditorPool.fillWhenExpanded(extPane, () -> {});
             return;
         }
         sourceField.setText(ex.getSource().orElse(""));
-        if (sourceListener != null) sourceField.textProperty().removeListener(sourceListener);
-        LiftExample exampleRef = ex;
-        sourceListener = (obs, o, n) -> exampleRef.setSource(n != null ? n : "");
-        sourceField.textProperty().addListener(sourceListener);
-        exampleTextEditor.setAvailableLanguages(objLangs);
-        exampleTextEditor.setMultiText(ex.getExample());
-        if (onAddAnnotation != null) {
-            exampleTextEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
-        }
+        bindings.onChange(sourceField.textProperty(), ex, (obs, o, n) -> ex.setSource(n != null ? n : ""));
+        // Callback first: the editor may have been used for another example
+        exampleTextEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
+        exampleTextEditor.setMultiText(ex.getExample(), objLangs);
 
         // Translations: one MultiTextEditor per translation type — meta-languages
         for (Map.Entry<String, MultiText> kv : ex.getTranslations().entrySet()) {
@@ -136,6 +132,7 @@ public final class ExampleEditor extends VBox {
             translationsBox.getChildren().add(tp);
         }
 
-        notableEditor.setModel(ex, metaLangs, addActions);
+        notableEditor.setModel(null, metaLangs, null);
+        EditorPool.fillWhenExpanded(extPane, () -> notableEditor.setModel(ex, metaLangs, addActions));
     }
 }
@@ -2,12 +2,16 @@ package fr.cnrs.lacito.liftgui.ui.controls;
 
 import java.util.List;
 
+import fr.cnrs.lacito.liftapi.model.LiftTrait;
+
 /**
  * Callbacks for adding trait, annotation, field, and note to extensible objects.
  * When null, add buttons are hidden.
  */
 public interface ExtensibleAddActions {
     void addTrait(String name, String value);
+    /** @return false when the trait could not be removed through the factory. */
+    default boolean removeTrait(LiftTrait trait) { return false; }
     void addAnnotation(String name);
     void addField(String type);
     default void addNote(String type) {}
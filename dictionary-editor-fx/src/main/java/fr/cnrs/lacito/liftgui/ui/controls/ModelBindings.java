@@ -0,0 +1,159 @@
+package fr.cnrs.lacito.liftgui.ui.controls;
+
+import javafx.beans.property.Property;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bindings between the model and the controls of an editor, tied to the lifetime of the control.
+ *
+ * The bindings of a control are recorded in its {@link Scope} and undone together, when the editor
+ * is rebound to another object ({@link Scope#dispose()}) or when the control leaves its scene.
+ * The model only holds weak listeners, so that a control dropped without being disposed does not
+ * live as long as the model.
+ *
+ * Live bindings are counted per model object ({@link #liveBindings(Object)}): browsing many entries
+ * must leave these counts flat. Set the logger of this class to {@code FINE} to follow them.
+ */
+public final class ModelBindings {
+
+    private static final Logger LOGGER = Logger.getLogger(ModelBindings.class.getName());
+    private static final String SCOPE_KEY = ModelBindings.class.getName();
+    /** Live bindings per model object (model classes keep the identity {@code equals}). */
+    private static final Map<Object, int[]> LIVE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ModelBindings() {}
+
+    /**
+     * The bindings of a control.
+     */
+    public static final class Scope {
+        private final List<Runnable> undo = new ArrayList<>();
+        /** Listeners only weakly held by the model. */
+        private final List<Object> retained = new ArrayList<>();
+
+        /**
+         * Bind a control property to a model property, both ways.
+         */
+        public <T> void bindBidirectional(Property<T> control, Property<T> model) {
+            control.bindBidirectional(model);
+            Object owner = model.getBean();
+            count(owner, 1);
+            undo.add(() -> {
+                control.unbindBidirectional(model);
+                count(owner, -1);
+            });
+        }
+
+        /**
+         * Listen to a model value. The model holds a weak listener; this scope keeps the listener alive.
+         */
+        public <T> void listen(ObservableValue<T> model, ChangeListener<T> listener) {
+            WeakChangeListener<T> weak = new WeakChangeListener<>(listener);
+            model.addListener(weak);
+            Object owner = model instanceof ReadOnlyProperty<?> p ? p.getBean() : model;
+            count(owner, 1);
+            retained.add(listener);
+            undo.add(() -> {
+                model.removeListener(weak);
+                count(owner, -1);
+            });
+        }
+
+        /**
+         * Listen to a control value writing to a model object.
+         * @param model the object written by the listener, for the counts
+         */
+        public <T> void onChange(ObservableValue<T> control, Object model, ChangeListener<? super T> listener) {
+            control.addListener(listener);
+            count(model, 1);
+            undo.add(() -> {
+                control.removeListener(listener);
+                count(model, -1);
+            });
+        }
+
+        /**
+         * Undo all the bindings of this scope; it can be used again.
+         */
+        public void dispose() {
+            for (int i = undo.size() - 1; i >= 0; i--) undo.get(i).run();
+            undo.clear();
+            retained.clear();
+        }
+
+        /** @return the number of bindings in this scope */
+        public int size() {
+            return undo.size();
+        }
+    }
+
+    /**
+     * @return the scope of a control, disposed when the control is removed from its scene.
+     */
+    public static Scope of(Node control) {
+        Object scope = control.getProperties().get(SCOPE_KEY);
+        if (scope instanceof Scope s) return s;
+        Scope created = new Scope();
+        control.getProperties().put(SCOPE_KEY, created);
+        control.sceneProperty().addListener((obs, o, n) -> {
+            if (o != null && n == null) created.dispose();
+        });
+        return created;
+    }
+
+    /** Undo the bindings of a control, if any. */
+    public static void dispose(Node control) {
+        if (control.getProperties().get(SCOPE_KEY) instanceof Scope s) s.dispose();
+    }
+
+    /**
+     * @return the live bindings of a model object.
+     */
+    public static int liveBindings(Object model) {
+        int[] n = LIVE.get(model);
+        return n == null ? 0 : n[0];
+    }
+
+    /**
+     * @return the live bindings of all the model objects.
+     */
+    public static int liveBindings() {
+        synchronized (LIVE) {
+            return LIVE.values().stream().mapToInt(n -> n[0]).sum();
+        }
+    }
+
+    /**
+     * Log the number of live bindings at level {@code FINE}.
+     * @param context what has just been bound (e.g. the selected entry)
+     */
+    public static void logLiveBindings(String context) {
+        if (!LOGGER.isLoggable(Level.FINE)) return;
+        int objects;
+        synchronized (LIVE) {
+            objects = LIVE.size();
+        }
+        LOGGER.fine(() -> "Live bindings after " + context + ": " + liveBindings() + " on " + objects + " model objects");
+    }
+
+    private static void count(Object model, int delta) {
+        if (model == null) return;
+        synchronized (LIVE) {
+            int[] n = LIVE.computeIfAbsent(model, m -> new int[1]);
+            n[0] += delta;
+            if (n[0] <= 0) LIVE.remove(model);
+        }
+    }
+}
@@ -102,6 +102,17 @@ public final class MultiTextEditor extends VBox {
         rebuild();
     }
 
+    /**
+     * Rebind to another multitext shown in the given languages, rebuilding the rows once
+     * (for an editor reused from one record to the next).
+     */
+    public void setMultiText(MultiText mt, Collection<String> langs) {
+        this.multiText = mt;
+        allLanguages.setAll(normalizeLangs(langs));
+        allLanguages.sort(Comparator.naturalOrder());
+        rebuild();
+    }
+
     /**
      * When true, shows a text field for every language from {@link #setAvailableLanguages(Collection)}
      * instead of only languages that already have content plus a dropdown to add a language.
@@ -127,6 +138,9 @@ public final class MultiTextEditor extends VBox {
     }
 
     private void rebuild() {
+        for (var node : rowsBox.getChildren()) {
+            if (node instanceof Row r) r.unbind();
+        }
         rowsBox.getChildren().clear();
         if (multiText == null) { refreshAddLangChoices(); rebuildAnnotations(); return; }
 
@@ -330,16 +344,11 @@ public final class MultiTextEditor extends VBox {
             String l = safeTrim(lang);
             boundLang = l;
             if (l.isBlank()) return;
-            textField.textProperty().bindBidirectional(multiText.formTextProperty(l));
+            ModelBindings.of(this).bindBidirectional(textField.textProperty(), multiText.formTextProperty(l));
         }
 
         private void unbind() {
-            if (multiText == null) return;
-            if (!boundLang.isBlank()) {
-                try {
-                    textField.textProperty().unbindBidirectional(multiText.formTextProperty(boundLang));
-                } catch (Exception ignored) {}
-            }
+            ModelBindings.dispose(this);
             boundLang = "";
         }
     }
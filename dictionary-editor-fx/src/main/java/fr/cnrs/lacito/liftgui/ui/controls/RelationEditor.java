@@ -10,7 +10,6 @@
 package fr.cnrs.lacito.liftgui.ui.controls;
 
 import fr.cnrs.lacito.liftapi.model.LiftRelation;
-import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.control.ComboBox;
@@ -35,8 +34,6 @@ public final class RelationEditor extends VBox {
     private final ComboBox<String> typeCombo = new ComboBox<>();
     private final TextField refIdField = new TextField();
     private final TextField orderField = new TextField();
-    private ChangeListener<String> refIdListener;
-    private ChangeListener<String> orderListener;
     private final MultiTextEditor usageEditor = new MultiTextEditor();
     private final ExtensibleWithFieldEditor extensibleEditor = new ExtensibleWithFieldEditor();
 
@@ -79,8 +76,6 @@ public final class RelationEditor extends VBox {
         getChildren().addAll(grid, usagePane, extPane);
     }
 
-    private ChangeListener<String> typeListener;
-
     public void setRelation(LiftRelation rel, Collection<String> langs) {
         setRelation(rel, langs, List.of());
     }
@@ -89,19 +84,13 @@ public final class RelationEditor extends VBox {
      * @param relationTypes allowed types from header range {@code lexical-relation} (non-editable combo only).
      */
     public void setRelation(LiftRelation rel, Collection<String> langs, List<String> relationTypes) {
-        if (typeListener != null) {
-            typeCombo.valueProperty().removeListener(typeListener);
-            typeListener = null;
-        }
+        ModelBindings.Scope bindings = ModelBindings.of(this);
+        bindings.dispose();
         if (rel == null) {
             typeCombo.setItems(FXCollections.observableArrayList());
             typeCombo.setValue(null);
             refIdField.setText("");
             orderField.setText("");
-            if (refIdListener != null) refIdField.textProperty().removeListener(refIdListener);
-            if (orderListener != null) orderField.textProperty().removeListener(orderListener);
-            refIdListener = null;
-            orderListener = null;
             usageEditor.setMultiText(null);
             extensibleEditor.setModel(null, langs);
             return;
@@ -112,24 +101,17 @@ public final class RelationEditor extends VBox {
         if (!current.isBlank()) items.add(current);
         typeCombo.setItems(FXCollections.observableArrayList(items));
         typeCombo.setValue(current.isBlank() ? null : current);
-        LiftRelation relRef = rel;
-        typeListener = (obs, o, n) -> {
-            if (n != null && !n.isBlank()) relRef.setType(n);
-        };
-        typeCombo.valueProperty().addListener(typeListener);
+        bindings.onChange(typeCombo.valueProperty(), rel, (obs, o, n) -> {
+            if (n != null && !n.isBlank()) rel.setType(n);
+        });
         refIdField.setText(rel.getRefID().orElse(""));
         orderField.setText(rel.getOrder().map(String::valueOf).orElse(""));
-        if (refIdListener != null) refIdField.textProperty().removeListener(refIdListener);
-        if (orderListener != null) orderField.textProperty().removeListener(orderListener);
-        LiftRelation relationRef = rel;
-        refIdListener = (obs, o, n) -> relationRef.setRefId(n != null ? n : "");
-        orderListener = (obs, o, n) -> {
+        bindings.onChange(refIdField.textProperty(), rel, (obs, o, n) -> rel.setRefId(n != null ? n : ""));
+        bindings.onChange(orderField.textProperty(), rel, (obs, o, n) -> {
             if (n != null && !n.isBlank()) {
-                try { relationRef.setOrder(Integer.parseInt(n.trim())); } catch (NumberFormatException ignored) {}
+                try { rel.setOrder(Integer.parseInt(n.trim())); } catch (NumberFormatException ignored) {}
             }
-        };
-        refIdField.textProperty().addListener(refIdListener);
-        orderField.textProperty().addListener(orderListener);
+        });
         usageEditor.setAvailableLanguages(langs);
         usageEditor.setMultiText(rel.getUsage());
         extensibleEditor.setModel(rel, langs);
@@ -23,6 +23,7 @@ import javafx.scene.layout.VBox;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 /**
@@ -46,12 +47,18 @@ public final class SenseEditor extends VBox {
     private final VBox reversalsBox = new VBox(6);
     private final VBox subSensesBox = new VBox(6);
     private final TitledPane subSensesPane;
+    /** Collapsed by default: filled when expanded (see {@link EditorPool#fillWhenExpanded}). */
+    private final TitledPane relPane;
+    private final TitledPane revPane;
+    private final TitledPane extPane;
     private final NotableEditor notableEditor = new NotableEditor();
     /** Types from header range {@code lexical-relation} for {@link RelationEditor}. */
     private List<String> relationTypes = List.of();
     /** Currently displayed sense — used by the save listener. */
     private LiftSense currentSense = null;
     private Runnable onGramInfoChanged = null;
+    /** Changes the id of a sense, false when refused; null keeps the id read-only. */
+    private BiPredicate<LiftSense, String> onIdChanged = null;
 
     public SenseEditor() {
         super(6);
@@ -69,6 +76,9 @@ public final class SenseEditor extends VBox {
             }
         });
 
+        idField.setOnAction(e -> commitId());
+        idField.focusedProperty().addListener((obs, was, focused) -> { if (!focused) commitId(); });
+
         Label gramTitle = new Label(I18n.get("editor.section.gramInfo"));
         gramTitle.getStyleClass().add("editor-section-title");
 
@@ -100,11 +110,11 @@ public final class SenseEditor extends VBox {
         exPane.setExpanded(true);
         exPane.setAnimated(false);
 
-        TitledPane relPane = new TitledPane("Relations", relationsBox);
+        relPane = new TitledPane("Relations", relationsBox);
         relPane.setExpanded(false);
         relPane.setAnimated(false);
 
-        TitledPane revPane = new TitledPane("Reversals", reversalsBox);
+        revPane = new TitledPane("Reversals", reversalsBox);
         revPane.setExpanded(false);
         revPane.setAnimated(false);
 
@@ -115,7 +125,7 @@ public final class SenseEditor extends VBox {
         Label metadataTitle = new Label(I18n.get("editor.section.metadata"));
         metadataTitle.getStyleClass().add("editor-section-title");
 
-        TitledPane extPane = new TitledPane("Propriétés héritées (notes, champs, traits, annotations, dates)", notableEditor);
+        extPane = new TitledPane("Propriétés héritées (notes, champs, traits, annotations, dates)", notableEditor);
         extPane.setExpanded(false);
         extPane.setAnimated(false);
 
@@ -136,12 +146,33 @@ public final class SenseEditor extends VBox {
     public void setOnGramInfoChanged(Runnable callback) {
         this.onGramInfoChanged = callback;
     }
+
+    /**
+     * Make the id editable: the callback changes the id of the sense (or of a sub-sense)
+     * and returns false when the id is refused, which restores the displayed id.
+     * Call this before setSense().
+     */
+    public void setOnIdChanged(BiPredicate<LiftSense, String> callback) {
+        this.onIdChanged = callback;
+    }
+
+    private void commitId() {
+        LiftSense sense = currentSense;
+        if (sense == null || onIdChanged == null) return;
+        String id = idField.getText() == null ? "" : idField.getText().trim();
+        if (id.equals(sense.getId().orElse(""))) return;
+        if (!onIdChanged.test(sense, id)) idField.setText(sense.getId().orElse(""));
+    }
     /**
      * Set the allowed grammatical info values from the header range "grammatical-info".
      * Call this before setSense() so the ComboBox is populated.
      */
     public void setGrammaticalInfoValues(List<String> values) {
+        // No save while the items change (the editor may still show a previous sense)
+        LiftSense sense = currentSense;
+        currentSense = null;
         grammaticalInfoCombo.getItems().setAll(values == null ? List.of() : values);
+        currentSense = sense;
     }
 
     /**
@@ -184,6 +215,8 @@ public final class SenseEditor extends VBox {
             glossEditor.setMultiText(null);
             glossEditor.setOnAddAnnotation(null, null);
             notableEditor.setModel(null, metaLangs);
+            EditorPool.fillWhenExpanded(relPane, () -> {});
+            EditorPool.fillWhenExpanded(revPane, () -> {});
             identityBlock.getChildren().clear();
             return;
         }
@@ -197,11 +230,11 @@ public final class SenseEditor extends VBox {
         grammaticalInfoCombo.setValue(gramVal);
         currentSense = sense; // re-enable listener after loading
 
-        // Identity block: ID, dates (read-only, grey)
+        // Identity block: ID (editable through the callback), dates (read-only, grey)
         identityBlock.getChildren().clear();
         idField.setText(sense.getId().orElse(""));
-        idField.setEditable(false);
-        idField.setStyle("-fx-text-fill: #666; -fx-background-color: #f0f0f0;");
+        idField.setEditable(onIdChanged != null);
+        idField.setStyle(onIdChanged != null ? "" : "-fx-text-fill: #666; -fx-background-color: #f0f0f0;");
         identityBlock.add(new Label(I18n.get("field.id")), 0, 0);
         identityBlock.add(idField, 1, 0);
         identityBlock.add(new Label(I18n.get("field.dateCreated")), 0, 1);
@@ -218,17 +251,12 @@ public final class SenseEditor extends VBox {
         GridPane.setHgrow(dateCreatedField, Priority.ALWAYS);
         GridPane.setHgrow(dateModifiedField, Priority.ALWAYS);
 
-        definitionEditor.setAvailableLanguages(metaLangs);
-        definitionEditor.setMultiText(sense.getDefinition());
-        if (onAddAnnotation != null) {
-            definitionEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
-        }
+        // Callback first: the editor may have been used for another sense
+        definitionEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
+        definitionEditor.setMultiText(sense.getDefinition(), metaLangs);
 
-        glossEditor.setAvailableLanguages(metaLangs);
-        glossEditor.setMultiText(sense.getGloss());
-        if (onAddAnnotation != null) {
-            glossEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
-        }
+        glossEditor.setOnAddAnnotation(onAddAnnotation, knownAnnotationNames);
+        glossEditor.setMultiText(sense.getGloss(), metaLangs);
 
         // Examples — object-languages for example text, meta-languages for translations
         for (LiftExample ex : sense.getExamples()) {
@@ -239,28 +267,35 @@ public final class SenseEditor extends VBox {
         }
 
         // Relations — meta-languages for usage
-        for (LiftRelation rel : sense.getRelations()) {
-            RelationEditor re = new RelationEditor();
-            re.setRelation(rel, metaLangs, relationTypes);
-            relationsBox.getChildren().add(re);
-        }
+        List<String> types = relationTypes;
+        EditorPool.fillWhenExpanded(relPane, () -> {
+            for (LiftRelation rel : sense.getRelations()) {
+                RelationEditor re = new RelationEditor();
+                re.setRelation(rel, metaLangs, types);
+                relationsBox.getChildren().add(re);
+            }
+        });
 
         // Reversals — meta-languages
-        for (LiftReversal rev : sense.getReversals()) {
-            ReversalEditor rve = new ReversalEditor();
-            rve.setReversal(rev, metaLangs);
-            reversalsBox.getChildren().add(rve);
-        }
+        EditorPool.fillWhenExpanded(revPane, () -> {
+            for (LiftReversal rev : sense.getReversals()) {
+                ReversalEditor rve = new ReversalEditor();
+                rve.setReversal(rev, metaLangs);
+                reversalsBox.getChildren().add(rve);
+            }
+        });
 
         // Sub-senses (recursive)
         for (LiftSense sub : sense.getSubSenses()) {
             SenseEditor se = new SenseEditor();
             se.setGrammaticalInfoValues(new java.util.ArrayList<>(grammaticalInfoCombo.getItems()));
+            se.setOnIdChanged(onIdChanged);
             se.setSense(sub, metaLangs, objLangs, onAddAnnotation, knownAnnotationNames, addActionsFactory, exampleAddActionsFactory);
             subSensesBox.getChildren().add(se);
         }
         subSensesPane.setExpanded(!sense.getSubSenses().isEmpty());
 
-        notableEditor.setModel(sense, metaLangs, addActions);
+        notableEditor.setModel(null, metaLangs);
+        EditorPool.fillWhenExpanded(extPane, () -> notableEditor.setModel(sense, metaLangs, addActions));
     }
 }
\ No newline at end of file
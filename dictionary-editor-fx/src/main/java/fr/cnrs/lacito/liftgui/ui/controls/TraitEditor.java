@@ -216,7 +216,7 @@ public final class TraitEditor extends VBox {
                 ? valuesForName.getOrDefault(t.getName(), Set.of()) : Set.of();
         combo.setItems(FXCollections.observableArrayList(new TreeSet<>(knownValues)));
         combo.setValue(t.getValue());
-        combo.getEditor().textProperty().bindBidirectional(t.valueProperty());
+        ModelBindings.of(combo).bindBidirectional(combo.getEditor().textProperty(), t.valueProperty());
 
         // ✅ Validation de la valeur saisie
         combo.getEditor().textProperty().addListener((obs, oldVal, newVal) -> {
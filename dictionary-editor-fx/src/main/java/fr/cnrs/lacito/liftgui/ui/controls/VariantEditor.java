@@ -250,7 +250,10 @@ public final class VariantEditor extends VBox {
             .findFirst()
             .orElse(null);
         if (newValue == null || newValue.isBlank()) {
-            if (existingTrait != null) currentVariant.getTraits().remove(existingTrait);
+            if (existingTrait != null
+                && (currentAddActions == null || !currentAddActions.removeTrait(existingTrait))) {
+                currentVariant.getTraits().remove(existingTrait);
+            }
             return;
         }
         if (existingTrait != null) {
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 
 /**
  * Commande de suppression d'une entrée, annulable via Undo.
+ * L'entrée et ses sens sont détachés via la fabrique, qui publie EntryRemoved / EntryAdded.
  */
 public final class DeleteEntryCommand implements UndoableCommand {
     private final LiftEntry entry;
@@ -16,6 +17,7 @@ public final class DeleteEntryCommand implements UndoableCommand {
     private final ObservableList<LiftEntry> baseEntries;
     private final Runnable onUndoRefresh;
     private final Runnable onRedoRefresh;
+    private int factoryIndex = Integer.MAX_VALUE;
 
     public DeleteEntryCommand(LiftEntry entry, int baseEntriesIndex,
                               Supplier<LiftFactory> factorySupplier,
@@ -32,11 +34,7 @@ public final class DeleteEntryCommand implements UndoableCommand {
     @Override
     public void undo() {
         LiftFactory factory = factorySupplier.get();
-        if (factory != null) {
-            factory.getAllEntries().add(entry);
-            factory.getAllObjectLanguagesMultiText().add(entry.getForms());
-            factory.getAllMetaLanguagesMultiText().add(entry.getCitations());
-        }
+        if (factory != null) factory.restoreEntry(entry, factoryIndex);
         int idx = Math.min(baseEntriesIndex, baseEntries.size());
         baseEntries.add(idx, entry);
         if (onUndoRefresh != null) onUndoRefresh.run();
@@ -46,9 +44,8 @@ public final class DeleteEntryCommand implements UndoableCommand {
     public void redo() {
         LiftFactory factory = factorySupplier.get();
         if (factory != null) {
-            factory.getAllEntries().remove(entry);
-            factory.getAllObjectLanguagesMultiText().remove(entry.getForms());
-            factory.getAllMetaLanguagesMultiText().remove(entry.getCitations());
+            int idx = factory.removeEntry(entry);
+            if (idx >= 0) factoryIndex = idx;
         }
         baseEntries.remove(entry);
         if (onRedoRefresh != null) onRedoRefresh.run();
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 
 /**
  * Commande de suppression d'un exemple, annulable via Undo.
+ * Passe par la fabrique pour que les événements ExampleAdded / ExampleRemoved soient publiés.
  */
 public final class DeleteExampleCommand implements UndoableCommand {
     private final LiftExample example;
@@ -31,16 +32,22 @@ public final class DeleteExampleCommand implements UndoableCommand {
     @Override
     public void undo() {
         LiftFactory factory = factorySupplier.get();
-        if (factory != null) factory.getAllExamples().add(example);
-        parent.getExamples().add(Math.min(parentIndex, parent.getExamples().size()), example);
+        if (factory != null) {
+            factory.restoreExample(example, parentIndex);
+        } else {
+            parent.getExamples().add(Math.min(parentIndex, parent.getExamples().size()), example);
+        }
         if (onUndoRefresh != null) onUndoRefresh.run();
     }
 
     @Override
     public void redo() {
         LiftFactory factory = factorySupplier.get();
-        if (factory != null) factory.getAllExamples().remove(example);
-        parent.getExamples().remove(example);
+        if (factory != null) {
+            factory.removeExample(example);
+        } else {
+            parent.getExamples().remove(example);
+        }
         if (onRedoRefresh != null) onRedoRefresh.run();
     }
 }
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 
 /**
  * Commande de suppression d'un sens, annulable via Undo.
+ * Passe par la fabrique pour que les événements SenseAdded / SenseRemoved soient publiés.
  */
 public final class DeleteSenseCommand implements UndoableCommand {
     private final LiftSense sense;
@@ -31,16 +32,22 @@ public final class DeleteSenseCommand implements UndoableCommand {
     @Override
     public void undo() {
         LiftFactory factory = factorySupplier.get();
-        if (factory != null) factory.getAllSenses().add(sense);
-        parentList.add(Math.min(parentIndex, parentList.size()), sense);
+        if (factory != null) {
+            factory.restoreSense(sense, parentIndex);
+        } else {
+            parentList.add(Math.min(parentIndex, parentList.size()), sense);
+        }
         if (onUndoRefresh != null) onUndoRefresh.run();
     }
 
     @Override
     public void redo() {
         LiftFactory factory = factorySupplier.get();
-        if (factory != null) factory.getAllSenses().remove(sense);
-        parentList.remove(sense);
+        if (factory != null) {
+            factory.removeSense(sense);
+        } else {
+            parentList.remove(sense);
+        }
         if (onRedoRefresh != null) onRedoRefresh.run();
     }
 }
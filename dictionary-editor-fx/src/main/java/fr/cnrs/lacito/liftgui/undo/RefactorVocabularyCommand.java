@@ -0,0 +1,29 @@
+package fr.cnrs.lacito.liftgui.undo;
+
+import fr.cnrs.lacito.liftapi.model.VocabularyRefactoring;
+
+/**
+ * Commande annulable d'un renommage, d'une fusion ou d'un éclatement de valeurs (voir {@link VocabularyRefactoring}).
+ * La modification est déjà appliquée quand la commande est créée ; chaque annulation est un seul lot d'événements.
+ */
+public final class RefactorVocabularyCommand implements UndoableCommand {
+    private final VocabularyRefactoring.Edit edit;
+    private final Runnable onRefresh;
+
+    public RefactorVocabularyCommand(VocabularyRefactoring.Edit edit, Runnable onRefresh) {
+        this.edit = edit;
+        this.onRefresh = onRefresh;
+    }
+
+    @Override
+    public void undo() {
+        edit.undo();
+        if (onRefresh != null) onRefresh.run();
+    }
+
+    @Override
+    public void redo() {
+        edit.redo();
+        if (onRefresh != null) onRefresh.run();
+    }
+}
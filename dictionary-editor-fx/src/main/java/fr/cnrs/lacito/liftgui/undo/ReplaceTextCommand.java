@@ -0,0 +1,29 @@
+package fr.cnrs.lacito.liftgui.undo;
+
+import fr.cnrs.lacito.liftapi.index.FindReplace;
+
+/**
+ * Commande annulable d'un rechercher-remplacer sur tout le dictionnaire (voir {@link FindReplace}).
+ * Les remplacements sont déjà appliqués quand la commande est créée ; chaque annulation est un seul lot d'événements.
+ */
+public final class ReplaceTextCommand implements UndoableCommand {
+    private final FindReplace.ChangeSet changes;
+    private final Runnable onRefresh;
+
+    public ReplaceTextCommand(FindReplace.ChangeSet changes, Runnable onRefresh) {
+        this.changes = changes;
+        this.onRefresh = onRefresh;
+    }
+
+    @Override
+    public void undo() {
+        changes.undo();
+        if (onRefresh != null) onRefresh.run();
+    }
+
+    @Override
+    public void redo() {
+        changes.redo();
+        if (onRefresh != null) onRefresh.run();
+    }
+}
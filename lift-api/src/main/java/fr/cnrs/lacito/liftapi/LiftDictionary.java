@@ -13,6 +13,7 @@ import javax.xml.stream.XMLStreamException;
 
 import fr.cnrs.lacito.liftapi.model.LiftEntry;
 import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
 import fr.cnrs.lacito.liftapi.model.LiftSense;
 import fr.cnrs.lacito.liftapi.model.MultiText;
 import fr.cnrs.lacito.liftapi.model.Form;
@@ -72,8 +73,17 @@ public final class LiftDictionary {
         this.liftDictionaryComponents = ldc;
     }
 
-    public void addIds() {
-        // TODO
+    /**
+     * Give an id and a GUID to the entries and senses that have none.
+     * @return the reference ids (refid) that do not resolve to any entry or sense.
+     */
+    public List<String> addIds() {
+        if (!(liftDictionaryComponents instanceof LiftFactory factory)) return List.of();
+        List<String> unresolved = factory.assignMissingIds();
+        if (!unresolved.isEmpty()) {
+            LOGGER.warning(unresolved.size() + " reference(s) to unknown ids, e.g. " + unresolved.get(0));
+        }
+        return unresolved;
     }
 
     public void fillLexicalEntryOrderNumber() {
@@ -115,12 +125,18 @@ public final class LiftDictionary {
         return gramInfoSet;
     }
 
+    /**
+     * @return the languages of the object-language texts (read from the registry, without scanning the texts)
+     */
     public Set<String> getObjectLanguagesOfAllText() {
-        return getLanguagesInAllField(this.liftDictionaryComponents.getAllObjectLanguagesMultiText());        
+        return new HashSet<>(this.liftDictionaryComponents.getObjectLanguages().getLanguages());
     }
 
+    /**
+     * @return the languages of the meta-language texts (read from the registry, without scanning the texts)
+     */
     public Set<String> getMetaLanguagesOfAllText() {
-        return getLanguagesInAllField(this.liftDictionaryComponents.getAllMetaLanguagesMultiText());
+        return new HashSet<>(this.liftDictionaryComponents.getMetaLanguages().getLanguages());
     }
 
     public Set<String> getTraitName() {
@@ -169,12 +185,4 @@ public final class LiftDictionary {
         return langs;
     }
 
-    private Set<String> getLanguagesInAllField(List<MultiText> multiTexts ) {
-        Set<String> languages = new HashSet<>();
-        for (MultiText m : multiTexts) {
-            languages.addAll(m.getLangs());
-        }
-        return languages;
-    }
-
 }
@@ -3,6 +3,8 @@ package fr.cnrs.lacito.liftapi;
 import java.util.List;
 import java.util.Map;
 
+import fr.cnrs.lacito.liftapi.model.LangMetaManager;
+import fr.cnrs.lacito.liftapi.model.LangObjectManager;
 import fr.cnrs.lacito.liftapi.model.LiftHeader;
 import fr.cnrs.lacito.liftapi.model.LiftIllustration;
 import fr.cnrs.lacito.liftapi.model.LiftEntry;
@@ -17,6 +19,7 @@ import fr.cnrs.lacito.liftapi.model.LiftTrait;
 import fr.cnrs.lacito.liftapi.model.LiftAnnotation;
 import fr.cnrs.lacito.liftapi.model.LiftField;
 import fr.cnrs.lacito.liftapi.model.LiftMedia;
+import fr.cnrs.lacito.liftapi.model.ModelChangeBus;
 
 /**
  * Convenient and efficient access to various data type of the dictionary.
@@ -51,6 +54,12 @@ public interface LiftDictionaryCompoments {
 
     public List<MultiText> getAllMetaLanguagesMultiText();
 
+    /** Languages of the object-language multitexts, with their number of forms. */
+    public LangObjectManager getObjectLanguages();
+
+    /** Languages of the meta-language multitexts, with their number of forms. */
+    public LangMetaManager getMetaLanguages();
+
     public List<LiftRelation> getAllRelations();
 
     public List<LiftExample> getAllExamples();
@@ -61,4 +70,7 @@ public interface LiftDictionaryCompoments {
 
     public List<LiftIllustration> getAllIllustrations();
 
+    /** Bus publishing the fine-grained changes of the dictionary. */
+    public ModelChangeBus getChangeBus();
+
 }
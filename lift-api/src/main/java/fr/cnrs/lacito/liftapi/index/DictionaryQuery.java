@@ -0,0 +1,75 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A condition on the entries of a dictionary, evaluated by a {@link QueryPlanner}.
+ *
+ * An entry matches a condition on traits, grammatical info, fields or relations when the entry
+ * itself or one of its senses, subsenses, examples, variants or etymologies satisfies it.
+ * Conditions are combined with {@link #and}, {@link #or} and {@link #not}.
+ */
+public sealed interface DictionaryQuery {
+
+    /** A trait with the given name and value. */
+    record Trait(String name, String value) implements DictionaryQuery {}
+
+    /** A sense whose grammatical info is one of the given values. */
+    record GramInfoIn(Set<String> values) implements DictionaryQuery {}
+
+    /** A field of the given type. */
+    record HasField(String type) implements DictionaryQuery {}
+
+    /** A text in the given language containing the given string (folded, see {@link TextIndex#findSubstring(String, String)}). */
+    record TextContains(String lang, String text) implements DictionaryQuery {}
+
+    /** A relation of the given type. */
+    record HasRelation(String type) implements DictionaryQuery {}
+
+    /** An entry whose modification date is within the bounds, inclusive; a null bound is open. */
+    record ModifiedBetween(LocalDate from, LocalDate to) implements DictionaryQuery {}
+
+    record And(List<DictionaryQuery> operands) implements DictionaryQuery {}
+
+    record Or(List<DictionaryQuery> operands) implements DictionaryQuery {}
+
+    record Not(DictionaryQuery operand) implements DictionaryQuery {}
+
+    static DictionaryQuery trait(String name, String value) {
+        return new Trait(name, value);
+    }
+
+    static DictionaryQuery gramInfoIn(String... values) {
+        return new GramInfoIn(Set.of(values));
+    }
+
+    static DictionaryQuery hasField(String type) {
+        return new HasField(type);
+    }
+
+    static DictionaryQuery textContains(String lang, String text) {
+        return new TextContains(lang, text);
+    }
+
+    static DictionaryQuery hasRelation(String type) {
+        return new HasRelation(type);
+    }
+
+    static DictionaryQuery modifiedBetween(LocalDate from, LocalDate to) {
+        return new ModifiedBetween(from, to);
+    }
+
+    static DictionaryQuery and(DictionaryQuery... operands) {
+        return new And(List.of(operands));
+    }
+
+    static DictionaryQuery or(DictionaryQuery... operands) {
+        return new Or(List.of(operands));
+    }
+
+    static DictionaryQuery not(DictionaryQuery operand) {
+        return new Not(operand);
+    }
+}
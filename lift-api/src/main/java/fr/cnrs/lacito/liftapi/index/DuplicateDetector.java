@@ -0,0 +1,216 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Detection of near-duplicate entries (e.g. after merging projects), without comparing every pair.
+ *
+ * Each entry is reduced to the set of its shingles: the three-character sequences of its folded
+ * headwords, glosses and definitions, tagged with their role. A MinHash signature of {@value #HASHES}
+ * values estimates the Jaccard similarity of two sets; locality-sensitive hashing cuts the signatures
+ * in bands and only pairs of entries sharing a whole band become candidates, so that the work grows
+ * with the number of entries and not with the number of pairs. Candidates are then checked with the
+ * exact similarity of their shingles, and linked pairs are grouped in clusters.
+ *
+ * Signatures, bands and checks run in parallel, over a {@link DictionarySnapshot}: the live model can be edited meanwhile.
+ */
+public final class DuplicateDetector {
+
+    /**
+     * Two entries and the Jaccard similarity of their shingles, between 0 and 1.
+     */
+    public record Pair(LiftEntry first, LiftEntry second, double similarity) {}
+
+    /**
+     * Entries linked by similar pairs, the most similar first.
+     * @param similarity the similarity of the best pair of the cluster
+     */
+    public record Cluster(List<LiftEntry> entries, List<Pair> pairs, double similarity) {}
+
+    private static final int HASHES = 128;
+    /** Buckets larger than this only link their consecutive members, to stay near-linear. */
+    private static final int MAX_BUCKET = 64;
+    private static final long[] SEEDS = new SplittableRandom(0x5eed).longs(HASHES).toArray();
+    private static final int[] NO_SHINGLES = new int[0];
+
+    private final TextFolding folding;
+    private final double threshold;
+    private final int bands;
+
+    /**
+     * Pairs of similarity 0.6 or more, with 32 bands of 4 values (pairs of similarity 0.6 are found
+     * with a probability of 99%).
+     */
+    public DuplicateDetector(TextFolding folding) {
+        this(folding, 0.6, 32);
+    }
+
+    /**
+     * @param threshold the minimal similarity of a pair
+     * @param bands the number of bands, dividing {@value #HASHES}: more bands find less similar pairs but give more candidates
+     */
+    public DuplicateDetector(TextFolding folding, double threshold, int bands) {
+        if (bands <= 0 || HASHES % bands != 0) throw new IllegalArgumentException("The number of bands must divide " + HASHES);
+        this.folding = folding;
+        this.threshold = threshold;
+        this.bands = bands;
+    }
+
+    /**
+     * @return the clusters of similar entries of the snapshot (as live entries), by decreasing similarity then size.
+     */
+    public List<Cluster> findClusters(DictionarySnapshot snapshot) {
+        List<DictionarySnapshot.Entry> frozen = snapshot.getEntries();
+        if (frozen.size() >= 1 << 24) throw new IllegalArgumentException("Too many entries: " + frozen.size());
+        List<LiftEntry> entries = frozen.stream().map(DictionarySnapshot.Entry::handle).toList();
+        int[][] shingles = frozen.parallelStream().map(this::shingles).toArray(int[][]::new);
+        int[][] signatures = Arrays.stream(shingles).parallel().map(DuplicateDetector::signature).toArray(int[][]::new);
+
+        // Candidate pairs, encoded as (first << 32 | second), from all the bands
+        long[] candidates = IntStream.range(0, bands).parallel()
+            .mapToObj(band -> candidates(signatures, band))
+            .flatMapToLong(Arrays::stream).toArray();
+        Arrays.parallelSort(candidates);
+        int n = 0;
+        for (int i = 0; i < candidates.length; i++) if (i == 0 || candidates[i] != candidates[i - 1]) candidates[n++] = candidates[i];
+        long[] distinct = Arrays.copyOf(candidates, n);
+
+        List<Pair> pairs = Arrays.stream(distinct).parallel().mapToObj(p -> {
+            int a = (int) (p >>> 32), b = (int) p;
+            // The similarity cannot exceed the ratio of the sizes
+            int small = Math.min(shingles[a].length, shingles[b].length), large = Math.max(shingles[a].length, shingles[b].length);
+            if (small < threshold * large) return null;
+            double similarity = jaccard(shingles[a], shingles[b]);
+            return similarity >= threshold ? new Pair(entries.get(a), entries.get(b), similarity) : null;
+        }).filter(p -> p != null).toList();
+        return clusters(entries, pairs);
+    }
+
+    private int[] shingles(DictionarySnapshot.Entry entry) {
+        int[][] hashes = {new int[64]};
+        int[] count = {0};
+        EntryTexts.forEach(entry, (role, form) -> {
+            if (role != TextRole.HEADWORD && role != TextRole.GLOSS && role != TextRole.DEFINITION) return;
+            String text = " " + folding.fold(form.lang(), form.text()) + " ";
+            if (text.isBlank()) return;
+            if (count[0] + text.length() > hashes[0].length) hashes[0] = Arrays.copyOf(hashes[0], 2 * (count[0] + text.length()));
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                long trigram = ((long) role.ordinal() << 48) | ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+                hashes[0][count[0]++] = (int) mix(trigram);
+            }
+        });
+        if (count[0] == 0) return NO_SHINGLES;
+        int[] sorted = Arrays.copyOf(hashes[0], count[0]);
+        Arrays.sort(sorted);
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) if (sorted[i] != sorted[n - 1]) sorted[n++] = sorted[i];
+        return Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] signature(int[] shingles) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        if (shingles.length == 0) return signature;
+        for (int i = 0; i < HASHES; i++) {
+            int min = Integer.MAX_VALUE;
+            long seed = SEEDS[i];
+            for (int s : shingles) min = Math.min(min, (int) (mix(s ^ seed) >>> 33));
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    /**
+     * Pairs of entries having the same values in a band: entries are sorted by the hash of their band.
+     */
+    private long[] candidates(int[][] signatures, int band) {
+        int rows = HASHES / bands;
+        long[] keyed = new long[signatures.length];
+        int n = 0;
+        for (int e = 0; e < signatures.length; e++) {
+            if (signatures[e][0] == Integer.MAX_VALUE) continue; // no text
+            long h = band;
+            for (int r = band * rows; r < (band + 1) * rows; r++) h = mix(h * 31 + signatures[e][r]);
+            // 40 bits of hash, 24 bits of entry: a collision only adds a candidate, checked later
+            keyed[n++] = (h & 0xFF_FFFF_FFFFL) << 24 | e;
+        }
+        Arrays.sort(keyed, 0, n);
+        long[] pairs = new long[16];
+        int count = 0;
+        for (int start = 0, end; start < n; start = end) {
+            long key = keyed[start] >>> 24;
+            end = start + 1;
+            while (end < n && keyed[end] >>> 24 == key) end++;
+            int size = end - start;
+            if (size == 1) continue;
+            for (int i = start; i < end; i++) {
+                int last = size <= MAX_BUCKET ? end : Math.min(i + 2, end);
+                for (int j = i + 1; j < last; j++) {
+                    if (count == pairs.length) pairs = Arrays.copyOf(pairs, count * 2);
+                    pairs[count++] = (keyed[i] & 0xFF_FFFFL) << 32 | (keyed[j] & 0xFF_FFFFL);
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    /** Similarity of two sorted sets of shingles. */
+    private static double jaccard(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) { common++; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private static List<Cluster> clusters(List<LiftEntry> entries, List<Pair> pairs) {
+        Map<LiftEntry, Integer> index = new IdentityHashMap<>();
+        int[] parent = new int[entries.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        for (int i = 0; i < entries.size(); i++) index.put(entries.get(i), i);
+        for (Pair p : pairs) {
+            int a = find(parent, index.get(p.first())), b = find(parent, index.get(p.second()));
+            if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+        }
+        Map<Integer, List<Pair>> byRoot = new HashMap<>();
+        for (Pair p : pairs) byRoot.computeIfAbsent(find(parent, index.get(p.first())), r -> new ArrayList<>()).add(p);
+        List<Cluster> clusters = new ArrayList<>();
+        for (List<Pair> clusterPairs : byRoot.values()) {
+            clusterPairs.sort(Comparator.comparingDouble(Pair::similarity).reversed());
+            List<LiftEntry> members = clusterPairs.stream().flatMap(p -> Stream.of(p.first(), p.second()))
+                .distinct().sorted(Comparator.comparingInt(index::get)).toList();
+            clusters.add(new Cluster(members, List.copyOf(clusterPairs), clusterPairs.get(0).similarity()));
+        }
+        clusters.sort(Comparator.comparingDouble(Cluster::similarity).reversed()
+            .thenComparing(Comparator.comparingInt((Cluster c) -> c.entries().size()).reversed()));
+        return clusters;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) i = parent[i] = parent[parent[i]];
+        return i;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 32);
+    }
+}
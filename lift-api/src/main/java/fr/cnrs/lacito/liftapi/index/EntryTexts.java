@@ -0,0 +1,206 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.List;
+
+import fr.cnrs.lacito.liftapi.model.AbstractExtensibleWithField;
+import fr.cnrs.lacito.liftapi.model.AbstractNotable;
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftField;
+import fr.cnrs.lacito.liftapi.model.LiftNote;
+import fr.cnrs.lacito.liftapi.model.LiftPronunciation;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+import fr.cnrs.lacito.liftapi.model.MultiText;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Walks the searchable texts of an entry (its senses and subsenses included), with their role.
+ * The texts of a live entry and of its {@link DictionarySnapshot frozen} copy are walked in the same order.
+ */
+final class EntryTexts {
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(TextRole role, Form form);
+    }
+
+    @FunctionalInterface
+    interface FrozenVisitor {
+        void visit(TextRole role, DictionarySnapshot.Form form);
+    }
+
+    @FunctionalInterface
+    interface TextVisitor {
+        void visit(TextRole role, DictionarySnapshot.Text text);
+    }
+
+    private EntryTexts() {
+    }
+
+    static void forEach(LiftEntry entry, Visitor visitor) {
+        visit(entry.getForms(), TextRole.HEADWORD, visitor);
+        visit(entry.getCitations(), TextRole.HEADWORD, visitor);
+        for (LiftPronunciation p : entry.getPronunciations()) visit(p.getProunciation(), TextRole.PRONUNCIATION, visitor);
+        for (LiftVariant v : entry.getVariants()) visit(v.getForms(), TextRole.OTHER, visitor);
+        visitNotesAndFields(entry, visitor);
+        for (LiftSense s : entry.getSenses()) visitSense(s, visitor);
+    }
+
+    static void forEach(DictionarySnapshot.Entry entry, FrozenVisitor visitor) {
+        visit(entry.forms(), TextRole.HEADWORD, visitor);
+        visit(entry.citations(), TextRole.HEADWORD, visitor);
+        for (DictionarySnapshot.Pronunciation p : entry.pronunciations()) visit(p.forms(), TextRole.PRONUNCIATION, visitor);
+        for (DictionarySnapshot.Variant v : entry.variants()) visit(v.forms(), TextRole.OTHER, visitor);
+        visitNotesAndFields(entry.notes(), entry.extensible(), visitor);
+        for (DictionarySnapshot.Sense s : entry.senses()) visitSense(s, visitor);
+    }
+
+    /**
+     * Walks all the texts of a frozen entry, searchable or not (relations, etymologies, reversals,
+     * annotations...), with the role {@link #roleOf(MultiText)} gives to their multitext.
+     */
+    static void forEachText(DictionarySnapshot.Entry entry, TextVisitor visitor) {
+        visitText(entry.forms(), TextRole.HEADWORD, visitor);
+        visitText(entry.citations(), TextRole.HEADWORD, visitor);
+        for (DictionarySnapshot.Pronunciation p : entry.pronunciations()) visitPronunciation(p, visitor);
+        for (DictionarySnapshot.Variant v : entry.variants()) {
+            visitText(v.forms(), TextRole.OTHER, visitor);
+            for (DictionarySnapshot.Pronunciation p : v.pronunciations()) visitPronunciation(p, visitor);
+            for (DictionarySnapshot.Relation r : v.relations()) visitRelation(r, visitor);
+            visitExtensible(v.extensible(), visitor);
+        }
+        for (DictionarySnapshot.Relation r : entry.relations()) visitRelation(r, visitor);
+        for (DictionarySnapshot.Etymology et : entry.etymologies()) {
+            visitText(et.forms(), TextRole.OTHER, visitor);
+            visitText(et.gloss(), TextRole.OTHER, visitor);
+            visitExtensible(et.extensible(), visitor);
+        }
+        visitNotes(entry.notes(), visitor);
+        visitExtensible(entry.extensible(), visitor);
+        for (DictionarySnapshot.Sense s : entry.senses()) visitAllOfSense(s, visitor);
+    }
+
+    /**
+     * @return the role of a multitext, from its owner (see {@link MultiText#getOwner()})
+     */
+    static TextRole roleOf(MultiText mt) {
+        return switch (mt.getOwner()) {
+            case LiftEntry e -> TextRole.HEADWORD;
+            case LiftPronunciation p -> TextRole.PRONUNCIATION;
+            case LiftSense s when mt == s.getGloss() -> TextRole.GLOSS;
+            case LiftSense s when mt == s.getDefinition() -> TextRole.DEFINITION;
+            case LiftExample ex -> TextRole.EXAMPLE;
+            case LiftNote n -> TextRole.NOTE;
+            case null, default -> TextRole.OTHER;
+        };
+    }
+
+    private static void visitSense(LiftSense sense, Visitor visitor) {
+        visit(sense.getGloss(), TextRole.GLOSS, visitor);
+        visit(sense.getDefinition(), TextRole.DEFINITION, visitor);
+        for (LiftExample ex : sense.getExamples()) {
+            visit(ex.getExample(), TextRole.EXAMPLE, visitor);
+            for (MultiText t : ex.getTranslations().values()) visit(t, TextRole.EXAMPLE, visitor);
+            visitNotesAndFields(ex, visitor);
+        }
+        visitNotesAndFields(sense, visitor);
+        for (LiftSense sub : sense.getSubSenses()) visitSense(sub, visitor);
+    }
+
+    private static void visitNotesAndFields(AbstractNotable notable, Visitor visitor) {
+        for (LiftNote n : notable.getNotes().values()) visit(n.getText(), TextRole.NOTE, visitor);
+        visitFields(notable, visitor);
+    }
+
+    private static void visitFields(AbstractExtensibleWithField object, Visitor visitor) {
+        for (LiftField f : object.getFields()) visit(f.getText(), TextRole.OTHER, visitor);
+    }
+
+    private static void visitSense(DictionarySnapshot.Sense sense, FrozenVisitor visitor) {
+        visit(sense.gloss(), TextRole.GLOSS, visitor);
+        visit(sense.definition(), TextRole.DEFINITION, visitor);
+        for (DictionarySnapshot.Example ex : sense.examples()) {
+            visit(ex.example(), TextRole.EXAMPLE, visitor);
+            for (DictionarySnapshot.Text t : ex.translations().values()) visit(t, TextRole.EXAMPLE, visitor);
+            visitNotesAndFields(ex.notes(), ex.extensible(), visitor);
+        }
+        visitNotesAndFields(sense.notes(), sense.extensible(), visitor);
+        for (DictionarySnapshot.Sense sub : sense.subSenses()) visitSense(sub, visitor);
+    }
+
+    private static void visitNotesAndFields(List<DictionarySnapshot.Note> notes, DictionarySnapshot.Extensible extensible, FrozenVisitor visitor) {
+        for (DictionarySnapshot.Note n : notes) visit(n.text(), TextRole.NOTE, visitor);
+        for (DictionarySnapshot.Field f : extensible.fields()) visit(f.text(), TextRole.OTHER, visitor);
+    }
+
+    private static void visitAllOfSense(DictionarySnapshot.Sense sense, TextVisitor visitor) {
+        visitText(sense.gloss(), TextRole.GLOSS, visitor);
+        visitText(sense.definition(), TextRole.DEFINITION, visitor);
+        for (DictionarySnapshot.Relation r : sense.relations()) visitRelation(r, visitor);
+        for (DictionarySnapshot.Example ex : sense.examples()) {
+            visitText(ex.example(), TextRole.EXAMPLE, visitor);
+            for (DictionarySnapshot.Text t : ex.translations().values()) visitText(t, TextRole.EXAMPLE, visitor);
+            visitNotes(ex.notes(), visitor);
+            visitExtensible(ex.extensible(), visitor);
+        }
+        for (DictionarySnapshot.Media m : sense.illustrations()) visitText(m.label(), TextRole.OTHER, visitor);
+        for (DictionarySnapshot.Reversal r : sense.reversals()) visitReversal(r, visitor);
+        visitNotes(sense.notes(), visitor);
+        visitExtensible(sense.extensible(), visitor);
+        for (DictionarySnapshot.Sense sub : sense.subSenses()) visitAllOfSense(sub, visitor);
+    }
+
+    private static void visitPronunciation(DictionarySnapshot.Pronunciation p, TextVisitor visitor) {
+        visitText(p.forms(), TextRole.PRONUNCIATION, visitor);
+        for (DictionarySnapshot.Media m : p.media()) visitText(m.label(), TextRole.OTHER, visitor);
+        visitExtensible(p.extensible(), visitor);
+    }
+
+    private static void visitRelation(DictionarySnapshot.Relation r, TextVisitor visitor) {
+        visitText(r.usage(), TextRole.OTHER, visitor);
+        visitExtensible(r.extensible(), visitor);
+    }
+
+    private static void visitReversal(DictionarySnapshot.Reversal r, TextVisitor visitor) {
+        visitText(r.forms(), TextRole.OTHER, visitor);
+        r.main().ifPresent(main -> visitReversal(main, visitor));
+    }
+
+    private static void visitNotes(List<DictionarySnapshot.Note> notes, TextVisitor visitor) {
+        for (DictionarySnapshot.Note n : notes) {
+            visitText(n.text(), TextRole.NOTE, visitor);
+            visitExtensible(n.extensible(), visitor);
+        }
+    }
+
+    private static void visitExtensible(DictionarySnapshot.Extensible extensible, TextVisitor visitor) {
+        for (DictionarySnapshot.Field f : extensible.fields()) {
+            visitText(f.text(), TextRole.OTHER, visitor);
+            visitExtensible(f.extensible(), visitor);
+        }
+        visitAnnotations(extensible.annotations(), visitor);
+        for (DictionarySnapshot.Trait t : extensible.traits()) visitAnnotations(t.annotations(), visitor);
+    }
+
+    /** A text, then the texts of the annotations of the text and of its forms. */
+    private static void visitText(DictionarySnapshot.Text text, TextRole role, TextVisitor visitor) {
+        visitor.visit(role, text);
+        visitAnnotations(text.annotations(), visitor);
+        for (DictionarySnapshot.Form f : text.forms()) visitAnnotations(f.annotations(), visitor);
+    }
+
+    private static void visitAnnotations(List<DictionarySnapshot.Annotation> annotations, TextVisitor visitor) {
+        for (DictionarySnapshot.Annotation a : annotations) visitText(a.text(), TextRole.OTHER, visitor);
+    }
+
+    private static void visit(DictionarySnapshot.Text text, TextRole role, FrozenVisitor visitor) {
+        for (DictionarySnapshot.Form f : text.forms()) visitor.visit(role, f);
+    }
+
+    private static void visit(MultiText mt, TextRole role, Visitor visitor) {
+        if (mt == null || mt.isEmpty()) return;
+        for (Form f : mt.getForms()) visitor.visit(role, f);
+    }
+}
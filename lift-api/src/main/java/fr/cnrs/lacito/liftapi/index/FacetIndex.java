@@ -0,0 +1,208 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Facets over the columns of a table: for each column, the rows holding each distinct value.
+ *
+ * Rows are numbered by their position in the list given at construction and row sets are
+ * {@link BitSet}s over these ordinals. Like in compressed bitmaps, the rows of a value are kept as
+ * a sorted array when the value is rare and as a bitmap when it covers more than 1/32 of the rows,
+ * so that a column of unique values costs one integer per row.
+ *
+ * Selecting values intersects their row sets; the count of each value within a row set is the
+ * cardinality of the intersection. The index is a snapshot: build a new one when the rows or their
+ * values change. Safe for concurrent reads.
+ *
+ * @param <T> the type of rows, compared by identity
+ */
+public final class FacetIndex<T> {
+
+    private static final int BITMAP_RATIO = 32;
+
+    private final class Column {
+        final String[] values;
+        final Map<String, Integer> valueOrdinals = new HashMap<>();
+        /* Per value ordinal: a sorted int[] of rows, or a BitSet */
+        final Object[] rows;
+
+        Column(List<String> values, List<int[]> rowsByValue) {
+            this.values = values.toArray(String[]::new);
+            this.rows = new Object[this.values.length];
+            for (int v = 0; v < this.values.length; v++) {
+                valueOrdinals.put(this.values[v], v);
+                int[] r = rowsByValue.get(v);
+                if ((long) r.length * BITMAP_RATIO > rowList.size()) {
+                    BitSet bits = new BitSet(rowList.size());
+                    for (int row : r) bits.set(row);
+                    rows[v] = bits;
+                } else {
+                    rows[v] = r;
+                }
+            }
+        }
+    }
+
+    private final List<T> rowList;
+    private final Map<T, Integer> ordinals = new IdentityHashMap<>();
+    private final Map<Integer, Column> columns = new HashMap<>();
+
+    /**
+     * @param columns the columns to index
+     * @param valueOf the value of a row in a column; null is indexed as the empty string
+     */
+    public FacetIndex(List<T> rows, int[] columns, BiFunction<T, Integer, String> valueOf) {
+        this.rowList = new ArrayList<>(rows);
+        for (int i = 0; i < rowList.size(); i++) ordinals.put(rowList.get(i), i);
+        for (int column : columns) this.columns.put(column, buildColumn(column, valueOf));
+    }
+
+    private Column buildColumn(int column, BiFunction<T, Integer, String> valueOf) {
+        Map<String, Integer> valueOrdinals = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        List<int[]> rowsByValue = new ArrayList<>();
+        int[] sizes = new int[16];
+        for (int row = 0; row < rowList.size(); row++) {
+            String value = valueOf.apply(rowList.get(row), column);
+            if (value == null) value = "";
+            Integer v = valueOrdinals.get(value);
+            if (v == null) {
+                v = values.size();
+                valueOrdinals.put(value, v);
+                values.add(value);
+                rowsByValue.add(new int[2]);
+                if (v == sizes.length) sizes = Arrays.copyOf(sizes, v * 2);
+            }
+            int[] r = rowsByValue.get(v);
+            if (sizes[v] == r.length) rowsByValue.set(v, r = Arrays.copyOf(r, r.length * 2));
+            r[sizes[v]++] = row;
+        }
+        for (int v = 0; v < values.size(); v++) rowsByValue.set(v, Arrays.copyOf(rowsByValue.get(v), sizes[v]));
+        return new Column(values, rowsByValue);
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int size() {
+        return rowList.size();
+    }
+
+    /**
+     * @return the row of an ordinal.
+     */
+    public T row(int ordinal) {
+        return rowList.get(ordinal);
+    }
+
+    /**
+     * @return the rows accepted by a predicate, tested once per row.
+     */
+    public BitSet select(Predicate<? super T> predicate) {
+        BitSet bits = new BitSet(rowList.size());
+        for (int i = 0; i < rowList.size(); i++) if (predicate.test(rowList.get(i))) bits.set(i);
+        return bits;
+    }
+
+    /**
+     * Intersect a row set with the rows holding the selected value of each column.
+     *
+     * @param selected the selected value by column
+     * @param ignoredColumn a column whose selection is not applied (to list its own facet values), or -1
+     * @return a new row set
+     */
+    public BitSet filter(BitSet base, Map<Integer, String> selected, int ignoredColumn) {
+        BitSet result = (BitSet) base.clone();
+        for (Map.Entry<Integer, String> s : selected.entrySet()) {
+            if (s.getKey() == ignoredColumn) continue;
+            Column column = column(s.getKey());
+            Integer v = column.valueOrdinals.get(s.getValue());
+            if (v == null) {
+                result.clear();
+                return result;
+            }
+            if (column.rows[v] instanceof BitSet bits) {
+                result.and(bits);
+            } else {
+                BitSet kept = new BitSet(rowList.size());
+                for (int row : (int[]) column.rows[v]) if (result.get(row)) kept.set(row);
+                result = kept;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of rows of a row set holding each non-blank value of a column,
+     * for the values present in the set, in the order of first appearance in the rows.
+     */
+    public Map<String, Integer> counts(int column, BitSet rows) {
+        Column c = column(column);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int v = 0; v < c.values.length; v++) {
+            if (c.values[v].isBlank()) continue;
+            int n;
+            if (c.rows[v] instanceof BitSet bits) {
+                BitSet both = (BitSet) bits.clone();
+                both.and(rows);
+                n = both.cardinality();
+            } else {
+                n = 0;
+                for (int row : (int[]) c.rows[v]) if (rows.get(row)) n++;
+            }
+            if (n > 0) counts.put(c.values[v], n);
+        }
+        return counts;
+    }
+
+    private Column column(int column) {
+        Column c = columns.get(column);
+        if (c == null) throw new IllegalArgumentException("Column not indexed: " + column);
+        return c;
+    }
+
+    /**
+     * @return a read-only view of the rows of a row set (to be used as a row filter).
+     */
+    public Set<T> rows(BitSet rows) {
+        return new Rows(rows);
+    }
+
+    private final class Rows extends AbstractSet<T> {
+        private final BitSet bits;
+        private final int size;
+
+        Rows(BitSet bits) {
+            this.bits = bits;
+            this.size = bits.cardinality();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer ordinal = ordinals.get(o);
+            return ordinal != null && bits.get(ordinal);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return bits.stream().mapToObj(rowList::get).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.ModelChangeBus;
+import fr.cnrs.lacito.liftapi.model.MultiText;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Find and replace over all the texts of a dictionary (e.g. for an orthography reform).
+ *
+ * The replacements are computed in parallel on a {@link ForkJoinPool}, over all the texts of the entries
+ * of a {@link DictionarySnapshot}, so that the model can be edited meanwhile: the resulting {@link ChangeSet}
+ * can be previewed page by page, then applied as one batch of the {@link ModelChangeBus} and undone
+ * as a single step. Texts are matched as written (not folded). Forms holding spans with attributes
+ * would lose them, so they are counted but left unchanged. Texts edited or removed (with their entry,
+ * or with the part of the entry holding them) since the snapshot are left unchanged.
+ */
+public final class FindReplace {
+
+    /**
+     * The replacement of the text of a form.
+     * @param entry the entry holding the text
+     * @param multiText the live multitext (see {@link DictionarySnapshot}), whose form in {@code lang} is replaced
+     * @param count the number of matches replaced in the text
+     */
+    public record Change(LiftEntry entry, MultiText multiText, TextRole role, String lang, String oldText, String newText, int count) {
+
+        /** @return the live form, if it still holds {@code text} without spans */
+        private Optional<Form> formHolding(String text) {
+            return multiText.getForm(lang).filter(f -> f.isPlain() && f.toPlainText().equals(text));
+        }
+    }
+
+    /** A text of the snapshot to scan, with its entry and role. */
+    private record Scanned(LiftEntry entry, TextRole role, DictionarySnapshot.Text text) {}
+
+    /** Texts scanned by a task without splitting further. */
+    private static final int RANGE = 512;
+
+    private final LiftFactory factory;
+    private final ForkJoinPool pool;
+
+    public FindReplace(LiftFactory factory) {
+        this(factory, ForkJoinPool.commonPool());
+    }
+
+    public FindReplace(LiftFactory factory, ForkJoinPool pool) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    /**
+     * Start computing the replacements.
+     * @param snapshot the texts to scan, taken on the thread editing the model
+     * @param pattern the text to find (compile it with {@link Pattern#LITERAL} for a plain text)
+     * @param replacement the replacement, with {@code $1} references to the groups (see {@link Matcher#quoteReplacement})
+     * @param roles the roles of the texts to change, empty for all
+     * @param langs the languages of the texts to change, empty for all
+     */
+    public Preparation prepare(DictionarySnapshot snapshot, Pattern pattern, String replacement, Set<TextRole> roles, Set<String> langs) {
+        Preparation preparation = new Preparation(pattern, replacement, langs);
+        pool.execute(() -> {
+            try {
+                List<Scanned> texts = new ArrayList<>();
+                for (DictionarySnapshot.Entry e : snapshot.getEntries()) {
+                    EntryTexts.forEachText(e, (role, text) -> {
+                        if (!text.isEmpty() && (roles.isEmpty() || roles.contains(role))) texts.add(new Scanned(e.handle(), role, text));
+                    });
+                }
+                preparation.texts = texts.toArray(new Scanned[0]);
+                List<Change> changes = preparation.new Scan(0, preparation.texts.length).invoke();
+                if (preparation.isCancelled()) preparation.done.cancel(false);
+                else preparation.done.complete(new ChangeSet(factory, changes, preparation.skipped()));
+            } catch (CancellationException e) {
+                preparation.done.cancel(false);
+            } catch (RuntimeException | Error e) {
+                preparation.done.completeExceptionally(e);
+            }
+        });
+        return preparation;
+    }
+
+    /**
+     * A computation of replacements in progress, over a snapshot: texts edited meanwhile
+     * are checked again when the change set is applied.
+     */
+    public static final class Preparation {
+        private final Pattern pattern;
+        private final String replacement;
+        private final Set<String> langs;
+        /* Set by the preparing task before scanning */
+        private Scanned[] texts;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final CompletableFuture<ChangeSet> done = new CompletableFuture<>();
+
+        private Preparation(Pattern pattern, String replacement, Set<String> langs) {
+            this.pattern = pattern;
+            this.replacement = replacement;
+            this.langs = langs;
+        }
+
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * @return completed with the change set, or cancelled.
+         */
+        public CompletableFuture<ChangeSet> getCompletion() {
+            return done;
+        }
+
+        private int skipped() {
+            return skipped.get();
+        }
+
+        private final class Scan extends RecursiveTask<List<Change>> {
+            private final int from;
+            private final int to;
+
+            Scan(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected List<Change> compute() {
+                if (isCancelled()) return List.of();
+                if (to - from > RANGE) {
+                    int middle = (from + to) >>> 1;
+                    Scan left = new Scan(from, middle);
+                    left.fork();
+                    List<Change> right = new Scan(middle, to).compute();
+                    List<Change> changes = new ArrayList<>(left.join());
+                    changes.addAll(right);
+                    return changes;
+                }
+                Matcher matcher = pattern.matcher("");
+                List<Change> changes = new ArrayList<>();
+                for (int i = from; i < to && !isCancelled(); i++) {
+                    for (DictionarySnapshot.Form form : texts[i].text().forms()) {
+                        if (!langs.isEmpty() && !langs.contains(form.lang())) continue;
+                        replace(matcher, texts[i], form, changes);
+                    }
+                }
+                return changes;
+            }
+
+            private void replace(Matcher matcher, Scanned scanned, DictionarySnapshot.Form form, List<Change> changes) {
+                String text = form.text();
+                matcher.reset(text);
+                if (!matcher.find()) return;
+                if (form.markup().isPresent()) {
+                    skipped.incrementAndGet();
+                    return;
+                }
+                StringBuilder sb = new StringBuilder(text.length());
+                int count = 0;
+                do {
+                    matcher.appendReplacement(sb, replacement);
+                    count++;
+                } while (matcher.find());
+                matcher.appendTail(sb);
+                String newText = sb.toString();
+                if (!newText.equals(text)) {
+                    changes.add(new Change(scanned.entry(), scanned.text().handle(), scanned.role(), form.lang(), text, newText, count));
+                }
+            }
+        }
+    }
+
+    /**
+     * The replacements computed by a {@link Preparation}, in the order of the entries and of their texts.
+     * Applying, undoing and redoing them must happen on the thread editing the model.
+     */
+    public static final class ChangeSet {
+        private final LiftFactory factory;
+        private final ModelChangeBus bus;
+        private final List<Change> changes;
+        private final int skipped;
+        /** Changes made by {@link #apply()}, undone and redone together. */
+        private final List<Change> applied = new ArrayList<>();
+
+        private ChangeSet(LiftFactory factory, List<Change> changes, int skipped) {
+            this.factory = factory;
+            this.bus = factory.getChangeBus();
+            this.changes = Collections.unmodifiableList(changes);
+            this.skipped = skipped;
+        }
+
+        public List<Change> getChanges() {
+            return changes;
+        }
+
+        /** @return the number of changed forms */
+        public int size() {
+            return changes.size();
+        }
+
+        /** @return the number of replaced matches */
+        public int getReplacementCount() {
+            return changes.stream().mapToInt(Change::count).sum();
+        }
+
+        /** @return the number of forms matching but left unchanged because they hold spans */
+        public int getSkippedCount() {
+            return skipped;
+        }
+
+        public int getPageCount(int pageSize) {
+            return (changes.size() + pageSize - 1) / pageSize;
+        }
+
+        public List<Change> getPage(int page, int pageSize) {
+            int from = Math.min(page * pageSize, changes.size());
+            return changes.subList(from, Math.min(from + pageSize, changes.size()));
+        }
+
+        /**
+         * Replace the texts, in one batch of the change bus. A text edited or removed since the snapshot is left unchanged.
+         * @return the number of changed forms
+         * @throws IllegalStateException if the change set was already applied
+         */
+        public int apply() {
+            if (!applied.isEmpty()) throw new IllegalStateException("Change set already applied");
+            Map<LiftEntry, Set<MultiText>> attached = new IdentityHashMap<>();
+            bus.runInBatch(() -> {
+                for (Change c : changes) {
+                    liveForm(c, c.oldText(), attached).ifPresent(f -> {
+                        f.changeText(c.newText());
+                        applied.add(c);
+                    });
+                }
+            });
+            return applied.size();
+        }
+
+        /** Put back the texts changed by {@link #apply()}, unless edited or removed since. */
+        public void undo() {
+            Map<LiftEntry, Set<MultiText>> attached = new IdentityHashMap<>();
+            bus.runInBatch(() -> {
+                for (int i = applied.size() - 1; i >= 0; i--) {
+                    Change c = applied.get(i);
+                    liveForm(c, c.newText(), attached).ifPresent(f -> f.changeText(c.oldText()));
+                }
+            });
+        }
+
+        /** Replace again the texts put back by {@link #undo()}, unless edited or removed since. */
+        public void redo() {
+            Map<LiftEntry, Set<MultiText>> attached = new IdentityHashMap<>();
+            bus.runInBatch(() -> {
+                for (Change c : applied) {
+                    liveForm(c, c.oldText(), attached).ifPresent(f -> f.changeText(c.newText()));
+                }
+            });
+        }
+
+        /**
+         * @param attached the multitexts of the entries already looked at (see {@link LiftFactory#getMultiTexts(LiftEntry)})
+         * @return the live form, if its multitext is still in the dictionary and holds {@code text} without spans
+         */
+        private Optional<Form> liveForm(Change c, String text, Map<LiftEntry, Set<MultiText>> attached) {
+            if (!attached.computeIfAbsent(c.entry(), factory::getMultiTexts).contains(c.multiText())) return Optional.empty();
+            return c.formHolding(text);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.ModelChangeListener;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+
+/**
+ * Approximate lookup of entries by headword (the forms of the entry), tolerating typing
+ * and spelling errors: the headwords within a small edit distance of a query.
+ *
+ * The folded headwords (see {@link TextFolding}) of each object language are kept in a BK-tree:
+ * the triangle inequality of the Levenshtein distance lets a query skip the subtrees that are
+ * too far, so that only a small part of the headwords is compared.
+ * The index is maintained from the {@link fr.cnrs.lacito.liftapi.model.ModelChangeBus}; a headword
+ * no longer used stays in its tree as a routing node, and a tree is rebuilt when such nodes outnumber the others.
+ *
+ * Like the model, the index must be used from a single thread.
+ */
+public final class FuzzyHeadwordIndex implements AutoCloseable {
+
+    /**
+     * @param headword the text of the form of the entry matching the query
+     * @param distance the edit distance between the folded headword and the folded query
+     */
+    public record Match(LiftEntry entry, String lang, String headword, int distance) {}
+
+    /** A headword of the tree and its entries; children are indexed by their distance to this headword. */
+    private static final class Node {
+        final String term;
+        final List<LiftEntry> entries = new ArrayList<>(1);
+        int[] childDistances = null;
+        Node[] children = null;
+        int childCount = 0;
+
+        Node(String term) {
+            this.term = term;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) if (childDistances[i] == distance) return children[i];
+            return null;
+        }
+
+        void addChild(int distance, Node node) {
+            if (children == null) {
+                childDistances = new int[2];
+                children = new Node[2];
+            } else if (childCount == children.length) {
+                childDistances = Arrays.copyOf(childDistances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            childDistances[childCount] = distance;
+            children[childCount++] = node;
+        }
+    }
+
+    private static final class Tree {
+        Node root = null;
+        final Map<String, Node> nodes = new HashMap<>();
+        int emptyNodes = 0;
+    }
+
+    private record Headword(String lang, String term) {}
+
+    private final LiftFactory factory;
+    private final TextFolding folding;
+    private final ModelChangeListener listener = this::onChanges;
+    private final Map<String, Tree> trees = new HashMap<>();
+    /** Indexed headwords of the entries of the dictionary (possibly none). */
+    private final Map<LiftEntry, List<Headword>> headwordsByEntry = new IdentityHashMap<>();
+
+    public FuzzyHeadwordIndex(LiftFactory factory) {
+        this(factory, new TextFolding());
+    }
+
+    public FuzzyHeadwordIndex(LiftFactory factory, TextFolding folding) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        this.folding = folding;
+        for (LiftEntry e : factory.getAllEntries()) reindex(e);
+        factory.getChangeBus().addListener(listener);
+    }
+
+    /**
+     * @return the entries having a headword in any language within {@code maxDistance} of the query,
+     * nearest first, at most {@code limit} (each entry once, with its nearest headword).
+     */
+    public List<Match> find(String query, int maxDistance, int limit) {
+        return find(query, null, maxDistance, limit);
+    }
+
+    /**
+     * @param lang the object language of the headwords to search, null for all
+     */
+    public List<Match> find(String query, String lang, int maxDistance, int limit) {
+        Map<LiftEntry, Match> best = new IdentityHashMap<>();
+        trees.forEach((treeLang, tree) -> {
+            if (lang != null && !lang.equals(treeLang)) return;
+            String q = folding.fold(treeLang, query);
+            if (q.isEmpty() || tree.root == null) return;
+            int[][] rows = new int[2][];
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(tree.root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                // The exact distance is needed to prune the children
+                int d = distance(q, node.term, Integer.MAX_VALUE, rows);
+                if (d <= maxDistance) {
+                    for (LiftEntry e : node.entries) {
+                        Match m = best.get(e);
+                        if (m == null || d < m.distance()) best.put(e, new Match(e, treeLang, headwordOf(e, treeLang), d));
+                    }
+                }
+                // Children at distance k of the node can only match if |k - d| <= maxDistance
+                for (int i = 0; i < node.childCount; i++) {
+                    if (Math.abs(node.childDistances[i] - d) <= maxDistance) pending.push(node.children[i]);
+                }
+            }
+        });
+        return best.values().stream()
+            .sorted(Comparator.comparingInt(Match::distance).thenComparing(Match::headword, String.CASE_INSENSITIVE_ORDER))
+            .limit(limit)
+            .toList();
+    }
+
+    private static String headwordOf(LiftEntry entry, String lang) {
+        return entry.getForms().getForm(lang).map(Form::toPlainText).orElse("");
+    }
+
+    /**
+     * Levenshtein distance, computed on two rows; gives up with {@code bound} as soon as it is reached.
+     */
+    static int distance(String a, String b, int bound) {
+        return distance(a, b, bound, new int[2][]);
+    }
+
+    /**
+     * @param rows two reusable rows, (re)allocated when too short
+     */
+    private static int distance(String a, String b, int bound, int[][] rows) {
+        if (Math.abs(a.length() - b.length()) >= bound) return bound;
+        if (rows[0] == null || rows[0].length <= b.length()) {
+            rows[0] = new int[b.length() + 8];
+            rows[1] = new int[b.length() + 8];
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin >= bound) return bound;
+            int[] t = previous;
+            previous = current;
+            current = t;
+        }
+        return Math.min(previous[b.length()], bound);
+    }
+
+    /**
+     * Re-read the headwords of an entry of the dictionary.
+     */
+    public void reindex(LiftEntry entry) {
+        unindex(entry);
+        List<Headword> headwords = new ArrayList<>();
+        for (Form f : entry.getForms().getForms()) {
+            String term = f.getFoldedText(folding);
+            if (term.isBlank()) continue;
+            Headword h = new Headword(f.getLang(), term);
+            headwords.add(h);
+            Tree tree = trees.computeIfAbsent(h.lang(), l -> new Tree());
+            Node node = tree.nodes.get(term);
+            if (node == null) {
+                node = new Node(term);
+                tree.nodes.put(term, node);
+                insert(tree, node);
+            } else if (node.entries.isEmpty()) {
+                tree.emptyNodes--;
+            }
+            node.entries.add(entry);
+        }
+        headwordsByEntry.put(entry, headwords);
+    }
+
+    private void unindex(LiftEntry entry) {
+        List<Headword> headwords = headwordsByEntry.remove(entry);
+        if (headwords == null) return;
+        for (Headword h : headwords) {
+            Tree tree = trees.get(h.lang());
+            Node node = tree.nodes.get(h.term());
+            node.entries.remove(entry);
+            if (node.entries.isEmpty() && ++tree.emptyNodes > 1024 && tree.emptyNodes * 2 > tree.nodes.size()) rebuild(tree);
+        }
+    }
+
+    private static void insert(Tree tree, Node node) {
+        if (tree.root == null) {
+            tree.root = node;
+            return;
+        }
+        Node current = tree.root;
+        while (true) {
+            int d = distance(node.term, current.term, Integer.MAX_VALUE);
+            Node next = current.child(d);
+            if (next == null) {
+                current.addChild(d, node);
+                return;
+            }
+            current = next;
+        }
+    }
+
+    private static void rebuild(Tree tree) {
+        List<Node> live = new ArrayList<>();
+        for (Node n : tree.nodes.values()) {
+            if (!n.entries.isEmpty()) live.add(n);
+        }
+        tree.root = null;
+        tree.nodes.clear();
+        tree.emptyNodes = 0;
+        for (Node old : live) {
+            Node n = new Node(old.term);
+            n.entries.addAll(old.entries);
+            tree.nodes.put(n.term, n);
+            insert(tree, n);
+        }
+    }
+
+    private void onChanges(List<ModelChange> changes) {
+        Set<LiftEntry> dirty = new LinkedHashSet<>();
+        for (ModelChange c : changes) {
+            switch (c) {
+                case ModelChange.FormTextChanged t -> {
+                    if (t.owner() instanceof LiftEntry e && t.multiText() == e.getForms() && headwordsByEntry.containsKey(e)) dirty.add(e);
+                }
+                case ModelChange.EntryAdded e -> dirty.add(e.entry());
+                case ModelChange.EntryRemoved e -> { dirty.remove(e.entry()); unindex(e.entry()); }
+                default -> { }
+            }
+        }
+        for (LiftEntry e : dirty) reindex(e);
+    }
+
+    @Override
+    public void close() {
+        factory.getChangeBus().removeListener(listener);
+    }
+}
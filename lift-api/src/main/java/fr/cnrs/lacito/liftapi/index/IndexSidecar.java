@@ -0,0 +1,216 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Storage of a {@link TextIndex} in a file next to the dictionary ({@code dictionary.lift.idx}),
+ * so that opening a large dictionary does not tokenize all its texts again.
+ *
+ * The sidecar records the size, modification time and SHA-256 hash of the LIFT file it was
+ * built from, and the {@link TextFolding#getSignature() folding configuration}. It is memory-mapped
+ * and decoded only if they all match; otherwise {@link #read} returns nothing and the caller rebuilds
+ * the index (and may then {@link #write} it). Entries are identified by their position in the file,
+ * so the sidecar must be written when the model and the file agree: right after loading or saving.
+ */
+public final class IndexSidecar {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexSidecar.class.getName());
+
+    public static final String EXTENSION = ".idx";
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+
+    private IndexSidecar() {
+    }
+
+    /**
+     * @return the sidecar of a LIFT file.
+     */
+    public static Path sidecarOf(Path liftFile) {
+        return liftFile.resolveSibling(liftFile.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Write the index of the dictionary read from (or just saved to) a file, replacing its sidecar.
+     */
+    public static void write(Path liftFile, TextIndex index) throws IOException {
+        write(liftFile, body(index, index::write), () -> false);
+    }
+
+    /**
+     * Encode the index as it is now, on the editing thread, for {@link #write(Path, byte[], BooleanSupplier)}
+     * from another thread: an index that follows the dictionary, right after the dictionary was saved.
+     */
+    public static byte[] encode(TextIndex index) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            body(index, index::write).write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write an index {@link #encode(TextIndex) encoded} when the dictionary was saved to the file, from any thread.
+     * @param cancelled checked once the file is hashed: the sidecar is not written if it returns true (e.g. the file was saved again)
+     */
+    public static void write(Path liftFile, byte[] encoded, BooleanSupplier cancelled) throws IOException {
+        write(liftFile, out -> out.write(encoded), cancelled);
+    }
+
+    /**
+     * Same as {@link #write(Path, TextIndex)} from any thread, for an index built from a snapshot of the
+     * dictionary and not yet {@link TextIndex#replay(java.util.List) replayed}.
+     * @param snapshot the dictionary as read from (or saved to) the file, from which the index was built
+     * @param cancelled checked once the file is hashed: the sidecar is not written if it returns true (e.g. the file was saved again)
+     */
+    public static void write(Path liftFile, TextIndex index, DictionarySnapshot snapshot, BooleanSupplier cancelled) throws IOException {
+        List<LiftEntry> all = snapshot.getEntries().stream().map(DictionarySnapshot.Entry::handle).toList();
+        write(liftFile, body(index, out -> index.write(out, all)), cancelled);
+    }
+
+    private interface IndexWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /** The part of the sidecar following the file checks: the folding signature, then the index. */
+    private static IndexWriter body(TextIndex index, IndexWriter writer) {
+        return out -> {
+            writeString(out, index.getFolding().getSignature());
+            writer.write(out);
+        };
+    }
+
+    private static void write(Path liftFile, IndexWriter body, BooleanSupplier cancelled) throws IOException {
+        Path sidecar = sidecarOf(liftFile);
+        Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Files.size(liftFile));
+            out.writeLong(Files.getLastModifiedTime(liftFile).toMillis());
+            out.write(hash(liftFile));
+            if (cancelled.getAsBoolean()) {
+                out.close();
+                Files.deleteIfExists(tmp);
+                return;
+            }
+            body.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the index of a dictionary from the sidecar of its file.
+     * @param factory the dictionary, as just read from the file
+     * @return the index, or nothing if there is no sidecar or if it does not match the file or the folding
+     */
+    public static Optional<TextIndex> read(Path liftFile, LiftFactory factory, TextFolding folding) {
+        return read(liftFile, folding, in -> TextIndex.read(factory, folding, in));
+    }
+
+    /**
+     * Read the index of a dictionary from the sidecar of its file, from any thread.
+     * The index follows the changes of the dictionary once {@link TextIndex#replay(java.util.List)} is called.
+     * @param snapshot the dictionary, as just read from the file
+     * @return the index, or nothing if there is no sidecar or if it does not match the file or the folding
+     */
+    public static Optional<TextIndex> read(Path liftFile, LiftFactory factory, DictionarySnapshot snapshot, TextFolding folding) {
+        return read(liftFile, folding, in -> TextIndex.read(factory, snapshot, folding, in));
+    }
+
+    private static Optional<TextIndex> read(Path liftFile, TextFolding folding, Function<ByteBuffer, TextIndex> decoder) {
+        Path sidecar = sidecarOf(liftFile);
+        if (!Files.isRegularFile(sidecar) || !Files.isRegularFile(liftFile)) return Optional.empty();
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) return stale(sidecar, "too large to be mapped");
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) return stale(sidecar, "unknown format");
+            if (in.getLong() != Files.size(liftFile) || in.getLong() != Files.getLastModifiedTime(liftFile).toMillis()) {
+                return stale(sidecar, "file size or modification time changed");
+            }
+            byte[] stored = new byte[HASH_LENGTH];
+            in.get(stored);
+            if (!folding.getSignature().equals(readString(in))) return stale(sidecar, "folding configuration changed");
+            // Checked last: hashing reads the whole file
+            if (!Arrays.equals(stored, hash(liftFile))) return stale(sidecar, "file content changed");
+            return Optional.of(decoder.apply(in));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Unreadable index sidecar " + sidecar, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<TextIndex> stale(Path sidecar, String reason) {
+        LOGGER.info("Index sidecar " + sidecar + " ignored: " + reason);
+        return Optional.empty();
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    /** Strings are written as their UTF-8 length then bytes, -1 for null. */
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,266 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.And;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.GramInfoIn;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.HasField;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.HasRelation;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.ModifiedBetween;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.Not;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.Or;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.TextContains;
+import fr.cnrs.lacito.liftapi.index.DictionaryQuery.Trait;
+import fr.cnrs.lacito.liftapi.model.AbstractExtensibleWithField;
+import fr.cnrs.lacito.liftapi.model.AbstractExtensibleWithoutField;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+
+/**
+ * Evaluates {@link DictionaryQuery} conditions against the entries of a factory.
+ *
+ * Each condition has an access path: the text index for text conditions, the component lists of
+ * the factory (traits, senses, fields, relations) for the other leaves, or a scan of the entries.
+ * A conjunction is driven by its cheapest operand, the other ones being checked on its entries only;
+ * a disjunction is the union of its operands. Conditions without any other access path are
+ * evaluated by a parallel scan of the entries.
+ *
+ * The component lists keep the components of removed entries and senses: the owning entry of a
+ * component is checked against the dictionary before being returned.
+ */
+public final class QueryPlanner {
+
+    private static final long SCAN = Long.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final LiftFactory factory;
+    private final TextIndex textIndex;
+    private final TextFolding folding;
+
+    public QueryPlanner(LiftFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     * @param textIndex the index used for text conditions, or null to scan the texts
+     */
+    public QueryPlanner(LiftFactory factory, TextIndex textIndex) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        this.textIndex = textIndex;
+        this.folding = textIndex != null ? textIndex.getFolding() : new TextFolding();
+    }
+
+    public QueryResult execute(DictionaryQuery query) {
+        long start = System.nanoTime();
+        Execution execution = new Execution();
+        Set<LiftEntry> entries = inDictionaryOrder(execution.evaluate(query, 0));
+        return new QueryResult(entries, execution.explain.toString(), System.nanoTime() - start);
+    }
+
+    /**
+     * Index lookups, unions and component lists do not follow the order of the entries: the result is
+     * put back in dictionary order with one pass over the entries.
+     */
+    private Set<LiftEntry> inDictionaryOrder(Set<LiftEntry> entries) {
+        Set<LiftEntry> ordered = new LinkedHashSet<>();
+        if (entries.isEmpty()) return ordered;
+        for (LiftEntry e : factory.getAllEntries()) {
+            if (entries.contains(e)) ordered.add(e);
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the number of components read to get the entries of a condition, 0 for an index lookup,
+     * or {@link #SCAN} when the condition must be tested on every entry.
+     */
+    private long cost(DictionaryQuery query) {
+        return switch (query) {
+            case TextContains t -> textIndex != null ? 0 : SCAN;
+            case Trait t -> factory.getAllTraits().size();
+            case GramInfoIn g -> factory.getAllSenses().size();
+            case HasField f -> factory.getAllFields().size();
+            case HasRelation r -> factory.getAllRelations().size();
+            case ModifiedBetween m -> SCAN;
+            case And a -> a.operands().stream().mapToLong(this::cost).min().orElse(SCAN);
+            case Or o -> o.operands().stream().mapToLong(this::cost).reduce(0, (x, y) -> x == SCAN || y == SCAN ? SCAN : x + y);
+            case Not n -> SCAN;
+        };
+    }
+
+    private final class Execution {
+
+        final StringBuilder explain = new StringBuilder();
+        private Set<LiftEntry> entriesWithoutId;
+
+        Set<LiftEntry> evaluate(DictionaryQuery query, int depth) {
+            int line = explain.length();
+            long start = System.nanoTime();
+            long cost = cost(query);
+            String path;
+            Set<LiftEntry> result;
+            if (cost == SCAN && !(query instanceof Not)) {
+                path = "scan";
+                result = filter(factory.getAllEntries(), e -> test(query, e));
+            } else {
+                switch (query) {
+                    case And a -> {
+                        DictionaryQuery driver = a.operands().get(0);
+                        for (DictionaryQuery operand : a.operands()) if (cost(operand) < cost(driver)) driver = operand;
+                        Set<LiftEntry> candidates = evaluate(driver, depth + 1);
+                        List<DictionaryQuery> others = new ArrayList<>(a.operands());
+                        others.remove(driver);
+                        for (DictionaryQuery other : others) explain.append(indent(depth + 1)).append("check ").append(label(other)).append('\n');
+                        path = "check " + candidates.size() + " candidates";
+                        result = filter(candidates, e -> others.stream().allMatch(other -> test(other, e)));
+                    }
+                    case Or o -> {
+                        result = new LinkedHashSet<>();
+                        for (DictionaryQuery operand : o.operands()) result.addAll(evaluate(operand, depth + 1));
+                        path = "union";
+                    }
+                    case Not n -> {
+                        Set<LiftEntry> excluded = evaluate(n.operand(), depth + 1);
+                        result = filter(factory.getAllEntries(), e -> !excluded.contains(e));
+                        path = "complement";
+                    }
+                    case TextContains t -> {
+                        result = new LinkedHashSet<>(textIndex.findSubstring(t.text(), t.lang()));
+                        path = "text index";
+                    }
+                    default -> {
+                        result = fromComponents(query);
+                        path = "components (" + cost + ")";
+                    }
+                }
+            }
+            explain.insert(line, String.format(Locale.ROOT, "%s%s [%s] -> %d entries, %.2f ms%n",
+                indent(depth), label(query), path, result.size(), (System.nanoTime() - start) / 1e6));
+            return result;
+        }
+
+        private Set<LiftEntry> fromComponents(DictionaryQuery query) {
+            Stream<?> components = switch (query) {
+                case Trait t -> factory.getAllTraits().stream().filter(trait -> t.name().equals(trait.getName()) && t.value().equals(trait.getValue()));
+                case GramInfoIn g -> factory.getAllSenses().stream().filter(s -> hasGramInfo(s, g));
+                case HasField f -> factory.getAllFields().stream().filter(field -> f.type().equals(field.getName()));
+                case HasRelation r -> factory.getAllRelations().stream().filter(relation -> r.type().equals(relation.getType()));
+                default -> throw new IllegalStateException("No component list for " + query);
+            };
+            return components.map(LiftFactory::findEntry).flatMap(Optional::stream).distinct()
+                .filter(e -> isInDictionary(e) && test(query, e))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        private boolean isInDictionary(LiftEntry entry) {
+            Optional<String> id = entry.getId();
+            if (id.isPresent()) return factory.getEntryById().get(id.get()) == entry;
+            if (entriesWithoutId == null) {
+                entriesWithoutId = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (LiftEntry e : factory.getAllEntries()) if (e.getId().isEmpty()) entriesWithoutId.add(e);
+            }
+            return entriesWithoutId.contains(entry);
+        }
+    }
+
+    private static Set<LiftEntry> filter(Collection<LiftEntry> entries, Predicate<LiftEntry> predicate) {
+        Stream<LiftEntry> stream = entries.size() >= PARALLEL_THRESHOLD ? entries.parallelStream() : entries.stream();
+        return stream.filter(predicate).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private boolean test(DictionaryQuery query, LiftEntry entry) {
+        return switch (query) {
+            case Trait t -> anyPart(entry, o -> o.getTraits() != null
+                && o.getTraits().stream().anyMatch(trait -> t.name().equals(trait.getName()) && t.value().equals(trait.getValue())));
+            case GramInfoIn g -> anySense(entry.getSenses(), s -> hasGramInfo(s, g));
+            case HasField f -> anyPart(entry, o -> o instanceof AbstractExtensibleWithField w
+                && w.getFields().stream().anyMatch(field -> f.type().equals(field.getName())));
+            case HasRelation r -> anyPart(entry, o -> relationsOf(o).stream().anyMatch(relation -> r.type().equals(relation.getType())));
+            case TextContains t -> containsText(entry, t);
+            case ModifiedBetween m -> isModifiedBetween(entry, m);
+            case And a -> a.operands().stream().allMatch(operand -> test(operand, entry));
+            case Or o -> o.operands().stream().anyMatch(operand -> test(operand, entry));
+            case Not n -> !test(n.operand(), entry);
+        };
+    }
+
+    private static boolean hasGramInfo(LiftSense sense, GramInfoIn query) {
+        return sense.getGrammaticalInfo().map(g -> query.values().contains(g.getValue())).orElse(false);
+    }
+
+    private static List<LiftRelation> relationsOf(AbstractExtensibleWithoutField object) {
+        return switch (object) {
+            case LiftEntry e -> e.getRelations();
+            case LiftSense s -> s.getRelations();
+            case LiftVariant v -> v.getRelations();
+            default -> List.of();
+        };
+    }
+
+    /** The entry, its variants, etymologies, senses (subsenses included) and their examples. */
+    private static boolean anyPart(LiftEntry entry, Predicate<AbstractExtensibleWithoutField> predicate) {
+        if (predicate.test(entry)) return true;
+        if (entry.getVariants().stream().anyMatch(predicate)) return true;
+        if (entry.getEtymologies().stream().anyMatch(predicate)) return true;
+        return anySense(entry.getSenses(), s -> predicate.test(s) || s.getExamples().stream().anyMatch(predicate));
+    }
+
+    private static boolean anySense(List<LiftSense> senses, Predicate<LiftSense> predicate) {
+        for (LiftSense s : senses) {
+            if (predicate.test(s) || anySense(s.getSubSenses(), predicate)) return true;
+        }
+        return false;
+    }
+
+    private boolean containsText(LiftEntry entry, TextContains query) {
+        String folded = folding.fold(query.lang(), query.text());
+        boolean[] found = { false };
+        EntryTexts.forEach(entry, (role, form) -> {
+            if (!found[0] && query.lang().equals(form.getLang())) found[0] = form.getFoldedText(folding).contains(folded);
+        });
+        return found[0];
+    }
+
+    private static boolean isModifiedBetween(LiftEntry entry, ModifiedBetween query) {
+        Optional<String> date = entry.getDateModified();
+        if (date.isEmpty() || date.get().length() < 10) return false;
+        try {
+            LocalDate modified = LocalDate.parse(date.get().substring(0, 10));
+            return (query.from() == null || !modified.isBefore(query.from())) && (query.to() == null || !modified.isAfter(query.to()));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static String label(DictionaryQuery query) {
+        return switch (query) {
+            case And a -> "AND";
+            case Or o -> "OR";
+            case Not n -> "NOT";
+            default -> query.toString();
+        };
+    }
+
+    private static String indent(int depth) {
+        return "  ".repeat(depth);
+    }
+}
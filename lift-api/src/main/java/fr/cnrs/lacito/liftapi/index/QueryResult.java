@@ -0,0 +1,54 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+
+/**
+ * The entries matching a {@link DictionaryQuery}, in dictionary order, with the plan that produced them.
+ */
+public final class QueryResult {
+
+    private final Set<LiftEntry> entries;
+    private final String explain;
+    private final long elapsedNanos;
+
+    QueryResult(Set<LiftEntry> entries, String explain, long elapsedNanos) {
+        this.entries = Collections.unmodifiableSet(entries);
+        this.explain = explain;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Set<LiftEntry> getEntries() {
+        return entries;
+    }
+
+    public Stream<LiftEntry> stream() {
+        return entries.stream();
+    }
+
+    /**
+     * @return the ids of the matching entries, entries without id being skipped.
+     */
+    public Stream<String> ids() {
+        return entries.stream().map(LiftEntry::getId).flatMap(Optional::stream);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the evaluation plan, one line per step with its access path, result size and duration.
+     */
+    public String explain() {
+        return explain;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,188 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.ModelChangeListener;
+
+/**
+ * Reverse index of the references of a dictionary: from a target id (entry or sense)
+ * to the relations and variants pointing at it.
+ *
+ * The index is built once from the factory then maintained from its
+ * {@link fr.cnrs.lacito.liftapi.model.ModelChangeBus}: relation and variant retargeting, entry, sense,
+ * relation and variant addition or removal. Targets are resolved against the id maps of the factory,
+ * so an id change or a deletion immediately makes the references to the old id dangling.
+ */
+public final class ReferenceIndex implements AutoCloseable {
+
+    private final LiftFactory factory;
+    private final ModelChangeListener listener = this::onChanges;
+    private final Map<String, Set<LiftRelation>> relationsByTarget = new HashMap<>();
+    private final Map<String, Set<LiftVariant>> variantsByTarget = new HashMap<>();
+
+    public ReferenceIndex(LiftFactory factory) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        for (LiftEntry e : factory.getAllEntries()) {
+            indexEntry(e, true);
+        }
+        factory.getChangeBus().addListener(listener);
+    }
+
+    public List<LiftRelation> getRelationsTo(String targetId) {
+        Set<LiftRelation> s = relationsByTarget.get(targetId);
+        return s == null ? List.of() : List.copyOf(s);
+    }
+
+    public List<LiftVariant> getVariantsTo(String targetId) {
+        Set<LiftVariant> s = variantsByTarget.get(targetId);
+        return s == null ? List.of() : List.copyOf(s);
+    }
+
+    public int countReferencesTo(String targetId) {
+        Set<LiftRelation> r = relationsByTarget.get(targetId);
+        Set<LiftVariant> v = variantsByTarget.get(targetId);
+        return (r == null ? 0 : r.size()) + (v == null ? 0 : v.size());
+    }
+
+    /**
+     * References to the entry or to any of its senses, coming from outside the entry.
+     * Used to warn before deleting an entry.
+     */
+    public List<LiftRelation> getIncomingRelations(LiftEntry entry) {
+        List<LiftRelation> incoming = new ArrayList<>();
+        entry.getId().ifPresent(id -> collectIncoming(id, entry, incoming));
+        forEachSense(entry.getSenses(), s -> s.getId().ifPresent(id -> collectIncoming(id, entry, incoming)));
+        return incoming;
+    }
+
+    private void collectIncoming(String id, LiftEntry entry, List<LiftRelation> out) {
+        Set<LiftRelation> s = relationsByTarget.get(id);
+        if (s == null) return;
+        for (LiftRelation r : s) {
+            if (LiftFactory.findEntry(r).orElse(null) != entry) out.add(r);
+        }
+    }
+
+    /**
+     * @return true if the id is neither the id of an entry nor of a sense.
+     */
+    public boolean isDangling(String refId) {
+        return !factory.getEntryById().containsKey(refId) && !factory.getSenseById().containsKey(refId);
+    }
+
+    /**
+     * @return the entry with this id, or the entry containing the sense with this id.
+     */
+    public Optional<LiftEntry> resolveEntry(String refId) {
+        if (refId == null || refId.isBlank()) return Optional.empty();
+        LiftEntry e = factory.getEntryById().get(refId);
+        if (e != null) return Optional.of(e);
+        LiftSense s = factory.getSenseById().get(refId);
+        return s == null ? Optional.empty() : LiftFactory.findEntry(s);
+    }
+
+    /**
+     * @return the referenced ids that do not resolve, sorted.
+     */
+    public Set<String> getDanglingTargets() {
+        Set<String> dangling = new TreeSet<>();
+        for (String id : relationsByTarget.keySet()) if (isDangling(id)) dangling.add(id);
+        for (String id : variantsByTarget.keySet()) if (isDangling(id)) dangling.add(id);
+        return Collections.unmodifiableSet(dangling);
+    }
+
+    public List<LiftRelation> getDanglingRelations() {
+        List<LiftRelation> dangling = new ArrayList<>();
+        relationsByTarget.forEach((id, relations) -> { if (isDangling(id)) dangling.addAll(relations); });
+        return dangling;
+    }
+
+    @Override
+    public void close() {
+        factory.getChangeBus().removeListener(listener);
+    }
+
+    private void onChanges(List<ModelChange> changes) {
+        for (ModelChange c : changes) {
+            switch (c) {
+                case ModelChange.RelationRetargeted r -> {
+                    r.oldRefId().ifPresent(old -> remove(relationsByTarget, old, r.relation()));
+                    add(relationsByTarget, r.newRefId(), r.relation());
+                }
+                case ModelChange.RelationAdded r -> indexRelations(List.of(r.relation()), true);
+                case ModelChange.RelationRemoved r -> indexRelations(List.of(r.relation()), false);
+                case ModelChange.EntryAdded e -> indexEntry(e.entry(), true);
+                case ModelChange.EntryRemoved e -> indexEntry(e.entry(), false);
+                case ModelChange.SenseAdded s -> indexSense(s.sense(), true);
+                case ModelChange.SenseRemoved s -> indexSense(s.sense(), false);
+                case ModelChange.VariantRetargeted v -> {
+                    v.oldRefId().ifPresent(old -> remove(variantsByTarget, old, v.variant()));
+                    add(variantsByTarget, v.newRefId(), v.variant());
+                }
+                case ModelChange.VariantAdded v -> indexVariant(v.variant(), true);
+                case ModelChange.VariantRemoved v -> indexVariant(v.variant(), false);
+                default -> { }
+            }
+        }
+    }
+
+    private void indexEntry(LiftEntry e, boolean add) {
+        indexRelations(e.getRelations(), add);
+        for (LiftVariant v : e.getVariants()) indexVariant(v, add);
+        for (LiftSense s : e.getSenses()) indexSense(s, add);
+    }
+
+    private void indexVariant(LiftVariant v, boolean add) {
+        v.getRefId().ifPresent(ref -> {
+            if (add) add(variantsByTarget, ref, v); else remove(variantsByTarget, ref, v);
+        });
+        indexRelations(v.getRelations(), add);
+    }
+
+    private void indexSense(LiftSense sense, boolean add) {
+        forEachSense(List.of(sense), s -> indexRelations(s.getRelations(), add));
+    }
+
+    private void indexRelations(List<LiftRelation> relations, boolean add) {
+        for (LiftRelation r : relations) {
+            r.getRefID().ifPresent(ref -> {
+                if (add) add(relationsByTarget, ref, r); else remove(relationsByTarget, ref, r);
+            });
+        }
+    }
+
+    private static <T> void add(Map<String, Set<T>> index, String target, T referrer) {
+        if (target == null || target.isBlank()) return;
+        index.computeIfAbsent(target, k -> new LinkedHashSet<>()).add(referrer);
+    }
+
+    private static <T> void remove(Map<String, Set<T>> index, String target, T referrer) {
+        Set<T> s = index.get(target);
+        if (s == null) return;
+        s.remove(referrer);
+        if (s.isEmpty()) index.remove(target);
+    }
+
+    private static void forEachSense(List<LiftSense> senses, Consumer<LiftSense> action) {
+        for (LiftSense s : senses) {
+            action.accept(s);
+            forEachSense(s.getSubSenses(), action);
+        }
+    }
+}
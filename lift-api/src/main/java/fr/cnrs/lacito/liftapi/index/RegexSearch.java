@@ -0,0 +1,191 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Regular-expression search over the texts of the entries, run in parallel on a {@link ForkJoinPool}.
+ *
+ * The entries are split in ranges, each scanned by its own {@link Matcher} of the pattern compiled once
+ * for the query. Matches are delivered by batches, from the pool threads, as soon as a range is done;
+ * a query can be cancelled at any time, which also stops a match in progress (e.g. a pattern
+ * backtracking on a long text). Texts are matched as written (not folded).
+ *
+ * The search reads a {@link DictionarySnapshot}: the live model can be edited meanwhile, matches are those
+ * of the texts at the time of the snapshot.
+ */
+public final class RegexSearch {
+
+    /**
+     * A match in a text of an entry.
+     * @param entry the live entry
+     * @param text the plain text of the form, as in the snapshot
+     * @param start the offset of the first character of the match in the text
+     * @param end the offset after the last character of the match
+     */
+    public record Match(LiftEntry entry, TextRole role, String lang, String text, int start, int end) {}
+
+    /** Entries scanned by a task without splitting further. */
+    private static final int RANGE = 256;
+
+    private final ForkJoinPool pool;
+
+    public RegexSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RegexSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Start a search.
+     * @param snapshot the dictionary to search
+     * @param regex the pattern, found anywhere in the texts (use {@code ^} and {@code $} to anchor it)
+     * @param roles the roles of the texts to search, empty for all
+     * @param langs the languages of the texts to search, empty for all
+     * @param sink receives the matches by batches, from several threads, until the query ends
+     * @throws java.util.regex.PatternSyntaxException if the pattern is invalid
+     */
+    public Query search(DictionarySnapshot snapshot, String regex, Set<TextRole> roles, Set<String> langs, Consumer<List<Match>> sink) {
+        Query query = new Query(Pattern.compile(regex), roles, langs, sink, snapshot.getEntries());
+        pool.execute(() -> {
+            try {
+                query.new Scan(0, query.entries.size()).invoke();
+                if (query.isCancelled()) query.done.cancel(false);
+                else query.done.complete(query.count.get());
+            } catch (CancellationException e) {
+                query.done.cancel(false);
+            } catch (RuntimeException | Error e) {
+                query.done.completeExceptionally(e);
+            }
+        });
+        return query;
+    }
+
+    /**
+     * A running search.
+     */
+    public static final class Query {
+        private final Pattern pattern;
+        private final Set<TextRole> roles;
+        private final Set<String> langs;
+        private final Consumer<List<Match>> sink;
+        private final List<DictionarySnapshot.Entry> entries;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicInteger count = new AtomicInteger();
+        private final CompletableFuture<Integer> done = new CompletableFuture<>();
+
+        private Query(Pattern pattern, Set<TextRole> roles, Set<String> langs, Consumer<List<Match>> sink, List<DictionarySnapshot.Entry> entries) {
+            this.pattern = pattern;
+            this.roles = roles;
+            this.langs = langs;
+            this.sink = sink;
+            this.entries = entries;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Stop the search; no batch is delivered after this method returns, except one being delivered.
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * @return completed with the number of matches, or cancelled.
+         */
+        public CompletableFuture<Integer> getCompletion() {
+            return done;
+        }
+
+        private final class Scan extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            Scan(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (isCancelled()) return;
+                if (to - from > RANGE) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new Scan(from, middle), new Scan(middle, to));
+                    return;
+                }
+                Matcher matcher = pattern.matcher("");
+                List<Match> matches = new ArrayList<>();
+                for (int i = from; i < to && !isCancelled(); i++) {
+                    DictionarySnapshot.Entry entry = entries.get(i);
+                    try {
+                        EntryTexts.forEach(entry, (role, form) -> {
+                            if (isCancelled() || !roles.isEmpty() && !roles.contains(role)) return;
+                            if (!langs.isEmpty() && !langs.contains(form.lang())) return;
+                            matcher.reset(new Interruptible(form.text()));
+                            while (matcher.find()) matches.add(new Match(entry.handle(), role, form.lang(), form.text(), matcher.start(), matcher.end()));
+                        });
+                    } catch (CancellationException e) {
+                        return;
+                    }
+                }
+                if (matches.isEmpty() || isCancelled()) return;
+                count.addAndGet(matches.size());
+                sink.accept(matches);
+            }
+        }
+
+        /** Text checking the cancellation while the matcher reads it. */
+        private final class Interruptible implements CharSequence {
+            private final String text;
+            private int reads;
+
+            Interruptible(String text) {
+                this.text = text;
+            }
+
+            @Override
+            public char charAt(int index) {
+                if ((++reads & 0xfff) == 0 && isCancelled()) throw new CancellationException();
+                return text.charAt(index);
+            }
+
+            @Override
+            public int length() {
+                return text.length();
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return text.subSequence(start, end);
+            }
+
+            @Override
+            public String toString() {
+                return text;
+            }
+        }
+    }
+}
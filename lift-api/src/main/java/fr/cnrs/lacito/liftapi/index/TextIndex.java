@@ -0,0 +1,550 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.ModelChangeListener;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+
+/**
+ * Inverted index of the words of the texts of a dictionary, by role and language.
+ *
+ * Each entry gets an ordinal; a word maps to the sorted ordinals of the entries containing it,
+ * so that queries are answered with bitset unions and intersections. The index is built once
+ * from the factory then maintained from its {@link fr.cnrs.lacito.liftapi.model.ModelChangeBus}:
+ * an entry touched by a change, including the removal of one of its examples, notes, relations, variants,
+ * pronunciations or fields, is re-tokenized as a whole. Use {@link #reindex(LiftEntry)} after an edit
+ * made without any event.
+ *
+ * Texts and queries are normalized with the {@link TextFolding} rules of their language, using the
+ * keys cached by the forms. The texts are also kept in a {@link TrigramIndex} for infix searches
+ * ({@link #findSubstring(String)}). The index can be stored next to the dictionary file and read
+ * back instead of being rebuilt, see {@link IndexSidecar}.
+ *
+ * Like the model, the index must be used from a single thread. It can however be built on another
+ * thread from a {@link DictionarySnapshot}, then handed to the editing thread with {@link #replay(List)}.
+ */
+public final class TextIndex implements AutoCloseable {
+
+    private record Field(TextRole role, String lang) {}
+
+    /** Words of an entry by field, and its folded texts by language. */
+    private record EntryWords(Map<Field, List<String>> words, Map<String, List<String>> texts) {}
+
+    /** Sorted ordinals of the entries containing a word in a field. */
+    private static final class Postings {
+        final Field field;
+        final String term;
+        int[] ordinals = new int[2];
+        int size = 0;
+
+        Postings(Field field, String term) {
+            this.field = field;
+            this.term = term;
+        }
+
+        void add(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i >= 0) return;
+            i = -i - 1;
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size + (size >> 1) + 1);
+            System.arraycopy(ordinals, i, ordinals, i + 1, size - i);
+            ordinals[i] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i < 0) return;
+            System.arraycopy(ordinals, i + 1, ordinals, i, size - i - 1);
+            size--;
+        }
+
+        void orInto(BitSet bits) {
+            for (int i = 0; i < size; i++) bits.set(ordinals[i]);
+        }
+    }
+
+    private static final Postings[] NO_POSTINGS = new Postings[0];
+
+    private final LiftFactory factory;
+    private final ModelChangeListener listener = this::onChanges;
+    private final Map<Field, NavigableMap<String, Postings>> postingsByField = new HashMap<>();
+    private final Map<LiftEntry, Integer> ordinals = new IdentityHashMap<>();
+    private final List<LiftEntry> entries = new ArrayList<>();
+    /** Postings containing each entry, by ordinal; null for a removed entry. */
+    private final List<Postings[]> entryPostings = new ArrayList<>();
+    /** Folded texts by language, each language having its own folding rules. */
+    private final Map<String, TrigramIndex<LiftEntry>> substrings = new HashMap<>();
+    private final TextFolding folding;
+    private boolean listening = false;
+
+    public TextIndex(LiftFactory factory) {
+        this(factory, new TextFolding());
+    }
+
+    /**
+     * @param folding the normalization of texts and queries; the index must be rebuilt when its configuration changes
+     */
+    public TextIndex(LiftFactory factory, TextFolding folding) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        this.folding = folding;
+        // Tokenizing dominates the build and only reads the model: it is done in parallel
+        List<LiftEntry> all = factory.getAllEntries();
+        List<EntryWords> words = all.parallelStream().map(this::tokenize).toList();
+        for (int i = 0; i < all.size(); i++) index(all.get(i), words.get(i));
+        listen();
+    }
+
+    /**
+     * Build the index of a snapshot of the dictionary, from any thread. The index does not follow
+     * the changes of the dictionary until {@link #replay(List)} is called on the editing thread.
+     */
+    public TextIndex(LiftFactory factory, DictionarySnapshot snapshot, TextFolding folding) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        this.folding = folding;
+        List<DictionarySnapshot.Entry> all = snapshot.getEntries();
+        List<EntryWords> words = all.parallelStream().map(this::tokenize).toList();
+        for (int i = 0; i < all.size(); i++) index(all.get(i).handle(), words.get(i));
+    }
+
+    /**
+     * Index read from a sidecar, the ordinals being the positions of the entries in the dictionary.
+     * @param all the entries of the dictionary
+     * @param listen whether to follow the changes now, otherwise from {@link #replay(List)}
+     */
+    private TextIndex(LiftFactory factory, List<LiftEntry> all, TextFolding folding, ByteBuffer in, boolean listen) {
+        this.factory = factory;
+        this.folding = folding;
+        int count = in.getInt();
+        if (count != all.size()) throw new IllegalStateException("Index of " + count + " entries for " + all.size() + " entries");
+        for (LiftEntry e : all) {
+            ordinals.put(e, entries.size());
+            entries.add(e);
+        }
+        int[] perEntry = new int[count];
+        List<Postings> read = new ArrayList<>();
+        for (int fields = in.getInt(); fields > 0; fields--) {
+            Field field = new Field(TextRole.valueOf(IndexSidecar.readString(in)), IndexSidecar.readString(in));
+            NavigableMap<String, Postings> byTerm = new TreeMap<>();
+            for (int terms = in.getInt(); terms > 0; terms--) {
+                Postings p = new Postings(field, IndexSidecar.readString(in));
+                p.size = in.getInt();
+                p.ordinals = new int[Math.max(2, p.size)];
+                for (int i = 0; i < p.size; i++) perEntry[p.ordinals[i] = in.getInt()]++;
+                byTerm.put(p.term, p);
+                read.add(p);
+            }
+            postingsByField.put(field, byTerm);
+        }
+        Postings[][] byEntry = new Postings[count][];
+        for (int i = 0; i < count; i++) byEntry[i] = new Postings[perEntry[i]];
+        for (Postings p : read) {
+            for (int i = 0; i < p.size; i++) byEntry[p.ordinals[i]][--perEntry[p.ordinals[i]]] = p;
+        }
+        entryPostings.addAll(Arrays.asList(byEntry));
+        for (int langs = in.getInt(); langs > 0; langs--) {
+            substrings.put(IndexSidecar.readString(in), TrigramIndex.read(in, UnaryOperator.identity(), entries::get));
+        }
+        if (listen) listen();
+    }
+
+    /**
+     * Read an index written by {@link #write(DataOutput)} for the same dictionary.
+     */
+    static TextIndex read(LiftFactory factory, TextFolding folding, ByteBuffer in) {
+        return new TextIndex(factory, factory.getAllEntries(), folding, in, true);
+    }
+
+    /**
+     * Same as {@link #read(LiftFactory, TextFolding, ByteBuffer)} from any thread, for the entries of a snapshot.
+     */
+    static TextIndex read(LiftFactory factory, DictionarySnapshot snapshot, TextFolding folding, ByteBuffer in) {
+        List<LiftEntry> all = snapshot.getEntries().stream().map(DictionarySnapshot.Entry::handle).toList();
+        return new TextIndex(factory, all, folding, in, false);
+    }
+
+    private void listen() {
+        factory.getChangeBus().addListener(listener);
+        listening = true;
+    }
+
+    /**
+     * Write the index, numbering the entries by their position in the factory, as after reading
+     * the dictionary again: removed entries are left out and added ones take their place.
+     */
+    void write(DataOutput out) throws IOException {
+        write(out, factory.getAllEntries());
+    }
+
+    /**
+     * Same as {@link #write(DataOutput)}, numbering the entries by their position in {@code all}
+     * (e.g. the entries of the snapshot the index was built from, on the thread that built it).
+     */
+    void write(DataOutput out, List<LiftEntry> all) throws IOException {
+        Map<LiftEntry, Integer> positions = new IdentityHashMap<>();
+        for (LiftEntry e : all) positions.put(e, positions.size());
+        int[] position = new int[entries.size()];
+        for (int i = 0; i < position.length; i++) position[i] = isIndexed(entries.get(i)) ? positions.getOrDefault(entries.get(i), -1) : -1;
+        out.writeInt(all.size());
+        out.writeInt(postingsByField.size());
+        for (Map.Entry<Field, NavigableMap<String, Postings>> e : postingsByField.entrySet()) {
+            IndexSidecar.writeString(out, e.getKey().role().name());
+            IndexSidecar.writeString(out, e.getKey().lang());
+            List<int[]> lists = new ArrayList<>();
+            List<String> terms = new ArrayList<>();
+            for (Postings p : e.getValue().values()) {
+                int[] mapped = Arrays.stream(p.ordinals, 0, p.size).map(o -> position[o]).filter(o -> o >= 0).sorted().toArray();
+                if (mapped.length == 0) continue;
+                terms.add(p.term);
+                lists.add(mapped);
+            }
+            out.writeInt(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                IndexSidecar.writeString(out, terms.get(i));
+                out.writeInt(lists.get(i).length);
+                for (int o : lists.get(i)) out.writeInt(o);
+            }
+        }
+        out.writeInt(substrings.size());
+        for (Map.Entry<String, TrigramIndex<LiftEntry>> e : substrings.entrySet()) {
+            IndexSidecar.writeString(out, e.getKey());
+            e.getValue().write(out, entry -> positions.getOrDefault(entry, -1));
+        }
+    }
+
+    /**
+     * Entries containing the word, in the given role and language.
+     * @param role the role of the texts to search, null for any
+     * @param lang the language of the texts to search, null for any
+     */
+    public Set<LiftEntry> findTerm(String term, TextRole role, String lang) {
+        return toEntries(term(term, role, lang));
+    }
+
+    /**
+     * Entries containing a word starting with the prefix, in the given role and language (null for any).
+     */
+    public Set<LiftEntry> findPrefix(String prefix, TextRole role, String lang) {
+        return toEntries(prefix(prefix, role, lang));
+    }
+
+    /**
+     * Entries with a text containing the words of the phrase in sequence, in the given role and language (null for any).
+     */
+    public Set<LiftEntry> findPhrase(String phrase, TextRole role, String lang) {
+        return toEntries(phrase(phrase, role, lang));
+    }
+
+    /**
+     * Search box semantics: every word of the query must occur in some text of the entry.
+     * The last word matches as a prefix, unless the query ends with a space.
+     */
+    public Set<LiftEntry> search(String query) {
+        return toEntries(searchBits(query));
+    }
+
+    /**
+     * Entries with a text containing the given string, both folded (infix search, see {@link TrigramIndex}).
+     */
+    public Set<LiftEntry> findSubstring(String text) {
+        Set<LiftEntry> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        substrings.forEach((lang, index) -> result.addAll(index.find(folding.fold(lang, text))));
+        return result;
+    }
+
+    /**
+     * Entries with a text in the given language containing the given string, both folded.
+     */
+    public Set<LiftEntry> findSubstring(String text, String lang) {
+        TrigramIndex<LiftEntry> index = substrings.get(lang);
+        return index == null ? Set.of() : index.find(folding.fold(lang, text));
+    }
+
+    /**
+     * Whether a text of the entry contains the given string, both folded with the rules of the language
+     * of the text: the scan equivalent of {@link #findSubstring(String)}, while no index is available.
+     */
+    public static boolean containsText(LiftEntry entry, String text, TextFolding folding) {
+        Map<String, String> queries = new HashMap<>();
+        boolean[] found = {false};
+        EntryTexts.forEach(entry, (role, form) -> {
+            if (found[0]) return;
+            String query = queries.computeIfAbsent(String.valueOf(form.getLang()), l -> folding.fold(form.getLang(), text));
+            found[0] = form.getFoldedText(folding).contains(query);
+        });
+        return found[0];
+    }
+
+    TextFolding getFolding() {
+        return folding;
+    }
+
+    /**
+     * @return the ids of the entries matching {@link #search(String)}, entries without id being skipped.
+     */
+    public List<String> searchIds(String query) {
+        BitSet bits = searchBits(query);
+        List<String> ids = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) entries.get(i).getId().ifPresent(ids::add);
+        return ids;
+    }
+
+    BitSet searchBits(String query) {
+        Map<String, List<String>> words = queryWords(query);
+        int count = words.get(null).size();
+        boolean lastIsPrefix = !query.isEmpty() && !Character.isWhitespace(query.charAt(query.length() - 1));
+        BitSet result = null;
+        for (int i = 0; i < count; i++) {
+            BitSet bits = wordBits(words, i, i == count - 1 && lastIsPrefix, null, null);
+            if (result == null) result = bits; else result.and(bits);
+            if (result.isEmpty()) break;
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    BitSet term(String term, TextRole role, String lang) {
+        Map<String, List<String>> words = queryWords(term);
+        return words.get(null).size() == 1 ? wordBits(words, 0, false, role, lang) : phrase(term, role, lang);
+    }
+
+    BitSet prefix(String prefix, TextRole role, String lang) {
+        Map<String, List<String>> words = queryWords(prefix);
+        return words.get(null).size() == 1 ? wordBits(words, 0, true, role, lang) : new BitSet();
+    }
+
+    BitSet phrase(String phrase, TextRole role, String lang) {
+        Map<String, List<String>> words = queryWords(phrase);
+        int count = words.get(null).size();
+        if (count == 0) return new BitSet();
+        BitSet candidates = null;
+        for (int i = 0; i < count; i++) {
+            BitSet bits = wordBits(words, i, false, role, lang);
+            if (candidates == null) candidates = bits; else candidates.and(bits);
+            if (candidates.isEmpty()) return candidates;
+        }
+        if (count == 1) return candidates;
+        // Candidates contain all the words: check that they follow each other in a single text
+        BitSet result = new BitSet();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final int ordinal = i;
+            EntryTexts.forEach(entries.get(i), (r, form) -> {
+                if (result.get(ordinal) || !matches(r, form.getLang(), role, lang)) return;
+                List<String> sequence = words.getOrDefault(form.getLang(), words.get(null));
+                if (Collections.indexOfSubList(Tokenizer.tokenize(form.getFoldedText(folding)), sequence) >= 0) result.set(ordinal);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * The query folded with the rules of each language of the index, then split into words;
+     * the {@code null} key holds the query folded with the default rules.
+     */
+    private Map<String, List<String>> queryWords(String query) {
+        Map<String, List<String>> words = new HashMap<>();
+        words.put(null, Tokenizer.tokenize(folding.fold(null, query)));
+        for (Field field : postingsByField.keySet()) {
+            words.computeIfAbsent(field.lang(), l -> Tokenizer.tokenize(folding.fold(l, query)));
+        }
+        return words;
+    }
+
+    /**
+     * Entries having the i-th word of the query (as a word, or as a word prefix) in a field of the given role and language.
+     */
+    private BitSet wordBits(Map<String, List<String>> words, int i, boolean prefix, TextRole role, String lang) {
+        BitSet bits = new BitSet(entries.size());
+        postingsByField.forEach((field, byTerm) -> {
+            if (!matches(field.role(), field.lang(), role, lang)) return;
+            List<String> fieldWords = words.get(field.lang());
+            if (i >= fieldWords.size()) return;
+            String word = fieldWords.get(i);
+            if (prefix) {
+                for (Postings p : byTerm.subMap(word, true, word + Character.MAX_VALUE, false).values()) p.orInto(bits);
+            } else {
+                Postings p = byTerm.get(word);
+                if (p != null) p.orInto(bits);
+            }
+        });
+        return bits;
+    }
+
+    private static boolean matches(TextRole fieldRole, String fieldLang, TextRole role, String lang) {
+        return (role == null || role == fieldRole) && (lang == null || lang.equals(fieldLang));
+    }
+
+    private Set<LiftEntry> toEntries(BitSet bits) {
+        return new Matches(bits);
+    }
+
+    /**
+     * Read-only result set backed by the bitset of the matching ordinals: it is built in constant
+     * time and answers {@code contains} without hashing the entries. Ordinals never change,
+     * so the set stays valid after later edits (it does not reflect them).
+     */
+    private final class Matches extends AbstractSet<LiftEntry> {
+        private final BitSet bits;
+        private final int size;
+
+        Matches(BitSet bits) {
+            this.bits = bits;
+            this.size = bits.cardinality();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer ordinal = o instanceof LiftEntry e ? ordinals.get(e) : null;
+            return ordinal != null && bits.get(ordinal);
+        }
+
+        @Override
+        public Iterator<LiftEntry> iterator() {
+            return bits.stream().mapToObj(entries::get).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Re-tokenize all the texts of an entry of the dictionary.
+     */
+    public void reindex(LiftEntry entry) {
+        index(entry, tokenize(entry));
+    }
+
+    private EntryWords tokenize(LiftEntry entry) {
+        EntryWords tokens = new EntryWords(new HashMap<>(), new HashMap<>());
+        EntryTexts.forEach(entry, (role, form) -> add(tokens, role, form.getLang(), form.getFoldedText(folding)));
+        return tokens;
+    }
+
+    private EntryWords tokenize(DictionarySnapshot.Entry entry) {
+        EntryWords tokens = new EntryWords(new HashMap<>(), new HashMap<>());
+        EntryTexts.forEach(entry, (role, form) -> add(tokens, role, form.lang(), folding.fold(form.lang(), form.text())));
+        return tokens;
+    }
+
+    private static void add(EntryWords tokens, TextRole role, String lang, String folded) {
+        if (folded.isEmpty()) return;
+        tokens.words().computeIfAbsent(new Field(role, lang), f -> new ArrayList<>()).addAll(Tokenizer.tokenize(folded));
+        tokens.texts().computeIfAbsent(lang, l -> new ArrayList<>()).add(folded);
+    }
+
+    private void index(LiftEntry entry, EntryWords tokens) {
+        int ordinal = ordinals.computeIfAbsent(entry, e -> {
+            entries.add(e);
+            entryPostings.add(null);
+            return entries.size() - 1;
+        });
+        Set<Postings> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        tokens.words().forEach((field, list) -> {
+            NavigableMap<String, Postings> byTerm = postingsByField.computeIfAbsent(field, f -> new TreeMap<>());
+            for (String word : list) current.add(byTerm.computeIfAbsent(word, w -> new Postings(field, w)));
+        });
+        Postings[] previous = Optional.ofNullable(entryPostings.get(ordinal)).orElse(NO_POSTINGS);
+        for (Postings p : previous) {
+            if (!current.contains(p)) removeFrom(p, ordinal);
+        }
+        for (Postings p : current) p.add(ordinal);
+        entryPostings.set(ordinal, current.toArray(NO_POSTINGS));
+        substrings.forEach((lang, index) -> { if (!tokens.texts().containsKey(lang)) index.remove(entry); });
+        tokens.texts().forEach((lang, texts) -> substrings.computeIfAbsent(lang, l -> new TrigramIndex<>(UnaryOperator.identity())).put(entry, texts));
+    }
+
+    private void unindex(LiftEntry entry) {
+        Integer ordinal = ordinals.get(entry);
+        if (ordinal == null || entryPostings.get(ordinal) == null) return;
+        for (Postings p : entryPostings.get(ordinal)) removeFrom(p, ordinal);
+        entryPostings.set(ordinal, null);
+        for (TrigramIndex<LiftEntry> index : substrings.values()) index.remove(entry);
+    }
+
+    private void removeFrom(Postings p, int ordinal) {
+        p.remove(ordinal);
+        if (p.size > 0) return;
+        NavigableMap<String, Postings> byTerm = postingsByField.get(p.field);
+        byTerm.remove(p.term);
+        if (byTerm.isEmpty()) postingsByField.remove(p.field);
+    }
+
+    private boolean isIndexed(LiftEntry entry) {
+        Integer ordinal = ordinals.get(entry);
+        return ordinal != null && entryPostings.get(ordinal) != null;
+    }
+
+    private void onChanges(List<ModelChange> changes) {
+        Set<LiftEntry> dirty = new LinkedHashSet<>();
+        for (ModelChange c : changes) {
+            switch (c) {
+                case ModelChange.FormTextChanged t -> LiftFactory.findEntry(t.owner()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.EntryAdded e -> dirty.add(e.entry());
+                case ModelChange.EntryRemoved e -> { dirty.remove(e.entry()); unindex(e.entry()); }
+                case ModelChange.SenseAdded s -> LiftFactory.findEntry(s.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.SenseRemoved s -> LiftFactory.findEntry(s.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                // Texts of a removed variant, pronunciation or field leave the entry
+                case ModelChange.VariantRemoved v -> LiftFactory.findEntry(v.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.PronunciationRemoved p -> LiftFactory.findEntry(p.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.FieldRemoved f -> LiftFactory.findEntry(f.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                // A restored example, note or relation comes back with its texts
+                case ModelChange.ExampleAdded x -> LiftFactory.findEntry(x.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.ExampleRemoved x -> LiftFactory.findEntry(x.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.NoteAdded n -> LiftFactory.findEntry(n.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.NoteRemoved n -> LiftFactory.findEntry(n.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.RelationAdded r -> LiftFactory.findEntry(r.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                case ModelChange.RelationRemoved r -> LiftFactory.findEntry(r.parent()).filter(this::isIndexed).ifPresent(dirty::add);
+                default -> { }
+            }
+        }
+        for (LiftEntry e : dirty) reindex(e);
+    }
+
+    /**
+     * Apply the changes published since the snapshot the index was built or read from, then follow
+     * the changes of the dictionary. Must be called on the editing thread.
+     */
+    public void replay(List<ModelChange> changes) {
+        onChanges(changes);
+        if (!listening) listen();
+    }
+
+    /**
+     * @return the number of words indexed, counted once per role and language they occur in.
+     */
+    public int getTermCount() {
+        int count = 0;
+        for (NavigableMap<String, Postings> byTerm : postingsByField.values()) count += byTerm.size();
+        return count;
+    }
+
+    @Override
+    public void close() {
+        factory.getChangeBus().removeListener(listener);
+    }
+}
@@ -0,0 +1,17 @@
+package fr.cnrs.lacito.liftapi.index;
+
+/**
+ * Role of a text in its entry, used to restrict text searches (headword only, glosses only...).
+ */
+public enum TextRole {
+    /** Forms and citations of the entry. */
+    HEADWORD,
+    PRONUNCIATION,
+    GLOSS,
+    DEFINITION,
+    /** Example sentences and their translations. */
+    EXAMPLE,
+    NOTE,
+    /** Variant forms and field texts. */
+    OTHER
+}
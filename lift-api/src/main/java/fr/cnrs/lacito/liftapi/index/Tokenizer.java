@@ -0,0 +1,38 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits folded texts (see {@link fr.cnrs.lacito.liftapi.model.TextFolding}) into words. A word is a run
+ * of letters, digits and combining marks, so that "l'eau" gives "l" and "eau" while "ŋɔ̃" stays a single word.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+        int start = -1;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            if (isWordChar(cp)) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(cp);
+        }
+        if (start >= 0) tokens.add(text.substring(start));
+        return tokens;
+    }
+
+    private static boolean isWordChar(int cp) {
+        if (Character.isLetterOrDigit(cp)) return true;
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+}
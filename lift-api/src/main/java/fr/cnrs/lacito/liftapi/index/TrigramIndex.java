@@ -0,0 +1,384 @@
+package fr.cnrs.lacito.liftapi.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Substring index over the texts of arbitrary keys (entries, table rows...), a key having any number of texts.
+ * Texts and queries are folded by the same function, lower-casing by default (see
+ * {@link fr.cnrs.lacito.liftapi.model.TextFolding} for accent-insensitive keys).
+ *
+ * Each text is a document with an ordinal; every three-character sequence of a text maps to the
+ * ordinals of the documents containing it, stored as delta-encoded variable-length integers.
+ * A query of three characters or more intersects the lists of its trigrams, then checks the
+ * candidates with {@link String#contains}; shorter queries scan the texts.
+ *
+ * Documents are never updated in place: changing the texts of a key drops its documents and
+ * appends new ones with new ordinals, so that posting lists only grow at their end. Dropped
+ * documents are skipped by queries and the index is compacted when they outnumber the live ones.
+ *
+ * Not thread-safe.
+ *
+ * @param <K> the type of keys, compared by identity
+ */
+public final class TrigramIndex<K> {
+
+    private static final int[] NO_DOCS = new int[0];
+    private static final long EMPTY_KEY = -1L;
+
+    private final UnaryOperator<String> fold;
+
+    /* Documents, by ordinal; a dropped document has a null text */
+    private String[] texts = new String[16];
+    private Object[] owners = new Object[16];
+    private int docCount = 0;
+    private int liveDocCount = 0;
+    private final Map<K, int[]> docsByKey = new IdentityHashMap<>();
+
+    /* Open-addressing table from a trigram to its posting list */
+    private long[] slotKeys = newSlots(1024);
+    private int[] slotLists = new int[1024];
+    private int trigramCount = 0;
+
+    /* Posting lists, by list number */
+    private byte[][] listBytes = new byte[256][];
+    private int[] listLength = new int[256];
+    private int[] listSize = new int[256];
+    private int[] listLast = new int[256];
+
+    public TrigramIndex() {
+        this(text -> text.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param fold the function applied to texts and queries before indexing and searching
+     */
+    public TrigramIndex(UnaryOperator<String> fold) {
+        this.fold = fold;
+    }
+
+    /**
+     * Replace the texts of a key. Blank texts are ignored.
+     */
+    public void put(K key, Collection<String> keyTexts) {
+        remove(key);
+        int[] docs = new int[keyTexts.size()];
+        int n = 0;
+        for (String text : keyTexts) {
+            if (text == null || text.isBlank()) continue;
+            docs[n++] = addDocument(key, fold.apply(text));
+        }
+        if (n > 0) docsByKey.put(key, n == docs.length ? docs : Arrays.copyOf(docs, n));
+    }
+
+    public void put(K key, String text) {
+        put(key, Collections.singletonList(text));
+    }
+
+    public void remove(K key) {
+        int[] docs = docsByKey.remove(key);
+        if (docs == null) return;
+        for (int doc : docs) {
+            texts[doc] = null;
+            owners[doc] = null;
+            liveDocCount--;
+        }
+        if (docCount > 1024 && liveDocCount < docCount / 2) compact();
+    }
+
+    public void clear() {
+        docsByKey.clear();
+        compact();
+    }
+
+    /**
+     * @return the keys having a text containing the query (both folded), every key when the query is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public Set<K> find(String query) {
+        Set<K> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        String q = query == null ? "" : fold.apply(query);
+        if (q.length() < 3) {
+            for (int doc = 0; doc < docCount; doc++) {
+                if (texts[doc] != null && texts[doc].contains(q)) result.add((K) owners[doc]);
+            }
+            return result;
+        }
+        for (int doc : candidates(q)) {
+            if (texts[doc] != null && texts[doc].contains(q)) result.add((K) owners[doc]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of keys having at least one text.
+     */
+    public int size() {
+        return docsByKey.size();
+    }
+
+    /**
+     * @return the number of bytes used by the posting lists.
+     */
+    public long getPostingBytes() {
+        long bytes = 0;
+        for (int i = 0; i < trigramCount; i++) bytes += listLength[i];
+        return bytes;
+    }
+
+    /**
+     * Write the documents and the posting lists as they are, each key being written as its number.
+     * @param keyNumber the number of a key, negative to drop its documents
+     */
+    void write(DataOutput out, ToIntFunction<K> keyNumber) throws IOException {
+        out.writeInt(docCount);
+        for (int doc = 0; doc < docCount; doc++) {
+            @SuppressWarnings("unchecked")
+            int number = texts[doc] == null ? -1 : keyNumber.applyAsInt((K) owners[doc]);
+            out.writeInt(number);
+            if (number >= 0) IndexSidecar.writeString(out, texts[doc]);
+        }
+        out.writeInt(slotKeys.length);
+        for (int slot = 0; slot < slotKeys.length; slot++) {
+            out.writeLong(slotKeys[slot]);
+            out.writeInt(slotLists[slot]);
+        }
+        out.writeInt(trigramCount);
+        for (int list = 0; list < trigramCount; list++) {
+            out.writeInt(listSize[list]);
+            out.writeInt(listLast[list]);
+            out.writeInt(listLength[list]);
+            out.write(listBytes[list], 0, listLength[list]);
+        }
+    }
+
+    /**
+     * Read an index written by {@link #write(DataOutput, ToIntFunction)}.
+     * @param keyOf the key of a number
+     */
+    static <K> TrigramIndex<K> read(ByteBuffer in, UnaryOperator<String> fold, IntFunction<K> keyOf) {
+        TrigramIndex<K> index = new TrigramIndex<>(fold);
+        int docCount = in.getInt();
+        index.texts = new String[Math.max(16, docCount)];
+        index.owners = new Object[index.texts.length];
+        Map<K, List<Integer>> docs = new IdentityHashMap<>();
+        for (int doc = 0; doc < docCount; doc++) {
+            int number = in.getInt();
+            if (number < 0) continue;
+            K key = keyOf.apply(number);
+            index.texts[doc] = IndexSidecar.readString(in);
+            index.owners[doc] = key;
+            index.liveDocCount++;
+            docs.computeIfAbsent(key, k -> new ArrayList<>()).add(doc);
+        }
+        index.docCount = docCount;
+        docs.forEach((key, list) -> index.docsByKey.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        int slots = in.getInt();
+        if (Integer.bitCount(slots) != 1) throw new IllegalStateException("Invalid trigram table size " + slots);
+        index.slotKeys = new long[slots];
+        index.slotLists = new int[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            index.slotKeys[slot] = in.getLong();
+            index.slotLists[slot] = in.getInt();
+        }
+        int lists = in.getInt();
+        int capacity = Math.max(256, lists);
+        index.trigramCount = lists;
+        index.listBytes = new byte[capacity][];
+        index.listLength = new int[capacity];
+        index.listSize = new int[capacity];
+        index.listLast = new int[capacity];
+        for (int list = 0; list < lists; list++) {
+            index.listSize[list] = in.getInt();
+            index.listLast[list] = in.getInt();
+            int length = index.listLength[list] = in.getInt();
+            index.listBytes[list] = new byte[length + 5];
+            in.get(index.listBytes[list], 0, length);
+        }
+        return index;
+    }
+
+    private int addDocument(K key, String text) {
+        if (docCount == texts.length) {
+            texts = Arrays.copyOf(texts, docCount * 2);
+            owners = Arrays.copyOf(owners, docCount * 2);
+        }
+        int doc = docCount++;
+        texts[doc] = text;
+        owners[doc] = key;
+        liveDocCount++;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            append(listFor(trigram(text, i), true), doc);
+        }
+        return doc;
+    }
+
+    private int[] candidates(String q) {
+        int[] lists = new int[q.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            int list = listFor(trigram(q, i), false);
+            if (list < 0) return NO_DOCS;
+            lists[i] = list;
+        }
+        // Start from the shortest list, the intersection can only shrink
+        Integer[] order = new Integer[lists.length];
+        for (int i = 0; i < order.length; i++) order[i] = lists[i];
+        Arrays.sort(order, (a, b) -> Integer.compare(listSize[a], listSize[b]));
+        int[] docs = decode(order[0]);
+        int size = docs.length;
+        for (int i = 1; i < order.length && size > 0; i++) {
+            size = intersect(docs, size, order[i]);
+        }
+        return Arrays.copyOf(docs, size);
+    }
+
+    /**
+     * Keep in {@code docs[0..size)} the documents also present in the list.
+     * @return the new size
+     */
+    private int intersect(int[] docs, int size, int list) {
+        byte[] bytes = listBytes[list];
+        int length = listLength[list];
+        int pos = 0, doc = 0, kept = 0, i = 0;
+        while (pos < length && i < size) {
+            int delta = 0, shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            while (i < size && docs[i] < doc) i++;
+            if (i < size && docs[i] == doc) docs[kept++] = docs[i++];
+        }
+        return kept;
+    }
+
+    private int[] decode(int list) {
+        int[] docs = new int[listSize[list]];
+        byte[] bytes = listBytes[list];
+        int pos = 0, doc = 0;
+        for (int n = 0; n < docs.length; n++) {
+            int delta = 0, shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            docs[n] = doc;
+        }
+        return docs;
+    }
+
+    private void append(int list, int doc) {
+        if (listSize[list] > 0 && listLast[list] == doc) return;
+        int delta = listSize[list] == 0 ? doc : doc - listLast[list];
+        byte[] bytes = listBytes[list];
+        if (bytes == null) bytes = listBytes[list] = new byte[4];
+        if (listLength[list] + 5 > bytes.length) bytes = listBytes[list] = Arrays.copyOf(bytes, bytes.length * 2 + 5);
+        int pos = listLength[list];
+        while ((delta & ~0x7f) != 0) {
+            bytes[pos++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[pos++] = (byte) delta;
+        listLength[list] = pos;
+        listSize[list]++;
+        listLast[list] = doc;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /**
+     * @return the posting list of the trigram, -1 if absent and not created.
+     */
+    private int listFor(long trigram, boolean create) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) mix(trigram) & mask;
+        while (slotKeys[slot] != EMPTY_KEY) {
+            if (slotKeys[slot] == trigram) return slotLists[slot];
+            slot = (slot + 1) & mask;
+        }
+        if (!create) return -1;
+        int list = trigramCount++;
+        if (list == listBytes.length) {
+            int capacity = list * 2;
+            listBytes = Arrays.copyOf(listBytes, capacity);
+            listLength = Arrays.copyOf(listLength, capacity);
+            listSize = Arrays.copyOf(listSize, capacity);
+            listLast = Arrays.copyOf(listLast, capacity);
+        }
+        slotKeys[slot] = trigram;
+        slotLists[slot] = list;
+        if (trigramCount * 2 > slotKeys.length) rehash();
+        return list;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private void rehash() {
+        long[] oldKeys = slotKeys;
+        int[] oldLists = slotLists;
+        slotKeys = newSlots(oldKeys.length * 2);
+        slotLists = new int[oldKeys.length * 2];
+        int mask = slotKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY_KEY) continue;
+            int slot = (int) mix(oldKeys[i]) & mask;
+            while (slotKeys[slot] != EMPTY_KEY) slot = (slot + 1) & mask;
+            slotKeys[slot] = oldKeys[i];
+            slotLists[slot] = oldLists[i];
+        }
+    }
+
+    private static long[] newSlots(int size) {
+        long[] slots = new long[size];
+        Arrays.fill(slots, EMPTY_KEY);
+        return slots;
+    }
+
+    /**
+     * Re-index the live documents from scratch, with consecutive ordinals.
+     */
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        List<Map.Entry<K, int[]>> keys = new ArrayList<>(docsByKey.entrySet());
+        String[] oldTexts = texts;
+        texts = new String[Math.max(16, liveDocCount)];
+        owners = new Object[texts.length];
+        docCount = 0;
+        liveDocCount = 0;
+        slotKeys = newSlots(1024);
+        slotLists = new int[1024];
+        trigramCount = 0;
+        listBytes = new byte[256][];
+        listLength = new int[256];
+        listSize = new int[256];
+        listLast = new int[256];
+        for (Map.Entry<K, int[]> e : keys) {
+            int[] docs = e.getValue();
+            for (int i = 0; i < docs.length; i++) docs[i] = addDocument(e.getKey(), oldTexts[docs[i]]);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Indexes over a dictionary, maintained incrementally from its
+ * {@link fr.cnrs.lacito.liftapi.model.ModelChangeBus}, and the {@link fr.cnrs.lacito.liftapi.index.QueryPlanner}
+ * evaluating {@link fr.cnrs.lacito.liftapi.index.DictionaryQuery} conditions with them. The text index
+ * can be stored next to the dictionary file ({@link fr.cnrs.lacito.liftapi.index.IndexSidecar}).
+ */
+package fr.cnrs.lacito.liftapi.index;
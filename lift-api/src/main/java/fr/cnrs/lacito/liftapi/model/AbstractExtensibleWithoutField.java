@@ -5,6 +5,7 @@ import java.util.Optional;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 public abstract sealed class AbstractExtensibleWithoutField
     extends AbstractLiftRoot
@@ -29,11 +30,15 @@ public abstract sealed class AbstractExtensibleWithoutField
     }
 
     public void setDateCreated(String value) {
+        Optional<String> old = dateCreated;
         this.dateCreated = Optional.ofNullable(value);
+        attributeChanged(LiftVocabulary.DATE_CREATED_ATTRIBUTE, old, dateCreated);
     }
 
     public void setDateModified(String value) {
+        Optional<String> old = dateModified;
         this.dateModified = Optional.ofNullable(value);
+        attributeChanged(LiftVocabulary.DATE_MODIFIED_ATTRIBUTE, old, dateModified);
     }
 
     public Optional<String> getDateCreated() {
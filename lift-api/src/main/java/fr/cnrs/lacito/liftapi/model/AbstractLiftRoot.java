@@ -2,6 +2,7 @@ package fr.cnrs.lacito.liftapi.model;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Root of the hierarchy for Lift objects.
@@ -35,4 +36,15 @@ public sealed abstract class AbstractLiftRoot
     protected void addToMainMultiText(Form t) {
         mainMultiText.add(t);
     }
+
+    /**
+     * Publish a {@link ModelChange.AttributeChanged} on the bus of the dictionary, once this object
+     * is attached to it (its main multitext is registered by the factory).
+     */
+    void attributeChanged(String name, Optional<String> oldValue, Optional<String> newValue) {
+        ModelChangeBus bus = mainMultiText.getChangeBus();
+        if (bus != null && bus.hasListeners() && !oldValue.equals(newValue)) {
+            bus.publish(new ModelChange.AttributeChanged(this, name, oldValue, newValue));
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.text.Collator;
+import java.text.ParseException;
+import java.text.RuleBasedCollator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sort order of texts, configurable by language, producing binary sort keys.
+ *
+ * A language without rules sorts with the {@link Collator} of its locale. The rules of a language
+ * list its letters in alphabetical order, one per line, with their variants separated by spaces
+ * (e.g. {@code a A á}, then {@code ch Ch CH} for a digraph sorted as a single letter). A line
+ * {@code ignore: ˥ ˦ ˧} lists characters, such as tone letters, that only break ties between
+ * otherwise equal texts. Characters that are not listed sort after the listed letters.
+ *
+ * Keys compare with {@link #compareKeys(byte[], byte[])}. They are cached by each {@link Form}
+ * (see {@link Form#getSortKey(Collation)}) and recomputed when its text or this configuration
+ * changes. The rules can be stored in the {@link LiftHeader}, as the descriptions of the elements
+ * of the {@value #HEADER_RANGE} range (one element per language, the description in {@value #RULES_LANG}
+ * or else in any language). Thread-safe.
+ */
+public final class Collation {
+
+    public static final String HEADER_RANGE = "collation";
+    /** Language of the description holding the rules of a range element ("undetermined"). */
+    public static final String RULES_LANG = "und";
+    private static final String IGNORE_PREFIX = "ignore:";
+    private static final byte[] NO_KEY = new byte[0];
+
+    /** Immutable configuration, replaced as a whole on each change, with the collators built from it. */
+    private record Config(Map<String, String> rules, int revision, Map<String, Collator> compiled) {}
+
+    private volatile Config config = new Config(Map.of(), 0, new ConcurrentHashMap<>());
+
+    /**
+     * @param rules the letters of the language, one line each (see above); null or blank for the order of its locale
+     * @throws IllegalArgumentException if the rules cannot be compiled
+     */
+    public synchronized void setRules(String lang, String rules) {
+        Map<String, String> m = new HashMap<>(config.rules());
+        if (rules == null || rules.isBlank()) m.remove(lang);
+        else {
+            toCollator(lang, rules);
+            m.put(lang, rules);
+        }
+        if (!m.equals(config.rules())) config = new Config(Map.copyOf(m), config.revision() + 1, new ConcurrentHashMap<>());
+    }
+
+    public Optional<String> getRules(String lang) {
+        return Optional.ofNullable(config.rules().get(lang));
+    }
+
+    public Map<String, String> getAllRules() {
+        return config.rules();
+    }
+
+    /**
+     * @return a number changing each time the configuration changes.
+     */
+    public int getRevision() {
+        return config.revision();
+    }
+
+    /**
+     * Replace the rules by the ones stored in a header; rules that do not compile are skipped.
+     */
+    public synchronized void loadFromHeader(LiftHeader header) {
+        Map<String, String> m = new HashMap<>();
+        if (header != null) {
+            header.getRanges().stream().filter(r -> HEADER_RANGE.equals(r.getId())).findFirst().ifPresent(range -> {
+                for (LiftHeaderRangeElement element : range.getRangeElements()) {
+                    MultiText description = element.getDescription();
+                    String rules = description.getForm(RULES_LANG).or(() -> description.getForms().stream().findFirst())
+                        .map(Form::toPlainText).orElse("");
+                    if (rules.isBlank()) continue;
+                    try {
+                        toCollator(element.getId(), rules);
+                        m.put(element.getId(), rules);
+                    } catch (IllegalArgumentException e) {
+                        // Invalid rules: the language keeps the order of its locale
+                    }
+                }
+            });
+        }
+        if (!m.equals(config.rules())) config = new Config(Map.copyOf(m), config.revision() + 1, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Write the rules of a language in the header, creating its range element when needed.
+     */
+    public void storeInHeader(LiftFactory factory, LiftHeader header, String lang) {
+        LiftHeaderRange range = header.getRanges().stream().filter(r -> HEADER_RANGE.equals(r.getId())).findFirst()
+            .orElseGet(() -> factory.createRange(HEADER_RANGE, header));
+        LiftHeaderRangeElement element = range.getRangeElements().stream().filter(e -> lang.equals(e.getId())).findFirst()
+            .orElseGet(() -> factory.createRangeElement(lang, range));
+        String rules = getRules(lang).orElse("");
+        element.getDescription().getForm(RULES_LANG).ifPresentOrElse(f -> f.changeText(rules),
+            () -> element.getDescription().add(new Form(RULES_LANG, rules)));
+    }
+
+    /**
+     * @param lang the language of the text, null for the root order
+     * @return the sort key of a text, an empty key for an empty text.
+     */
+    public byte[] sortKey(String lang, String text) {
+        if (text == null || text.isEmpty()) return NO_KEY;
+        Config c = config;
+        Collator collator = c.compiled().computeIfAbsent(lang == null ? "" : lang, l -> compile(c, l));
+        // Collators are not thread-safe
+        synchronized (collator) {
+            return collator.getCollationKey(text).toByteArray();
+        }
+    }
+
+    /**
+     * Compare two sort keys of the same language.
+     */
+    public static int compareKeys(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+
+    private static Collator compile(Config config, String lang) {
+        String rules = config.rules().get(lang);
+        if (rules != null) return toCollator(lang, rules);
+        Collator collator = Collator.getInstance(lang.isEmpty() ? Locale.ROOT : Locale.forLanguageTag(lang));
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        return collator;
+    }
+
+    private static Collator toCollator(String lang, String rules) {
+        StringBuilder ignorable = new StringBuilder();
+        StringBuilder letters = new StringBuilder();
+        for (String line : rules.split("\\R")) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            boolean ignore = line.startsWith(IGNORE_PREFIX);
+            String[] variants = (ignore ? line.substring(IGNORE_PREFIX.length()) : line).strip().split("\\s+");
+            for (int i = 0; i < variants.length; i++) {
+                if (variants[i].isEmpty()) continue;
+                // Ignorable characters come before the first letter, as secondary differences
+                if (ignore) ignorable.append(" ; ").append(quote(variants[i]));
+                else letters.append(i == 0 ? " < " : " ; ").append(quote(variants[i]));
+            }
+        }
+        if (letters.isEmpty()) throw new IllegalArgumentException("No letter in the collation rules of " + lang);
+        try {
+            RuleBasedCollator collator = new RuleBasedCollator(ignorable.toString() + letters);
+            collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+            return collator;
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid collation rules for " + lang + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String quote(String letter) {
+        return "'" + letter.replace("'", "''") + "'";
+    }
+}
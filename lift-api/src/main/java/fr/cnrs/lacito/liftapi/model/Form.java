@@ -22,6 +22,9 @@ public final class Form implements HasAnnotation {
 
     public final static Form EMPTY_FORM = new Form("");
 
+    private static final Pattern SPAN_PATTERN = Pattern.compile("<span\\s+([^>]*)>(.*)</span>", Pattern.DOTALL);
+    private static final Pattern SPAN_ATTRIBUTE_PATTERN = Pattern.compile("(lang|class)\\s*=\\s*\"([^\"]*)\"");
+
     protected final String lang;
     private String toText = null;
     @Getter protected final List<LiftAnnotation> annotations = new ArrayList<>();
@@ -29,42 +32,31 @@ public final class Form implements HasAnnotation {
     private TextSpan root = new TextSpan();
     private int textSpanNumber = 0;
 
-    // JavaFX properties (javafx.base only; no UI dependency)
-    private final ReadOnlyStringWrapper langProperty;
-    private final StringProperty textProperty;
+    // JavaFX properties (javafx.base only; no UI dependency), created on first use
+    private ReadOnlyStringWrapper langProperty = null;
+    private StringProperty textProperty = null;
     private boolean syncingFromProperty = false;
     private boolean syncingFromModel = false;
+    /** The multitext this form belongs to (set by {@link MultiText#add(Form)}), used to publish changes. */
+    MultiText owner = null;
+    // Off-heap storage of the text of a plain form (no span), see moveToArena
+    private TextArena arena = null;
+    private long arenaHandle = 0;
+    private int arenaLength = 0;
+    // Search key of the text, see getFoldedText
+    private record Folded(TextFolding folding, int revision, String key) {}
+    private Folded folded = null;
+    // Sort key of the text, see getSortKey
+    private record SortKey(Collation collation, int revision, byte[] key) {}
+    private SortKey sortKey = null;
     
     public Form(String lang, String text) {
         this.lang = lang;
-        this.langProperty = new ReadOnlyStringWrapper(this, "lang", lang);
-        this.textProperty = new SimpleStringProperty(this, "text", text);
-        this.textProperty.addListener((obs, oldV, newV) -> {
-            // Keep model in sync when bound from UI
-            if (syncingFromModel) return;
-            syncingFromProperty = true;
-            try {
-                changeText(newV == null ? "" : newV);
-            } finally {
-                syncingFromProperty = false;
-            }
-        });
         changeText(text);
     }
 
     protected Form(String lang) {
         this.lang = lang;
-        this.langProperty = new ReadOnlyStringWrapper(this, "lang", lang);
-        this.textProperty = new SimpleStringProperty(this, "text", "");
-        this.textProperty.addListener((obs, oldV, newV) -> {
-            if (syncingFromModel) return;
-            syncingFromProperty = true;
-            try {
-                changeText(newV == null ? "" : newV);
-            } finally {
-                syncingFromProperty = false;
-            }
-        });
         current.push(root);
         textSpanNumber += 1;
     }
@@ -74,19 +66,41 @@ public final class Form implements HasAnnotation {
     }
 
     public ReadOnlyStringProperty langProperty() {
+        if (langProperty == null) langProperty = new ReadOnlyStringWrapper(this, "lang", lang);
         return langProperty.getReadOnlyProperty();
     }
 
     public StringProperty textProperty() {
+        if (textProperty == null) {
+            StringBuffer strb = new StringBuffer();
+            for (TextSpan ts : spans().getInnerContent()) ts.toString(strb);
+            textProperty = new SimpleStringProperty(this, "text", strb.toString());
+            textProperty.addListener((obs, oldV, newV) -> {
+                // Keep model in sync when bound from UI
+                if (syncingFromModel) return;
+                syncingFromProperty = true;
+                try {
+                    changeText(newV == null ? "" : newV);
+                } finally {
+                    syncingFromProperty = false;
+                }
+            });
+        }
         return textProperty;
     }
 
     public void append(String string) {
+        leaveArena();
+        folded = null;
+        sortKey = null;
         current.peek().addSpan(new TextSpan(string));
         textSpanNumber += 1;
     }
 
     public void append(TextSpan span) {
+        leaveArena();
+        folded = null;
+        sortKey = null;
         this.current.peek().addSpan(span);
         this.current.push(span);
         textSpanNumber += 1;
@@ -99,13 +113,31 @@ public final class Form implements HasAnnotation {
     /**
      * Returns the root of the TextSpan tree that represents the text content of this form.
      * The root itself is a wrapper (no attributes); its children are the actual content.
+     * A form stored off-heap is first brought back on the heap, so that the returned tree can be modified.
      */
     public TextSpan getTextSpanRoot() {
+        leaveArena();
+        toText = null;
+        folded = null;
+        sortKey = null;
         return current.peek();
     }
 
+    /**
+     * Same as {@link #getTextSpanRoot()} for reading only (e.g. serialization): a form stored off-heap
+     * stays there and the returned tree is a transient copy.
+     */
+    public TextSpan readTextSpanRoot() {
+        return spans();
+    }
+
     @Override
     public String toString() {
+        if (arena != null) {
+            StringBuffer strb = new StringBuffer();
+            spans().toString(strb);
+            return strb.toString();
+        }
         if (toText == null) {
             StringBuffer strb = new StringBuffer();
             current.peek().toString(strb);
@@ -119,11 +151,94 @@ public final class Form implements HasAnnotation {
      * Use this for UI display; use {@link #toString()} for serialization.
      */
     public String toPlainText() {
+        if (arena != null) return arena.read(arenaHandle, arenaLength);
         StringBuffer strb = new StringBuffer();
         current.peek().toPlainText(strb);
         return strb.toString();
     }
 
+    /**
+     * Returns the search key of the plain text, computed once then cached until the text
+     * or the configuration of the folding changes.
+     */
+    public String getFoldedText(TextFolding folding) {
+        Folded f = folded;
+        if (f != null && f.folding() == folding && f.revision() == folding.getRevision()) return f.key();
+        int revision = folding.getRevision();
+        String key = folding.fold(lang, toPlainText());
+        folded = new Folded(folding, revision, key);
+        return key;
+    }
+
+    /**
+     * Returns the sort key of the plain text, computed once then cached until the text
+     * or the configuration of the collation changes.
+     */
+    public byte[] getSortKey(Collation collation) {
+        SortKey k = sortKey;
+        if (k != null && k.collation() == collation && k.revision() == collation.getRevision()) return k.key();
+        int revision = collation.getRevision();
+        byte[] key = collation.sortKey(lang, toPlainText());
+        sortKey = new SortKey(collation, revision, key);
+        return key;
+    }
+
+    /**
+     * @return true if the text of this form is stored in a {@link TextArena}.
+     */
+    public boolean isOffHeap() {
+        return arena != null;
+    }
+
+    /**
+     * @return true if the form is plain text (no span with attributes): setting its plain text loses nothing.
+     */
+    public boolean isPlain() {
+        if (arena != null) return true;
+        if (current.size() != 1) return false;
+        TextSpan r = current.peek();
+        if (r.isTerminal()) return false;
+        for (TextSpan ts : r.getInnerContent()) {
+            if (!ts.isTerminal()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Move the text of this form to the arena, if the form is plain text (no span with attributes).
+     * @return true if the text was moved.
+     */
+    boolean moveToArena(TextArena target) {
+        if (arena != null || !isPlain()) return false;
+        byte[] utf8 = TextArena.encode(toPlainText());
+        arenaHandle = target.store(utf8);
+        arenaLength = utf8.length;
+        arena = target;
+        current.clear();
+        root = null;
+        toText = null;
+        textSpanNumber = 0;
+        return true;
+    }
+
+    /** Span tree of the text: the actual one, or a transient one for an off-heap form. */
+    private TextSpan spans() {
+        if (arena == null) return current.peek();
+        TextSpan r = new TextSpan();
+        String text = toPlainText();
+        if (!text.isEmpty()) r.addSpan(new TextSpan(text));
+        return r;
+    }
+
+    /** Bring the text of an off-heap form back into a span tree, before modifying it. */
+    private void leaveArena() {
+        if (arena == null) return;
+        root = spans();
+        arena = null;
+        current.push(root);
+        textSpanNumber = 1 + root.getInnerContent().size();
+    }
+
     @Override
     public void addAnnotation(LiftAnnotation a) {
         annotations.add(a);
@@ -132,17 +247,22 @@ public final class Form implements HasAnnotation {
 
     /**
      * Returns the list of text span (ordered in a depth-first traversal order)
-     * associated with this text.
+     * associated with this text, for reading only (see {@link #readTextSpanRoot()}).
      * 
      * @return a list of text spans
      */
     public List<TextSpan> walkTextSpanTree() {
         List<TextSpan> result = new ArrayList<>(textSpanNumber);
-        current.peek().walkTextSpanTree(result);
+        spans().walkTextSpanTree(result);
         return result;
     }
 
     public void changeText(String input) {
+        MultiText observer = owner != null && owner.isObserved() ? owner : null;
+        String oldText = observer != null ? toPlainText() : null;
+        arena = null;
+        folded = null;
+        sortKey = null;
         // Réinitialise le contenu
         while (current.size() > 0) {
             current.pop();
@@ -166,22 +286,21 @@ public final class Form implements HasAnnotation {
                 }
             }
         }
+        if (observer != null) observer.fireTextChanged(lang, oldText, toPlainText());
     }
 
     private void parseSpanContent(String input, TextSpan parent) {
-        Pattern spanPattern = Pattern.compile(
-            "<span\\s+([^>]*)>(.*)</span>", Pattern.DOTALL);
 
         int idx = 0;
         while (idx < input.length()) {
-            Matcher matcher = spanPattern.matcher(input.substring(idx));
+            Matcher matcher = SPAN_PATTERN.matcher(input.substring(idx));
             if (matcher.find() && matcher.start() == 0) {
                 // Attributs de la balise
                 String attrs = matcher.group(1);
                 String content = matcher.group(2);
 
                 String lang = null, clazz = null;
-                Matcher attrMatcher = Pattern.compile("(lang|class)\\s*=\\s*\"([^\"]*)\"").matcher(attrs);
+                Matcher attrMatcher = SPAN_ATTRIBUTE_PATTERN.matcher(attrs);
                 while (attrMatcher.find()) {
                     if ("lang".equals(attrMatcher.group(1))) lang = attrMatcher.group(2);
                     if ("class".equals(attrMatcher.group(1))) clazz = attrMatcher.group(2);
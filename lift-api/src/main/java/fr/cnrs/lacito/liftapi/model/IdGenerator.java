@@ -0,0 +1,59 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.text.Normalizer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds ids and GUIDs for entries and senses.
+ *
+ * Entry ids follow the FLEx convention: a readable part made from the headword followed by
+ * a short part of the GUID ({@code chat_3f2a9c1e}). GUIDs are random (version 4) UUIDs drawn
+ * from {@link ThreadLocalRandom}, so they can be generated from parallel threads without
+ * contending on the shared {@link java.security.SecureRandom} of {@link UUID#randomUUID()}.
+ */
+final class IdGenerator {
+
+    /** Length of the GUID suffix in readable ids. */
+    static final int SHORT_SUFFIX = 8;
+    private static final int MAX_HEADWORD_LENGTH = 32;
+
+    private IdGenerator() {
+    }
+
+    static String newGuid() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        long msb = (r.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (r.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * @return the headword reduced to letters, digits, '-' and '_' (spaces become '_'), possibly empty.
+     */
+    static String slug(String headword) {
+        if (headword == null || headword.isBlank()) return "";
+        String s = Normalizer.normalize(headword.strip(), Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(Math.min(s.length(), MAX_HEADWORD_LENGTH));
+        for (int i = 0; i < s.length() && sb.length() < MAX_HEADWORD_LENGTH; ) {
+            int cp = s.codePointAt(i);
+            if (Character.isLetterOrDigit(cp) || cp == '-' || cp == '_') {
+                sb.appendCodePoint(cp);
+            } else if (Character.isWhitespace(cp) && sb.length() > 0 && sb.charAt(sb.length() - 1) != '_') {
+                sb.append('_');
+            } else if (Character.getType(cp) == Character.NON_SPACING_MARK) {
+                sb.appendCodePoint(cp);
+            }
+            i += Character.charCount(cp);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param suffixLength number of characters of the GUID to keep; the full GUID is used beyond its length.
+     */
+    static String entryId(String slug, String guid, int suffixLength) {
+        String suffix = suffixLength >= guid.length() ? guid : guid.substring(0, suffixLength);
+        return slug.isEmpty() ? guid : slug + "_" + suffix;
+    }
+}
@@ -1,25 +1,91 @@
 package fr.cnrs.lacito.liftapi.model;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Registry of the languages of the texts of a dictionary, with the number of forms written in each.
+ *
+ * It is kept up to date by the multitexts counted in it (see {@link LiftFactory}): adding or removing
+ * a form updates the count of its language, so that languages and counts are read without scanning
+ * the dictionary. The sorted views are cached until a language appears or disappears.
+ */
 public abstract sealed class LangManager<L extends Lang> permits LangObjectManager, LangMetaManager {
     protected Map<String, L> langs;
+    /** Number of forms per language, for the languages of {@link #langs}. */
+    private final Map<String, Integer> counts = new HashMap<>();
+    private List<String> sortedLangs;
+    private int revision;
 
     protected LangManager() {
         this.langs = new HashMap<>();
     }
-    
+
     protected boolean hasLang(String lang) {
         return langs.containsKey(lang);
     }
 
     abstract void addLang(String lang);
-    
-    public L getLang(String lang) {
+
+    public synchronized L getLang(String lang) {
         if (!hasLang(lang)) {
             throw new IllegalArgumentException("No language: " + lang);
         }
         return langs.get(lang);
     }
+
+    synchronized void formAdded(String lang) {
+        if (counts.merge(lang, 1, Integer::sum) == 1) {
+            addLang(lang);
+            languagesChanged();
+        }
+    }
+
+    synchronized void formRemoved(String lang) {
+        if (counts.computeIfPresent(lang, (l, n) -> n == 1 ? null : n - 1) == null) {
+            langs.remove(lang);
+            languagesChanged();
+        }
+    }
+
+    private void languagesChanged() {
+        sortedLangs = null;
+        revision++;
+    }
+
+    /**
+     * @return the number of forms written in the language
+     */
+    public synchronized int getFormCount(String lang) {
+        return counts.getOrDefault(lang, 0);
+    }
+
+    /**
+     * @return the languages having at least one form, blank codes excepted, in alphabetical order (unmodifiable)
+     */
+    public synchronized List<String> getLanguages() {
+        if (sortedLangs == null) {
+            sortedLangs = langs.keySet().stream().filter(l -> l != null && !l.isBlank()).sorted().toList();
+        }
+        return sortedLangs;
+    }
+
+    /**
+     * @return the number of forms of each language of {@link #getLanguages()}, in the same order
+     */
+    public synchronized Map<String, Integer> getFormCounts() {
+        Map<String, Integer> result = new TreeMap<>();
+        for (String l : getLanguages()) result.put(l, counts.get(l));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return a number changing each time a language appears or disappears
+     */
+    public synchronized int getRevision() {
+        return revision;
+    }
 }
@@ -6,6 +6,7 @@ import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import lombok.Setter;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 /**
  * An annotation. 
@@ -42,16 +43,22 @@ public final class LiftAnnotation
         this.whoProperty = new SimpleStringProperty(this, "who", "");
         this.whenProperty = new SimpleStringProperty(this, "when", "");
         this.valueProperty.addListener((obs, oldV, newV) -> {
+            Optional<String> old = this.value;
             String v = newV == null ? "" : newV.trim();
             this.value = v.isEmpty() ? Optional.empty() : Optional.of(v);
+            attributeChanged(LiftVocabulary.VALUE_ATTRIBUTE, old, this.value);
         });
         this.whoProperty.addListener((obs, oldV, newV) -> {
+            Optional<String> old = this.who;
             String v = newV == null ? "" : newV.trim();
             this.who = v.isEmpty() ? Optional.empty() : Optional.of(v);
+            attributeChanged(LiftVocabulary.WHO_ATTRIBUTE, old, this.who);
         });
         this.whenProperty.addListener((obs, oldV, newV) -> {
+            Optional<String> old = this.when;
             String v = newV == null ? "" : newV.trim();
             this.when = v.isEmpty() ? Optional.empty() : Optional.of(v);
+            attributeChanged(LiftVocabulary.WHEN_ATTRIBUTE, old, this.when);
         });
     }
 
@@ -79,22 +86,17 @@ public final class LiftAnnotation
         return parent;
     }
 
+    // The listeners of the properties keep the fields in sync
     protected void setValue(String value) {
-        String v = value == null ? "" : value.trim();
-        this.value = v.isEmpty() ? Optional.empty() : Optional.of(v);
-        this.valueProperty.set(v);
+        this.valueProperty.set(value == null ? "" : value.trim());
     }
 
     protected void setWho(String who) {
-        String v = who == null ? "" : who.trim();
-        this.who = v.isEmpty() ? Optional.empty() : Optional.of(v);
-        this.whoProperty.set(v);
+        this.whoProperty.set(who == null ? "" : who.trim());
     }
 
     protected void setWhen(String when) {
-        String v = when == null ? "" : when.trim();
-        this.when = v.isEmpty() ? Optional.empty() : Optional.of(v);
-        this.whenProperty.set(v);
+        this.whenProperty.set(when == null ? "" : when.trim());
     }
 
     public ReadOnlyStringProperty nameProperty() {
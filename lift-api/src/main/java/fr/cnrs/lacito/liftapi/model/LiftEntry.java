@@ -7,6 +7,7 @@ import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
 
 import lombok.Getter;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 public final class LiftEntry
     extends AbstractIdentifiable
@@ -31,7 +32,9 @@ public final class LiftEntry
     }
 
     public void setDateDeleted(String date) {
+        Optional<String> old = dateDeleted;
         dateDeleted = Optional.of(date);
+        attributeChanged(LiftVocabulary.DATE_DELETED_ATTRIBUTE, old, dateDeleted);
     }
 
     protected void addCitation(Form citation) {
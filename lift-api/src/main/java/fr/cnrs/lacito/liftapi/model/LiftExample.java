@@ -8,6 +8,7 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import lombok.Setter;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 public final class LiftExample extends AbstractNotable {
 
@@ -37,6 +38,7 @@ public final class LiftExample extends AbstractNotable {
         if (type == null) throw new IllegalArgumentException("Translation type cannot be null");
         if (translationsProperty.containsKey(type)) throw new DuplicateTypeException("A translation of type " + type + "already exist.");
         MultiText newTranslation = new MultiText();
+        newTranslation.attach(getExample().getChangeBus(), this);
         translationsProperty.put(type, newTranslation);
         return newTranslation;
     }
@@ -63,8 +65,10 @@ public final class LiftExample extends AbstractNotable {
     }
 
     public void setSource(String value) {
+        Optional<String> old = this.source;
         this.source = Optional.of(value);
         this.sourceProperty.set(value);
+        attributeChanged(LiftVocabulary.SOURCE_ATTRIBUTE, old, this.source);
     }
 
     public LiftSense getParent() {
@@ -1,10 +1,18 @@
 package fr.cnrs.lacito.liftapi.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import org.xml.sax.Attributes;
 import fr.cnrs.lacito.liftapi.LiftDictionaryCompoments;
 import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
@@ -35,11 +43,17 @@ public final class LiftFactory implements LiftDictionaryCompoments {
     private final List<LiftTrait> allTraits = new ArrayList<>(200);
     private final List<MultiText> allObjectLanguagesMultiText = new ArrayList<>(200);
     private final List<MultiText> allMetaLanguagesMultiText = new ArrayList<>(200);
+    /** Languages of the registered multitexts, counted as their forms are added and removed. */
+    private final LangObjectManager objectLanguages = new LangObjectManager();
+    private final LangMetaManager metaLanguages = new LangMetaManager();
     private final List<LiftRelation> allRelations = new ArrayList<>(200);
     private final List<LiftExample> allExamples = new ArrayList<>(200);
     private final List<LiftVariant> allVariants = new ArrayList<>(200);
     private final List<LiftMedia> allMedias = new ArrayList<>(200);
     private final List<LiftIllustration> allIllustrations = new ArrayList<>(200);
+
+    /** Bus of the fine-grained changes made to this dictionary. */
+    @Getter private final ModelChangeBus changeBus = new ModelChangeBus();
     
     // TODO to be completed for all types
 
@@ -47,6 +61,18 @@ public final class LiftFactory implements LiftDictionaryCompoments {
     }
 
 
+    private void registerObjectMultiText(MultiText mt, Object owner) {
+        allObjectLanguagesMultiText.add(mt);
+        mt.attach(changeBus, owner);
+        mt.countLanguagesIn(objectLanguages);
+    }
+
+    private void registerMetaMultiText(MultiText mt, Object owner) {
+        allMetaLanguagesMultiText.add(mt);
+        mt.attach(changeBus, owner);
+        mt.countLanguagesIn(metaLanguages);
+    }
+
     public List<MultiText> getAllObjectMultiText () {
         return allObjectLanguagesMultiText;
     }
@@ -68,43 +94,330 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         }
 
         this.allEntries.add(entry);
-        this.allObjectLanguagesMultiText.add(entry.getForms());
-        this.allMetaLanguagesMultiText.add(entry.getCitations());
+        registerObjectMultiText(entry.getForms(), entry);
+        registerMetaMultiText(entry.getCitations(), entry);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.EntryAdded(entry));
         return entry;
     }
 
-    public void finalize() {
-        for (LiftEntry e : entryWithoutId) {
-            String id = generate_id();
-            e.id = Optional.of(id);
-            entryById.put(id, e);
+    /**
+     * Detach an entry and everything it contains from the dictionary (editing use-case).
+     * @return the former index of the entry, or -1 if it was not in the dictionary.
+     */
+    public int removeEntry(LiftEntry entry) {
+        int index = allEntries.indexOf(entry);
+        if (index < 0) return -1;
+        allEntries.remove(index);
+        entry.getId().ifPresent(id -> entryById.remove(id, entry));
+        entryWithoutId.remove(entry);
+        forEachPart(entry, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.EntryRemoved(entry));
+        return index;
+    }
+
+    /**
+     * Re-attach an entry previously detached with {@link #removeEntry(LiftEntry)}.
+     */
+    public void restoreEntry(LiftEntry entry, int index) {
+        Optional<String> id = entry.getId();
+        if (id.isPresent() && entryById.containsKey(id.get())) throw new DuplicateIdException("Duplicate id in entries: " + id.get());
+        allEntries.add(Math.max(0, Math.min(index, allEntries.size())), entry);
+        id.ifPresentOrElse(i -> entryById.put(i, entry), () -> entryWithoutId.add(entry));
+        forEachPart(entry, this::reregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.EntryAdded(entry));
+    }
+
+    /**
+     * Change the id of an entry or a sense, keeping the id maps consistent.
+     * References (relations, variants) to the old id are left unchanged.
+     */
+    public void changeId(AbstractIdentifiable object, String newId) {
+        if (newId == null || newId.isBlank()) throw new IllegalArgumentException("Id cannot be blank");
+        Optional<String> oldId = object.getId();
+        if (oldId.isPresent() && oldId.get().equals(newId)) return;
+        switch (object) {
+            case LiftEntry e -> {
+                if (entryById.containsKey(newId)) throw new DuplicateIdException("Duplicate id in entries: " + newId);
+                oldId.ifPresent(id -> entryById.remove(id, e));
+                entryWithoutId.remove(e);
+                e.setId(newId);
+                entryById.put(newId, e);
+            }
+            case LiftSense s -> {
+                if (senseById.containsKey(newId)) throw new DuplicateIdException("Duplicate id in senses: " + newId);
+                oldId.ifPresent(id -> senseById.remove(id, s));
+                senseWithoutId.remove(s);
+                s.setId(newId);
+                senseById.put(newId, s);
+            }
+        }
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.IdChanged(object, oldId, newId));
+    }
+
+    /**
+     * Visit an object and every object below it that the factory registers: senses, variants,
+     * pronunciations, examples, notes, fields, traits, annotations, relations, reversals, illustrations.
+     */
+    static void forEachPart(Object node, Consumer<Object> action) {
+        action.accept(node);
+        switch (node) {
+            case LiftEntry e -> {
+                forEachPart(e.getVariants(), action);
+                forEachPart(e.getPronunciations(), action);
+                forEachPart(e.getRelations(), action);
+                forEachPart(e.getEtymologies(), action);
+                forEachPart(e.getSenses(), action);
+            }
+            case LiftSense s -> {
+                s.getGrammaticalInfo().ifPresent(g -> forEachPart(g.getTraits(), action));
+                forEachPart(s.getExamples(), action);
+                forEachPart(s.getRelations(), action);
+                forEachPart(s.getIllustrations(), action);
+                forEachPart(s.getReversals(), action);
+                forEachPart(s.getSubSenses(), action);
+            }
+            case LiftVariant v -> {
+                forEachPart(v.getPronunciations(), action);
+                forEachPart(v.getRelations(), action);
+            }
+            case LiftReversal r -> {
+                if (r.getMain() != null) forEachPart(r.getMain(), action);
+            }
+            default -> { }
+        }
+        if (node instanceof AbstractExtensibleWithoutField x) {
+            forEachPart(x.getTraits(), action);
+            forEachPart(x.getAnnotations(), action);
+        }
+        if (node instanceof AbstractExtensibleWithField x) forEachPart(x.getFields(), action);
+        if (node instanceof AbstractNotable x) forEachPart(List.copyOf(x.getNotes().values()), action);
+        if (node instanceof LiftTrait t) forEachPart(t.getAnnotations(), action);
+        // Annotations of the texts and of their forms
+        forEachMultiText(node, (mt, meta) -> {
+            forEachPart(mt.getAnnotations(), action);
+            for (Form f : mt.getForms()) forEachPart(f.getAnnotations(), action);
+        });
+        if (node instanceof LiftEtymology et) {
+            for (MultiText mt : List.of(et.getForms(), et.getGlosses())) {
+                forEachPart(mt.getAnnotations(), action);
+                for (Form f : mt.getForms()) forEachPart(f.getAnnotations(), action);
+            }
+        }
+    }
+
+    private static void forEachPart(List<?> nodes, Consumer<Object> action) {
+        for (Object n : nodes) forEachPart(n, action);
+    }
+
+    /**
+     * The multitexts the factory registers for an object.
+     * @param action receives each multitext, and true when it counts in the meta languages
+     */
+    private static void forEachMultiText(Object node, BiConsumer<MultiText, Boolean> action) {
+        switch (node) {
+            case LiftEntry e -> { action.accept(e.getForms(), false); action.accept(e.getCitations(), true); }
+            case LiftSense s -> { action.accept(s.getGloss(), true); action.accept(s.getDefinition(), true); }
+            case LiftVariant v -> action.accept(v.getForms(), false);
+            case LiftPronunciation p -> action.accept(p.getProunciation(), false);
+            case LiftExample ex -> {
+                action.accept(ex.getExample(), false);
+                for (MultiText t : ex.getTranslations().values()) action.accept(t, true);
+            }
+            case LiftNote n -> action.accept(n.getText(), true);
+            case LiftField f -> action.accept(f.getText(), true);
+            case LiftAnnotation a -> action.accept(a.getText(), true);
+            case LiftRelation r -> action.accept(r.getUsage(), true);
+            case LiftReversal r -> action.accept(r.getForms(), true);
+            case LiftIllustration i -> action.accept(i.getLabel(), true);
+            default -> { }
         }
-        for (LiftSense s : senseWithoutId) {
-            String id = generate_id();
-            s.id = Optional.of(id);
-            senseById.put(id, s);
+    }
+
+    /** Take a detached object out of the lists and maps of the factory, its texts out of the language registries. */
+    private void unregisterPart(Object part) {
+        switch (part) {
+            case LiftSense s -> {
+                allSenses.remove(s);
+                s.getId().ifPresentOrElse(id -> senseById.remove(id, s), () -> senseWithoutId.remove(s));
+            }
+            case LiftVariant v -> allVariants.remove(v);
+            case LiftPronunciation p -> {
+                allPronunciations.remove(p);
+                allMedias.removeAll(p.getMedias());
+            }
+            case LiftExample ex -> allExamples.remove(ex);
+            case LiftNote n -> allNotes.remove(n);
+            case LiftField f -> allFields.remove(f);
+            case LiftAnnotation a -> allAnnotations.remove(a);
+            case LiftTrait t -> allTraits.remove(t);
+            case LiftRelation r -> allRelations.remove(r);
+            case LiftIllustration i -> allIllustrations.remove(i);
+            default -> { }
         }
-        for (String id : refId) {
-            if (!entryById.containsKey(id)) {
-                throw new IllegalArgumentException("Reference id " + id + " not found in entries");
+        forEachMultiText(part, (mt, meta) -> unregisterMultiText(mt, meta ? allMetaLanguagesMultiText : allObjectLanguagesMultiText));
+    }
+
+    /** Reverse of {@link #unregisterPart(Object)}. */
+    private void reregisterPart(Object part) {
+        switch (part) {
+            case LiftSense s -> {
+                if (addBack(allSenses, s)) s.getId().ifPresentOrElse(id -> senseById.put(id, s), () -> senseWithoutId.add(s));
+            }
+            case LiftVariant v -> addBack(allVariants, v);
+            case LiftPronunciation p -> {
+                addBack(allPronunciations, p);
+                for (LiftMedia m : p.getMedias()) addBack(allMedias, m);
             }
+            case LiftExample ex -> addBack(allExamples, ex);
+            case LiftNote n -> addBack(allNotes, n);
+            case LiftField f -> addBack(allFields, f);
+            case LiftAnnotation a -> addBack(allAnnotations, a);
+            case LiftTrait t -> addBack(allTraits, t);
+            case LiftRelation r -> addBack(allRelations, r);
+            case LiftIllustration i -> addBack(allIllustrations, i);
+            default -> { }
         }
+        forEachMultiText(part, (mt, meta) -> {
+            if (meta) reregisterMultiText(mt, allMetaLanguagesMultiText, metaLanguages);
+            else reregisterMultiText(mt, allObjectLanguagesMultiText, objectLanguages);
+        });
+    }
+
+    /** @return true if the object was not in the list and has been added. */
+    private static <T> boolean addBack(List<T> all, T o) {
+        if (all.contains(o)) return false;
+        all.add(o);
+        return true;
+    }
+
+    private static void unregisterMultiText(MultiText mt, List<MultiText> all) {
+        all.remove(mt);
+        mt.countLanguagesIn(null);
+    }
+
+    private static void reregisterMultiText(MultiText mt, List<MultiText> all, LangManager<?> languages) {
+        addBack(all, mt);
+        mt.countLanguagesIn(languages);
+    }
+
+    /** Below this number of id-less objects, ids are prepared sequentially. */
+    private static final int PARALLEL_ID_THRESHOLD = 10_000;
+
+    /**
+     * @return a new random GUID.
+     */
+    public static String newGuid() {
+        return IdGenerator.newGuid();
+    }
+
+    /**
+     * Build a readable id from the headword ({@code headword_1a2b3c4d}), unused by entries and senses.
+     * @param headword may be null or blank, the id is then a GUID.
+     */
+    public String newEntryId(String headword) {
+        return newEntryId(headword, IdGenerator.newGuid());
+    }
+
+    /**
+     * @return a GUID-based id unused by entries and senses.
+     */
+    public String newSenseId() {
+        String id = IdGenerator.newGuid();
+        while (isIdUsed(id)) id = IdGenerator.newGuid();
+        return id;
+    }
+
+    /**
+     * @param guid the GUID of the entry, its short prefix makes the id suffix.
+     * @return a readable id from the headword, unused by entries and senses.
+     */
+    public String newEntryId(String headword, String guid) {
+        return uniqueEntryId(IdGenerator.slug(headword), guid);
+    }
+
+    /**
+     * @return the text of the first non-blank form of the entry in language tag order, so that
+     * the slug does not depend on the iteration order of the forms.
+     */
+    private static String slugSource(LiftEntry e) {
+        return e.getForms().getForms().stream()
+            .filter(f -> !f.toPlainText().isBlank())
+            .min(Comparator.comparing(Form::getLang))
+            .map(Form::toPlainText)
+            .orElse(null);
+    }
+
+    private boolean isIdUsed(String id) {
+        return entryById.containsKey(id) || senseById.containsKey(id);
+    }
+
+    private String uniqueEntryId(String slug, String guid) {
+        String id = IdGenerator.entryId(slug, guid, IdGenerator.SHORT_SUFFIX);
+        if (!isIdUsed(id)) return id;
+        id = IdGenerator.entryId(slug, guid, Integer.MAX_VALUE);
+        while (isIdUsed(id)) id = IdGenerator.entryId(slug, IdGenerator.newGuid(), Integer.MAX_VALUE);
+        return id;
     }
 
-    private String generate_id() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'generate_id'");
+    /**
+     * Give an id (and a GUID when missing) to every entry and sense read without id,
+     * then check that every refid resolves to an entry or a sense.
+     *
+     * Headword slugs and GUIDs are prepared in parallel for large imports; ids are then
+     * committed in one linear pass checking collisions against the id maps.
+     * @return the refids that do not resolve, in document order.
+     */
+    public List<String> assignMissingIds() {
+        changeBus.runInBatch(() -> {
+            List<LiftEntry> entries = List.copyOf(entryWithoutId);
+            String[] slugs = new String[entries.size()];
+            String[] guids = new String[entries.size()];
+            IntStream indexes = IntStream.range(0, entries.size());
+            if (entries.size() >= PARALLEL_ID_THRESHOLD) indexes = indexes.parallel();
+            indexes.forEach(i -> {
+                LiftEntry e = entries.get(i);
+                slugs[i] = IdGenerator.slug(slugSource(e));
+                guids[i] = e.getGuid().orElseGet(IdGenerator::newGuid);
+            });
+            for (int i = 0; i < entries.size(); i++) {
+                LiftEntry e = entries.get(i);
+                if (e.getGuid().isEmpty()) e.setGuid(guids[i]);
+                String id = uniqueEntryId(slugs[i], guids[i]);
+                e.setId(id);
+                entryById.put(id, e);
+                if (changeBus.hasListeners()) changeBus.publish(new ModelChange.IdChanged(e, Optional.empty(), id));
+            }
+            entryWithoutId.clear();
+
+            for (LiftSense s : senseWithoutId) {
+                String guid = s.getGuid().orElseGet(IdGenerator::newGuid);
+                if (s.getGuid().isEmpty()) s.setGuid(guid);
+                String id = isIdUsed(guid) ? newSenseId() : guid;
+                s.setId(id);
+                senseById.put(id, s);
+                if (changeBus.hasListeners()) changeBus.publish(new ModelChange.IdChanged(s, Optional.empty(), id));
+            }
+            senseWithoutId.clear();
+        });
+        Set<String> checked = new HashSet<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String id : refId) {
+            if (checked.add(id) && !isIdUsed(id)) unresolved.add(id);
+        }
+        return unresolved;
     }
 
     public LiftSense createSense(Attributes attributes, LiftSense s) {
         LiftSense sense = createSense(attributes);
         s.addSense(sense);
+        publishSenseAdded(s, sense);
         return sense;
     }
 
     public LiftSense createSense(Attributes attributes, LiftEntry e) {
         LiftSense sense = createSense(attributes);
         e.addSense(sense);
+        publishSenseAdded(e, sense);
         return sense;
     }
 
@@ -118,24 +431,129 @@ public final class LiftFactory implements LiftDictionaryCompoments {
             senseWithoutId.add(sense);
         }
         this.allSenses.add(sense);
-        this.allMetaLanguagesMultiText.add(sense.getDefinition());
-        this.allMetaLanguagesMultiText.add(sense.getGloss());
+        registerMetaMultiText(sense.getDefinition(), sense);
+        registerMetaMultiText(sense.getGloss(), sense);
         return sense;
     }
 
+    private void publishSenseAdded(HasSense parent, LiftSense sense) {
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.SenseAdded(parent, sense));
+    }
+
+    /**
+     * @return the multitexts of an entry of the dictionary and of every object below it, compared by identity;
+     * none once the entry was removed. A multitext missing from the set was removed with its owner.
+     */
+    public Set<MultiText> getMultiTexts(LiftEntry entry) {
+        Set<MultiText> texts = Collections.newSetFromMap(new IdentityHashMap<>());
+        Optional<String> id = entry.getId();
+        if (id.isPresent() ? entryById.get(id.get()) != entry : !entryWithoutId.contains(entry)) return texts;
+        forEachPart(entry, part -> {
+            forEachMultiText(part, (mt, meta) -> texts.add(mt));
+            if (part instanceof LiftEtymology et) {
+                texts.add(et.getForms());
+                texts.add(et.getGlosses());
+            }
+        });
+        return texts;
+    }
+
+    /**
+     * Walk up the parents of a model object to the entry containing it.
+     * @return the entry, or empty when the object is not (or no longer) attached to an entry.
+     */
+    public static Optional<LiftEntry> findEntry(Object node) {
+        for (Object current = node; current != null; current = parentOf(current)) {
+            if (current instanceof LiftEntry e) return Optional.of(e);
+        }
+        return Optional.empty();
+    }
+
+    private static Object parentOf(Object node) {
+        return switch (node) {
+            case LiftSense s -> s.getParent();
+            case LiftExample ex -> ex.getParent();
+            case LiftNote n -> n.getParent();
+            case LiftTrait t -> t.getParent();
+            case LiftRelation r -> r.getParent();
+            case LiftVariant v -> v.getParent();
+            case LiftEtymology et -> et.getParent();
+            case LiftReversal r -> r.getParent();
+            case LiftPronunciation p -> p.getParent();
+            case LiftField f -> f.getParent();
+            case LiftAnnotation a -> a.getParent();
+            case LiftIllustration i -> i.parent;
+            case LiftMedia m -> m.parent;
+            case MultiText mt -> mt.getOwner();
+            case Form f -> f.owner;
+            default -> null;
+        };
+    }
+
+    private static List<LiftSense> sensesOf(HasSense parent) {
+        return switch (parent) {
+            case LiftEntry e -> e.getSenses();
+            case LiftSense s -> s.getSubSenses();
+        };
+    }
+
+    /**
+     * Detach a sense and its subsenses from their parent (editing use-case).
+     * @return the former index of the sense in its parent, or -1 if it was not attached.
+     */
+    public int removeSense(LiftSense sense) {
+        HasSense parent = sense.getParent();
+        if (parent == null) return -1;
+        List<LiftSense> siblings = sensesOf(parent);
+        int index = siblings.indexOf(sense);
+        if (index < 0) return -1;
+        siblings.remove(index);
+        forEachPart(sense, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.SenseRemoved(parent, sense));
+        return index;
+    }
+
+    /**
+     * Re-attach a sense previously detached with {@link #removeSense(LiftSense)}.
+     */
+    public void restoreSense(LiftSense sense, int index) {
+        HasSense parent = sense.getParent();
+        if (parent == null) throw new IllegalArgumentException("Sense has no parent");
+        List<LiftSense> siblings = sensesOf(parent);
+        siblings.add(Math.max(0, Math.min(index, siblings.size())), sense);
+        forEachPart(sense, this::reregisterPart);
+        publishSenseAdded(parent, sense);
+    }
+
+    /**
+     * Detach a trait from its parent (editing use-case).
+     * @return true if the trait was attached to the given parent.
+     */
+    public boolean removeTrait(LiftTrait trait, HasTrait parent) {
+        boolean removed = switch (parent) {
+            case AbstractExtensibleWithoutField e -> e.getTraits().remove(trait);
+            case GrammaticalInfo g -> g.getTraits().remove(trait);
+        };
+        if (!removed) return false;
+        forEachPart(trait, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.TraitRemoved(parent, trait));
+        return true;
+    }
+
     public LiftReversal createReversal(Attributes attributes, LiftSense sense) {
         LiftReversal reversal = new LiftReversal();
         String type = attributes.getValue(LiftVocabulary.LIFT_URI, "type");
         if (type != null) reversal.setType(type);
         sense.addReversal(reversal);
-        this.allMetaLanguagesMultiText.add(reversal.getForms());
+        registerMetaMultiText(reversal.getForms(), reversal);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.ReversalAdded(sense, reversal));
         return reversal;
     }
 
     public LiftReversal createReversalMain(LiftReversal parent) {
         LiftReversal main = new LiftReversal();
         parent.setMain(main);
-        this.allMetaLanguagesMultiText.add(main.getForms());
+        registerMetaMultiText(main.getForms(), main);
         return main;
     }
 
@@ -148,6 +566,10 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         LiftEtymology etym = new LiftEtymology(type, source);
         populateWithAttribute(etym, attributes);
         parent.addEtymology(etym);
+        // Etymon forms are not counted in the dictionary languages, but their edits are published
+        etym.getForms().attach(changeBus, etym);
+        etym.getGlosses().attach(changeBus, etym);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.EtymologyAdded(parent, etym));
         return etym;
     }
 
@@ -155,20 +577,72 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         LiftVariant variant = new LiftVariant();
         populateWithAttribute(variant, attributes);
         liftEntry.addVariant(variant);
+        variant.changeBus = changeBus;
         this.allVariants.add(variant);
-        this.allObjectLanguagesMultiText.add(variant.getForms());
+        registerObjectMultiText(variant.getForms(), variant);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.VariantAdded(liftEntry, variant));
         return variant;
     }
 
+    /**
+     * Detach a variant from its entry (editing use-case).
+     * @return true if the variant was attached.
+     */
+    public boolean removeVariant(LiftVariant variant) {
+        LiftEntry parent = variant.getParent();
+        if (parent == null || !parent.getVariants().remove(variant)) return false;
+        forEachPart(variant, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.VariantRemoved(parent, variant));
+        return true;
+    }
+
     public LiftExample createExample(Attributes attributes, LiftSense liftSense) {
         LiftExample example = new LiftExample();
         populateWithAttribute(example, attributes);
         liftSense.addExample(example);
         this.allExamples.add(example);
-        allObjectLanguagesMultiText.add(example.getExample());
+        registerObjectMultiText(example.getExample(), example);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.ExampleAdded(liftSense, example));
         return example;
     }
 
+    /**
+     * Create a translation of an example, counted in the meta languages like the other glosses.
+     * @throws DuplicateTypeException if the example already has a translation of this type.
+     */
+    public MultiText createTranslation(String type, LiftExample example) {
+        MultiText translation = example.create_translation(type);
+        registerMetaMultiText(translation, example);
+        return translation;
+    }
+
+    /**
+     * Detach an example from its sense (editing use-case).
+     * @return the former index of the example in its sense, or -1 if it was not attached.
+     */
+    public int removeExample(LiftExample example) {
+        LiftSense parent = example.getParent();
+        if (parent == null) return -1;
+        int index = parent.getExamples().indexOf(example);
+        if (index < 0) return -1;
+        parent.getExamples().remove(index);
+        forEachPart(example, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.ExampleRemoved(parent, example));
+        return index;
+    }
+
+    /**
+     * Re-attach an example previously detached with {@link #removeExample(LiftExample)}.
+     */
+    public void restoreExample(LiftExample example, int index) {
+        LiftSense parent = example.getParent();
+        if (parent == null) throw new IllegalArgumentException("Example has no parent");
+        List<LiftExample> siblings = parent.getExamples();
+        siblings.add(Math.max(0, Math.min(index, siblings.size())), example);
+        forEachPart(example, this::reregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.ExampleAdded(parent, example));
+    }
+
     public LiftRelation createRelation(Attributes attributes, HasRelations parent) {
         String type = attributes.getValue(LiftVocabulary.LIFT_URI, "type");
         if (type == null) throw new IllegalArgumentException("A relation element must have a type attribute");
@@ -176,17 +650,39 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         LiftRelation relation = new LiftRelation(type);
         populateWithAttribute(relation, attributes);
         parent.addRelation(relation);
+        relation.changeBus = changeBus;
         this.allRelations.add(relation);
-        this.allMetaLanguagesMultiText.add(relation.getUsage());
+        registerMetaMultiText(relation.getUsage(), relation);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.RelationAdded(parent, relation));
         return relation;
     }
 
+    private static List<LiftRelation> relationsOf(HasRelations parent) {
+        return switch (parent) {
+            case LiftEntry e -> e.getRelations();
+            case LiftSense s -> s.getRelations();
+            case LiftVariant v -> v.getRelations();
+        };
+    }
+
+    /**
+     * Detach a relation from its entry, sense or variant (editing use-case).
+     * @return true if the relation was attached.
+     */
+    public boolean removeRelation(LiftRelation relation) {
+        if (!(relation.getParent() instanceof HasRelations parent) || !relationsOf(parent).remove(relation)) return false;
+        forEachPart(relation, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.RelationRemoved(parent, relation));
+        return true;
+    }
+
     public LiftPronunciation createPronounciation(Attributes attributes, HasPronunciation parent) {
         LiftPronunciation pronunciation = new LiftPronunciation();
         populateWithAttribute(pronunciation, attributes);
         parent.addPronunciation(pronunciation);
         this.allPronunciations.add(pronunciation);
-        this.allObjectLanguagesMultiText.add(pronunciation.getProunciation());
+        registerObjectMultiText(pronunciation.getProunciation(), pronunciation);
+        publishPronunciationAdded(parent, pronunciation);
         return pronunciation;
     }
 
@@ -197,10 +693,27 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         LiftPronunciation pronunciation = new LiftPronunciation();
         parent.addPronunciation(pronunciation);
         this.allPronunciations.add(pronunciation);
-        this.allObjectLanguagesMultiText.add(pronunciation.getProunciation());
+        registerObjectMultiText(pronunciation.getProunciation(), pronunciation);
+        publishPronunciationAdded(parent, pronunciation);
         return pronunciation;
     }
 
+    private void publishPronunciationAdded(HasPronunciation parent, LiftPronunciation pronunciation) {
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.PronunciationAdded(parent, pronunciation));
+    }
+
+    /**
+     * Detach a pronunciation from its parent (editing use-case).
+     * @return true if the pronunciation was attached.
+     */
+    public boolean removePronunciation(LiftPronunciation pronunciation) {
+        HasPronunciation parent = pronunciation.getParent();
+        if (parent == null || !parent.getPronunciations().remove(pronunciation)) return false;
+        forEachPart(pronunciation, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.PronunciationRemoved(parent, pronunciation));
+        return true;
+    }
+
     public LiftField createField(Attributes attributes, AbstractExtensibleWithField parent) {
         String type = attributes.getValue(LiftVocabulary.LIFT_URI, "type");
         if (type == null) throw new IllegalArgumentException("Attribute type on field element cannot be null");
@@ -208,7 +721,8 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         // populateWithAttribute(f, attributes);
         parent.addField(f);
         this.allFields.add(f);
-        this.allMetaLanguagesMultiText.add(f.getText());
+        registerMetaMultiText(f.getText(), f);
+        publishFieldAdded(parent, f);
         return f;
     }
 
@@ -217,7 +731,9 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         String value = attributes.getValue(LiftVocabulary.LIFT_URI, "value");
         LiftTrait trait = new LiftTrait(name, value);
         parent.addTrait(trait);
+        trait.changeBus = changeBus;
         this.allTraits.add(trait);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.TraitAdded(parent, trait));
         return trait;
     }
 
@@ -230,7 +746,9 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         if (value == null) value = "";
         LiftTrait trait = new LiftTrait(name, value);
         parent.addTrait(trait);
+        trait.changeBus = changeBus;
         this.allTraits.add(trait);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.TraitAdded(parent, trait));
         return trait;
     }
         
@@ -239,7 +757,8 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         populateWithAttribute(n, attributes);
         parent.addNote(n);
         this.allNotes.add(n);
-        this.allMetaLanguagesMultiText.add(n.getText());
+        registerMetaMultiText(n.getText(), n);
+        publishNoteAdded(parent, n);
         return n;
     }
 
@@ -267,7 +786,8 @@ public final class LiftFactory implements LiftDictionaryCompoments {
 
         parent.addAnnotation(a);
         this.allAnnotations.add(a);
-        this.allMetaLanguagesMultiText.add(a.getText());
+        registerMetaMultiText(a.getText(), a);
+        publishAnnotationAdded(parent, a);
         return a;
     }
 
@@ -394,15 +914,25 @@ public final class LiftFactory implements LiftDictionaryCompoments {
     public LiftHeaderRange createRange(String id, LiftHeader parent) {
         LiftHeaderRange hr = new LiftHeaderRange(id, parent);
         parent.getRanges().add(hr);
+        headerChanged();
         return hr;
     }
 
     public LiftHeaderRangeElement createRangeElement(String id, LiftHeaderRange parent) {
         LiftHeaderRangeElement hre = new LiftHeaderRangeElement(id, parent);
         parent.getRangeElements().add(hre);
+        headerChanged();
         return hre;
     }
 
+    /**
+     * Publish a {@link ModelChange.HeaderChanged}: to be called after editing the header directly
+     * (e.g. removing a range element or changing the type of a field definition).
+     */
+    public void headerChanged() {
+        if (header != null && changeBus.hasListeners()) changeBus.publish(new ModelChange.HeaderChanged(header));
+    }
+
     /**
      * Post-process field-definitions with UNKNOWN kind by checking whether
      * the name matches a trait name or a field name actually used in the dictionary.
@@ -429,6 +959,7 @@ public final class LiftFactory implements LiftDictionaryCompoments {
     public LiftFieldAndTraitDefinition createFieldDefinition(String name, LiftHeader parent) {
         LiftFieldAndTraitDefinition fd = new LiftFieldAndTraitDefinition(name, parent);
         parent.getFields().add(fd);
+        headerChanged();
         return fd;
     }
 
@@ -437,15 +968,33 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         if (type != null) n.setType(type);
         parent.addNote(n);
         this.allNotes.add(n);
-        this.allMetaLanguagesMultiText.add(n.getText());
+        registerMetaMultiText(n.getText(), n);
+        publishNoteAdded(parent, n);
         return n;
     }
 
+    private void publishNoteAdded(AbstractNotable parent, LiftNote note) {
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.NoteAdded(parent, note));
+    }
+
+    /**
+     * Detach a note from its parent (editing use-case).
+     * @return true if the note was attached.
+     */
+    public boolean removeNote(LiftNote note) {
+        AbstractNotable parent = note.getParent();
+        if (parent == null || !parent.getNotes().values().remove(note)) return false;
+        forEachPart(note, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.NoteRemoved(parent, note));
+        return true;
+    }
+
     public LiftField createField(String type, AbstractExtensibleWithField parent) {
         LiftField f = new LiftField(type);
         parent.addField(f);
         this.allFields.add(f);
-        this.allMetaLanguagesMultiText.add(f.getText());
+        registerMetaMultiText(f.getText(), f);
+        publishFieldAdded(parent, f);
         return f;
     }
 
@@ -453,20 +1002,84 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         LiftAnnotation a = new LiftAnnotation(name);
         parent.addAnnotation(a);
         this.allAnnotations.add(a);
-        this.allMetaLanguagesMultiText.add(a.getText());
+        registerMetaMultiText(a.getText(), a);
+        publishAnnotationAdded(parent, a);
         return a;
     }
 
+    private void publishFieldAdded(AbstractExtensibleWithField parent, LiftField field) {
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.FieldAdded(parent, field));
+    }
+
+    /**
+     * Detach a field from its parent (editing use-case).
+     * @return true if the field was attached.
+     */
+    public boolean removeField(LiftField field) {
+        AbstractExtensibleWithField parent = field.getParent();
+        if (parent == null || !parent.fieldsProperty().values().remove(field)) return false;
+        forEachPart(field, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.FieldRemoved(parent, field));
+        return true;
+    }
+
+    private void publishAnnotationAdded(HasAnnotation parent, LiftAnnotation annotation) {
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.AnnotationAdded(parent, annotation));
+    }
+
+    /**
+     * Detach an annotation from its parent (editing use-case).
+     * @return true if the annotation was attached.
+     */
+    public boolean removeAnnotation(LiftAnnotation annotation) {
+        HasAnnotation parent = annotation.getParent();
+        if (parent == null) return false;
+        List<LiftAnnotation> siblings = switch (parent) {
+            case AbstractExtensibleWithoutField e -> e.getAnnotations();
+            case MultiText mt -> mt.getAnnotations();
+            case Form f -> f.getAnnotations();
+            case LiftTrait t -> t.getAnnotations();
+        };
+        if (!siblings.remove(annotation)) return false;
+        forEachPart(annotation, this::unregisterPart);
+        if (changeBus.hasListeners()) changeBus.publish(new ModelChange.AnnotationRemoved(parent, annotation));
+        return true;
+    }
+
     public LiftIllustration create_illustration(Attributes attributes, LiftSense parent) {
         String href = attributes.getValue(LiftVocabulary.LIFT_URI, "href");
         if (href == null) throw new IllegalArgumentException();
         LiftIllustration ill = new LiftIllustration(href);
         parent.addIllustration(ill);
         allIllustrations.add(ill);
-        allMetaLanguagesMultiText.add(ill.getLabel());
+        registerMetaMultiText(ill.getLabel(), ill);
         return ill;
     }
 
+    /**
+     * Move the text of every plain form (without spans) into an off-heap arena,
+     * to reduce the heap footprint of very large dictionaries. Forms edited afterwards
+     * go back to the heap.
+     * @return the number of forms moved.
+     */
+    public int moveTextsOffHeap(TextArena arena) {
+        int moved = 0;
+        for (MultiText mt : allObjectLanguagesMultiText) moved += moveToArena(mt, arena);
+        for (MultiText mt : allMetaLanguagesMultiText) moved += moveToArena(mt, arena);
+        for (LiftExample ex : allExamples) {
+            for (MultiText mt : ex.getTranslations().values()) moved += moveToArena(mt, arena);
+        }
+        return moved;
+    }
+
+    private static int moveToArena(MultiText mt, TextArena arena) {
+        int moved = 0;
+        for (Form f : mt.getForms()) {
+            if (f.moveToArena(arena)) moved += 1;
+        }
+        return moved;
+    }
+
     public LiftDictionaryCompoments getLiftDictionaryCompoments() {
         return (LiftDictionaryCompoments)this;
     }
@@ -531,6 +1144,16 @@ public final class LiftFactory implements LiftDictionaryCompoments {
         return allMetaLanguagesMultiText;
     }
 
+    @Override
+    public LangObjectManager getObjectLanguages() {
+        return objectLanguages;
+    }
+
+    @Override
+    public LangMetaManager getMetaLanguages() {
+        return metaLanguages;
+    }
+
     @Override
     public List<LiftRelation> getAllRelations() {
         return allRelations;
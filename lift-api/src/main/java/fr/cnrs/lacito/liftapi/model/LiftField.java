@@ -12,7 +12,7 @@ import lombok.Setter;
 public final class LiftField
     extends AbstractExtensibleWithoutField {
 
-    protected final String name;
+    protected String name;
     @Setter protected AbstractExtensibleWithField parent;
 
     private final ReadOnlyStringWrapper namePropertyWrapper;
@@ -26,6 +26,17 @@ public final class LiftField
         return name;
     }
 
+    /** Give the field another name (see {@link VocabularyRefactoring}). */
+    void rename(String newName) {
+        String old = name;
+        this.name = newName;
+        namePropertyWrapper.set(newName);
+        ModelChangeBus bus = getText().getChangeBus();
+        if (bus != null && bus.hasListeners() && !old.equals(newName)) {
+            bus.publish(new ModelChange.FieldRenamed(this, old, newName));
+        }
+    }
+
     public AbstractExtensibleWithField getParent() {
         return parent;
     }
@@ -24,7 +24,7 @@ import lombok.Setter;
  */
 public final class LiftFieldAndTraitDefinition extends AbstractLiftRoot {
 
-    @Getter final String name;
+    @Getter String name;
     final LiftHeader parent;
 
     /** Raw {@code @option-range} attribute value (range id). */
@@ -45,6 +45,11 @@ public final class LiftFieldAndTraitDefinition extends AbstractLiftRoot {
         this.parent = parent;
     }
 
+    /** Change the name (see {@link VocabularyRefactoring}); the header is not notified. */
+    void setName(String name) {
+        this.name = name;
+    }
+
     public MultiText getDescription() {
         return getMainMultiText();
     }
@@ -5,7 +5,7 @@ import java.util.Optional;
 import lombok.Getter;
 
 public final class LiftHeaderRangeElement extends AbstractExtensibleWithField {
-    @Getter final String id;
+    @Getter String id;
     final LiftHeaderRange parentRange;
 
     /** The id of the parent range-element (for hierarchical organisation). */
@@ -22,6 +22,11 @@ public final class LiftHeaderRangeElement extends AbstractExtensibleWithField {
 
     public LiftHeaderRange getParentRange() { return parentRange; }
 
+    /** Change the id (see {@link VocabularyRefactoring}); the header is not notified. */
+    void setId(String id) {
+        this.id = id;
+    }
+
     /** Set the {@code @parent} attribute (id of parent range-element). */
     public void setParentId(String parentId) {
         this.parentId = Optional.ofNullable(parentId);
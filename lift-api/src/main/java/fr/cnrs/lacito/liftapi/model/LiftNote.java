@@ -39,8 +39,13 @@ public final class LiftNote extends AbstractExtensibleWithField {
     }
 
     public void setType(String type) {
+        Optional<String> old = this.type;
         this.type = Optional.of(type);
         this.typeProperty.set(type);
+        ModelChangeBus bus = getText().getChangeBus();
+        if (bus != null && bus.hasListeners() && !old.equals(this.type)) {
+            bus.publish(new ModelChange.NoteTypeChanged(this, old, type));
+        }
     }
 
     public StringProperty typeProperty() {
@@ -7,6 +7,7 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import lombok.Getter;
 import lombok.Setter;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 public final class LiftRelation
     extends AbstractExtensibleWithField {
@@ -19,6 +20,8 @@ public final class LiftRelation
 
     private final ReadOnlyStringWrapper typePropertyWrapper;
     private final StringProperty refIdProperty;
+    /** Change bus of the owning dictionary, set by {@link LiftFactory}. */
+    ModelChangeBus changeBus = null;
 
     protected LiftRelation(String type) {
         this.type = type;
@@ -33,8 +36,10 @@ public final class LiftRelation
     /** Updates the relation type and the bound JavaFX property. */
     public void setType(String newType) {
         String v = newType != null ? newType.trim() : "";
+        String old = this.type;
         this.type = v;
         typePropertyWrapper.set(v);
+        attributeChanged(LiftVocabulary.TYPE_ATTRIBUTE, Optional.ofNullable(old), Optional.of(v));
     }
 
     public Optional<String> getRefID() {
@@ -46,17 +51,26 @@ public final class LiftRelation
     }
 
     public void setRefID(String refID) {
-        this.refID = Optional.of(refID);
-        this.refIdProperty.set(refID);
+        retarget(refID);
     }
 
     public void setOrder(int order) {
+        Optional<Integer> old = this.order;
         this.order = Optional.of(order);
+        attributeChanged(LiftVocabulary.ORDER_ATTRIBUTE, old.map(String::valueOf), Optional.of(String.valueOf(order)));
     }
 
     public void setRefId(String value) {
+        retarget(value);
+    }
+
+    private void retarget(String value) {
+        Optional<String> old = refID;
         refID = Optional.of(value);
         refIdProperty.set(value);
+        if (changeBus != null && changeBus.hasListeners() && !old.equals(refID)) {
+            changeBus.publish(new ModelChange.RelationRetargeted(this, old, value));
+        }
     }
 
     public ReadOnlyStringProperty typeProperty() {
@@ -22,6 +22,8 @@ public final class LiftReversal
 
     protected Optional<String> type = Optional.empty();
     protected LiftReversal main;
+    /** The sense holding this reversal, or the reversal of which this one is the main. */
+    protected AbstractLiftRoot parent;
 
     private final StringProperty typeProperty = new SimpleStringProperty(this, "type", "");
 
@@ -47,6 +49,11 @@ public final class LiftReversal
 
     protected void setMain(LiftReversal main) {
         this.main = main;
+        main.parent = this;
+    }
+
+    public AbstractLiftRoot getParent() {
+        return parent;
     }
 
     public StringProperty typeProperty() {
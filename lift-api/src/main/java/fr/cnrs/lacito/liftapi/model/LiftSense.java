@@ -6,6 +6,7 @@ import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
 import lombok.Getter;
+import fr.cnrs.lacito.liftapi.xml.LiftVocabulary;
 
 public final class LiftSense
     extends AbstractIdentifiable
@@ -33,6 +34,13 @@ public final class LiftSense
         this.parent = parent;
     }
 
+    /**
+     * @return the entry or sense this sense belongs to.
+     */
+    public HasSense getParent() {
+        return parent;
+    }
+
     @Override
     public void addGloss(Form gloss) {
         addToMainMultiText(gloss);
@@ -48,7 +56,29 @@ public final class LiftSense
     }
 
     public void setGrammaticalInfo(String value) {
+        Optional<String> old = grammaticalInfo.map(GrammaticalInfo::getValue);
         this.setGrammaticalInfo(new GrammaticalInfo(value));
+        publishGramInfoChanged(old, value);
+    }
+
+    /**
+     * Change the value of the grammatical info, keeping its traits (see {@link VocabularyRefactoring}).
+     */
+    void recodeGrammaticalInfo(String value) {
+        if (grammaticalInfo.isEmpty()) {
+            setGrammaticalInfo(value);
+            return;
+        }
+        String old = grammaticalInfo.get().value;
+        grammaticalInfo.get().value = value;
+        publishGramInfoChanged(Optional.ofNullable(old), value);
+    }
+
+    private void publishGramInfoChanged(Optional<String> old, String value) {
+        ModelChangeBus bus = getGloss().getChangeBus();
+        if (bus != null && bus.hasListeners() && !old.equals(Optional.ofNullable(value))) {
+            bus.publish(new ModelChange.GramInfoChanged(this, old, value));
+        }
     }
 
     @Override
@@ -75,10 +105,13 @@ public final class LiftSense
 
     public void addReversal(LiftReversal reversal) {
         reversalsProperty.add(reversal);
+        reversal.parent = this;
     }
 
     public void setOrder(int order) {
+        Optional<Integer> old = this.order;
         this.order = Optional.of(order);
+        attributeChanged(LiftVocabulary.ORDER_ATTRIBUTE, old.map(String::valueOf), Optional.of(String.valueOf(order)));
     }
 
     public List<LiftRelation> getRelations() {
@@ -19,6 +19,8 @@ public final class LiftTrait
     @Getter private String value;
     @Getter protected final List<LiftAnnotation> annotations = new ArrayList<>();
     protected HasTrait parent;
+    /** Change bus of the owning dictionary, set by {@link LiftFactory}. */
+    ModelChangeBus changeBus = null;
 
     private final ReadOnlyStringWrapper nameProperty;
     private final StringProperty valueProperty;
@@ -60,7 +62,11 @@ public final class LiftTrait
     }
 
     public void setValue(String value) {
+        String old = this.value;
         this.value = value == null ? "" : value;
+        if (changeBus != null && changeBus.hasListeners() && !this.value.equals(old)) {
+            changeBus.publish(new ModelChange.TraitValueChanged(this, old, this.value));
+        }
         if (!syncingFromProperty && valueProperty != null) {
             if (!this.value.equals(valueProperty.get())) {
                 syncingFromModel = true;
@@ -18,12 +18,18 @@ public final class LiftVariant
     protected final ListProperty<LiftRelation> relationsProperty =
             new SimpleListProperty<>(this, "relations", FXCollections.observableArrayList());
     @Setter @Getter protected LiftEntry parent;
+    /** Change bus of the owning dictionary, set by {@link LiftFactory}. */
+    ModelChangeBus changeBus = null;
 
     protected LiftVariant() {
     }
 
-    protected void setRefId(String refId) {
+    public void setRefId(String refId) {
+        Optional<String> old = this.refId;
         this.refId = Optional.of(refId);
+        if (changeBus != null && changeBus.hasListeners() && !old.equals(this.refId)) {
+            changeBus.publish(new ModelChange.VariantRetargeted(this, old, refId));
+        }
     }
 
     @Override
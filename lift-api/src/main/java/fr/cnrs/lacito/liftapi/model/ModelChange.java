@@ -0,0 +1,106 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.util.Optional;
+
+/**
+ * A fine-grained change of the dictionary model, published on the
+ * {@link ModelChangeBus} of the dictionary owning the changed object.
+ *
+ * Texts are given in their plain form (see {@link Form#toPlainText()}).
+ */
+public sealed interface ModelChange {
+
+    /**
+     * The text of a form changed. A form added to a {@link MultiText} has an empty
+     * old text, a removed form has an empty new text.
+     *
+     * @param owner the object holding the multitext (entry, sense, note...), may be null
+     */
+    public record FormTextChanged(Object owner, MultiText multiText, String lang, String oldText, String newText)
+        implements ModelChange {}
+
+    public record EntryAdded(LiftEntry entry) implements ModelChange {}
+
+    /** The entry was detached from the dictionary, together with its senses. */
+    public record EntryRemoved(LiftEntry entry) implements ModelChange {}
+
+    /** The id of an entry or a sense changed (references to the old id are not updated). */
+    public record IdChanged(AbstractIdentifiable object, Optional<String> oldId, String newId)
+        implements ModelChange {}
+
+    public record TraitAdded(HasTrait parent, LiftTrait trait) implements ModelChange {}
+
+    public record TraitRemoved(HasTrait parent, LiftTrait trait) implements ModelChange {}
+
+    public record TraitValueChanged(LiftTrait trait, String oldValue, String newValue) implements ModelChange {}
+
+    public record SenseAdded(HasSense parent, LiftSense sense) implements ModelChange {}
+
+    public record SenseRemoved(HasSense parent, LiftSense sense) implements ModelChange {}
+
+    public record VariantAdded(LiftEntry parent, LiftVariant variant) implements ModelChange {}
+
+    public record VariantRemoved(LiftEntry parent, LiftVariant variant) implements ModelChange {}
+
+    /** The target (refid) of a variant changed. */
+    public record VariantRetargeted(LiftVariant variant, Optional<String> oldRefId, String newRefId)
+        implements ModelChange {}
+
+    public record PronunciationAdded(HasPronunciation parent, LiftPronunciation pronunciation) implements ModelChange {}
+
+    public record PronunciationRemoved(HasPronunciation parent, LiftPronunciation pronunciation) implements ModelChange {}
+
+    public record ExampleAdded(LiftSense parent, LiftExample example) implements ModelChange {}
+
+    public record ExampleRemoved(LiftSense parent, LiftExample example) implements ModelChange {}
+
+    public record NoteAdded(AbstractNotable parent, LiftNote note) implements ModelChange {}
+
+    public record NoteRemoved(AbstractNotable parent, LiftNote note) implements ModelChange {}
+
+    /** @param parent the entry, sense or variant holding the relation */
+    public record RelationAdded(HasRelations parent, LiftRelation relation) implements ModelChange {}
+
+    public record RelationRemoved(HasRelations parent, LiftRelation relation) implements ModelChange {}
+
+    /** A reversal was added to a sense (reversals are not removed individually). */
+    public record ReversalAdded(LiftSense parent, LiftReversal reversal) implements ModelChange {}
+
+    /** An etymology was added to an entry (etymologies are not removed individually). */
+    public record EtymologyAdded(LiftEntry parent, LiftEtymology etymology) implements ModelChange {}
+
+    public record FieldAdded(AbstractExtensibleWithField parent, LiftField field) implements ModelChange {}
+
+    public record FieldRemoved(AbstractExtensibleWithField parent, LiftField field) implements ModelChange {}
+
+    /** @param parent the annotated object (entry, sense, multitext, form, trait...) */
+    public record AnnotationAdded(HasAnnotation parent, LiftAnnotation annotation) implements ModelChange {}
+
+    public record AnnotationRemoved(HasAnnotation parent, LiftAnnotation annotation) implements ModelChange {}
+
+    /** The grammatical info of a sense was set. */
+    public record GramInfoChanged(LiftSense sense, Optional<String> oldValue, String newValue) implements ModelChange {}
+
+    /** The type of a note was set. */
+    public record NoteTypeChanged(LiftNote note, Optional<String> oldType, String newType) implements ModelChange {}
+
+    /** A field was given another name (type), see {@link VocabularyRefactoring}. */
+    public record FieldRenamed(LiftField field, String oldName, String newName) implements ModelChange {}
+
+    /** A range, a range element or a field definition of the header was added, removed or edited. */
+    public record HeaderChanged(LiftHeader header) implements ModelChange {}
+
+    /**
+     * An XML attribute without a dedicated event was set: the source of an example, the type or order
+     * of a relation, the order of a sense, the value, author or date of an annotation, the creation,
+     * modification or deletion date of an object.
+     *
+     * @param name the name of the attribute, see {@link fr.cnrs.lacito.liftapi.xml.LiftVocabulary}
+     */
+    public record AttributeChanged(AbstractLiftRoot object, String name, Optional<String> oldValue,
+        Optional<String> newValue) implements ModelChange {}
+
+    /** The target (refid) of a relation changed. */
+    public record RelationRetargeted(LiftRelation relation, Optional<String> oldRefId, String newRefId)
+        implements ModelChange {}
+}
@@ -0,0 +1,87 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dictionary-level bus of {@link ModelChange}.
+ *
+ * When no listener is registered, publishing is a no-op and the model does not
+ * even compute the event payload (see {@link #hasListeners()}).
+ * Changes made between {@link #beginBatch()} and {@link #endBatch()} are delivered
+ * as a single list when the outermost batch ends.
+ *
+ * The bus is not thread-safe: mutations and batches are expected on a single thread.
+ */
+public final class ModelChangeBus {
+
+    private final List<ModelChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private List<ModelChange> pending = null;
+    private int batchDepth = 0;
+
+    public void addListener(ModelChangeListener l) {
+        if (l == null) throw new IllegalArgumentException("Listener cannot be null");
+        listeners.add(l);
+    }
+
+    public void removeListener(ModelChangeListener l) {
+        listeners.remove(l);
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    public void beginBatch() {
+        batchDepth += 1;
+    }
+
+    /**
+     * Ends the current batch; the outermost call delivers the accumulated changes.
+     * @throws IllegalStateException if no batch is in progress.
+     */
+    public void endBatch() {
+        if (batchDepth == 0) throw new IllegalStateException("No batch in progress");
+        batchDepth -= 1;
+        if (batchDepth == 0 && pending != null) {
+            List<ModelChange> changes = pending;
+            pending = null;
+            deliver(changes);
+        }
+    }
+
+    /**
+     * Runs the given mutation as one batch.
+     */
+    public void runInBatch(Runnable mutation) {
+        beginBatch();
+        try {
+            mutation.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    void publish(ModelChange change) {
+        if (listeners.isEmpty()) return;
+        if (batchDepth > 0) {
+            if (pending == null) pending = new ArrayList<>();
+            pending.add(change);
+            return;
+        }
+        deliver(List.of(change));
+    }
+
+    private void deliver(List<ModelChange> changes) {
+        List<ModelChange> view = Collections.unmodifiableList(changes);
+        for (ModelChangeListener l : listeners) {
+            l.onChanges(view);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.util.List;
+
+/**
+ * Receives the changes published on a {@link ModelChangeBus}.
+ * Changes made inside a batch are delivered together, in order.
+ */
+@FunctionalInterface
+public interface ModelChangeListener {
+
+    public void onChanges(List<ModelChange> changes);
+
+}
@@ -1,5 +1,6 @@
 package fr.cnrs.lacito.liftapi.model;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -8,16 +9,15 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import javafx.beans.property.MapProperty;
 import javafx.beans.property.SimpleMapProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.MapChangeListener;
-import javafx.collections.ObservableMap;
+import javafx.collections.WeakMapChangeListener;
 
 /**
  * A MultiText is a set of parallel {@link Form} in one or several languages,
@@ -39,11 +39,55 @@ public final class MultiText implements HasAnnotation {
             new SimpleMapProperty<>(FXCollections.observableHashMap());
     protected final static Set<String> EMPTY_LANG_SET = Collections.unmodifiableSet(new HashSet<>());
     protected final List<LiftAnnotation> annotations = new ArrayList<>();
-    private final ConcurrentHashMap<String, StringProperty> formTextProperties = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, WeakReference<FormTextProperty>> formTextProperties = new ConcurrentHashMap<>();
+    private ModelChangeBus changeBus = null;
+    private Object owner = null;
+    /** Registry counting the forms of this multitext, if any. */
+    private LangManager<?> langManager = null;
 
     protected MultiText() {
     }
 
+    /**
+     * Attaches this multitext to the change bus of its dictionary.
+     * @param owner the object holding this multitext, reported in {@link ModelChange.FormTextChanged}
+     */
+    void attach(ModelChangeBus bus, Object owner) {
+        this.changeBus = bus;
+        this.owner = owner;
+    }
+
+    /**
+     * Count the forms of this multitext in a language registry, instead of the previous one.
+     * @param manager the registry, null to stop counting
+     */
+    void countLanguagesIn(LangManager<?> manager) {
+        if (manager == langManager) return;
+        if (langManager != null) for (String l : formsProperty.keySet()) langManager.formRemoved(l);
+        langManager = manager;
+        if (manager != null) for (String l : formsProperty.keySet()) manager.formAdded(l);
+    }
+
+    /**
+     * @return the object holding this multitext (entry, sense, note...), null if it is not attached to a dictionary
+     */
+    public Object getOwner() {
+        return owner;
+    }
+
+    ModelChangeBus getChangeBus() {
+        return changeBus;
+    }
+
+    boolean isObserved() {
+        return changeBus != null && changeBus.hasListeners();
+    }
+
+    void fireTextChanged(String lang, String oldText, String newText) {
+        if (!isObserved() || oldText.equals(newText)) return;
+        changeBus.publish(new ModelChange.FormTextChanged(owner, this, lang, oldText, newText));
+    }
+
     public boolean isEmpty() {
         return formsProperty.isEmpty();
     }
@@ -68,7 +112,10 @@ public final class MultiText implements HasAnnotation {
         if (!formsProperty.containsKey(lang)) {
             throw new IllegalArgumentException("No text in language: " + lang);
         }
-        formsProperty.remove(lang);
+        Form removed = formsProperty.remove(lang);
+        removed.owner = null;
+        if (langManager != null) langManager.formRemoved(lang);
+        if (isObserved()) fireTextChanged(lang, removed.toPlainText(), "");
     }
 
     public Set<String> getLangs() {
@@ -80,6 +127,9 @@ public final class MultiText implements HasAnnotation {
         String lang = f.lang;
         if (formsProperty.containsKey(lang)) throw new DuplicateLangException("Duplicate lang: " + lang);
         formsProperty.put(lang, f);
+        f.owner = this;
+        if (langManager != null) langManager.formAdded(lang);
+        if (isObserved()) fireTextChanged(lang, "", f.toPlainText());
     }
 
     @Override
@@ -98,96 +148,95 @@ public final class MultiText implements HasAnnotation {
     /**
      * A bidirectional JavaFX property for the text of a given language form.
      * Setting it updates the underlying {@link MultiText} by adding/updating/removing the {@link Form}.
+     *
+     * The property is shared while it is in use. This multitext and its forms only hold it weakly:
+     * once no control references it, it is collected together with its listeners.
      */
     public StringProperty formTextProperty(String lang) {
         if (lang == null) return new SimpleStringProperty("");
         final String key = lang.trim();
         if (key.isEmpty()) return new SimpleStringProperty("");
+        FormTextProperty p = Optional.ofNullable(formTextProperties.get(key)).map(WeakReference::get).orElse(null);
+        if (p != null) return p;
+        synchronized (formTextProperties) {
+            p = Optional.ofNullable(formTextProperties.get(key)).map(WeakReference::get).orElse(null);
+            if (p == null) {
+                p = new FormTextProperty(key);
+                formTextProperties.put(key, new WeakReference<>(p));
+            }
+            return p;
+        }
+    }
 
-        return formTextProperties.computeIfAbsent(key, l -> {
-            SimpleStringProperty p = new SimpleStringProperty(this, "formText[" + l + "]", getForm(l).map(Form::toPlainText).orElse(""));
-            AtomicBoolean syncing = new AtomicBoolean(false);
-            AtomicReference<Form> currentFormRef = new AtomicReference<>(getForm(l).orElse(null));
-            AtomicReference<ChangeListener<String>> formTextListenerRef = new AtomicReference<>(null);
-
-            Runnable attachFormListener = () -> {
-                Form current = currentFormRef.get();
-                ChangeListener<String> oldListener = formTextListenerRef.get();
-                if (oldListener != null && current != null) {
-                    try {
-                        current.textProperty().removeListener(oldListener);
-                    } catch (Exception ignored) {
-                    }
-                }
+    /**
+     * Text of the form of a language, kept in sync with the form map and the text of the current form.
+     * Holds its own listeners: the map and the forms only see weak wrappers of them.
+     */
+    private final class FormTextProperty extends SimpleStringProperty {
+        private final String lang;
+        private boolean syncing;
+        private Form currentForm;
+        private final ChangeListener<String> formListener = (obs, ov, nv) -> fromModel(nv);
+        private final WeakChangeListener<String> weakFormListener = new WeakChangeListener<>(formListener);
+        private final MapChangeListener<String, Form> mapListener = change -> {
+            if (!lang().equals(change.getKey())) return;
+            fromModel(Optional.ofNullable(formsProperty.get(lang())).map(Form::toPlainText).orElse(""));
+            attachFormListener();
+        };
+
+        FormTextProperty(String lang) {
+            super(MultiText.this, "formText[" + lang + "]", getForm(lang).map(Form::toPlainText).orElse(""));
+            this.lang = lang;
+            formsProperty.get().addListener(new WeakMapChangeListener<>(mapListener));
+            attachFormListener();
+        }
 
-                Form next = getForm(l).orElse(null);
-                currentFormRef.set(next);
-                if (next == null) {
-                    formTextListenerRef.set(null);
-                    return;
-                }
+        private String lang() {
+            return lang;
+        }
 
-                ChangeListener<String> listener = (obs, ov, nv) -> {
-                    if (syncing.get()) return;
-                    String newText = nv == null ? "" : nv;
-                    if (!newText.equals(p.get())) {
-                        syncing.set(true);
-                        try {
-                            p.set(newText);
-                        } finally {
-                            syncing.set(false);
-                        }
-                    }
-                };
-                formTextListenerRef.set(listener);
-                next.textProperty().addListener(listener);
-            };
-
-            // When property changes -> update model
-            p.addListener((obs, oldV, newV) -> {
-                if (syncing.get()) return;
-                syncing.set(true);
-                try {
-                String v = newV == null ? "" : newV;
+        private void attachFormListener() {
+            if (currentForm != null) currentForm.textProperty().removeListener(weakFormListener);
+            currentForm = getForm(lang).orElse(null);
+            if (currentForm != null) currentForm.textProperty().addListener(weakFormListener);
+        }
+
+        private void fromModel(String text) {
+            String newText = text == null ? "" : text;
+            if (syncing || newText.equals(get())) return;
+            syncing = true;
+            try {
+                set(newText);
+            } finally {
+                syncing = false;
+            }
+        }
+
+        @Override
+        protected void invalidated() {
+            // Property changed from a control -> update model
+            if (syncing) return;
+            syncing = true;
+            try {
+                String v = get() == null ? "" : get();
                 if (v.isBlank()) {
-                    if (getForm(l).isPresent()) {
+                    if (getForm(lang).isPresent()) {
                         try {
-                            removeForm(l);
+                            removeForm(lang);
                         } catch (Exception ignored) {
                         }
                     }
                 } else {
-                    getForm(l).ifPresentOrElse(existing -> existing.changeText(v), () -> {
+                    getForm(lang).ifPresentOrElse(existing -> existing.changeText(v), () -> {
                         try {
-                            add(new Form(l, v));
+                            add(new Form(lang, v));
                         } catch (Exception ignored) {
                         }
                     });
                 }
-                } finally {
-                    syncing.set(false);
-                }
-            });
-
-            // When map changes (add/remove/replace) -> update property value
-            ObservableMap<String, Form> map = formsProperty.get();
-            MapChangeListener<String, Form> listener = change -> {
-                if (!l.equals(change.getKey())) return;
-                String newText = Optional.ofNullable(formsProperty.get(l)).map(Form::toPlainText).orElse("");
-                if (!newText.equals(p.get())) {
-                    if (syncing.get()) return;
-                    syncing.set(true);
-                    try {
-                        p.set(newText);
-                    } finally {
-                        syncing.set(false);
-                    }
-                }
-                attachFormListener.run();
-            };
-            map.addListener(listener);
-            attachFormListener.run();
-            return p;
-        });
+            } finally {
+                syncing = false;
+            }
+        }
     }
 }
@@ -0,0 +1,89 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Off-heap storage for the text of plain forms (see {@link LiftFactory#moveTextsOffHeap(TextArena)}).
+ *
+ * Texts are appended as UTF-8 into direct buffers allocated by chunks and are referenced by a
+ * handle (chunk and offset) and a byte length. The arena is append-only: the bytes of a form
+ * whose text changes are not reclaimed until the arena is dropped.
+ *
+ * Decoded strings are short-lived; a small direct-mapped cache keeps the most recently read ones.
+ * Storing must happen on a single thread (the one editing the model); reading is safe from any thread
+ * (the cache slots are published with release / acquire semantics).
+ */
+public final class TextArena {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int CACHE_SIZE = 4096;
+
+    private record Cached(long handle, String text) {}
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private volatile ByteBuffer[] readableChunks = new ByteBuffer[0];
+    private ByteBuffer currentChunk = null;
+    private long usedBytes = 0;
+    private final AtomicReferenceArray<Cached> cache = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    public TextArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public TextArena(int chunkSize) {
+        if (chunkSize < 1024) throw new IllegalArgumentException("Chunk size too small: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the handle of the stored text, to be read with the returned byte length.
+     */
+    long store(byte[] utf8) {
+        if (utf8.length > chunkSize) throw new IllegalArgumentException("Text longer than an arena chunk");
+        if (currentChunk == null || currentChunk.remaining() < utf8.length) {
+            currentChunk = ByteBuffer.allocateDirect(chunkSize);
+            chunks.add(currentChunk);
+            readableChunks = chunks.toArray(ByteBuffer[]::new);
+        }
+        int offset = currentChunk.position();
+        currentChunk.put(utf8);
+        usedBytes += utf8.length;
+        return ((long) (chunks.size() - 1) << 32) | offset;
+    }
+
+    static byte[] encode(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    String read(long handle, int length) {
+        if (length == 0) return "";
+        int slot = (int) ((handle ^ (handle >>> 32)) * 0x9E3779B1L >>> 20) & (CACHE_SIZE - 1);
+        Cached c = cache.getAcquire(slot);
+        if (c != null && c.handle == handle) return c.text;
+        ByteBuffer chunk = readableChunks[(int) (handle >>> 32)];
+        byte[] bytes = new byte[length];
+        chunk.get((int) handle, bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        cache.setRelease(slot, new Cached(handle, text));
+        return text;
+    }
+
+    /**
+     * @return the number of bytes written in the arena, including the ones of replaced texts.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the off-heap memory reserved by the arena.
+     */
+    public long getReservedBytes() {
+        return (long) chunks.size() * chunkSize;
+    }
+}
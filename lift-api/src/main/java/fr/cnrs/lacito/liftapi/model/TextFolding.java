@@ -0,0 +1,139 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalization of texts into search keys, configurable by language.
+ *
+ * A text is decomposed (NFD) and lower-cased; combining marks (accents, tone marks...)
+ * are then optionally removed, and the variants of each character-equivalence class are replaced
+ * by the first member of the class (e.g. {@code ŋ, ng} or {@code ɛ, è}). The rules of a language
+ * extend the default ones (language {@code null}).
+ *
+ * Folded keys are cached by each {@link Form} (see {@link Form#getFoldedText(TextFolding)}) and
+ * recomputed when its text or this configuration changes. Folding is thread-safe.
+ */
+public final class TextFolding {
+
+    /** Compiled rules of a language: the equivalences map normalized variants to their normalized canonical form. */
+    private record Rules(boolean stripDiacritics, Map<String, String> equivalences, int longestVariant) {}
+
+    /** Immutable configuration, replaced as a whole on each change, with the rules compiled from it. */
+    private record Config(Map<String, Boolean> stripDiacritics, Map<String, List<List<String>>> equivalences, int revision,
+                          Map<String, Rules> compiled) {}
+
+    private static final String DEFAULT_LANG = "";
+    private volatile Config config = new Config(Map.of(), Map.of(), 0, new ConcurrentHashMap<>());
+
+    /**
+     * @param lang the language, null for the default rules
+     */
+    public synchronized void setStripDiacritics(String lang, boolean strip) {
+        Map<String, Boolean> m = new HashMap<>(config.stripDiacritics());
+        m.put(key(lang), strip);
+        config = new Config(Map.copyOf(m), config.equivalences(), config.revision() + 1, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Set the character-equivalence classes of a language: in each class, every member is folded to the first one.
+     * @param lang the language, null for the default rules
+     */
+    public synchronized void setEquivalences(String lang, List<List<String>> classes) {
+        Map<String, List<List<String>>> m = new HashMap<>(config.equivalences());
+        m.put(key(lang), classes.stream().map(List::copyOf).toList());
+        config = new Config(config.stripDiacritics(), Map.copyOf(m), config.revision() + 1, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Back to the default configuration: no diacritic stripping, no equivalence.
+     */
+    public synchronized void clear() {
+        config = new Config(Map.of(), Map.of(), config.revision() + 1, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return a number changing each time the configuration changes.
+     */
+    public int getRevision() {
+        return config.revision();
+    }
+
+    /**
+     * @return a description of the configuration, equal for equal configurations, to check that
+     * keys folded and stored by an earlier run are still valid (see {@link #getRevision()} within a run).
+     */
+    public String getSignature() {
+        Config c = config;
+        return new TreeMap<>(c.stripDiacritics()) + "/" + new TreeMap<>(c.equivalences());
+    }
+
+    /**
+     * @param lang the language of the text, null to apply only the default rules
+     */
+    public String fold(String lang, String text) {
+        if (text == null || text.isEmpty()) return "";
+        Config c = config;
+        Rules rules = c.compiled().computeIfAbsent(key(lang), l -> compile(c, l));
+        return apply(rules, text);
+    }
+
+    private static String key(String lang) {
+        return lang == null ? DEFAULT_LANG : lang;
+    }
+
+    private static Rules compile(Config config, String lang) {
+        boolean strip = config.stripDiacritics().getOrDefault(lang, config.stripDiacritics().getOrDefault(DEFAULT_LANG, false));
+        Rules base = new Rules(strip, Map.of(), 0);
+        Map<String, String> variants = new HashMap<>();
+        int longest = 0;
+        for (String l : lang.equals(DEFAULT_LANG) ? List.of(DEFAULT_LANG) : List.of(DEFAULT_LANG, lang)) {
+            for (List<String> members : config.equivalences().getOrDefault(l, List.of())) {
+                if (members.isEmpty()) continue;
+                String canonical = apply(base, members.get(0));
+                for (String member : members.subList(1, members.size())) {
+                    String variant = apply(base, member);
+                    if (variant.isEmpty() || variant.equals(canonical)) continue;
+                    variants.put(variant, canonical);
+                    longest = Math.max(longest, variant.length());
+                }
+            }
+        }
+        return new Rules(strip, Map.copyOf(variants), longest);
+    }
+
+    private static String apply(Rules rules, String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        if (rules.stripDiacritics()) {
+            StringBuilder sb = new StringBuilder(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (Character.getType(c) != Character.NON_SPACING_MARK) sb.append(c);
+            }
+            s = sb.toString();
+        }
+        if (rules.longestVariant() == 0) return s;
+        // Longest variant first, left to right
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); ) {
+            int length = Math.min(rules.longestVariant(), s.length() - i);
+            String replacement = null;
+            for (; length > 0; length--) {
+                replacement = rules.equivalences().get(s.substring(i, i + length));
+                if (replacement != null) break;
+            }
+            if (replacement != null) {
+                sb.append(replacement);
+                i += length;
+            } else {
+                sb.append(s.charAt(i++));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,390 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Renaming, merging and splitting the values of a controlled vocabulary of the dictionary: note types,
+ * grammatical info codes, values of a trait and field types.
+ *
+ * An index from each value to the objects using it is built once from the factory, then maintained from
+ * its {@link ModelChangeBus} (objects added or removed with their whole subtree, values changed), so
+ * that counting or recoding the uses of a value takes a time proportional to its number of uses.
+ * The header follows the data: the range element (or field definition) of a renamed value is renamed,
+ * the ones of values merged into an existing value are removed.
+ *
+ * Each operation is applied as one batch of the change bus and returns an {@link Edit} undoing and
+ * redoing it as a single step. Like the bus, this class expects a single thread.
+ */
+public final class VocabularyRefactoring implements AutoCloseable {
+
+    public enum Kind { NOTE_TYPE, GRAM_INFO, TRAIT_VALUE, FIELD_TYPE }
+
+    /**
+     * The values of one kind; for {@link Kind#TRAIT_VALUE}, the values of the traits of one name.
+     */
+    public record Vocabulary(Kind kind, String traitName) {
+        public static final Vocabulary NOTE_TYPES = new Vocabulary(Kind.NOTE_TYPE, null);
+        public static final Vocabulary GRAM_INFO = new Vocabulary(Kind.GRAM_INFO, null);
+        public static final Vocabulary FIELD_TYPES = new Vocabulary(Kind.FIELD_TYPE, null);
+
+        public Vocabulary {
+            Objects.requireNonNull(kind);
+            if ((kind == Kind.TRAIT_VALUE) != (traitName != null)) {
+                throw new IllegalArgumentException("A trait name is required for trait values only");
+            }
+        }
+
+        public static Vocabulary traitValues(String traitName) {
+            return new Vocabulary(Kind.TRAIT_VALUE, traitName);
+        }
+
+        /**
+         * @return the vocabulary listed by a header range: note types, grammatical info, or else the values
+         * of the traits named after the range.
+         */
+        public static Vocabulary ofRange(String rangeId) {
+            return switch (rangeId) {
+                case "note-type" -> NOTE_TYPES;
+                case "grammatical-info" -> GRAM_INFO;
+                default -> traitValues(rangeId);
+            };
+        }
+
+        /** @return the id of the header range listing the values, null for field types (field definitions) */
+        public String rangeId() {
+            return switch (kind) {
+                case NOTE_TYPE -> "note-type";
+                case GRAM_INFO -> "grammatical-info";
+                case TRAIT_VALUE -> traitName;
+                case FIELD_TYPE -> null;
+            };
+        }
+    }
+
+    /**
+     * An applied refactoring: the objects whose value changed, with their old and new values,
+     * and the changes of the header.
+     */
+    public final class Edit {
+        private final Vocabulary vocabulary;
+        private final List<Object> users;
+        private final List<String> oldValues;
+        private final List<String> newValues;
+        private final List<Step> headerSteps;
+
+        private Edit(Vocabulary vocabulary, List<Object> users, List<String> oldValues, List<String> newValues, List<Step> headerSteps) {
+            this.vocabulary = vocabulary;
+            this.users = users;
+            this.oldValues = oldValues;
+            this.newValues = newValues;
+            this.headerSteps = headerSteps;
+        }
+
+        /** @return the number of objects whose value changed */
+        public int getUseCount() {
+            return users.size();
+        }
+
+        public boolean isEmpty() {
+            return users.isEmpty() && headerSteps.isEmpty();
+        }
+
+        public void undo() {
+            factory.getChangeBus().runInBatch(() -> {
+                for (int i = headerSteps.size() - 1; i >= 0; i--) headerSteps.get(i).revert().run();
+                for (int i = users.size() - 1; i >= 0; i--) assign(vocabulary.kind(), users.get(i), oldValues.get(i));
+                if (!headerSteps.isEmpty()) factory.headerChanged();
+            });
+        }
+
+        public void redo() {
+            factory.getChangeBus().runInBatch(() -> {
+                for (int i = 0; i < users.size(); i++) assign(vocabulary.kind(), users.get(i), newValues.get(i));
+                for (Step s : headerSteps) s.apply().run();
+                if (!headerSteps.isEmpty()) factory.headerChanged();
+            });
+        }
+    }
+
+    private record Step(Runnable apply, Runnable revert) {}
+
+    private final LiftFactory factory;
+    private final ModelChangeListener listener = this::onChanges;
+    private final Map<Vocabulary, Map<String, Set<Object>>> index = new HashMap<>();
+
+    public VocabularyRefactoring(LiftFactory factory) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        for (LiftSense s : factory.getAllSenses()) indexPart(s, true);
+        for (LiftTrait t : factory.getAllTraits()) indexPart(t, true);
+        for (LiftNote n : factory.getAllNotes()) indexPart(n, true);
+        for (LiftField f : factory.getAllFields()) indexPart(f, true);
+        factory.getChangeBus().addListener(listener);
+    }
+
+    /** @return the number of objects using the value */
+    public int countUses(Vocabulary vocabulary, String value) {
+        return usersOf(vocabulary, value).size();
+    }
+
+    /** @return the number of objects using any value of the vocabulary */
+    public int countUses(Vocabulary vocabulary) {
+        Map<String, Set<Object>> byValue = index.get(vocabulary);
+        return byValue == null ? 0 : byValue.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /** @return the objects ({@link LiftNote}, {@link LiftSense}, {@link LiftTrait} or {@link LiftField}) using the value */
+    public List<Object> getUsers(Vocabulary vocabulary, String value) {
+        return List.copyOf(usersOf(vocabulary, value));
+    }
+
+    /** @return the number of uses of each value of the vocabulary, in alphabetical order */
+    public SortedMap<String, Integer> getUseCounts(Vocabulary vocabulary) {
+        SortedMap<String, Integer> counts = new TreeMap<>();
+        Map<String, Set<Object>> byValue = index.get(vocabulary);
+        if (byValue != null) byValue.forEach((v, users) -> counts.put(v, users.size()));
+        return Collections.unmodifiableSortedMap(counts);
+    }
+
+    /**
+     * Give all the uses of a value another value. If the new value already exists, this is a merge.
+     */
+    public Edit rename(Vocabulary vocabulary, String from, String to) {
+        return merge(vocabulary, List.of(from), to);
+    }
+
+    /**
+     * Give all the uses of some values a single value. In the header, the element (or field definition)
+     * of the first merged value is renamed if the target has none, the others are removed.
+     */
+    public Edit merge(Vocabulary vocabulary, Collection<String> from, String to) {
+        requireValue(to);
+        List<Object> users = new ArrayList<>();
+        List<String> oldValues = new ArrayList<>();
+        List<Step> steps = new ArrayList<>();
+        boolean[] targetInHeader = {hasHeaderValue(vocabulary, to)};
+        for (String f : new LinkedHashSet<>(from)) {
+            if (f == null || f.equals(to)) continue;
+            for (Object u : usersOf(vocabulary, f)) {
+                users.add(u);
+                oldValues.add(f);
+            }
+            mergeInHeader(vocabulary, f, to, targetInHeader, steps);
+        }
+        Edit edit = new Edit(vocabulary, users, oldValues, Collections.nCopies(users.size(), to), steps);
+        edit.redo();
+        return edit;
+    }
+
+    /**
+     * Give each use of a value the value chosen for it. The new values missing from the header range
+     * are added to it; the element of the split value is kept.
+     *
+     * @param target the new value of a user, null to keep its value
+     */
+    public Edit split(Vocabulary vocabulary, String from, Function<Object, String> target) {
+        List<Object> users = new ArrayList<>();
+        List<String> newValues = new ArrayList<>();
+        for (Object u : usersOf(vocabulary, from)) {
+            String t = target.apply(u);
+            if (t == null || t.equals(from)) continue;
+            requireValue(t);
+            users.add(u);
+            newValues.add(t);
+        }
+        List<Step> steps = new ArrayList<>();
+        LiftHeaderRange range = range(vocabulary);
+        if (range != null) {
+            List<LiftHeaderRangeElement> elements = range.getRangeElements();
+            for (String t : new LinkedHashSet<>(newValues)) {
+                if (hasHeaderValue(vocabulary, t)) continue;
+                LiftHeaderRangeElement element = new LiftHeaderRangeElement(t, range);
+                steps.add(new Step(() -> elements.add(element), () -> elements.remove(element)));
+            }
+        }
+        Edit edit = new Edit(vocabulary, users, Collections.nCopies(users.size(), from), newValues, steps);
+        edit.redo();
+        return edit;
+    }
+
+    @Override
+    public void close() {
+        factory.getChangeBus().removeListener(listener);
+    }
+
+    private static void requireValue(String value) {
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("The new value cannot be blank");
+    }
+
+    private static void assign(Kind kind, Object user, String value) {
+        switch (kind) {
+            case NOTE_TYPE -> ((LiftNote) user).setType(value);
+            case GRAM_INFO -> ((LiftSense) user).recodeGrammaticalInfo(value);
+            case TRAIT_VALUE -> ((LiftTrait) user).setValue(value);
+            case FIELD_TYPE -> ((LiftField) user).rename(value);
+        }
+    }
+
+    /* ─── Header ─── */
+
+    private LiftHeaderRange range(Vocabulary vocabulary) {
+        LiftHeader header = factory.getHeader();
+        if (header == null || vocabulary.rangeId() == null) return null;
+        return header.getRanges().stream().filter(r -> vocabulary.rangeId().equals(r.getId())).findFirst().orElse(null);
+    }
+
+    private LiftFieldAndTraitDefinition fieldDefinition(String name) {
+        LiftHeader header = factory.getHeader();
+        if (header == null) return null;
+        return header.getFields().stream().filter(d -> name.equals(d.getName())).findFirst().orElse(null);
+    }
+
+    private LiftHeaderRangeElement element(LiftHeaderRange range, String id) {
+        return range.getRangeElements().stream().filter(e -> id.equals(e.getId())).findFirst().orElse(null);
+    }
+
+    private boolean hasHeaderValue(Vocabulary vocabulary, String value) {
+        if (vocabulary.kind() == Kind.FIELD_TYPE) return fieldDefinition(value) != null;
+        LiftHeaderRange range = range(vocabulary);
+        return range != null && element(range, value) != null;
+    }
+
+    private void mergeInHeader(Vocabulary vocabulary, String from, String to, boolean[] targetInHeader, List<Step> steps) {
+        if (vocabulary.kind() == Kind.FIELD_TYPE) {
+            LiftFieldAndTraitDefinition def = fieldDefinition(from);
+            if (def == null) return;
+            if (targetInHeader[0]) {
+                steps.add(removal(factory.getHeader().getFields(), def));
+            } else {
+                steps.add(new Step(() -> def.setName(to), () -> def.setName(from)));
+                targetInHeader[0] = true;
+            }
+            return;
+        }
+        LiftHeaderRange range = range(vocabulary);
+        if (range == null) return;
+        LiftHeaderRangeElement element = element(range, from);
+        if (element == null) return;
+        for (LiftHeaderRangeElement child : range.getRangeElements()) {
+            if (child.getParentId().filter(from::equals).isPresent()) {
+                steps.add(new Step(() -> child.setParentId(to), () -> child.setParentId(from)));
+            }
+        }
+        if (targetInHeader[0]) {
+            steps.add(removal(range.getRangeElements(), element));
+        } else {
+            steps.add(new Step(() -> element.setId(to), () -> element.setId(from)));
+            targetInHeader[0] = true;
+        }
+    }
+
+    private static <T> Step removal(List<T> list, T item) {
+        int[] position = {-1};
+        return new Step(() -> {
+            position[0] = list.indexOf(item);
+            list.remove(item);
+        }, () -> list.add(Math.max(0, Math.min(position[0], list.size())), item));
+    }
+
+    /* ─── Index ─── */
+
+    private Set<Object> usersOf(Vocabulary vocabulary, String value) {
+        Map<String, Set<Object>> byValue = index.get(vocabulary);
+        Set<Object> users = byValue == null ? null : byValue.get(value);
+        return users == null ? Set.of() : users;
+    }
+
+    private void onChanges(List<ModelChange> changes) {
+        for (ModelChange c : changes) {
+            switch (c) {
+                case ModelChange.EntryAdded e -> indexSubtree(e.entry(), true);
+                case ModelChange.EntryRemoved e -> indexSubtree(e.entry(), false);
+                case ModelChange.SenseAdded s -> indexSubtree(s.sense(), true);
+                case ModelChange.SenseRemoved s -> indexSubtree(s.sense(), false);
+                case ModelChange.VariantAdded v -> indexSubtree(v.variant(), true);
+                case ModelChange.VariantRemoved v -> indexSubtree(v.variant(), false);
+                case ModelChange.PronunciationAdded p -> indexSubtree(p.pronunciation(), true);
+                case ModelChange.PronunciationRemoved p -> indexSubtree(p.pronunciation(), false);
+                case ModelChange.ExampleAdded x -> indexSubtree(x.example(), true);
+                case ModelChange.ExampleRemoved x -> indexSubtree(x.example(), false);
+                case ModelChange.NoteAdded n -> indexSubtree(n.note(), true);
+                case ModelChange.NoteRemoved n -> indexSubtree(n.note(), false);
+                case ModelChange.RelationAdded r -> indexSubtree(r.relation(), true);
+                case ModelChange.RelationRemoved r -> indexSubtree(r.relation(), false);
+                case ModelChange.FieldAdded f -> indexSubtree(f.field(), true);
+                case ModelChange.FieldRemoved f -> indexSubtree(f.field(), false);
+                case ModelChange.EtymologyAdded e -> indexSubtree(e.etymology(), true);
+                case ModelChange.TraitAdded t -> indexSubtree(t.trait(), true);
+                case ModelChange.TraitRemoved t -> indexSubtree(t.trait(), false);
+                case ModelChange.TraitValueChanged t -> {
+                    indexTrait(t.trait(), t.oldValue(), false);
+                    indexTrait(t.trait(), t.newValue(), true);
+                }
+                case ModelChange.GramInfoChanged g -> {
+                    g.oldValue().ifPresent(old -> remove(Vocabulary.GRAM_INFO, old, g.sense()));
+                    add(Vocabulary.GRAM_INFO, g.newValue(), g.sense());
+                }
+                case ModelChange.NoteTypeChanged n -> {
+                    n.oldType().ifPresent(old -> remove(Vocabulary.NOTE_TYPES, old, n.note()));
+                    add(Vocabulary.NOTE_TYPES, n.newType(), n.note());
+                }
+                case ModelChange.FieldRenamed f -> {
+                    remove(Vocabulary.FIELD_TYPES, f.oldName(), f.field());
+                    add(Vocabulary.FIELD_TYPES, f.newName(), f.field());
+                }
+                default -> { }
+            }
+        }
+    }
+
+    /** Index (or drop) the object and every object below it, as registered by the factory. */
+    private void indexSubtree(Object root, boolean add) {
+        LiftFactory.forEachPart(root, part -> indexPart(part, add));
+    }
+
+    private void indexPart(Object part, boolean add) {
+        switch (part) {
+            case LiftSense s -> s.getGrammaticalInfo().map(GrammaticalInfo::getValue).ifPresent(code -> {
+                if (add) add(Vocabulary.GRAM_INFO, code, s); else remove(Vocabulary.GRAM_INFO, code, s);
+            });
+            case LiftTrait t -> indexTrait(t, t.getValue(), add);
+            case LiftNote n -> n.getType().ifPresent(type -> {
+                if (add) add(Vocabulary.NOTE_TYPES, type, n); else remove(Vocabulary.NOTE_TYPES, type, n);
+            });
+            case LiftField f -> {
+                if (add) add(Vocabulary.FIELD_TYPES, f.getName(), f); else remove(Vocabulary.FIELD_TYPES, f.getName(), f);
+            }
+            default -> { }
+        }
+    }
+
+    private void indexTrait(LiftTrait trait, String value, boolean add) {
+        if (trait.getName() == null) return;
+        Vocabulary v = Vocabulary.traitValues(trait.getName());
+        if (add) add(v, value, trait); else remove(v, value, trait);
+    }
+
+    private void add(Vocabulary vocabulary, String value, Object user) {
+        if (value == null) return;
+        index.computeIfAbsent(vocabulary, k -> new HashMap<>()).computeIfAbsent(value, k -> new LinkedHashSet<>()).add(user);
+    }
+
+    private void remove(Vocabulary vocabulary, String value, Object user) {
+        Map<String, Set<Object>> byValue = index.get(vocabulary);
+        Set<Object> users = byValue == null || value == null ? null : byValue.get(value);
+        if (users == null) return;
+        users.remove(user);
+        if (users.isEmpty()) byValue.remove(value);
+    }
+}
@@ -0,0 +1,140 @@
+package fr.cnrs.lacito.liftapi.snapshot;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.MultiText;
+
+/**
+ * Frozen view of the content of the entries of a dictionary at a given version.
+ *
+ * A snapshot and all its records are immutable: they can be read from any thread
+ * without locking while the live model keeps being edited.
+ * Entries that did not change between two snapshots are shared (same instances).
+ *
+ * Entries and texts keep a handle on the live object they were frozen from, so that the results
+ * of a background task can be mapped back to the model (e.g. to select an entry, or edit a text).
+ * Handles are keys only: they must only be read and modified on the thread editing the model.
+ */
+public final class DictionarySnapshot {
+
+    /**
+     * A form of a text.
+     * @param text the plain text
+     * @param markup the text with its spans, as written in LIFT, if it has any
+     */
+    public record Form(String lang, String text, Optional<String> markup, List<Annotation> annotations) {}
+
+    /**
+     * A multitext.
+     * @param handle the live multitext (see the class documentation)
+     */
+    public record Text(MultiText handle, List<Form> forms, List<Annotation> annotations) {
+
+        /**
+         * @return the plain text in the language, null if there is none.
+         */
+        public String get(String lang) {
+            for (Form f : forms) {
+                if (f.lang().equals(lang)) return f.text();
+            }
+            return null;
+        }
+
+        public boolean isEmpty() {
+            return forms.isEmpty();
+        }
+    }
+
+    public record Annotation(String name, Optional<String> value, Optional<String> who, Optional<String> when, Text text) {}
+
+    public record Trait(String name, String value, List<Annotation> annotations) {}
+
+    /**
+     * The dates, traits, annotations and fields of an object ({@code fields} is empty for objects without fields).
+     */
+    public record Extensible(Optional<String> dateCreated, Optional<String> dateModified,
+                             List<Trait> traits, List<Annotation> annotations, List<Field> fields) {}
+
+    public record Field(String name, Text text, Extensible extensible) {}
+
+    public record Note(Optional<String> type, Text text, Extensible extensible) {}
+
+    public record Relation(String type, Optional<String> refId, Optional<Integer> order, Text usage, Extensible extensible) {}
+
+    /**
+     * A media file of a pronunciation, or an illustration of a sense.
+     */
+    public record Media(String href, Text label) {}
+
+    public record Pronunciation(Text forms, List<Media> media, Extensible extensible) {}
+
+    public record Etymology(String type, String source, Text forms, Text gloss, Extensible extensible) {}
+
+    public record Reversal(Optional<String> type, Text forms, Optional<Reversal> main) {}
+
+    public record Example(Optional<String> source, Text example, Map<String, Text> translations,
+                          List<Note> notes, Extensible extensible) {}
+
+    public record GramInfo(String value, List<Trait> traits) {}
+
+    public record Sense(Optional<String> id, Optional<String> guid, Optional<Integer> order, Optional<GramInfo> gramInfo,
+                        Text gloss, Text definition, List<Relation> relations, List<Example> examples,
+                        List<Media> illustrations, List<Reversal> reversals, List<Note> notes,
+                        List<Sense> subSenses, Extensible extensible) {}
+
+    public record Variant(Optional<String> refId, Text forms, List<Pronunciation> pronunciations,
+                          List<Relation> relations, Extensible extensible) {}
+
+    /**
+     * @param handle the live entry (see the class documentation)
+     */
+    public record Entry(LiftEntry handle, Optional<String> id, Optional<String> guid, Optional<String> order,
+                        Optional<String> dateDeleted, Text forms, Text citations,
+                        List<Pronunciation> pronunciations, List<Variant> variants, List<Relation> relations,
+                        List<Etymology> etymologies, List<Note> notes, List<Sense> senses, Extensible extensible) {}
+
+    private final long version;
+    private final List<Entry> entries;
+    private volatile Map<String, Entry> entryById = null;
+
+    DictionarySnapshot(long version, List<Entry> entries) {
+        this.version = version;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the version of the live model this snapshot was taken from.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The index is built on first use, by the reading thread.
+     */
+    public Optional<Entry> getEntry(String id) {
+        Map<String, Entry> index = entryById;
+        if (index == null) {
+            Map<String, Entry> m = new HashMap<>(entries.size() * 2);
+            for (Entry e : entries) {
+                e.id().ifPresent(i -> m.put(i, e));
+            }
+            index = Collections.unmodifiableMap(m);
+            entryById = index;
+        }
+        return Optional.ofNullable(index.get(id));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
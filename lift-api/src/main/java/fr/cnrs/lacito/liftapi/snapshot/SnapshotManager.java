@@ -0,0 +1,245 @@
+package fr.cnrs.lacito.liftapi.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import fr.cnrs.lacito.liftapi.model.AbstractExtensibleWithField;
+import fr.cnrs.lacito.liftapi.model.AbstractExtensibleWithoutField;
+import fr.cnrs.lacito.liftapi.model.AbstractNotable;
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftAnnotation;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftEtymology;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftPronunciation;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftReversal;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.LiftTrait;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.ModelChangeListener;
+import fr.cnrs.lacito.liftapi.model.MultiText;
+
+/**
+ * Produces {@link DictionarySnapshot}s of a live dictionary.
+ *
+ * The manager listens to the {@link fr.cnrs.lacito.liftapi.model.ModelChangeBus} of the factory
+ * and only re-freezes the entries touched since the previous snapshot; the other entries
+ * are shared with it. Every mutation made through the model and the factory is published on the bus.
+ *
+ * {@link #snapshot()} reads the live model and must be called from the thread editing it
+ * (the FX thread in the editor); the returned snapshot can then be handed to any thread.
+ */
+public final class SnapshotManager implements AutoCloseable {
+
+    private final LiftFactory factory;
+    private final ModelChangeListener listener = this::onChanges;
+    private final Map<LiftEntry, DictionarySnapshot.Entry> frozen = new IdentityHashMap<>();
+    private final Set<LiftEntry> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean allDirty = true;
+    private long version = 0;
+    private DictionarySnapshot last = null;
+
+    public SnapshotManager(LiftFactory factory) {
+        if (factory == null) throw new IllegalArgumentException("Factory cannot be null");
+        this.factory = factory;
+        factory.getChangeBus().addListener(listener);
+    }
+
+    /**
+     * @return the version of the live model, increased by each batch of changes.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Take a snapshot of the current state. Cost is linear in the number of entries for the
+     * (shared) entry list, plus the freezing of the entries changed since the last call.
+     */
+    public DictionarySnapshot snapshot() {
+        List<LiftEntry> live = factory.getAllEntries();
+        List<DictionarySnapshot.Entry> entries = new ArrayList<>(live.size());
+        boolean sameAsLast = last != null && last.size() == live.size();
+        for (int i = 0; i < live.size(); i++) {
+            LiftEntry e = live.get(i);
+            DictionarySnapshot.Entry f = allDirty || dirty.contains(e) ? null : frozen.get(e);
+            if (f == null) {
+                f = freezeEntry(e);
+                frozen.put(e, f);
+            }
+            if (sameAsLast && last.getEntries().get(i) != f) sameAsLast = false;
+            entries.add(f);
+        }
+        dirty.clear();
+        allDirty = false;
+        if (frozen.size() > live.size()) {
+            // Forget deleted entries
+            Set<LiftEntry> alive = Collections.newSetFromMap(new IdentityHashMap<>());
+            alive.addAll(live);
+            frozen.keySet().retainAll(alive);
+        }
+        if (sameAsLast) return last;
+        // Entries added or removed without a published change still make a new version
+        if (last != null && last.getVersion() == version) version += 1;
+        last = new DictionarySnapshot(version, entries);
+        return last;
+    }
+
+    /**
+     * Stop tracking the changes of the dictionary.
+     */
+    @Override
+    public void close() {
+        factory.getChangeBus().removeListener(listener);
+    }
+
+    private void onChanges(List<ModelChange> changes) {
+        version += 1;
+        if (allDirty) return;
+        for (ModelChange c : changes) {
+            Object node = switch (c) {
+                case ModelChange.FormTextChanged t -> t.owner();
+                case ModelChange.EntryAdded e -> e.entry();
+                case ModelChange.EntryRemoved e -> e.entry();
+                case ModelChange.IdChanged i -> i.object();
+                case ModelChange.TraitAdded t -> t.parent();
+                case ModelChange.TraitRemoved t -> t.parent();
+                case ModelChange.TraitValueChanged t -> t.trait();
+                case ModelChange.SenseAdded s -> s.parent();
+                case ModelChange.SenseRemoved s -> s.parent();
+                case ModelChange.VariantAdded v -> v.parent();
+                case ModelChange.VariantRemoved v -> v.parent();
+                case ModelChange.PronunciationAdded p -> p.parent();
+                case ModelChange.PronunciationRemoved p -> p.parent();
+                case ModelChange.FieldAdded f -> f.parent();
+                case ModelChange.FieldRemoved f -> f.parent();
+                case ModelChange.AnnotationAdded a -> a.parent();
+                case ModelChange.AnnotationRemoved a -> a.parent();
+                case ModelChange.ExampleAdded x -> x.parent();
+                case ModelChange.ExampleRemoved x -> x.parent();
+                case ModelChange.NoteAdded n -> n.parent();
+                case ModelChange.NoteRemoved n -> n.parent();
+                case ModelChange.RelationAdded r -> r.parent();
+                case ModelChange.RelationRemoved r -> r.parent();
+                case ModelChange.ReversalAdded r -> r.parent();
+                case ModelChange.EtymologyAdded e -> e.parent();
+                case ModelChange.AttributeChanged a -> a.object();
+                case ModelChange.RelationRetargeted r -> r.relation();
+                case ModelChange.VariantRetargeted v -> v.variant();
+                case ModelChange.GramInfoChanged g -> g.sense();
+                case ModelChange.HeaderChanged h -> h.header();
+                case ModelChange.NoteTypeChanged n -> n.note();
+                case ModelChange.FieldRenamed f -> f.field();
+            };
+            Optional<LiftEntry> entry = LiftFactory.findEntry(node);
+            if (entry.isEmpty()) {
+                // Owner not attached to an entry (e.g. grammatical info): re-freeze everything
+                allDirty = true;
+                dirty.clear();
+                return;
+            }
+            dirty.add(entry.get());
+        }
+    }
+
+    /* ─── Freezing ─── */
+
+    static DictionarySnapshot.Entry freezeEntry(LiftEntry e) {
+        return new DictionarySnapshot.Entry(e, e.getId(), e.getGuid(), e.getOrder(), e.getDateDeleted(),
+            text(e.getForms()), text(e.getCitations()),
+            list(e.getPronunciations(), SnapshotManager::freezePronunciation),
+            list(e.getVariants(), SnapshotManager::freezeVariant),
+            list(e.getRelations(), SnapshotManager::freezeRelation),
+            list(e.getEtymologies(), SnapshotManager::freezeEtymology),
+            notes(e), list(e.getSenses(), SnapshotManager::freezeSense), extensible(e));
+    }
+
+    private static DictionarySnapshot.Sense freezeSense(LiftSense s) {
+        return new DictionarySnapshot.Sense(s.getId(), s.getGuid(), s.getOrder(),
+            s.getGrammaticalInfo().map(g -> new DictionarySnapshot.GramInfo(g.getValue(), traits(g.getTraits()))),
+            text(s.getGloss()), text(s.getDefinition()),
+            list(s.getRelations(), SnapshotManager::freezeRelation),
+            list(s.getExamples(), SnapshotManager::freezeExample),
+            list(s.getIllustrations(), i -> new DictionarySnapshot.Media(i.getHref(), text(i.getLabel()))),
+            list(s.getReversals(), SnapshotManager::freezeReversal),
+            notes(s), list(s.getSubSenses(), SnapshotManager::freezeSense), extensible(s));
+    }
+
+    private static DictionarySnapshot.Example freezeExample(LiftExample ex) {
+        Map<String, DictionarySnapshot.Text> translations = new LinkedHashMap<>();
+        ex.getTranslations().forEach((type, mt) -> translations.put(type, text(mt)));
+        return new DictionarySnapshot.Example(ex.getSource(), text(ex.getExample()),
+            Collections.unmodifiableMap(translations), notes(ex), extensible(ex));
+    }
+
+    private static DictionarySnapshot.Variant freezeVariant(LiftVariant v) {
+        return new DictionarySnapshot.Variant(v.getRefId(), text(v.getForms()),
+            list(v.getPronunciations(), SnapshotManager::freezePronunciation),
+            list(v.getRelations(), SnapshotManager::freezeRelation), extensible(v));
+    }
+
+    private static DictionarySnapshot.Pronunciation freezePronunciation(LiftPronunciation p) {
+        return new DictionarySnapshot.Pronunciation(text(p.getProunciation()),
+            list(p.getMedias(), m -> new DictionarySnapshot.Media(m.getHref(), text(m.getLabel()))), extensible(p));
+    }
+
+    private static DictionarySnapshot.Relation freezeRelation(LiftRelation r) {
+        return new DictionarySnapshot.Relation(r.getType(), r.getRefID(), r.getOrder(), text(r.getUsage()), extensible(r));
+    }
+
+    private static DictionarySnapshot.Etymology freezeEtymology(LiftEtymology et) {
+        return new DictionarySnapshot.Etymology(et.getType(), et.getSource(), text(et.getForms()), text(et.getGloss()), extensible(et));
+    }
+
+    private static DictionarySnapshot.Reversal freezeReversal(LiftReversal r) {
+        return new DictionarySnapshot.Reversal(r.getType(), text(r.getForms()),
+            Optional.ofNullable(r.getMain()).map(SnapshotManager::freezeReversal));
+    }
+
+    private static DictionarySnapshot.Text text(MultiText mt) {
+        List<DictionarySnapshot.Form> forms = new ArrayList<>(mt.getForms().size());
+        for (Form f : mt.getForms()) {
+            Optional<String> markup = f.isPlain() ? Optional.empty() : Optional.of(f.toString());
+            forms.add(new DictionarySnapshot.Form(f.getLang(), f.toPlainText(), markup, annotations(f.getAnnotations())));
+        }
+        return new DictionarySnapshot.Text(mt, List.copyOf(forms), annotations(mt.getAnnotations()));
+    }
+
+    private static DictionarySnapshot.Extensible extensible(AbstractExtensibleWithoutField o) {
+        List<DictionarySnapshot.Field> fields = o instanceof AbstractExtensibleWithField withFields
+            ? list(withFields.getFields(), f -> new DictionarySnapshot.Field(f.getName(), text(f.getText()), extensible(f)))
+            : List.of();
+        return new DictionarySnapshot.Extensible(o.getDateCreated(), o.getDateModified(),
+            traits(o.getTraits()), annotations(o.getAnnotations()), fields);
+    }
+
+    private static List<DictionarySnapshot.Trait> traits(List<LiftTrait> traits) {
+        return list(traits, t -> new DictionarySnapshot.Trait(t.getName(), t.getValue(), annotations(t.getAnnotations())));
+    }
+
+    private static List<DictionarySnapshot.Annotation> annotations(List<LiftAnnotation> annotations) {
+        return list(annotations, a -> new DictionarySnapshot.Annotation(a.getName(), a.getValue(), a.getWho(), a.getWhen(), text(a.getText())));
+    }
+
+    private static List<DictionarySnapshot.Note> notes(AbstractNotable n) {
+        return list(n.getNotes().values(), note -> new DictionarySnapshot.Note(note.getType(), text(note.getText()), extensible(note)));
+    }
+
+    private static <T, F> List<F> list(Collection<T> live, Function<T, F> freeze) {
+        if (live.isEmpty()) return List.of();
+        List<F> frozen = new ArrayList<>(live.size());
+        for (T t : live) frozen.add(freeze.apply(t));
+        return Collections.unmodifiableList(frozen);
+    }
+}
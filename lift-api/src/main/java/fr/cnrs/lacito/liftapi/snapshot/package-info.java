@@ -0,0 +1,5 @@
+/**
+ * Immutable, structurally shared snapshots of a dictionary, readable from background
+ * threads (searches, statistics, exports, autosave) while the live model is edited.
+ */
+package fr.cnrs.lacito.liftapi.snapshot;
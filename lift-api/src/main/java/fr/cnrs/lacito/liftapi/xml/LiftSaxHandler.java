@@ -328,7 +328,7 @@ public final class LiftSaxHandler extends DefaultHandler {
                 String type = attributes.getValue(LiftVocabulary.LIFT_URI, "type");
                 if (type == null) type = LiftExample.DEFAULT_TRANSLATION_TYPE; // TODO
                 if (elementStack.peek() instanceof LiftExample e) {
-                    multiTextStack.push(e.create_translation(type));
+                    multiTextStack.push(liftFactory.createTranslation(type, e));
                 } else {
                     throw new IllegalStateException();
                 }
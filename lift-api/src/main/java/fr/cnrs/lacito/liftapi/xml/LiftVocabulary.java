@@ -6,6 +6,8 @@ public final class LiftVocabulary {
 
 
     public static final String DATE_DELETED_ATTRIBUTE = "dateDeleted";
+    public static final String DATE_CREATED_ATTRIBUTE = "dateCreated";
+    public static final String DATE_MODIFIED_ATTRIBUTE = "dateModified";
     public static final String ORDER_ATTRIBUTE = "order";
     public static final String TYPE_ATTRIBUTE = "type";
     public static final String SOURCE_ATTRIBUTE = "source";
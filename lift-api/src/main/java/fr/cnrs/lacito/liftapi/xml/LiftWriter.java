@@ -567,7 +567,7 @@ public class LiftWriter  {
             out.writeStartElement(elementName); // can be form or gloss
             out.writeAttribute(LiftVocabulary.LANG_ATTRIBUTE, text.getLang());
             out.writeStartElement(LiftVocabulary.TEXT_LOCAL_NAME);
-            writeTextSpanChildren(text.getTextSpanRoot());
+            writeTextSpanChildren(text.readTextSpanRoot());
             out.writeEndElement(); //text
             text.getAnnotations().forEach(unchecked(this::writeAnnotation));
             out.writeEndElement(); //form
@@ -6,6 +6,8 @@ module fr.cnrs.lacito.liftapi {
     requires transitive javafx.base;
     exports fr.cnrs.lacito.liftapi.model;
     exports fr.cnrs.lacito.liftapi;
+    exports fr.cnrs.lacito.liftapi.snapshot;
+    exports fr.cnrs.lacito.liftapi.index;
     opens fr.cnrs.lacito.liftapi;
     opens fr.cnrs.lacito.liftapi.model;
 }
@@ -0,0 +1,74 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.and;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.gramInfoIn;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.hasField;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.hasRelation;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.modifiedBetween;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.not;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.or;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.textContains;
+import static fr.cnrs.lacito.liftapi.index.DictionaryQuery.trait;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.index.QueryPlanner;
+import fr.cnrs.lacito.liftapi.index.QueryResult;
+import fr.cnrs.lacito.liftapi.index.TextIndex;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+
+public class DictionaryQueryTest {
+
+    private static LiftEntry entry(LiftFactory factory, String id, String form, String gramInfo, String modified) {
+        LiftEntry e = Utils.entry(factory, id, form, null);
+        e.setDateModified(modified);
+        factory.createSense(new AttributesImpl(), e).setGrammaticalInfo(gramInfo);
+        return e;
+    }
+
+    @Test
+    public void testPlannedQueries() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry house = entry(factory, "house", "ŋɔ̃-la", "Noun", "2021-03-04T10:00:00Z");
+        LiftEntry stone = entry(factory, "stone", "kɔ", "Noun", "2023-01-10");
+        LiftEntry go = entry(factory, "go", "la", "Verb", "2023-06-01");
+        factory.createTrait("morph-type", "root", house);
+        factory.createTrait("morph-type", "root", go.getSenses().get(0));
+        factory.createField("literal-meaning", stone);
+        AttributesImpl rel = new AttributesImpl();
+        rel.addAttribute("", "type", "type", "CDATA", "synonym");
+        rel.addAttribute("", "ref", "ref", "CDATA", "stone");
+        factory.createRelation(rel, house.getSenses().get(0));
+
+        try (TextIndex textIndex = new TextIndex(factory)) {
+            QueryPlanner planner = new QueryPlanner(factory, textIndex);
+            assertEquals(Set.of(house, go), planner.execute(trait("morph-type", "root")).getEntries());
+            assertEquals(Set.of(house, stone), planner.execute(gramInfoIn("Noun", "Adj")).getEntries());
+            assertEquals(Set.of(stone), planner.execute(hasField("literal-meaning")).getEntries());
+            assertEquals(Set.of(house), planner.execute(hasRelation("synonym")).getEntries());
+            assertEquals(Set.of(house, go), planner.execute(textContains("tww", "LA")).getEntries());
+            assertEquals(Set.of(stone, go), planner.execute(modifiedBetween(LocalDate.of(2023, 1, 1), null)).getEntries());
+
+            QueryResult result = planner.execute(and(modifiedBetween(null, LocalDate.of(2023, 3, 1)), textContains("tww", "la"), not(hasField("literal-meaning"))));
+            assertEquals(List.of("house"), result.ids().toList());
+            assertTrue(result.explain(), result.explain().contains("[text index]"));
+            assertEquals(Set.of(stone, go), planner.execute(or(gramInfoIn("Verb"), hasField("literal-meaning"))).getEntries());
+            // Unions and index lookups come back in dictionary order
+            assertEquals(List.of("stone", "go"), planner.execute(or(gramInfoIn("Verb"), hasField("literal-meaning"))).ids().toList());
+            assertEquals(List.of("house", "go"), planner.execute(or(textContains("tww", "la"), trait("morph-type", "root"))).ids().toList());
+
+            // Components of removed entries stay in the factory lists
+            factory.removeEntry(go);
+            assertEquals(Set.of(house), planner.execute(trait("morph-type", "root")).getEntries());
+            assertEquals(Set.of(house), new QueryPlanner(factory).execute(and(textContains("tww", "la"), gramInfoIn("Noun"))).getEntries());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.DuplicateDetector;
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class DuplicateDetectorTest {
+
+    private static LiftEntry entry(LiftFactory factory, String id, String form, String gloss, String definition) {
+        LiftEntry e = Utils.entry(factory, id, form, gloss);
+        e.getSenses().get(0).getDefinition().add(new Form("fr", definition));
+        return e;
+    }
+
+    private static String word(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 8; i++) sb.append((char) ('a' + random.nextInt(26)));
+        return sb.toString();
+    }
+
+    @Test
+    public void testClusters() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry house = entry(factory, "house", "ŋɔ̃-la", "maison", "bâtiment servant d'habitation");
+        LiftEntry house2 = entry(factory, "house2", "ŋɔ̃la", "maison", "batiment servant d'habitation");
+        LiftEntry house3 = entry(factory, "house3", "ŋɔ̃-la", "maison", "bâtiment servant à l'habitation");
+        entry(factory, "stone", "kɔ", "pierre", "fragment de roche");
+        entry(factory, "river", "ba-tɔ", "rivière", "cours d'eau naturel");
+        entry(factory, "empty", "", "", "");
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) entry(factory, "e" + i, word(random), word(random), word(random) + " " + word(random));
+
+        TextFolding folding = new TextFolding();
+        folding.setStripDiacritics(null, true);
+        List<DuplicateDetector.Cluster> clusters = new DuplicateDetector(folding).findClusters(new SnapshotManager(factory).snapshot());
+        assertEquals(1, clusters.size());
+        DuplicateDetector.Cluster cluster = clusters.get(0);
+        assertEquals(List.of(house, house2, house3), cluster.entries());
+        assertTrue(cluster.similarity() >= 0.6 && cluster.similarity() < 1);
+        assertTrue(cluster.pairs().get(0).similarity() >= cluster.pairs().get(cluster.pairs().size() - 1).similarity());
+    }
+}
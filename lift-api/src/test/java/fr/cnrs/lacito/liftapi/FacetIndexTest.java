@@ -0,0 +1,44 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.FacetIndex;
+
+public class FacetIndexTest {
+
+    @Test
+    public void testFiltersAndCounts() {
+        // Rows: { part of speech, language }, with one frequent value to get a bitmap
+        String[][] rows = new String[100][];
+        for (int i = 0; i < rows.length; i++) rows[i] = new String[] { i < 90 ? "noun" : i < 98 ? "verb" : "", i % 2 == 0 ? "fr" : "en" };
+        FacetIndex<String[]> index = new FacetIndex<>(List.of(rows), new int[] { 0, 1 }, (row, c) -> row[c]);
+
+        BitSet all = index.select(row -> true);
+        assertEquals(Map.of("noun", 90, "verb", 8), index.counts(0, all));
+
+        Map<Integer, String> selected = Map.of(0, "verb", 1, "fr");
+        BitSet visible = index.filter(all, selected, -1);
+        assertEquals(4, visible.cardinality());
+        Set<String[]> visibleRows = index.rows(visible);
+        assertTrue(visibleRows.contains(rows[90]));
+        assertFalse(visibleRows.contains(rows[91]));
+        assertFalse(visibleRows.contains(new String[] { "verb", "fr" }));
+
+        // The values of a column are counted without its own selection
+        assertEquals(Map.of("noun", 45, "verb", 4), index.counts(0, index.filter(all, selected, 0)));
+        assertEquals(Map.of("fr", 4, "en", 4), index.counts(1, index.filter(all, selected, 1)));
+
+        BitSet withoutFirst = index.select(row -> row != rows[0]);
+        assertEquals(Map.of("fr", 44, "en", 45), index.counts(1, index.filter(withoutFirst, Map.of(0, "noun"), -1)));
+        assertTrue(index.filter(all, Map.of(0, "adj"), -1).isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.index.FindReplace;
+import fr.cnrs.lacito.liftapi.index.TextRole;
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class FindReplaceTest {
+
+    @Test
+    public void testPreviewApplyAndUndo() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        for (int i = 0; i < 2000; i++) entry(factory, "e" + i, "kaŋ" + i, "kaŋ");
+        LiftEntry removed = entry(factory, "removed", "kaŋ", "");
+        factory.removeEntry(removed);
+        SnapshotManager snapshots = new SnapshotManager(factory);
+        FindReplace findReplace = new FindReplace(factory);
+
+        FindReplace.ChangeSet changes = findReplace.prepare(snapshots.snapshot(), Pattern.compile("ŋ", Pattern.LITERAL), "ng",
+                Set.of(TextRole.HEADWORD), Set.of("tww"))
+            .getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(2000, changes.size());
+        assertEquals(20, changes.getPageCount(100));
+        FindReplace.Change first = changes.getPage(0, 100).get(0);
+        assertEquals("kaŋ0", first.oldText());
+        assertEquals("kang0", first.newText());
+
+        // A text edited since the snapshot is left unchanged
+        factory.getAllEntries().get(1).getForms().getForm("tww").get().changeText("kaŋ!");
+        List<List<ModelChange>> deliveries = new ArrayList<>();
+        factory.getChangeBus().addListener(batch -> deliveries.add(List.copyOf(batch)));
+        assertEquals(1999, changes.apply());
+        assertEquals(1, deliveries.size());
+        assertEquals(1999, deliveries.get(0).size());
+        assertEquals("kaŋ!", factory.getAllEntries().get(1).getForms().getForm("tww").get().toPlainText());
+        assertEquals("kang0", factory.getAllEntries().get(0).getForms().getForm("tww").get().toPlainText());
+        assertEquals("kaŋ", factory.getAllEntries().get(0).getSenses().get(0).getGloss().getForm("fr").get().toPlainText());
+        assertEquals("kaŋ", removed.getForms().getForm("tww").get().toPlainText());
+
+        changes.undo();
+        assertEquals(2, deliveries.size());
+        assertEquals("kaŋ0", factory.getAllEntries().get(0).getForms().getForm("tww").get().toPlainText());
+
+        // Groups in the replacement
+        FindReplace.ChangeSet swap = findReplace.prepare(snapshots.snapshot(), Pattern.compile("(ka)(ŋ)"), "$2$1", Set.of(TextRole.GLOSS), Set.of())
+            .getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(2000, swap.size());
+        assertEquals("ŋka", swap.getChanges().get(0).newText());
+    }
+
+    @Test
+    public void testRemovedTextsAreLeftUnchanged() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry kept = entry(factory, "kept", "kaŋ", "kaŋ");
+        LiftExample example = factory.createExample(new AttributesImpl(), kept.getSenses().get(0));
+        example.getExample().add(new Form("tww", "kaŋ kaŋ"));
+        LiftEntry removed = entry(factory, "removed", "kaŋ", "");
+        SnapshotManager snapshots = new SnapshotManager(factory);
+        FindReplace.ChangeSet changes = new FindReplace(factory).prepare(snapshots.snapshot(), Pattern.compile("ŋ", Pattern.LITERAL), "ng",
+                Set.of(), Set.of("tww"))
+            .getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(3, changes.size());
+
+        // Removed since the snapshot: neither rewritten nor counted
+        factory.removeExample(example);
+        factory.removeEntry(removed);
+        assertEquals(1, changes.apply());
+        assertEquals("kang", kept.getForms().getForm("tww").get().toPlainText());
+        assertEquals("kaŋ kaŋ", example.getExample().getForm("tww").get().toPlainText());
+        assertEquals("kaŋ", removed.getForms().getForm("tww").get().toPlainText());
+
+        // Nor put back or replaced again once removed
+        factory.removeEntry(kept);
+        changes.undo();
+        assertEquals("kang", kept.getForms().getForm("tww").get().toPlainText());
+        factory.restoreEntry(kept, 0);
+        changes.undo();
+        assertEquals("kaŋ", kept.getForms().getForm("tww").get().toPlainText());
+        factory.removeEntry(kept);
+        changes.redo();
+        assertEquals("kaŋ", kept.getForms().getForm("tww").get().toPlainText());
+    }
+}
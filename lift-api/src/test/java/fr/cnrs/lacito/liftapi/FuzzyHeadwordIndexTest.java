@@ -0,0 +1,41 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.FuzzyHeadwordIndex;
+import fr.cnrs.lacito.liftapi.index.FuzzyHeadwordIndex.Match;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+
+public class FuzzyHeadwordIndexTest {
+
+    @Test
+    public void testNearestHeadwords() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry maison = entry(factory, null, "maison", null);
+        LiftEntry raison = entry(factory, null, "raison", null);
+        entry(factory, null, "poisson", null);
+
+        try (FuzzyHeadwordIndex index = new FuzzyHeadwordIndex(factory)) {
+            List<Match> matches = index.find("Maisonn", 2, 10);
+            assertEquals(List.of(maison, raison), matches.stream().map(Match::entry).toList());
+            assertEquals(1, matches.get(0).distance());
+            assertEquals("maison", matches.get(0).headword());
+            assertEquals(1, index.find("Maisonn", 2, 1).size());
+            assertTrue(index.find("maison", "fr", 2, 10).isEmpty());
+
+            maison.getForms().getForm("tww").get().changeText("mezon");
+            assertEquals(List.of(raison), index.find("maisonn", 2, 10).stream().map(Match::entry).toList());
+            LiftEntry added = entry(factory, null, "maisons", null);
+            assertEquals(List.of(added), index.find("maisonn", 1, 10).stream().map(Match::entry).toList());
+            factory.removeEntry(added);
+            assertTrue(index.find("maisonss", 1, 10).isEmpty());
+        }
+    }
+}
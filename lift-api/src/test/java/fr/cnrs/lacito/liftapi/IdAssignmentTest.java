@@ -0,0 +1,66 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+
+public class IdAssignmentTest {
+
+    @Test
+    public void testAssignMissingIds() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry first = factory.createEntry(new AttributesImpl());
+        first.getForms().add(new Form("fr", "pomme de terre"));
+        LiftEntry second = factory.createEntry(new AttributesImpl());
+        second.getForms().add(new Form("fr", "pomme de terre"));
+        LiftSense sense = factory.createSense(new AttributesImpl(), first);
+        AttributesImpl rel = new AttributesImpl();
+        rel.addAttribute("", "type", "type", "CDATA", "synonym");
+        rel.addAttribute("", "refid", "refid", "CDATA", "unknown");
+        factory.createRelation(rel, first);
+
+        List<String> unresolved = factory.assignMissingIds();
+
+        assertEquals(List.of("unknown"), unresolved);
+        String id = first.getId().get();
+        assertTrue(id, id.startsWith("pomme_de_terre_"));
+        assertNotEquals(id, second.getId().get());
+        assertTrue(first.getGuid().isPresent());
+        assertTrue(sense.getId().isPresent());
+        assertEquals(first, factory.getEntryById().get(id));
+        assertEquals(sense, factory.getSenseById().get(sense.getId().get()));
+        assertTrue(factory.getEntryWithoutId().isEmpty());
+    }
+
+    @Test
+    public void testSlugLanguageIsDeterministic() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry entry = factory.createEntry(new AttributesImpl());
+        entry.getForms().add(new Form("zh", "  "));
+        entry.getForms().add(new Form("fr", "chat"));
+        entry.getForms().add(new Form("en", "cat"));
+
+        factory.assignMissingIds();
+
+        String id = entry.getId().get();
+        assertTrue(id, id.startsWith("cat_"));
+        assertTrue(id, id.endsWith(entry.getGuid().get().substring(0, 8)));
+    }
+
+    @Test
+    public void testNewEntryIdUsesTheGivenGuid() {
+        LiftFactory factory = new LiftFactory();
+        String guid = LiftFactory.newGuid();
+        assertEquals("chat_" + guid.substring(0, 8), factory.newEntryId("chat", guid));
+    }
+}
@@ -0,0 +1,150 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.IndexSidecar;
+import fr.cnrs.lacito.liftapi.index.TextIndex;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class IndexSidecarTest {
+
+    private static final List<String> QUERIES = List.of("pierre", "mai", "ŋɔ", "kɔ", "eau de", "riv");
+
+    private static LiftFactory factory(LiftDictionary dictionary) {
+        return (LiftFactory) dictionary.getLiftDictionaryComponents();
+    }
+
+    /** Results of the queries as ids, to compare indexes of different loads of a file. */
+    private static List<Object> results(TextIndex index) {
+        return QUERIES.stream().map(q -> List.of(index.searchIds(q),
+            index.findSubstring(q).stream().map(e -> e.getId().orElse("")).collect(Collectors.toSet()))).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testReadBackAndValidation() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        entry(factory, "house", "ŋɔ̃", "maison de pierre");
+        entry(factory, "stone", "kɔ", "pierre");
+        entry(factory, "water", "ŋɔ-ma", "eau de rivière");
+        Path dir = Files.createTempDirectory("sidecar");
+        File file = dir.resolve("dict.lift").toFile();
+        LiftDictionary dictionary = new LiftDictionary(factory);
+        dictionary.setLiftVersion("0.13");
+        dictionary.setLiftProducer("test");
+        dictionary.save(file);
+        TextFolding folding = new TextFolding();
+
+        LiftDictionary loaded = LiftDictionary.loadDictionaryWithFile(file);
+        try (TextIndex built = new TextIndex(factory(loaded), folding)) {
+            assertFalse(IndexSidecar.read(file.toPath(), factory(loaded), folding).isPresent());
+            IndexSidecar.write(file.toPath(), built);
+            LiftDictionary reloaded = LiftDictionary.loadDictionaryWithFile(file);
+            try (TextIndex read = IndexSidecar.read(file.toPath(), factory(reloaded), folding).orElseThrow()) {
+                assertEquals(results(built), results(read));
+                assertEquals(built.getTermCount(), read.getTermCount());
+                // The read index follows later edits
+                factory(reloaded).getAllEntries().get(1).getForms().getForm("tww").orElseThrow().changeText("riviɛ");
+                assertEquals(List.of("stone", "water"), read.searchIds("riv"));
+            }
+        }
+
+        // Edits, then save: the sidecar written from the edited index matches a fresh index of the saved file
+        LiftFactory edited = factory(loaded);
+        try (TextIndex index = new TextIndex(edited, folding)) {
+            edited.removeEntry(edited.getAllEntries().get(0));
+            entry(edited, "river", "ko-ŋɔ", "rivière");
+            loaded.save();
+            IndexSidecar.write(file.toPath(), index);
+        }
+        LiftDictionary saved = LiftDictionary.loadDictionaryWithFile(file);
+        try (TextIndex fresh = new TextIndex(factory(saved), folding);
+             TextIndex read = IndexSidecar.read(file.toPath(), factory(saved), folding).orElseThrow()) {
+            assertEquals(results(fresh), results(read));
+            assertEquals(Set.of("water", "river"), Set.copyOf(read.searchIds("riv")));
+        }
+
+        TextFolding stripping = new TextFolding();
+        stripping.setStripDiacritics(null, true);
+        assertFalse(IndexSidecar.read(file.toPath(), factory(saved), stripping).isPresent());
+        Files.writeString(file.toPath(), " ", StandardOpenOption.APPEND);
+        assertFalse(IndexSidecar.read(file.toPath(), factory(saved), folding).isPresent());
+        assertTrue(Files.exists(IndexSidecar.sidecarOf(file.toPath())));
+    }
+
+    @Test
+    public void testSnapshotWriteAndRead() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        entry(factory, "house", "ŋɔ̃", "maison de pierre");
+        entry(factory, "water", "ŋɔ-ma", "eau de rivière");
+        Path dir = Files.createTempDirectory("sidecar");
+        File file = dir.resolve("dict.lift").toFile();
+        LiftDictionary dictionary = new LiftDictionary(factory);
+        dictionary.setLiftVersion("0.13");
+        dictionary.setLiftProducer("test");
+        dictionary.save(file);
+        TextFolding folding = new TextFolding();
+
+        LiftFactory loaded = factory(LiftDictionary.loadDictionaryWithFile(file));
+        DictionarySnapshot snapshot = new SnapshotManager(loaded).snapshot();
+        try (TextIndex built = new TextIndex(loaded, snapshot, folding)) {
+            // A cancelled write leaves no sidecar
+            IndexSidecar.write(file.toPath(), built, snapshot, () -> true);
+            assertFalse(Files.exists(IndexSidecar.sidecarOf(file.toPath())));
+            IndexSidecar.write(file.toPath(), built, snapshot, () -> false);
+            LiftFactory reloaded = factory(LiftDictionary.loadDictionaryWithFile(file));
+            DictionarySnapshot again = new SnapshotManager(reloaded).snapshot();
+            try (TextIndex read = IndexSidecar.read(file.toPath(), reloaded, again, folding).orElseThrow()) {
+                read.replay(List.of());
+                assertEquals(results(built), results(read));
+            }
+        }
+    }
+
+    @Test
+    public void testEncodedLiveIndex() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        entry(factory, "house", "ŋɔ̃", "maison de pierre");
+        entry(factory, "water", "ŋɔ-ma", "eau de rivière");
+        Path dir = Files.createTempDirectory("sidecar");
+        File file = dir.resolve("dict.lift").toFile();
+        LiftDictionary dictionary = new LiftDictionary(factory);
+        dictionary.setLiftVersion("0.13");
+        dictionary.setLiftProducer("test");
+        TextFolding folding = new TextFolding();
+
+        try (TextIndex live = new TextIndex(factory, folding)) {
+            factory.removeEntry(factory.getAllEntries().get(0));
+            entry(factory, "river", "ko-ŋɔ", "rivière");
+            dictionary.save(file);
+            byte[] encoded = IndexSidecar.encode(live);
+            // Edits after the encoding do not reach the sidecar
+            entry(factory, "stone", "kɔ", "pierre");
+            IndexSidecar.write(file.toPath(), encoded, () -> true);
+            assertFalse(Files.exists(IndexSidecar.sidecarOf(file.toPath())));
+            IndexSidecar.write(file.toPath(), encoded, () -> false);
+        }
+        LiftDictionary saved = LiftDictionary.loadDictionaryWithFile(file);
+        try (TextIndex fresh = new TextIndex(factory(saved), folding);
+             TextIndex read = IndexSidecar.read(file.toPath(), factory(saved), folding).orElseThrow()) {
+            assertEquals(results(fresh), results(read));
+            assertEquals(Set.of("water", "river"), Set.copyOf(read.searchIds("riv")));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftHeader;
+import fr.cnrs.lacito.liftapi.model.LiftNote;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+
+public class ModelChangeBusTest {
+
+    private static LiftFactory loadFactory() {
+        LiftDictionary lf = Utils.loadDictionaryForTest("lift/tiny.xml");
+        return (LiftFactory) lf.getLiftDictionaryComponents();
+    }
+
+    @Test
+    public void testFormTextChanged() {
+        LiftFactory factory = loadFactory();
+        List<ModelChange> received = new ArrayList<>();
+        factory.getChangeBus().addListener(received::addAll);
+
+        LiftEntry entry = factory.getAllEntries().get(0);
+        Form form = entry.getForms().getForms().iterator().next();
+        String old = form.toPlainText();
+        form.changeText("nouveau");
+
+        assertEquals(1, received.size());
+        ModelChange.FormTextChanged c = (ModelChange.FormTextChanged) received.get(0);
+        assertSame(entry, c.owner());
+        assertEquals(form.getLang(), c.lang());
+        assertEquals(old, c.oldText());
+        assertEquals("nouveau", c.newText());
+    }
+
+    @Test
+    public void testBatchDeliveredOnce() {
+        LiftFactory factory = loadFactory();
+        List<List<ModelChange>> deliveries = new ArrayList<>();
+        factory.getChangeBus().addListener(changes -> deliveries.add(List.copyOf(changes)));
+
+        LiftEntry entry = factory.getAllEntries().get(0);
+        factory.getChangeBus().runInBatch(() -> {
+            factory.createTrait("morph-type", "stem", entry);
+            entry.getForms().getForms().iterator().next().changeText("x");
+        });
+
+        assertEquals(1, deliveries.size());
+        assertEquals(2, deliveries.get(0).size());
+        assertTrue(deliveries.get(0).get(0) instanceof ModelChange.TraitAdded);
+    }
+
+    @Test
+    public void testRemoveAndRestoreSense() {
+        LiftFactory factory = loadFactory();
+        LiftEntry entry = factory.getAllEntries().stream().filter(e -> !e.getSenses().isEmpty()).findFirst().get();
+        LiftSense sense = entry.getSenses().get(0);
+        List<ModelChange> received = new ArrayList<>();
+        factory.getChangeBus().addListener(received::addAll);
+
+        int index = factory.removeSense(sense);
+        assertEquals(0, index);
+        assertTrue(!entry.getSenses().contains(sense));
+        factory.restoreSense(sense, index);
+        assertSame(sense, entry.getSenses().get(0));
+
+        assertEquals(2, received.size());
+        assertTrue(received.get(0) instanceof ModelChange.SenseRemoved);
+        assertTrue(received.get(1) instanceof ModelChange.SenseAdded);
+    }
+
+    @Test
+    public void testRemoveSenseUnregistersSubsenses() {
+        LiftFactory factory = loadFactory();
+        LiftSense sense = factory.getAllSenses().get(0);
+        AttributesImpl attrs = new AttributesImpl();
+        attrs.addAttribute("", "id", "id", "CDATA", "subsense-test");
+        LiftSense sub = factory.createSense(attrs, sense);
+        sub.getGloss().add(new Form("zz", "glose"));
+        assertEquals(1, factory.getMetaLanguages().getFormCount("zz"));
+
+        int index = factory.removeSense(sense);
+        assertFalse(factory.getAllSenses().contains(sub));
+        assertFalse(factory.getSenseById().containsKey("subsense-test"));
+        assertFalse(factory.getAllMetaLanguagesMultiText().contains(sub.getGloss()));
+        assertEquals(0, factory.getMetaLanguages().getFormCount("zz"));
+
+        factory.restoreSense(sense, index);
+        assertSame(sub, factory.getSenseById().get("subsense-test"));
+        assertEquals(1, factory.getMetaLanguages().getFormCount("zz"));
+    }
+
+    @Test
+    public void testRemoveEntryUnregistersWholeSubtree() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry entry = Utils.entry(factory, "subtree-test");
+        LiftVariant variant = factory.createVariant(new AttributesImpl(), entry);
+        variant.getForms().add(new Form("v1", "variante"));
+        factory.createPronunciation(variant).getProunciation().add(new Form("v2", "prononciation"));
+        LiftSense sense = factory.createSense(new AttributesImpl(), entry);
+        LiftExample example = factory.createExample(new AttributesImpl(), sense);
+        factory.createTranslation("free", example).add(new Form("m1", "traduction"));
+        factory.createNote("general", example).getText().add(new Form("m2", "note"));
+        factory.createField("literal-meaning", entry).getText().add(new Form("m3", "champ"));
+        factory.createAnnotation("checked", sense).getText().add(new Form("m4", "annotation"));
+        factory.createTrait("morph-type", "stem", entry);
+        AttributesImpl relationAttrs = new AttributesImpl();
+        relationAttrs.addAttribute("", "type", "type", "CDATA", "synonym");
+        factory.createRelation(relationAttrs, variant).getUsage().add(new Form("m5", "usage"));
+        List<String> langs = List.of("m1", "m2", "m3", "m4", "m5");
+        for (String l : langs) assertEquals(l, 1, factory.getMetaLanguages().getFormCount(l));
+
+        int index = factory.removeEntry(entry);
+        for (String l : langs) assertEquals(l, 0, factory.getMetaLanguages().getFormCount(l));
+        assertEquals(0, factory.getObjectLanguages().getFormCount("v1"));
+        assertEquals(0, factory.getObjectLanguages().getFormCount("v2"));
+        assertTrue(factory.getAllVariants().isEmpty());
+        assertTrue(factory.getAllPronunciations().isEmpty());
+        assertTrue(factory.getAllExamples().isEmpty());
+        assertTrue(factory.getAllNotes().isEmpty());
+        assertTrue(factory.getAllFields().isEmpty());
+        assertTrue(factory.getAllAnnotations().isEmpty());
+        assertTrue(factory.getAllTraits().isEmpty());
+        assertTrue(factory.getAllRelations().isEmpty());
+        assertTrue(factory.getAllMetaLanguagesMultiText().isEmpty());
+        assertTrue(factory.getAllObjectLanguagesMultiText().isEmpty());
+
+        factory.restoreEntry(entry, index);
+        for (String l : langs) assertEquals(l, 1, factory.getMetaLanguages().getFormCount(l));
+        assertEquals(1, factory.getObjectLanguages().getFormCount("v1"));
+        assertEquals(1, factory.getAllExamples().size());
+        assertEquals(1, factory.getAllNotes().size());
+        assertEquals(1, factory.getAllTraits().size());
+        assertEquals(1, factory.getAllRelations().size());
+        assertEquals(1, factory.getAllAnnotations().size());
+    }
+
+    @Test
+    public void testVariantAddedAndRemoved() {
+        LiftFactory factory = loadFactory();
+        LiftEntry entry = factory.getAllEntries().get(0);
+        List<ModelChange> received = new ArrayList<>();
+        factory.getChangeBus().addListener(received::addAll);
+
+        LiftVariant variant = factory.createVariant(new AttributesImpl(), entry);
+        factory.createPronunciation(variant);
+        assertTrue(factory.removeVariant(variant));
+        assertFalse(entry.getVariants().contains(variant));
+        assertFalse(factory.getAllVariants().contains(variant));
+
+        assertEquals(3, received.size());
+        assertSame(variant, ((ModelChange.VariantAdded) received.get(0)).variant());
+        assertSame(variant, ((ModelChange.PronunciationAdded) received.get(1)).parent());
+        assertSame(entry, ((ModelChange.VariantRemoved) received.get(2)).parent());
+    }
+
+    @Test
+    public void testExampleNoteAndRelationAddedAndRemoved() {
+        LiftFactory factory = loadFactory();
+        LiftSense sense = factory.getAllSenses().get(0);
+        List<ModelChange> received = new ArrayList<>();
+        factory.getChangeBus().addListener(received::addAll);
+
+        LiftExample example = factory.createExample(new AttributesImpl(), sense);
+        LiftNote note = factory.createNote("test-note", example);
+        AttributesImpl attrs = new AttributesImpl();
+        attrs.addAttribute("", "type", "type", "CDATA", "synonym");
+        LiftRelation relation = factory.createRelation(attrs, sense);
+        assertTrue(factory.removeRelation(relation));
+        assertTrue(factory.removeNote(note));
+        int index = factory.removeExample(example);
+        assertFalse(sense.getExamples().contains(example));
+        assertFalse(factory.getAllExamples().contains(example));
+        factory.restoreExample(example, index);
+        assertSame(example, sense.getExamples().get(index));
+
+        assertEquals(7, received.size());
+        assertSame(sense, ((ModelChange.ExampleAdded) received.get(0)).parent());
+        assertSame(example, ((ModelChange.NoteAdded) received.get(1)).parent());
+        assertSame(relation, ((ModelChange.RelationAdded) received.get(2)).relation());
+        assertSame(sense, ((ModelChange.RelationRemoved) received.get(3)).parent());
+        assertSame(note, ((ModelChange.NoteRemoved) received.get(4)).note());
+        assertSame(example, ((ModelChange.ExampleRemoved) received.get(5)).example());
+        assertTrue(received.get(6) instanceof ModelChange.ExampleAdded);
+        assertFalse(sense.getRelations().contains(relation));
+        assertFalse(example.getNotes().containsValue(note));
+    }
+
+    @Test
+    public void testHeaderAndGramInfoChanged() {
+        LiftFactory factory = loadFactory();
+        LiftHeader header = factory.getHeader() != null ? factory.getHeader() : factory.createHeader();
+        LiftSense sense = factory.getAllSenses().get(0);
+        String old = sense.getGrammaticalInfo().map(g -> g.getValue()).orElse(null);
+        List<ModelChange> received = new ArrayList<>();
+        factory.getChangeBus().addListener(received::addAll);
+
+        factory.createRangeElement("Noun", factory.createRange("grammatical-info", header));
+        sense.setGrammaticalInfo("Noun");
+        sense.setGrammaticalInfo("Noun");
+
+        assertEquals(3, received.size());
+        assertSame(header, ((ModelChange.HeaderChanged) received.get(0)).header());
+        assertTrue(received.get(1) instanceof ModelChange.HeaderChanged);
+        ModelChange.GramInfoChanged g = (ModelChange.GramInfoChanged) received.get(2);
+        assertSame(sense, g.sense());
+        assertEquals(old, g.oldValue().orElse(null));
+        assertEquals("Noun", g.newValue());
+    }
+}
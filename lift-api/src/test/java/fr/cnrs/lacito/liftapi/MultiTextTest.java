@@ -1,15 +1,26 @@
 package fr.cnrs.lacito.liftapi;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.Optional;
 
 import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
 
 import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LangManager;
 import fr.cnrs.lacito.liftapi.model.LiftAnnotation;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.MultiText;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 
 public class MultiTextTest {
     
@@ -64,4 +75,61 @@ public class MultiTextTest {
         assertEquals("lexical-unit note", a.getText().getForm("en").map(Form::toPlainText).orElse(""));
     }
 
+    @Test
+    public void testFormTextPropertySync() {
+        LiftDictionary lf = Utils.loadDictionaryForTest("lift/tinyTextSpan.xml");
+        MultiText forms = lf.getLiftDictionaryComponents().getAllEntries().get(0).getForms();
+        StringProperty p = forms.formTextProperty("tww");
+        assertSame(p, forms.formTextProperty("tww"));
+        assertEquals("nala", p.get());
+
+        StringProperty control = new SimpleStringProperty();
+        control.bindBidirectional(p);
+        forms.getForm("tww").get().changeText("nalo");
+        assertEquals("nalo", control.get());
+        control.set("nali");
+        assertEquals("nali", forms.getForm("tww").map(Form::toPlainText).orElse(""));
+        control.set("");
+        assertFalse(forms.getForm("tww").isPresent());
+        control.set("nala");
+        assertEquals("nala", forms.getForm("tww").map(Form::toPlainText).orElse(""));
+    }
+
+    @Test
+    public void testFormTextPropertyNotRetainedByModel() throws InterruptedException {
+        LiftDictionary lf = Utils.loadDictionaryForTest("lift/tinyTextSpan.xml");
+        MultiText forms = lf.getLiftDictionaryComponents().getAllEntries().get(0).getForms();
+        WeakReference<StringProperty> ref = new WeakReference<>(forms.formTextProperty("tww"));
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        // A new property still follows the model
+        forms.getForm("tww").get().changeText("nalo");
+        assertEquals("nalo", forms.formTextProperty("tww").get());
+    }
+
+    @Test
+    public void testLanguageRegistry() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry first = factory.createEntry(new AttributesImpl());
+        first.getForms().add(new Form("tww", "nala"));
+        LiftEntry second = factory.createEntry(new AttributesImpl());
+        second.getForms().add(new Form("tww", "kemia"));
+        second.getForms().add(new Form("tpi", "kemia"));
+        LangManager<?> langs = factory.getObjectLanguages();
+        assertEquals(List.of("tpi", "tww"), langs.getLanguages());
+        assertEquals(2, langs.getFormCount("tww"));
+
+        second.getForms().removeForm("tpi");
+        assertEquals(List.of("tww"), langs.getLanguages());
+        assertEquals(0, langs.getFormCount("tpi"));
+        int index = factory.removeEntry(second);
+        assertEquals(1, langs.getFormCount("tww"));
+        factory.restoreEntry(second, index);
+        assertEquals(2, langs.getFormCount("tww"));
+        assertTrue(factory.getMetaLanguages().getLanguages().isEmpty());
+    }
+
 }
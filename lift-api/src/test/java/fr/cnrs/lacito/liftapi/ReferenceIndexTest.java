@@ -0,0 +1,112 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.index.ReferenceIndex;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftVariant;
+
+public class ReferenceIndexTest {
+
+    private static LiftRelation relation(LiftFactory factory, LiftEntry from, String refId) {
+        AttributesImpl attrs = new AttributesImpl();
+        attrs.addAttribute("", "type", "type", "CDATA", "synonym");
+        attrs.addAttribute("", "refid", "refid", "CDATA", refId);
+        return factory.createRelation(attrs, from);
+    }
+
+    @Test
+    public void testIncrementalMaintenance() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry a = entry(factory, "a");
+        LiftEntry b = entry(factory, "b");
+        LiftRelation ab = relation(factory, a, "b");
+
+        try (ReferenceIndex index = new ReferenceIndex(factory)) {
+            assertEquals(List.of(ab), index.getRelationsTo("b"));
+            assertEquals(List.of(ab), index.getIncomingRelations(b));
+
+            LiftEntry c = entry(factory, "c");
+            LiftRelation cb = relation(factory, c, "b");
+            assertEquals(2, index.countReferencesTo("b"));
+
+            cb.setRefId("a");
+            assertEquals(List.of(ab), index.getRelationsTo("b"));
+            assertEquals(List.of(cb), index.getRelationsTo("a"));
+
+            // Deleting b leaves a dangling reference; deleting c removes its outgoing relation
+            int bIndex = factory.removeEntry(b);
+            assertTrue(index.isDangling("b"));
+            assertEquals(Set.of("b"), index.getDanglingTargets());
+            factory.removeEntry(c);
+            assertTrue(index.getRelationsTo("a").isEmpty());
+
+            factory.restoreEntry(b, bIndex);
+            assertFalse(index.isDangling("b"));
+
+            factory.changeId(b, "b2");
+            assertEquals(List.of(ab), index.getDanglingRelations());
+        }
+    }
+
+    @Test
+    public void testRemovedRelations() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry a = entry(factory, "a");
+        LiftEntry b = entry(factory, "b");
+        LiftRelation ab = relation(factory, a, "b");
+        LiftRelation ba = relation(factory, b, "a");
+
+        try (ReferenceIndex index = new ReferenceIndex(factory)) {
+            assertTrue(factory.removeRelation(ab));
+            assertTrue(index.getRelationsTo("b").isEmpty());
+            assertFalse(factory.getAllRelations().contains(ab));
+
+            // The relations of a deleted entry leave the index and the factory, and come back on undo
+            int bIndex = factory.removeEntry(b);
+            assertTrue(index.getRelationsTo("a").isEmpty());
+            assertFalse(factory.getAllRelations().contains(ba));
+            factory.restoreEntry(b, bIndex);
+            assertEquals(List.of(ba), index.getRelationsTo("a"));
+            assertEquals(List.of(ba), factory.getAllRelations());
+        }
+    }
+
+    @Test
+    public void testVariantsAndIds() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry a = entry(factory, "a");
+        entry(factory, "b");
+
+        try (ReferenceIndex index = new ReferenceIndex(factory)) {
+            AttributesImpl attrs = new AttributesImpl();
+            attrs.addAttribute("", "refid", "refid", "CDATA", "b");
+            LiftVariant v = factory.createVariant(attrs, a);
+            assertEquals(List.of(v), index.getVariantsTo("b"));
+
+            v.setRefId("a");
+            assertTrue(index.getVariantsTo("b").isEmpty());
+            assertEquals(List.of(v), index.getVariantsTo("a"));
+
+            factory.changeId(a, "a2");
+            assertTrue(index.isDangling("a"));
+            factory.removeVariant(v);
+            assertEquals(0, index.countReferencesTo("a"));
+        }
+
+        LiftEntry anonymous = factory.createEntry(new AttributesImpl());
+        factory.restoreEntry(anonymous, factory.removeEntry(anonymous));
+        assertEquals(List.of(anonymous), factory.getEntryWithoutId());
+    }
+}
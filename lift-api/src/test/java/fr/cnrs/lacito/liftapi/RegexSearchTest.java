@@ -0,0 +1,58 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.RegexSearch;
+import fr.cnrs.lacito.liftapi.index.TextRole;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class RegexSearchTest {
+
+    @Test
+    public void testMatchesAndCancellation() throws Exception {
+        LiftFactory factory = new LiftFactory();
+        for (int i = 0; i < 1000; i++) entry(factory, "e" + i, i % 10 == 0 ? "ka" + i + "ŋ́" : "ka" + i, "glose ŋ́");
+        RegexSearch search = new RegexSearch();
+        SnapshotManager snapshots = new SnapshotManager(factory);
+
+        // Headwords ending in a nasal followed by a tone mark
+        List<RegexSearch.Match> matches = Collections.synchronizedList(new ArrayList<>());
+        RegexSearch.Query query = search.search(snapshots.snapshot(), "[nmŋ][̀́̄]$", Set.of(TextRole.HEADWORD), Set.of("tww"), matches::addAll);
+        assertEquals(100, (int) query.getCompletion().get(10, TimeUnit.SECONDS));
+        assertEquals(100, matches.stream().map(RegexSearch.Match::entry).collect(Collectors.toSet()).size());
+        RegexSearch.Match m = matches.get(0);
+        assertEquals("tww", m.lang());
+        assertEquals(m.entry().getForms().getForm("tww").get().toPlainText(), m.text());
+        assertEquals(m.text().length() - 2, m.start());
+        assertEquals(m.text().length(), m.end());
+
+        List<RegexSearch.Match> all = Collections.synchronizedList(new ArrayList<>());
+        assertEquals(1100, (int) search.search(snapshots.snapshot(), "ŋ́", Set.of(), Set.of(), all::addAll).getCompletion().get(10, TimeUnit.SECONDS));
+
+        // A pattern backtracking exponentially stops when cancelled
+        entry(factory, "slow", "a".repeat(40) + "c", "");
+        RegexSearch.Query slow = search.search(snapshots.snapshot(), "^(.*a){12}$", Set.of(), Set.of(), b -> { });
+        Thread.sleep(100);
+        slow.cancel();
+        try {
+            slow.getCompletion().get(5, TimeUnit.SECONDS);
+        } catch (CancellationException e) {
+            // Expected
+        }
+        assertTrue(slow.getCompletion().isCancelled());
+    }
+}
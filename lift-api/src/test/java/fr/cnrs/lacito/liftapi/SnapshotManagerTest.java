@@ -0,0 +1,130 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftAnnotation;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftEtymology;
+import fr.cnrs.lacito.liftapi.model.LiftExample;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftPronunciation;
+import fr.cnrs.lacito.liftapi.model.LiftRelation;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class SnapshotManagerTest {
+
+    private static AttributesImpl attributes(String... namesAndValues) {
+        AttributesImpl attrs = new AttributesImpl();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            attrs.addAttribute("", namesAndValues[i], namesAndValues[i], "CDATA", namesAndValues[i + 1]);
+        }
+        return attrs;
+    }
+
+    @Test
+    public void testUnchangedEntriesAreShared() {
+        LiftDictionary lf = Utils.loadDictionaryForTest("lift/tiny.xml");
+        LiftFactory factory = (LiftFactory) lf.getLiftDictionaryComponents();
+        try (SnapshotManager manager = new SnapshotManager(factory)) {
+            DictionarySnapshot first = manager.snapshot();
+            assertEquals(factory.getAllEntries().size(), first.size());
+            assertSame(first, manager.snapshot());
+
+            LiftEntry edited = factory.getAllEntries().get(0);
+            Form form = edited.getForms().getForms().iterator().next();
+            form.changeText("modifié");
+            DictionarySnapshot second = manager.snapshot();
+
+            assertTrue(second.getVersion() > first.getVersion());
+            assertEquals("modifié", second.getEntries().get(0).forms().get(form.getLang()));
+            assertNotSame(first.getEntries().get(0), second.getEntries().get(0));
+            for (int i = 1; i < first.size(); i++) {
+                assertSame(first.getEntries().get(i), second.getEntries().get(i));
+            }
+            // The first snapshot is frozen
+            assertTrue(!"modifié".equals(first.getEntries().get(0).forms().get(form.getLang())));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsComplete() {
+        LiftFactory factory = new LiftFactory();
+        try (SnapshotManager manager = new SnapshotManager(factory)) {
+            LiftEntry entry = factory.createEntry(attributes("id", "house", "dateCreated", "2020-01-02", "dateModified", "2021-03-04"));
+            entry.getForms().add(new Form("tww", "ŋɔ̃"));
+            LiftPronunciation pronunciation = factory.createPronunciation(entry);
+            pronunciation.getProunciation().add(new Form("tww-fonipa", "ŋɔ̃"));
+            factory.createMedia(attributes("href", "house.wav"), pronunciation);
+            LiftEtymology etymology = factory.createEtymology(attributes("type", "borrowed", "source", "ewe"), entry);
+            etymology.addForm(new Form("ee", "aƒe"));
+            factory.createField("literal-meaning", entry).getText().add(new Form("fr", "maison"));
+            LiftAnnotation annotation = factory.createAnnotation(attributes("name", "checked", "value", "yes", "who", "me"), entry);
+            annotation.getText().add(new Form("fr", "vérifié"));
+            LiftSense sense = factory.createSense(attributes("id", "house_1"), entry);
+            LiftExample example = factory.createExample(attributes("source", "corpus 12"), sense);
+            example.getExample().add(new Form("tww", "ŋɔ̃ lá"));
+
+            DictionarySnapshot.Entry frozen = manager.snapshot().getEntry("house").orElseThrow();
+            assertSame(entry, frozen.handle());
+            assertSame(entry.getForms(), frozen.forms().handle());
+            assertEquals(Optional.of("2020-01-02"), frozen.extensible().dateCreated());
+            assertEquals(Optional.of("2021-03-04"), frozen.extensible().dateModified());
+            DictionarySnapshot.Pronunciation p = frozen.pronunciations().get(0);
+            assertEquals("ŋɔ̃", p.forms().get("tww-fonipa"));
+            assertEquals("house.wav", p.media().get(0).href());
+            DictionarySnapshot.Etymology et = frozen.etymologies().get(0);
+            assertEquals("borrowed", et.type());
+            assertEquals("ewe", et.source());
+            assertEquals("aƒe", et.forms().get("ee"));
+            DictionarySnapshot.Field field = frozen.extensible().fields().get(0);
+            assertEquals("literal-meaning", field.name());
+            assertEquals("maison", field.text().get("fr"));
+            DictionarySnapshot.Annotation a = frozen.extensible().annotations().get(0);
+            assertEquals("checked", a.name());
+            assertEquals(Optional.of("yes"), a.value());
+            assertEquals(Optional.of("me"), a.who());
+            assertEquals("vérifié", a.text().get("fr"));
+            DictionarySnapshot.Example ex = frozen.senses().get(0).examples().get(0);
+            assertEquals(Optional.of("corpus 12"), ex.source());
+            assertEquals("ŋɔ̃ lá", ex.example().get("tww"));
+        }
+    }
+
+    @Test
+    public void testAttributeEditsRefreezeTheEntry() {
+        LiftFactory factory = new LiftFactory();
+        try (SnapshotManager manager = new SnapshotManager(factory)) {
+            LiftEntry entry = factory.createEntry(attributes("id", "house"));
+            LiftSense sense = factory.createSense(attributes("id", "house_1"), entry);
+            LiftExample example = factory.createExample(attributes("source", "corpus 12"), sense);
+            LiftRelation relation = factory.createRelation(attributes("type", "synonym", "refid", "home"), sense);
+            LiftAnnotation annotation = factory.createAnnotation("checked", entry);
+            manager.snapshot();
+
+            example.setSource("corpus 13");
+            relation.setType("antonym");
+            relation.setOrder(2);
+            annotation.valueProperty().set("yes");
+            factory.createReversal(attributes("type", "fr"), sense).getForms().add(new Form("fr", "maison"));
+
+            DictionarySnapshot.Entry frozen = manager.snapshot().getEntry("house").orElseThrow();
+            DictionarySnapshot.Sense s = frozen.senses().get(0);
+            assertEquals(Optional.of("corpus 13"), s.examples().get(0).source());
+            assertEquals("antonym", s.relations().get(0).type());
+            assertEquals(Optional.of(2), s.relations().get(0).order());
+            assertEquals(Optional.of("yes"), frozen.extensible().annotations().get(0).value());
+            assertEquals("maison", s.reversals().get(0).forms().get("fr"));
+        }
+    }
+}
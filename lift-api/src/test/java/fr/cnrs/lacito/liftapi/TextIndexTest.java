@@ -0,0 +1,89 @@
+package fr.cnrs.lacito.liftapi;
+
+import static fr.cnrs.lacito.liftapi.Utils.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.TextIndex;
+import fr.cnrs.lacito.liftapi.index.TextRole;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.TextFolding;
+import fr.cnrs.lacito.liftapi.snapshot.DictionarySnapshot;
+import fr.cnrs.lacito.liftapi.snapshot.SnapshotManager;
+
+public class TextIndexTest {
+
+    @Test
+    public void testQueriesAndIncrementalUpdates() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry house = entry(factory, "house", "ŋɔ̃", "maison de pierre");
+        LiftEntry stone = entry(factory, "stone", "kɔ", "pierre");
+
+        try (TextIndex index = new TextIndex(factory)) {
+            assertEquals(Set.of(house, stone), index.findTerm("Pierre", null, null));
+            assertEquals(Set.of(house), index.findTerm("ŋɔ̃", TextRole.HEADWORD, "tww"));
+            assertTrue(index.findTerm("pierre", TextRole.HEADWORD, null).isEmpty());
+            assertEquals(Set.of(house), index.findPrefix("mai", TextRole.GLOSS, "fr"));
+            assertEquals(Set.of(house), index.findPhrase("de pierre", null, null));
+            assertTrue(index.findPhrase("pierre de", null, null).isEmpty());
+            assertEquals(List.of("house"), index.searchIds("pierre mais"));
+            assertTrue(index.search("mais ").isEmpty());
+
+            stone.getSenses().get(0).getGloss().getForm("fr").get().changeText("caillou");
+            assertEquals(Set.of(house), index.findTerm("pierre", null, null));
+            assertEquals(Set.of(stone), index.search("cail"));
+
+            LiftEntry added = entry(factory, "wall", "bo", "mur de pierre");
+            assertEquals(Set.of(house, added), index.findPhrase("de pierre", TextRole.GLOSS, "fr"));
+            factory.removeEntry(house);
+            assertEquals(Set.of(added), index.findTerm("pierre", null, null));
+            assertTrue(index.findTerm("maison", null, null).isEmpty());
+        }
+    }
+
+    @Test
+    public void testBuiltFromSnapshot() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry house = entry(factory, "house", "ŋɔ̃", "maison de pierre");
+        List<ModelChange> pending = new ArrayList<>();
+        factory.getChangeBus().addListener(pending::addAll);
+        DictionarySnapshot snapshot = new SnapshotManager(factory).snapshot();
+
+        try (TextIndex index = new TextIndex(factory, snapshot, new TextFolding())) {
+            // Edits made after the snapshot are only seen once replayed
+            house.getSenses().get(0).getGloss().getForm("fr").get().changeText("case");
+            assertEquals(Set.of(house), index.findTerm("pierre", null, null));
+            index.replay(pending);
+            assertTrue(index.findTerm("pierre", null, null).isEmpty());
+            assertEquals(Set.of(house), index.findTerm("case", TextRole.GLOSS, "fr"));
+            // Then the index follows the dictionary
+            LiftEntry stone = entry(factory, "stone", "kɔ", "pierre");
+            assertEquals(Set.of(stone), index.findTerm("pierre", null, null));
+        }
+    }
+
+    @Test
+    public void testFoldedQueries() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry tone = entry(factory, "tone", "Ngɔ̀lá", "école");
+        TextFolding folding = new TextFolding();
+        folding.setStripDiacritics("tww", true);
+        folding.setEquivalences("tww", List.of(List.of("ŋ", "ng")));
+
+        try (TextIndex index = new TextIndex(factory, folding)) {
+            assertEquals(Set.of(tone), index.findTerm("ŋɔla", TextRole.HEADWORD, "tww"));
+            assertEquals(Set.of(tone), index.findSubstring("ŋɔl"));
+            // Accents are kept in French: "ecole" does not match, "École" in NFD does
+            assertTrue(index.findTerm("ecole", null, "fr").isEmpty());
+            assertEquals(Set.of(tone), index.search("E\u0301cole"));
+        }
+    }
+}
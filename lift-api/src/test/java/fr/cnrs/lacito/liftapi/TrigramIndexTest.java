@@ -0,0 +1,51 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import fr.cnrs.lacito.liftapi.index.TrigramIndex;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void testSubstringQueries() {
+        TrigramIndex<String> index = new TrigramIndex<>();
+        index.put("a", List.of("Maison", "kɔ-ŋɔ̃-la"));
+        index.put("b", "raisonnable");
+        index.put("c", "sonnette");
+
+        assertEquals(Set.of("a", "b"), index.find("ISON"));
+        assertEquals(Set.of("b", "c"), index.find("sonn"));
+        assertEquals(Set.of("a"), index.find("-ŋɔ̃-"));
+        assertEquals(Set.of("a", "b", "c"), index.find("s"));
+        assertTrue(index.find("maisonnette").isEmpty());
+
+        index.put("a", "poisson");
+        assertEquals(Set.of("b"), index.find("ison"));
+        assertEquals(Set.of("a"), index.find("oiss"));
+        index.remove("c");
+        assertEquals(Set.of("b"), index.find("sonn"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testCompaction() {
+        // Keys are compared by identity
+        Integer[] keys = new Integer[5000];
+        TrigramIndex<Integer> index = new TrigramIndex<>();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Integer.valueOf(i);
+            index.put(keys[i], "mot" + i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (i % 10 != 0) index.remove(keys[i]);
+        }
+        assertEquals(Set.of(120, 1200), index.find("ot120"));
+        assertEquals(500, index.find("mot").size());
+    }
+}
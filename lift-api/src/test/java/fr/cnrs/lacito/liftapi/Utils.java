@@ -5,6 +5,12 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.net.URL;
 
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.model.Form;
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+
 public class Utils {
 
     protected final static LiftDictionary loadDictionaryForTest(String file) {
@@ -23,5 +29,24 @@ public class Utils {
         }
         return lf;
     }
- 
+
+    /**
+     * @return a new entry of the factory, with the given id (none if null).
+     */
+    static LiftEntry entry(LiftFactory factory, String id) {
+        AttributesImpl attrs = new AttributesImpl();
+        if (id != null) attrs.addAttribute("", "id", "id", "CDATA", id);
+        return factory.createEntry(attrs);
+    }
+
+    /**
+     * @return a new entry with the given id (none if null), a form in "tww" and, unless the gloss is null,
+     * a sense glossed in "fr".
+     */
+    static LiftEntry entry(LiftFactory factory, String id, String form, String gloss) {
+        LiftEntry e = entry(factory, id);
+        e.getForms().add(new Form("tww", form));
+        if (gloss != null) factory.createSense(new AttributesImpl(), e).addGloss(new Form("fr", gloss));
+        return e;
+    }
 }
@@ -0,0 +1,106 @@
+package fr.cnrs.lacito.liftapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.cnrs.lacito.liftapi.model.LiftEntry;
+import fr.cnrs.lacito.liftapi.model.LiftFactory;
+import fr.cnrs.lacito.liftapi.model.LiftField;
+import fr.cnrs.lacito.liftapi.model.LiftHeader;
+import fr.cnrs.lacito.liftapi.model.LiftHeaderRange;
+import fr.cnrs.lacito.liftapi.model.LiftHeaderRangeElement;
+import fr.cnrs.lacito.liftapi.model.LiftSense;
+import fr.cnrs.lacito.liftapi.model.ModelChange;
+import fr.cnrs.lacito.liftapi.model.VocabularyRefactoring;
+import fr.cnrs.lacito.liftapi.model.VocabularyRefactoring.Vocabulary;
+
+public class VocabularyRefactoringTest {
+
+    private static LiftFactory loadFactory() {
+        LiftDictionary lf = Utils.loadDictionaryForTest("lift/tiny.xml");
+        return (LiftFactory) lf.getLiftDictionaryComponents();
+    }
+
+    @Test
+    public void testMergeTraitValuesAndUndo() {
+        LiftFactory factory = loadFactory();
+        LiftHeader header = factory.createHeader();
+        LiftHeaderRange range = factory.createRange("morph-type", header);
+        factory.createRangeElement("stem", range);
+        factory.createRangeElement("phrase", range);
+        Vocabulary morphType = Vocabulary.traitValues("morph-type");
+        try (VocabularyRefactoring refactoring = new VocabularyRefactoring(factory)) {
+            assertEquals(1, refactoring.countUses(morphType, "stem"));
+            assertEquals(1, refactoring.countUses(morphType, "phrase"));
+            List<List<ModelChange>> deliveries = new ArrayList<>();
+            factory.getChangeBus().addListener(changes -> deliveries.add(List.copyOf(changes)));
+
+            VocabularyRefactoring.Edit edit = refactoring.rename(morphType, "phrase", "stem");
+            assertEquals(1, edit.getUseCount());
+            assertEquals(1, deliveries.size());
+            assertEquals(2, refactoring.countUses(morphType, "stem"));
+            assertEquals(0, refactoring.countUses(morphType, "phrase"));
+            assertEquals(List.of("stem"), range.getRangeElements().stream().map(LiftHeaderRangeElement::getId).toList());
+
+            edit.undo();
+            assertEquals(2, deliveries.size());
+            assertEquals(1, refactoring.countUses(morphType, "phrase"));
+            assertEquals(List.of("stem", "phrase"), range.getRangeElements().stream().map(LiftHeaderRangeElement::getId).toList());
+        }
+    }
+
+    @Test
+    public void testRenameAndSplitGramInfo() {
+        LiftFactory factory = loadFactory();
+        try (VocabularyRefactoring refactoring = new VocabularyRefactoring(factory)) {
+            LiftSense noun = (LiftSense) refactoring.getUsers(Vocabulary.GRAM_INFO, "Noun").get(0);
+            refactoring.rename(Vocabulary.GRAM_INFO, "Noun", "N");
+            assertEquals("N", noun.getGrammaticalInfo().get().getValue());
+            assertTrue(refactoring.getUseCounts(Vocabulary.GRAM_INFO).containsKey("N"));
+
+            // Changes made outside the refactoring are followed
+            noun.setGrammaticalInfo("Verb");
+            assertEquals(0, refactoring.countUses(Vocabulary.GRAM_INFO, "N"));
+            refactoring.split(Vocabulary.GRAM_INFO, "Verb", s -> s == noun ? "V" : null);
+            assertEquals(List.of(noun), refactoring.getUsers(Vocabulary.GRAM_INFO, "V"));
+        }
+    }
+
+    @Test
+    public void testRemovedObjectsLeaveTheIndex() {
+        LiftFactory factory = new LiftFactory();
+        LiftEntry a = factory.createEntry(new AttributesImpl());
+        LiftEntry b = factory.createEntry(new AttributesImpl());
+        LiftField first = factory.createField("literal-meaning", a);
+        factory.createField("summary", a);
+        factory.createField("literal-meaning", b);
+        factory.createNote("general", b);
+        factory.createTrait("morph-type", "stem", b);
+        Vocabulary morphType = Vocabulary.traitValues("morph-type");
+        try (VocabularyRefactoring refactoring = new VocabularyRefactoring(factory)) {
+            assertEquals(2, refactoring.countUses(Vocabulary.FIELD_TYPES, "literal-meaning"));
+            factory.removeField(first);
+            assertEquals(1, refactoring.countUses(Vocabulary.FIELD_TYPES, "literal-meaning"));
+            assertEquals(1, refactoring.countUses(Vocabulary.FIELD_TYPES, "summary"));
+
+            int index = factory.removeEntry(b);
+            assertEquals(0, refactoring.countUses(Vocabulary.FIELD_TYPES, "literal-meaning"));
+            assertEquals(0, refactoring.countUses(Vocabulary.NOTE_TYPES, "general"));
+            assertEquals(0, refactoring.countUses(morphType, "stem"));
+
+            factory.restoreEntry(b, index);
+            assertEquals(1, refactoring.countUses(Vocabulary.NOTE_TYPES, "general"));
+            assertEquals(1, refactoring.countUses(morphType, "stem"));
+
+            // Notes created after the index was built are followed
+            factory.createNote("general", a);
+            assertEquals(2, refactoring.countUses(Vocabulary.NOTE_TYPES, "general"));
+        }
+    }
+}
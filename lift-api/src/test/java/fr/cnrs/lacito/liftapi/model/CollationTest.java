@@ -0,0 +1,54 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CollationTest {
+
+    private static List<String> sorted(Collation collation, String lang, String... texts) {
+        List<String> list = new ArrayList<>(List.of(texts));
+        list.sort(Comparator.comparing((String t) -> collation.sortKey(lang, t), Collation::compareKeys));
+        return list;
+    }
+
+    @Test
+    public void testLanguageRules() {
+        Collation collation = new Collation();
+        // Locale order by default: case and accents only break ties
+        assertEquals(List.of("cote", "Côte", "coter"), sorted(collation, "fr", "coter", "Côte", "cote"));
+
+        collation.setRules("tww", "ignore: ˥ ˩\na A\nb\nc\nch\nd\nŋ\ne");
+        assertEquals(List.of("ca", "cza", "cha", "da", "ŋa", "ea"), sorted(collation, "tww", "da", "cha", "cza", "ŋa", "ea", "ca"));
+        assertEquals(List.of("ba", "ba˩", "bab"), sorted(collation, "tww", "bab", "ba˩", "ba"));
+        assertEquals(List.of("cote", "Côte", "coter"), sorted(collation, "fr", "coter", "Côte", "cote"));
+    }
+
+    @Test
+    public void testHeaderAndFormCache() {
+        LiftFactory factory = new LiftFactory();
+        LiftHeader header = factory.createHeader();
+        Collation collation = new Collation();
+        collation.setRules("tww", "a\nch\nc");
+        collation.storeInHeader(factory, header, "tww");
+
+        Collation loaded = new Collation();
+        loaded.loadFromHeader(header);
+        assertEquals(collation.getAllRules(), loaded.getAllRules());
+        assertTrue(Collation.compareKeys(loaded.sortKey("tww", "cha"), loaded.sortKey("tww", "ca")) < 0);
+
+        Form form = new Form("tww", "cha");
+        byte[] key = form.getSortKey(loaded);
+        assertSame(key, form.getSortKey(loaded));
+        form.changeText("ca");
+        assertNotSame(key, form.getSortKey(loaded));
+        assertTrue(Collation.compareKeys(key, form.getSortKey(loaded)) < 0);
+    }
+}
@@ -0,0 +1,41 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TextArenaTest {
+
+    @Test
+    public void testPlainFormsMoveOffHeap() {
+        TextArena arena = new TextArena(4096);
+        Form plain = new Form("fr", "pâté chinois");
+        String serialized = plain.toString();
+        assertTrue(plain.moveToArena(arena));
+        assertTrue(plain.isOffHeap());
+        assertEquals("pâté chinois", plain.toPlainText());
+        assertEquals(serialized, plain.toString());
+        assertEquals(1, plain.readTextSpanRoot().getInnerContent().size());
+        assertTrue(plain.isOffHeap());
+
+        // The span tree handed out for editing is the form's own: it leaves the arena
+        TextSpan root = plain.getTextSpanRoot();
+        assertFalse(plain.isOffHeap());
+        root.addSpan(new TextSpan(" maison"));
+        assertEquals("pâté chinois maison", plain.toPlainText());
+
+        assertTrue(plain.moveToArena(arena));
+        plain.changeText("tourtière");
+        assertFalse(plain.isOffHeap());
+        assertEquals("tourtière", plain.toPlainText());
+    }
+
+    @Test
+    public void testFormsWithSpansStayOnHeap() {
+        Form rich = new Form("fr", "Bonjour <span lang=\"en\">Hello</span>");
+        assertFalse(rich.moveToArena(new TextArena(4096)));
+        assertEquals("Bonjour Hello", rich.toPlainText());
+    }
+}
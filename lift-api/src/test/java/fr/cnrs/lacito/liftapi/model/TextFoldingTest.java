@@ -0,0 +1,40 @@
+package fr.cnrs.lacito.liftapi.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class TextFoldingTest {
+
+    @Test
+    public void testFoldingRules() {
+        TextFolding folding = new TextFolding();
+        // NFC and NFD inputs give the same key; accents are kept by default
+        assertEquals(folding.fold("fr", "\u00C9cole"), folding.fold("fr", "E\u0301cole"));
+        assertEquals("e\u0301cole", folding.fold("fr", "\u00C9cole"));
+
+        folding.setStripDiacritics("tww", true);
+        folding.setEquivalences("tww", List.of(List.of("ŋ", "ng")));
+        assertEquals("ŋɔŋa", folding.fold("tww", "Ngɔ̀ŋá"));
+        assertEquals("e\u0301cole", folding.fold("fr", "\u00C9cole"));
+
+        folding.setStripDiacritics(null, true);
+        assertEquals("ecole", folding.fold("fr", "École"));
+    }
+
+    @Test
+    public void testFormCache() {
+        TextFolding folding = new TextFolding();
+        Form form = new Form("tww", "Mbɔ̀");
+        String key = form.getFoldedText(folding);
+        assertSame(key, form.getFoldedText(folding));
+
+        form.changeText("Kɔ̀");
+        assertEquals("kɔ̀", form.getFoldedText(folding));
+        folding.setStripDiacritics("tww", true);
+        assertEquals("kɔ", form.getFoldedText(folding));
+    }
+}